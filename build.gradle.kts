@@ -13,6 +13,20 @@ repositories {
 
 }
 
+// Benchmarks live in their own source set so they never end up in the published artifacts.
+val jmh: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output
+    runtimeClasspath += sourceSets.main.get().output
+}
+
+configurations[jmh.implementationConfigurationName].extendsFrom(configurations.implementation.get())
+configurations[jmh.runtimeOnlyConfigurationName].extendsFrom(configurations.runtimeOnly.get())
+
+// Named parameter binding benchmarks need the parameter names of the benchmark interfaces.
+tasks.named<JavaCompile>(jmh.compileJavaTaskName) {
+    options.compilerArgs.add("-parameters")
+}
+
 dependencies {
     api("com.google.code.gson:gson:2.10.1")
     implementation("org.slf4j:slf4j-api:2.0.6")
@@ -31,6 +45,9 @@ dependencies {
     testImplementation("org.junit.jupiter:junit-jupiter-api:5.9.2")
     testImplementation("org.mockito:mockito-core:5.1.1")
     testRuntimeOnly("org.junit.jupiter:junit-jupiter-engine:5.9.2")
+
+    "jmhImplementation"("org.openjdk.jmh:jmh-core:1.36")
+    "jmhAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:1.36")
 }
 
 tasks.withType<Javadoc> {
@@ -50,6 +67,20 @@ tasks.test {
     useJUnitPlatform()
 }
 
+// Usage: ./gradlew jmh [-Pjmh.include=<regex>] [-Pjmh.prof=<profiler>]
+// The GC profiler is enabled by default so allocation regressions show up next to throughput; pass -Pjmh.prof= to disable it.
+tasks.register<JavaExec>("jmh") {
+    group = "benchmark"
+    description = "Runs the JMH benchmarks."
+    classpath = jmh.runtimeClasspath
+    mainClass.set("org.openjdk.jmh.Main")
+    args(project.findProperty("jmh.include")?.toString() ?: ".*")
+    val profiler = project.findProperty("jmh.prof")?.toString() ?: "gc"
+    if (profiler.isNotEmpty()) {
+        args("-prof", profiler)
+    }
+}
+
 // We support "reproducible builds" to ensure that everyone can review and trust this project!
 tasks.withType<AbstractArchiveTask>().configureEach {
     isPreserveFileTimestamps = false
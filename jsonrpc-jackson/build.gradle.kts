@@ -0,0 +1,99 @@
+plugins {
+    `java-library`
+    `maven-publish`
+}
+
+group = "net.lamgc"
+version = rootProject.version
+
+repositories {
+    mavenCentral()
+}
+
+// Benchmarks live in their own source set so they never end up in the published artifacts.
+val jmh: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output
+    runtimeClasspath += sourceSets.main.get().output
+}
+
+configurations[jmh.implementationConfigurationName].extendsFrom(configurations.implementation.get())
+configurations[jmh.runtimeOnlyConfigurationName].extendsFrom(configurations.runtimeOnly.get())
+
+dependencies {
+    api(rootProject)
+    api("com.fasterxml.jackson.core:jackson-databind:2.16.1")
+    implementation("org.slf4j:slf4j-api:2.0.6")
+
+    testRuntimeOnly("ch.qos.logback:logback-classic:1.3.3")
+    testImplementation("org.junit.jupiter:junit-jupiter-api:5.9.2")
+    testRuntimeOnly("org.junit.jupiter:junit-jupiter-engine:5.9.2")
+
+    "jmhImplementation"(rootProject)
+    "jmhImplementation"("com.fasterxml.jackson.core:jackson-databind:2.16.1")
+    "jmhImplementation"("org.openjdk.jmh:jmh-core:1.36")
+    "jmhAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:1.36")
+}
+
+tasks.withType<Javadoc> {
+    options {
+        encoding = "UTF-8"
+    }
+}
+
+java {
+    withJavadocJar()
+    withSourcesJar()
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+tasks.test {
+    useJUnitPlatform()
+}
+
+// Usage: ./gradlew :jsonrpc-jackson:jmh [-Pjmh.include=<regex>] [-Pjmh.prof=<profiler>]
+tasks.register<JavaExec>("jmh") {
+    group = "benchmark"
+    description = "Runs the JMH benchmarks."
+    classpath = jmh.runtimeClasspath
+    mainClass.set("org.openjdk.jmh.Main")
+    args(project.findProperty("jmh.include")?.toString() ?: ".*")
+    val profiler = project.findProperty("jmh.prof")?.toString() ?: "gc"
+    if (profiler.isNotEmpty()) {
+        args("-prof", profiler)
+    }
+}
+
+tasks.withType<AbstractArchiveTask>().configureEach {
+    isPreserveFileTimestamps = false
+    isReproducibleFileOrder = true
+}
+
+publishing {
+    repositories {
+        maven("https://git.lamgc.me/api/packages/LamGC/maven") {
+            credentials {
+                username = project.properties["repo.credentials.self-git.username"].toString()
+                password = project.properties["repo.credentials.self-git.password"].toString()
+            }
+        }
+    }
+
+    publications {
+        create<MavenPublication>("maven") {
+            from(components["java"])
+
+            pom {
+                name.set("jsonrpc-java-jackson")
+                description.set("Jackson based serializers for jsonrpc-java.")
+                url.set("https://github.com/LamGC/jsonrpc-java")
+                licenses {
+                    license {
+                        name.set("Apache License 2.0")
+                        url.set("https://www.apache.org/licenses/LICENSE-2.0")
+                    }
+                }
+            }
+        }
+    }
+}
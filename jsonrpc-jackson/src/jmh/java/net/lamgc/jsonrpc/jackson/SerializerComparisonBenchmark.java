@@ -0,0 +1,183 @@
+package net.lamgc.jsonrpc.jackson;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.stream.JsonWriter;
+import net.lamgc.jsonrpc.JsonRpcRequest;
+import net.lamgc.jsonrpc.JsonRpcResponse;
+import net.lamgc.jsonrpc.JsonRpcUtils;
+import net.lamgc.jsonrpc.MethodPlan;
+import net.lamgc.jsonrpc.serializer.GsonParameterDeserializer;
+import net.lamgc.jsonrpc.serializer.GsonReturnValueSerializer;
+import net.lamgc.jsonrpc.serializer.json.JsonRpcResponseWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 在相同负载下比较 Gson 与 Jackson 实现的开销.
+ * <p>
+ * decodeRequest 从 UTF-8 字节解析请求报文并绑定方法参数, encodeResponse 将方法返回值连同响应报文写出为 UTF-8 字节.
+ * 两种实现都经过相同的 {@link JsonRpcRequest}, 返回值都直接流式写出而不构造 {@link JsonRpcResponse}, 负载与根项目的基准测试相同.
+ * writeReturnValue 通过 {@link net.lamgc.jsonrpc.serializer.ReturnValueSerializer} 将返回值写入 Gson 的 JsonWriter,
+ * 即 {@link net.lamgc.jsonrpc.JsonRpcExecutor} 写出响应时的路径.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializerComparisonBenchmark {
+
+    @Param({"gson", "jackson"})
+    public String implementation;
+
+    @Param({"small", "medium", "large"})
+    public String size;
+
+    private Gson gson;
+    private GsonParameterDeserializer gsonDeserializer;
+    private GsonReturnValueSerializer gsonSerializer;
+    private JsonRpcResponseWriter gsonResponseWriter;
+
+    private ObjectMapper mapper;
+    private JacksonJsonRpcRequestSerializer jacksonRequestSerializer;
+    private JacksonJsonRpcResponseSerializer jacksonResponseSerializer;
+    private JacksonParameterDeserializer jacksonDeserializer;
+    private JacksonReturnValueSerializer jacksonSerializer;
+
+    private MethodPlan plan;
+    private byte[] requestBytes;
+    private List<Item> result;
+    private JsonPrimitive id;
+
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        gson = JsonRpcUtils.createGsonForJsonRpc();
+        gsonDeserializer = new GsonParameterDeserializer(gson);
+        gsonSerializer = new GsonReturnValueSerializer(gson);
+        gsonResponseWriter = new JsonRpcResponseWriter(gson);
+
+        // 与 Gson 一样直接读写字段.
+        mapper = new ObjectMapper().setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
+        jacksonRequestSerializer = new JacksonJsonRpcRequestSerializer();
+        jacksonResponseSerializer = new JacksonJsonRpcResponseSerializer(mapper);
+        jacksonDeserializer = new JacksonParameterDeserializer(mapper);
+        jacksonSerializer = new JacksonReturnValueSerializer(mapper);
+
+        plan = MethodPlan.of(PayloadService.class.getMethod("echo", List.class, String.class));
+        result = items(size);
+        id = new JsonPrimitive(1);
+        JsonArray params = new JsonArray();
+        params.add(gson.toJsonTree(result));
+        params.add("tag");
+        requestBytes = gson.toJson(new JsonRpcRequest("echo", params, id)).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public Object[] decodeRequest() throws Exception {
+        JsonRpcRequest request;
+        if ("gson".equals(implementation)) {
+            request = gson.fromJson(new InputStreamReader(
+                    new ByteArrayInputStream(requestBytes), StandardCharsets.UTF_8), JsonRpcRequest.class);
+            return gsonDeserializer.deserializer(plan, request);
+        }
+        try (JsonParser parser = mapper.getFactory().createParser(requestBytes)) {
+            request = jacksonRequestSerializer.read(parser);
+        }
+        return jacksonDeserializer.deserializer(plan, request);
+    }
+
+    @Benchmark
+    public byte[] encodeResponse() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if ("gson".equals(implementation)) {
+            JsonWriter writer = gson.newJsonWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            gsonResponseWriter.writeResult(id, resultWriter -> gsonSerializer.serializer(plan, result, resultWriter), writer);
+            writer.flush();
+        } else {
+            try (JsonGenerator generator = mapper.getFactory().createGenerator(out)) {
+                jacksonResponseSerializer.writeResult(id, result, generator);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] writeReturnValue() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JsonWriter writer = gson.newJsonWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if ("gson".equals(implementation)) {
+            gsonSerializer.serializer(plan, result, writer);
+        } else {
+            jacksonSerializer.serializer(plan, result, writer);
+        }
+        writer.flush();
+        return out.toByteArray();
+    }
+
+    /**
+     * 与根项目基准测试相同的负载, 参见根项目的 BenchmarkPayloads.
+     */
+    static List<Item> items(String size) {
+        int count;
+        switch (size) {
+            case "small":
+                count = 1;
+                break;
+            case "medium":
+                count = 64;
+                break;
+            case "large":
+                count = 4096;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown payload size: " + size);
+        }
+        List<Item> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Item item = new Item();
+            item.id = i;
+            item.name = "item-" + i;
+            item.tags = Arrays.asList("alpha", "beta", "tag-" + (i % 16));
+            item.metrics = new LinkedHashMap<>();
+            item.metrics.put("score", i * 0.5);
+            item.metrics.put("weight", i * 1.25);
+            items.add(item);
+        }
+        return items;
+    }
+
+    public static class Item {
+
+        private int id;
+        private String name;
+        private List<String> tags;
+        private Map<String, Double> metrics;
+
+    }
+
+    public interface PayloadService {
+
+        List<Item> echo(List<Item> items, String tag);
+
+    }
+
+}
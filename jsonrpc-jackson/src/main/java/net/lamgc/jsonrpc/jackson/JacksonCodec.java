@@ -0,0 +1,104 @@
+package net.lamgc.jsonrpc.jackson;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import net.lamgc.jsonrpc.codec.JsonRpcCodec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Objects;
+
+/**
+ * 基于 Jackson 流式 API ({@link JsonFactory}) 的编码格式.
+ * <p>
+ * 默认使用 JSON, 名称为 "jackson-json"; 由于媒体类型与内置的 JSON 编码格式相同,
+ * {@link net.lamgc.jsonrpc.codec.JsonRpcCodecs#forContentType(String)} 依然会优先返回内置的编码格式,
+ * 需要通过传输方式的 codec 选项显式指定.
+ * <p>
+ * 通过传入其他数据格式的 JsonFactory (例如 jackson-dataformat-smile 或 jackson-dataformat-msgpack 提供的实现),
+ * 也可以使用对应的二进制编码格式.
+ */
+public final class JacksonCodec implements JsonRpcCodec {
+
+    private final JsonFactory factory;
+    private final String name;
+    private final String contentType;
+
+    /**
+     * 构造一个使用 JSON 的编码格式.
+     */
+    public JacksonCodec() {
+        this(new JsonFactory(), "jackson-json", "application/json");
+    }
+
+    /**
+     * 构造一个使用指定数据格式的编码格式.
+     *
+     * @param factory     数据格式对应的 JsonFactory.
+     * @param name        编码格式的名称.
+     * @param contentType 编码格式对应的媒体类型.
+     */
+    public JacksonCodec(JsonFactory factory, String name, String contentType) {
+        this.factory = Objects.requireNonNull(factory);
+        this.name = Objects.requireNonNull(name);
+        this.contentType = Objects.requireNonNull(contentType);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public boolean isBinary() {
+        return factory.canHandleBinaryNatively();
+    }
+
+    @Override
+    public void encode(JsonElement element, OutputStream out) throws IOException {
+        try (JsonGenerator generator = factory.createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            JacksonJsonElements.write(element, generator);
+        }
+    }
+
+    @Override
+    public JsonElement decode(InputStream in) throws IOException {
+        try (JsonParser parser = factory.createParser(in)) {
+            parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+            JsonElement element = JacksonJsonElements.read(parser);
+            JsonToken trailing = parser.nextToken();
+            if (trailing != null) {
+                throw new JsonParseException("Unexpected trailing token: " + trailing);
+            }
+            return element;
+        } catch (JsonProcessingException e) {
+            throw new JsonParseException(e.getOriginalMessage(), e);
+        }
+    }
+
+    /**
+     * 获取使用的 JsonFactory.
+     *
+     * @return 返回使用的 JsonFactory.
+     */
+    public JsonFactory getFactory() {
+        return factory;
+    }
+
+    @Override
+    public String toString() {
+        return "JacksonCodec{" + name + '}';
+    }
+}
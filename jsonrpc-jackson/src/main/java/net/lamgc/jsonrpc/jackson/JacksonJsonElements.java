@@ -0,0 +1,262 @@
+package net.lamgc.jsonrpc.jackson;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.stream.JsonWriter;
+import net.lamgc.jsonrpc.JsonRpcUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Base64;
+import java.util.Map;
+
+/**
+ * 在 Gson 的 {@link JsonElement} 与 Jackson 的流式 API 之间转换.
+ * <p>
+ * JsonRpc 报文中的参数和结果以 {@link JsonElement} 表示, 该工具类用于在不经过字符串的情况下,
+ * 将 Jackson 读取到的数据转换为 JsonElement, 或将 JsonElement 写入 Jackson 的 {@link JsonGenerator}.
+ */
+public final class JacksonJsonElements {
+
+    private JacksonJsonElements() {
+        throw new RuntimeException("The class does not allow instantiation.");
+    }
+
+    /**
+     * 从 JsonParser 中读取一个值.
+     * <p>
+     * 如果 parser 尚未读取任何 Token, 将先读取下一个 Token; 返回时 parser 位于该值的最后一个 Token 上.
+     * 整数将按大小转换为 Integer, Long 或 BigInteger, 小数将转换为 Double (超出精度时为 BigDecimal).
+     *
+     * @param parser 位于值的第一个 Token 上 (或尚未开始读取) 的 JsonParser.
+     * @return 返回读取到的值.
+     * @throws IOException        当读取失败时抛出.
+     * @throws JsonParseException 当没有可读取的值时抛出.
+     */
+    public static JsonElement read(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == null) {
+            token = parser.nextToken();
+            if (token == null) {
+                throw new JsonParseException("Unexpected end of input.");
+            }
+        }
+        switch (token) {
+            case START_OBJECT:
+                JsonObject object = new JsonObject();
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String name = parser.currentName();
+                    parser.nextToken();
+                    object.add(name, read(parser));
+                }
+                return object;
+            case START_ARRAY:
+                JsonArray array = new JsonArray();
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    array.add(read(parser));
+                }
+                return array;
+            case VALUE_STRING:
+                return new JsonPrimitive(parser.getText());
+            case VALUE_NUMBER_INT:
+                return new JsonPrimitive(parser.getNumberValue());
+            case VALUE_NUMBER_FLOAT:
+                if (parser.getNumberType() == JsonParser.NumberType.BIG_DECIMAL) {
+                    return new JsonPrimitive(parser.getDecimalValue());
+                }
+                return new JsonPrimitive(parser.getDoubleValue());
+            case VALUE_TRUE:
+                return new JsonPrimitive(true);
+            case VALUE_FALSE:
+                return new JsonPrimitive(false);
+            case VALUE_NULL:
+                return JsonNull.INSTANCE;
+            case VALUE_EMBEDDED_OBJECT:
+                Object embedded = parser.getEmbeddedObject();
+                if (embedded == null) {
+                    return JsonNull.INSTANCE;
+                } else if (embedded instanceof byte[]) {
+                    // 与 Jackson 写出二进制数据时使用的默认 Base64 变体一致.
+                    return new JsonPrimitive(Base64.getEncoder().encodeToString((byte[]) embedded));
+                }
+                throw new JsonParseException("Unsupported embedded object: " + embedded.getClass().getName());
+            default:
+                throw new JsonParseException("Unexpected token: " + token);
+        }
+    }
+
+    /**
+     * 将 JsonElement 写入 JsonGenerator.
+     *
+     * @param element 需要写出的值, 为 null 时写出 JSON 的 null.
+     * @param generator 目标 JsonGenerator.
+     * @throws IOException 当写出失败时抛出.
+     */
+    public static void write(JsonElement element, JsonGenerator generator) throws IOException {
+        if (element == null || element.isJsonNull()) {
+            generator.writeNull();
+        } else if (element.isJsonObject()) {
+            generator.writeStartObject();
+            for (Map.Entry<String, JsonElement> entry : element.getAsJsonObject().entrySet()) {
+                generator.writeFieldName(entry.getKey());
+                write(entry.getValue(), generator);
+            }
+            generator.writeEndObject();
+        } else if (element.isJsonArray()) {
+            JsonArray array = element.getAsJsonArray();
+            generator.writeStartArray(array, array.size());
+            for (JsonElement item : array) {
+                write(item, generator);
+            }
+            generator.writeEndArray();
+        } else {
+            JsonPrimitive primitive = element.getAsJsonPrimitive();
+            if (primitive.isBoolean()) {
+                generator.writeBoolean(primitive.getAsBoolean());
+            } else if (primitive.isString()) {
+                generator.writeString(primitive.getAsString());
+            } else {
+                writeNumber(primitive.getAsNumber(), generator);
+            }
+        }
+    }
+
+    private static void writeNumber(Number number, JsonGenerator generator) throws IOException {
+        if (number instanceof Integer || number instanceof Short || number instanceof Byte) {
+            generator.writeNumber(number.intValue());
+        } else if (number instanceof Long) {
+            generator.writeNumber(number.longValue());
+        } else if (number instanceof Double) {
+            generator.writeNumber(number.doubleValue());
+        } else if (number instanceof Float) {
+            generator.writeNumber(number.floatValue());
+        } else if (number instanceof BigInteger) {
+            generator.writeNumber((BigInteger) number);
+        } else if (number instanceof BigDecimal) {
+            generator.writeNumber((BigDecimal) number);
+        } else {
+            // Gson 解析得到的数字 (LazilyParsedNumber) 保留了原始文本, 整数按整数写出, 小数直接写出原始文本以免损失精度.
+            String text = number.toString();
+            if (!isIntegerText(text)) {
+                generator.writeNumber(text);
+            } else if (text.length() <= 18) {
+                generator.writeNumber(Long.parseLong(text));
+            } else {
+                generator.writeNumber(new BigInteger(text));
+            }
+        }
+    }
+
+    private static boolean isIntegerText(String text) {
+        int start = text.startsWith("-") ? 1 : 0;
+        if (start == text.length()) {
+            return false;
+        }
+        for (int i = start; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 将 JsonParser 中的一个值复制到 Gson 的 JsonWriter.
+     * <p>
+     * 用于将 Jackson 序列化的结果直接写入 JsonRpc 响应, 而不构造中间的 {@link JsonElement}.
+     *
+     * @param parser 位于值的第一个 Token 上 (或尚未开始读取) 的 JsonParser.
+     * @param writer 目标 JsonWriter.
+     * @throws IOException 当读取或写出失败时抛出.
+     */
+    public static void copy(JsonParser parser, JsonWriter writer) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == null) {
+            token = parser.nextToken();
+            if (token == null) {
+                throw new JsonParseException("Unexpected end of input.");
+            }
+        }
+        int depth = 0;
+        do {
+            switch (token) {
+                case START_OBJECT:
+                    writer.beginObject();
+                    depth++;
+                    break;
+                case END_OBJECT:
+                    writer.endObject();
+                    depth--;
+                    break;
+                case START_ARRAY:
+                    writer.beginArray();
+                    depth++;
+                    break;
+                case END_ARRAY:
+                    writer.endArray();
+                    depth--;
+                    break;
+                case FIELD_NAME:
+                    writer.name(parser.currentName());
+                    break;
+                case VALUE_STRING:
+                    writer.value(parser.getText());
+                    break;
+                case VALUE_NUMBER_INT:
+                case VALUE_NUMBER_FLOAT:
+                    writer.value(parser.getNumberValue());
+                    break;
+                case VALUE_TRUE:
+                    writer.value(true);
+                    break;
+                case VALUE_FALSE:
+                    writer.value(false);
+                    break;
+                case VALUE_NULL:
+                    writer.nullValue();
+                    break;
+                default:
+                    JsonRpcUtils.writeJsonElement(read(parser), writer);
+                    break;
+            }
+            if (depth == 0) {
+                return;
+            }
+            token = parser.nextToken();
+        } while (token != null);
+        throw new JsonParseException("Unexpected end of input.");
+    }
+
+    /**
+     * 将 JsonElement 转换为 ObjectReader 对应类型的对象.
+     */
+    static Object convert(JsonElement element, ObjectReader reader) throws IOException {
+        TokenBuffer buffer = new TokenBuffer(reader, false);
+        write(element, buffer);
+        try (JsonParser parser = buffer.asParserOnFirstToken()) {
+            return reader.readValue(parser);
+        }
+    }
+
+    /**
+     * 使用 ObjectWriter 序列化对象, 返回可以读取序列化结果的 JsonParser.
+     */
+    static JsonParser serialize(Object value, ObjectWriter writer) throws IOException {
+        TokenBuffer buffer = new TokenBuffer(null, false);
+        writer.writeValue(buffer, value);
+        return buffer.asParserOnFirstToken();
+    }
+
+}
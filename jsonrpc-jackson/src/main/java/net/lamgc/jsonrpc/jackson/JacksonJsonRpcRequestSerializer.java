@@ -0,0 +1,121 @@
+package net.lamgc.jsonrpc.jackson;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonPrimitive;
+import net.lamgc.jsonrpc.JsonRpcRequest;
+import net.lamgc.jsonrpc.JsonRpcUtils;
+
+import java.io.IOException;
+
+import static net.lamgc.jsonrpc.JsonRpcConst.*;
+
+/**
+ * 使用 Jackson 流式 API 读写 {@link JsonRpcRequest}.
+ * <p>
+ * 校验规则与 {@link net.lamgc.jsonrpc.serializer.json.JsonRpcRequestSerializer} 一致,
+ * 报文不合法时同样抛出 {@link JsonParseException}. 字段可以以任意顺序出现, 未知字段将被忽略.
+ * <p>
+ * 该类是无状态的, 可以在多个线程中共用.
+ */
+public class JacksonJsonRpcRequestSerializer {
+
+    /**
+     * 从 JsonParser 中读取一个请求对象.
+     *
+     * @param parser 位于请求对象的起始 Token 上 (或尚未开始读取) 的 JsonParser, 返回时位于请求对象的结束 Token 上.
+     * @return 返回读取到的请求.
+     * @throws IOException        当读取失败时抛出.
+     * @throws JsonParseException 当请求不合法时抛出.
+     */
+    public JsonRpcRequest read(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken() == null ? parser.nextToken() : parser.currentToken();
+        if (token != JsonToken.START_OBJECT) {
+            throw new JsonParseException("The request must be a JsonObject.");
+        }
+
+        boolean hasVersion = false;
+        String method = null;
+        boolean hasMethod = false;
+        JsonElement params = null;
+        JsonPrimitive id = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (name) {
+                case JSON_RPC_VERSION_FIELD:
+                    if (!value.isScalarValue() || value == JsonToken.VALUE_NULL) {
+                        throw new JsonParseException("The specification version number field must be a JsonPrimitive.");
+                    } else if (!JSON_RPC_VERSION_VALUE.equals(parser.getText())) {
+                        throw new JsonParseException("Unsupported JsonRpc specification version: " + parser.getText());
+                    }
+                    hasVersion = true;
+                    break;
+                case JSON_RPC_REQUEST_METHOD_FIELD:
+                    if (value != JsonToken.VALUE_STRING) {
+                        throw new JsonParseException("The method name field must be a string.");
+                    }
+                    method = parser.getText();
+                    hasMethod = true;
+                    break;
+                case JSON_RPC_REQUEST_PARAMS_FIELD:
+                    if (value == JsonToken.VALUE_NULL) {
+                        params = null;
+                    } else if (value == JsonToken.START_ARRAY || value == JsonToken.START_OBJECT) {
+                        params = JacksonJsonElements.read(parser);
+                    } else {
+                        throw new JsonParseException("The JSON has an params field, " +
+                                "but the value of the field is not the correct type: " + value);
+                    }
+                    break;
+                case JSON_RPC_ID_FIELD:
+                    if (value == JsonToken.VALUE_STRING || value == JsonToken.VALUE_NUMBER_INT
+                            || value == JsonToken.VALUE_NUMBER_FLOAT) {
+                        id = JacksonJsonElements.read(parser).getAsJsonPrimitive();
+                    } else {
+                        throw new JsonParseException("The JSON has an id field, " +
+                                "but the value of the field is not the correct type: " + value);
+                    }
+                    break;
+                default:
+                    parser.skipChildren();
+                    break;
+            }
+        }
+
+        if (!hasVersion) {
+            throw new JsonParseException("The specification version number field is missing.");
+        } else if (!hasMethod) {
+            throw new JsonParseException("The method field is missing");
+        }
+        return new JsonRpcRequest(method, params, id);
+    }
+
+    /**
+     * 将请求对象写入 JsonGenerator.
+     *
+     * @param request   需要写出的请求.
+     * @param generator 目标 JsonGenerator.
+     * @throws IOException              当写出失败时抛出.
+     * @throws IllegalArgumentException 当请求不合法时抛出.
+     */
+    public void write(JsonRpcRequest request, JsonGenerator generator) throws IOException {
+        JsonRpcUtils.validateRequest(request);
+        generator.writeStartObject();
+        generator.writeStringField(JSON_RPC_VERSION_FIELD, JSON_RPC_VERSION_VALUE);
+        generator.writeStringField(JSON_RPC_REQUEST_METHOD_FIELD, request.getMethod());
+        if (request.getParams() != null) {
+            generator.writeFieldName(JSON_RPC_REQUEST_PARAMS_FIELD);
+            JacksonJsonElements.write(request.getParams(), generator);
+        }
+        if (request.getId() != null) {
+            generator.writeFieldName(JSON_RPC_ID_FIELD);
+            JacksonJsonElements.write(request.getId(), generator);
+        }
+        generator.writeEndObject();
+    }
+
+}
@@ -0,0 +1,214 @@
+package net.lamgc.jsonrpc.jackson;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonParseException;
+import net.lamgc.jsonrpc.JsonRpcError;
+import net.lamgc.jsonrpc.JsonRpcResponse;
+
+import java.io.IOException;
+import java.util.Objects;
+
+import static net.lamgc.jsonrpc.JsonRpcConst.*;
+
+/**
+ * 使用 Jackson 流式 API 读写 {@link JsonRpcResponse}.
+ * <p>
+ * 校验规则与 {@link net.lamgc.jsonrpc.serializer.json.JsonRpcResponseSerializer} 一致,
+ * 报文不合法时同样抛出 {@link JsonParseException}.
+ * <p>
+ * 写出时, 类型为 {@link JsonElement} 的错误附加数据将按原样写出, 其他对象将交由 {@link ObjectMapper} 序列化;
+ * 通过 {@link #writeResult(JsonElement, Object, JsonGenerator)} 可以直接写出方法返回值, 而不必先将其转换为 JsonElement.
+ * 读取时, 结果和错误对象的附加数据都将读取为 JsonElement.
+ */
+public class JacksonJsonRpcResponseSerializer {
+
+    private final ObjectMapper mapper;
+
+    /**
+     * 构造一个响应序列化器.
+     *
+     * @param mapper 用于序列化非 JsonElement 结果及附加数据的 ObjectMapper.
+     */
+    public JacksonJsonRpcResponseSerializer(ObjectMapper mapper) {
+        this.mapper = Objects.requireNonNull(mapper);
+    }
+
+    /**
+     * 将响应对象写入 JsonGenerator.
+     * <p>
+     * 与 {@link net.lamgc.jsonrpc.serializer.json.JsonRpcResponseSerializer} 一样, id 为 null 的响应不会写出 id 字段.
+     *
+     * @param response  需要写出的响应.
+     * @param generator 目标 JsonGenerator.
+     * @throws IOException              当写出失败时抛出.
+     * @throws IllegalArgumentException 当 id 为 JsonArray 或 JsonObject 时抛出.
+     */
+    public void write(JsonRpcResponse response, JsonGenerator generator) throws IOException {
+        JsonElement id = response.getId();
+        if (id != null && !id.isJsonNull() && !id.isJsonPrimitive()) {
+            throw new IllegalArgumentException("The id field does not support the structure type (JsonArray or JsonObject).");
+        }
+
+        generator.writeStartObject();
+        generator.writeStringField(JSON_RPC_VERSION_FIELD, JSON_RPC_VERSION_VALUE);
+        Object result = response.getResult();
+        if (result instanceof JsonRpcError) {
+            JsonRpcError error = (JsonRpcError) result;
+            generator.writeObjectFieldStart(JSON_RPC_RESPONSE_ERROR_FIELD);
+            generator.writeNumberField(JSON_RPC_ERROR_CODE_FIELD, error.getCode());
+            generator.writeStringField(JSON_RPC_ERROR_MESSAGE_FIELD, error.getMessage());
+            generator.writeFieldName(JSON_RPC_ERROR_DATA_FIELD);
+            writeValue(error.getData(), generator);
+            generator.writeEndObject();
+        } else {
+            generator.writeFieldName(JSON_RPC_RESPONSE_RESULT_FIELD);
+            writeValue(result, generator);
+        }
+        if (id != null) {
+            generator.writeFieldName(JSON_RPC_ID_FIELD);
+            JacksonJsonElements.write(id, generator);
+        }
+        generator.writeEndObject();
+    }
+
+    /**
+     * 将成功响应写入 JsonGenerator, 结果将直接交由 ObjectMapper 序列化.
+     * <p>
+     * 与 {@link net.lamgc.jsonrpc.serializer.json.JsonRpcResponseWriter#writeResult} 对应,
+     * 用于在不构造 {@link JsonRpcResponse} 的情况下流式写出方法返回值.
+     *
+     * @param id        响应的 id, 为 null 时不写出 id 字段.
+     * @param result    方法的返回值, 可以为 null.
+     * @param generator 目标 JsonGenerator.
+     * @throws IOException              当写出失败时抛出.
+     * @throws IllegalArgumentException 当 id 为 JsonArray 或 JsonObject 时抛出.
+     */
+    public void writeResult(JsonElement id, Object result, JsonGenerator generator) throws IOException {
+        if (id != null && !id.isJsonNull() && !id.isJsonPrimitive()) {
+            throw new IllegalArgumentException("The id field does not support the structure type (JsonArray or JsonObject).");
+        }
+
+        generator.writeStartObject();
+        generator.writeStringField(JSON_RPC_VERSION_FIELD, JSON_RPC_VERSION_VALUE);
+        generator.writeFieldName(JSON_RPC_RESPONSE_RESULT_FIELD);
+        writeValue(result, generator);
+        if (id != null) {
+            generator.writeFieldName(JSON_RPC_ID_FIELD);
+            JacksonJsonElements.write(id, generator);
+        }
+        generator.writeEndObject();
+    }
+
+    private void writeValue(Object value, JsonGenerator generator) throws IOException {
+        if (value == null || value instanceof JsonElement) {
+            JacksonJsonElements.write((JsonElement) value, generator);
+        } else {
+            mapper.writeValue(generator, value);
+        }
+    }
+
+    /**
+     * 从 JsonParser 中读取一个响应对象.
+     *
+     * @param parser 位于响应对象的起始 Token 上 (或尚未开始读取) 的 JsonParser, 返回时位于响应对象的结束 Token 上.
+     * @return 返回读取到的响应.
+     * @throws IOException        当读取失败时抛出.
+     * @throws JsonParseException 当响应不合法时抛出.
+     */
+    public JsonRpcResponse read(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken() == null ? parser.nextToken() : parser.currentToken();
+        if (token != JsonToken.START_OBJECT) {
+            throw new JsonParseException("Not a JsonObject.");
+        }
+
+        boolean hasVersion = false;
+        boolean hasId = false;
+        JsonElement id = null;
+        JsonElement result = null;
+        JsonRpcError error = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (name) {
+                case JSON_RPC_VERSION_FIELD:
+                    if (value != JsonToken.VALUE_STRING) {
+                        throw new JsonParseException("jsonrpc is not a String.");
+                    } else if (!JSON_RPC_VERSION_VALUE.equals(parser.getText())) {
+                        throw new JsonParseException("jsonrpc is not 2.0.");
+                    }
+                    hasVersion = true;
+                    break;
+                case JSON_RPC_ID_FIELD:
+                    if (value == JsonToken.VALUE_NULL) {
+                        id = JsonNull.INSTANCE;
+                    } else if (value == JsonToken.VALUE_STRING || value == JsonToken.VALUE_NUMBER_INT
+                            || value == JsonToken.VALUE_NUMBER_FLOAT) {
+                        id = JacksonJsonElements.read(parser);
+                    } else if (value == JsonToken.START_ARRAY || value == JsonToken.START_OBJECT) {
+                        throw new JsonParseException("The id field does not support the structure type (JsonArray or JsonObject).");
+                    } else {
+                        throw new JsonParseException("The `id` field must be a String or Number.");
+                    }
+                    hasId = true;
+                    break;
+                case JSON_RPC_RESPONSE_RESULT_FIELD:
+                    result = JacksonJsonElements.read(parser);
+                    break;
+                case JSON_RPC_RESPONSE_ERROR_FIELD:
+                    if (value != JsonToken.START_OBJECT) {
+                        throw new JsonParseException("error is not a JsonObject.");
+                    }
+                    error = readError(parser);
+                    break;
+                default:
+                    parser.skipChildren();
+                    break;
+            }
+        }
+
+        if (!hasVersion) {
+            throw new JsonParseException("jsonrpc is not exist.");
+        } else if (!hasId) {
+            throw new JsonParseException("The response must contain an `id` field.");
+        } else if (result != null && error != null) {
+            throw new JsonParseException("The response contains both result and error fields.");
+        } else if (result == null && error == null) {
+            throw new JsonParseException("The response does not contain a result or error field.");
+        }
+        return new JsonRpcResponse(error != null ? error : result, id);
+    }
+
+    private static JsonRpcError readError(JsonParser parser) throws IOException {
+        int code = 0;
+        String message = null;
+        JsonElement data = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (name) {
+                case JSON_RPC_ERROR_CODE_FIELD:
+                    if (value != JsonToken.VALUE_NUMBER_INT) {
+                        throw new JsonParseException("The error code must be an integer.");
+                    }
+                    code = parser.getIntValue();
+                    break;
+                case JSON_RPC_ERROR_MESSAGE_FIELD:
+                    message = value == JsonToken.VALUE_NULL ? null : parser.getValueAsString();
+                    break;
+                case JSON_RPC_ERROR_DATA_FIELD:
+                    data = value == JsonToken.VALUE_NULL ? null : JacksonJsonElements.read(parser);
+                    break;
+                default:
+                    parser.skipChildren();
+                    break;
+            }
+        }
+        return new JsonRpcError(code, message, data);
+    }
+
+}
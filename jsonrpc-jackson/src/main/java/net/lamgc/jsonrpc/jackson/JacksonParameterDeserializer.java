@@ -0,0 +1,69 @@
+package net.lamgc.jsonrpc.jackson;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.google.gson.JsonElement;
+import net.lamgc.jsonrpc.MethodPlan;
+import net.lamgc.jsonrpc.serializer.AbstractParameterDeserializer;
+import net.lamgc.jsonrpc.serializer.ParameterTypeMismatchException;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 使用 Jackson 将 Rpc 请求中的参数转换为方法参数.
+ * <p>
+ * 参数按声明的泛型类型 ({@link Parameter#getParameterizedType()}) 转换, 转换失败时抛出 {@link ParameterTypeMismatchException}.
+ * 如需支持某些复杂类型的转换, 可以向 ObjectMapper 注册对应的 Module 后传递到本转换器中.
+ */
+public class JacksonParameterDeserializer extends AbstractParameterDeserializer {
+
+    private final ObjectMapper mapper;
+
+    /**
+     * 每个方法调用计划所对应的参数 ObjectReader.
+     * <p>
+     * ObjectReader 与 ObjectMapper 绑定, 因此由反序列化器而不是 {@link MethodPlan} 持有.
+     */
+    private final Map<MethodPlan, ObjectReader[]> parameterReaders = new ConcurrentHashMap<>();
+
+    public JacksonParameterDeserializer(ObjectMapper mapper) {
+        this.mapper = Objects.requireNonNull(mapper);
+    }
+
+    @Override
+    protected Object toParameterObject(MethodPlan plan, int index, JsonElement paramJson) {
+        if (paramJson == null) {
+            return null;
+        }
+        ObjectReader reader = parameterReaders.computeIfAbsent(plan, this::resolveReaders)[index];
+        try {
+            return JacksonJsonElements.convert(paramJson, reader);
+        } catch (IOException e) {
+            throw new ParameterTypeMismatchException(plan.getName(), plan.getParameterName(index),
+                    plan.getParameterClass(index), e);
+        }
+    }
+
+    @Override
+    protected Object toParameterObject(Method method, Parameter parameter, JsonElement paramJson) {
+        try {
+            return JacksonJsonElements.convert(paramJson, mapper.readerFor(
+                    mapper.getTypeFactory().constructType(parameter.getParameterizedType())));
+        } catch (IOException e) {
+            throw new ParameterTypeMismatchException(method.getName(), parameter.getName(), parameter.getType(), e);
+        }
+    }
+
+    private ObjectReader[] resolveReaders(MethodPlan plan) {
+        ObjectReader[] readers = new ObjectReader[plan.getParameterCount()];
+        for (int i = 0; i < readers.length; i++) {
+            readers[i] = mapper.readerFor(mapper.getTypeFactory().constructType(plan.getParameterType(i)));
+        }
+        return readers;
+    }
+}
@@ -0,0 +1,41 @@
+package net.lamgc.jsonrpc.jackson;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.google.gson.JsonElement;
+import net.lamgc.jsonrpc.serializer.AbstractParameterSerializer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.util.Objects;
+
+/**
+ * 使用 Jackson 序列化 Rpc 请求的参数.
+ * <p>
+ * 与 {@link net.lamgc.jsonrpc.serializer.GsonParameterSerializer} 一样, 参数按实际类型序列化.
+ */
+public class JacksonParameterSerializer extends AbstractParameterSerializer {
+
+    private final ObjectWriter writer;
+
+    public JacksonParameterSerializer(ObjectMapper mapper) {
+        this(mapper, false);
+    }
+
+    public JacksonParameterSerializer(ObjectMapper mapper, boolean enableNamedParameter) {
+        super(enableNamedParameter);
+        this.writer = Objects.requireNonNull(mapper).writer();
+    }
+
+    @Override
+    protected JsonElement serializerParameter(Type expectType, Object value) {
+        try (JsonParser parser = JacksonJsonElements.serialize(value, writer)) {
+            return JacksonJsonElements.read(parser);
+        } catch (IOException e) {
+            // 将由 JsonRpcRequestBuilder 包装为 ParameterSerializationException.
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package net.lamgc.jsonrpc.jackson;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.google.gson.JsonElement;
+import net.lamgc.jsonrpc.JsonRpcResponse;
+import net.lamgc.jsonrpc.MethodPlan;
+import net.lamgc.jsonrpc.serializer.ReturnValueDeserializer;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 使用 Jackson 将 Rpc Response 中的 ReturnValue 转换为对应类型.
+ * <p>
+ * 返回值按方法声明的泛型返回类型转换; 对于异步方法, 将按 CompletionStage 的类型参数转换.
+ */
+public class JacksonReturnValueDeserializer implements ReturnValueDeserializer {
+
+    private final ObjectMapper mapper;
+
+    /**
+     * 每个方法调用计划所对应的结果 ObjectReader.
+     */
+    private final Map<MethodPlan, ObjectReader> resultReaders = new ConcurrentHashMap<>();
+
+    public JacksonReturnValueDeserializer(ObjectMapper mapper) {
+        this.mapper = Objects.requireNonNull(mapper);
+    }
+
+    @Override
+    public Object deserializer(Method method, JsonRpcResponse response) throws IOException {
+        return JacksonJsonElements.convert((JsonElement) response.getResult(),
+                mapper.readerFor(mapper.getTypeFactory().constructType(method.getGenericReturnType())));
+    }
+
+    @Override
+    public Object deserializer(MethodPlan plan, JsonRpcResponse response) throws IOException {
+        ObjectReader reader = resultReaders.computeIfAbsent(plan,
+                key -> mapper.readerFor(mapper.getTypeFactory().constructType(key.getResultType())));
+        return JacksonJsonElements.convert((JsonElement) response.getResult(), reader);
+    }
+}
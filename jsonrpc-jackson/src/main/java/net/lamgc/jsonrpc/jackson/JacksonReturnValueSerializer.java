@@ -0,0 +1,67 @@
+package net.lamgc.jsonrpc.jackson;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.google.gson.JsonElement;
+import com.google.gson.stream.JsonWriter;
+import net.lamgc.jsonrpc.MethodPlan;
+import net.lamgc.jsonrpc.serializer.ReturnValueSerializer;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 使用 Jackson 序列化方法返回值.
+ * <p>
+ * 返回值将按 Jackson 的序列化结果原样写入响应, 字段是否包含 null 等行为由 ObjectMapper 的配置决定.
+ * 如果需要手动实现该接口, 请务必注意在 RPC 客户端侧也需要使用对应的 {@link JacksonReturnValueDeserializer}.
+ */
+public class JacksonReturnValueSerializer implements ReturnValueSerializer {
+
+    private final ObjectMapper mapper;
+
+    /**
+     * 每个方法调用计划所对应的返回值 ObjectWriter (按方法声明的结果类型解析, 异步方法将使用 CompletionStage 的类型参数).
+     */
+    private final Map<MethodPlan, ObjectWriter> returnValueWriters = new ConcurrentHashMap<>();
+
+    public JacksonReturnValueSerializer(ObjectMapper mapper) {
+        this.mapper = Objects.requireNonNull(mapper);
+    }
+
+    @Override
+    public JsonElement serializer(Method method, Object returnValue) throws IOException {
+        try (JsonParser parser = JacksonJsonElements.serialize(returnValue, mapper.writer())) {
+            return JacksonJsonElements.read(parser);
+        }
+    }
+
+    @Override
+    public void serializer(MethodPlan plan, Object returnValue, JsonWriter writer) throws IOException {
+        if (returnValue == null) {
+            writer.nullValue();
+            return;
+        }
+        ObjectWriter objectWriter;
+        if (returnValue.getClass() == plan.getResultClass()) {
+            objectWriter = returnValueWriters.computeIfAbsent(plan,
+                    key -> mapper.writerFor(mapper.getTypeFactory().constructType(key.getResultType())));
+        } else {
+            // 返回值的实际类型与声明类型不同时, 按实际类型序列化.
+            objectWriter = mapper.writer();
+        }
+
+        boolean oldSerializeNulls = writer.getSerializeNulls();
+        // 是否写出值为 null 的字段已经由 ObjectMapper 决定.
+        writer.setSerializeNulls(true);
+        try (JsonParser parser = JacksonJsonElements.serialize(returnValue, objectWriter)) {
+            JacksonJsonElements.copy(parser, writer);
+        } finally {
+            writer.setSerializeNulls(oldSerializeNulls);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package net.lamgc.jsonrpc.jackson;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import net.lamgc.jsonrpc.JsonRpcUtils;
+import net.lamgc.jsonrpc.SimpleJsonRpcExecutor;
+import net.lamgc.jsonrpc.codec.JsonRpcCodecs;
+import net.lamgc.jsonrpc.transport.FrameFormat;
+import net.lamgc.jsonrpc.transport.NioJsonRpcServer;
+import net.lamgc.jsonrpc.transport.PipelinedJsonRpcRequestTransporter;
+import net.lamgc.jsonrpc.JsonRpcProxyGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JacksonCodecTest {
+
+    private final JacksonCodec codec = new JacksonCodec();
+
+    @Test
+    void roundTripTest() throws IOException {
+        String json = "{\"jsonrpc\":\"2.0\",\"method\":\"echo\",\"params\":[\"你好\",-42,3.14,"
+                + "123456789012345678901234567890,true,null,{\"nested\":[]}],\"id\":1}";
+        JsonElement element = codec.decode(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+        assertEquals(JsonParser.parseString(json).toString(), element.toString());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        codec.encode(JsonParser.parseString(json), out);
+        assertEquals(json, out.toString(StandardCharsets.UTF_8));
+
+        assertThrows(JsonParseException.class, () -> decode("{\"a\":"));
+        assertThrows(JsonParseException.class, () -> decode("{} {}"));
+        assertThrows(JsonParseException.class, () -> decode(""));
+    }
+
+    @Test
+    void registryTest() {
+        // 媒体类型与内置的 JSON 编码格式相同, 按名称获取.
+        assertTrue(JsonRpcCodecs.forName("jackson-json") instanceof JacksonCodec);
+        assertSame(JsonRpcCodecs.JSON, JsonRpcCodecs.forContentType("application/json"));
+        assertFalse(codec.isBinary());
+    }
+
+    @Test
+    void transportTest() throws Exception {
+        try (NioJsonRpcServer server = NioJsonRpcServer.builder(
+                        new SimpleJsonRpcExecutor(new JacksonSerializerTest.TestingServiceImpl(),
+                                JsonRpcUtils.createGsonForJsonRpc()))
+                .frameFormat(FrameFormat.NEWLINE_DELIMITED)
+                .codec(codec)
+                .build()) {
+            server.start();
+            try (PipelinedJsonRpcRequestTransporter transporter =
+                         PipelinedJsonRpcRequestTransporter.builder(server.getLocalAddress())
+                                 .codec(codec)
+                                 .connect()) {
+                JacksonSerializerTest.TestingService service = JsonRpcProxyGenerator.createProxy(
+                        JacksonSerializerTest.TestingService.class, transporter, JsonRpcUtils.createGsonForJsonRpc());
+                assertEquals(5, service.plusAsync(2, 3).join());
+            }
+        }
+    }
+
+    private JsonElement decode(String json) throws IOException {
+        return codec.decode(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+    }
+
+}
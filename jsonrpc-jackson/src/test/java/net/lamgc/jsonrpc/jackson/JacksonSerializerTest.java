@@ -0,0 +1,269 @@
+package net.lamgc.jsonrpc.jackson;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.stream.JsonWriter;
+import net.lamgc.jsonrpc.JsonRpcError;
+import net.lamgc.jsonrpc.JsonRpcErrors;
+import net.lamgc.jsonrpc.JsonRpcExecutor;
+import net.lamgc.jsonrpc.JsonRpcProxyGenerator;
+import net.lamgc.jsonrpc.JsonRpcRequest;
+import net.lamgc.jsonrpc.JsonRpcRequestException;
+import net.lamgc.jsonrpc.JsonRpcResponse;
+import net.lamgc.jsonrpc.JsonRpcUtils;
+import net.lamgc.jsonrpc.MethodPlan;
+import net.lamgc.jsonrpc.SimpleJsonRpcExecutor;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JacksonSerializerTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final JsonFactory factory = mapper.getFactory();
+    private final JacksonJsonRpcRequestSerializer requestSerializer = new JacksonJsonRpcRequestSerializer();
+    private final JacksonJsonRpcResponseSerializer responseSerializer = new JacksonJsonRpcResponseSerializer(mapper);
+
+    @Test
+    void roundTripTest() throws Exception {
+        JsonRpcExecutor executor = new SimpleJsonRpcExecutor(new TestingServiceImpl(),
+                new JacksonParameterDeserializer(mapper), new JacksonReturnValueSerializer(mapper));
+        // 请求和响应都经过 Jackson 序列化与解析, 中间不经过 Gson.
+        TestingService service = JsonRpcProxyGenerator.createProxy(TestingService.class, request -> {
+            JsonRpcRequest received;
+            try (JsonParser parser = factory.createParser(write(request))) {
+                received = requestSerializer.read(parser);
+            }
+            JsonRpcResponse response = executor.handle(received);
+            try (JsonParser parser = factory.createParser(write(response))) {
+                return responseSerializer.read(parser);
+            }
+        }, new JacksonParameterSerializer(mapper, true), new JacksonReturnValueDeserializer(mapper));
+
+        List<Item> items = Arrays.asList(new Item(1, "a"), new Item(2, "b"));
+        // 泛型参数和返回值将按声明的类型转换.
+        List<Item> echoed = service.echo(items);
+        assertEquals(items, echoed);
+        assertEquals(Item.class, echoed.get(0).getClass());
+
+        Map<String, List<Item>> grouped = service.group(items);
+        assertEquals(Item.class, grouped.get("a").get(0).getClass());
+
+        assertEquals(new BigInteger("123456789012345678901234567890"),
+                service.next(new BigInteger("123456789012345678901234567889")));
+        assertEquals(3, service.plusAsync(1, 2).get(10, TimeUnit.SECONDS));
+
+        // 错误对象的附加数据将读取为 JsonElement.
+        JsonRpcRequestException exception = assertThrows(JsonRpcRequestException.class, () -> service.fail("boom"));
+        assertTrue(exception.getError().getData() instanceof JsonElement);
+    }
+
+    @Test
+    void parameterTypeMismatchTest() {
+        JsonRpcExecutor executor = new SimpleJsonRpcExecutor(new TestingServiceImpl(),
+                new JacksonParameterDeserializer(mapper), new JacksonReturnValueSerializer(mapper));
+        JsonArray params = new JsonArray();
+        params.add(new JsonPrimitive(1));
+        params.add(new JsonObject());
+        JsonRpcResponse response = executor.handle(new JsonRpcRequest("plusAsync", params, new JsonPrimitive(1)));
+        assertTrue(response.isError());
+        assertEquals(JsonRpcErrors.INVALID_PARAMS.code, ((JsonRpcError) response.getResult()).getCode());
+    }
+
+    @Test
+    void streamingReturnValueTest() throws Exception {
+        JacksonReturnValueSerializer serializer = new JacksonReturnValueSerializer(mapper);
+        MethodPlan plan = MethodPlan.of(TestingService.class.getMethod("echo", List.class));
+        StringWriter out = new StringWriter();
+        JsonWriter writer = new JsonWriter(out);
+        writer.beginObject().name("result");
+        serializer.serializer(plan, Arrays.asList(new Item(1, null)), writer);
+        writer.endObject().flush();
+        assertEquals("{\"result\":[{\"id\":1,\"name\":null}]}", out.toString());
+        // 写出后恢复 JsonWriter 原本的设置.
+        assertTrue(writer.getSerializeNulls());
+
+        assertEquals(serializer.serializer(plan.getMethod(), Arrays.asList(new Item(1, null))),
+                JsonRpcUtils.createGsonForJsonRpc().toJsonTree(Arrays.asList(new Item(1, null))));
+
+        // 直接写出成功响应, 返回值不经过 JsonElement.
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (JsonGenerator generator = new JsonFactory().createGenerator(bytes)) {
+            new JacksonJsonRpcResponseSerializer(mapper)
+                    .writeResult(new JsonPrimitive(3), Arrays.asList(new Item(2, "b")), generator);
+        }
+        assertEquals("{\"jsonrpc\":\"2.0\",\"result\":[{\"id\":2,\"name\":\"b\"}],\"id\":3}",
+                new String(bytes.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void envelopeTest() throws IOException {
+        JsonArray params = new JsonArray();
+        params.add(new JsonPrimitive(1));
+        JsonRpcRequest request = new JsonRpcRequest("test", params, new JsonPrimitive("id"));
+        String json = new String(write(request), StandardCharsets.UTF_8);
+        // 与 Gson 序列化得到的报文一致.
+        assertEquals(JsonRpcUtils.createGsonForJsonRpc().toJson(request), json);
+
+        assertEquals(request, readRequest("{\"id\":\"id\",\"params\":[1],\"unknown\":{\"a\":[]},\"method\":\"test\",\"jsonrpc\":\"2.0\"}"));
+        assertNull(readRequest("{\"jsonrpc\":\"2.0\",\"method\":\"test\",\"params\":null}").getParams());
+        assertThrows(JsonParseException.class, () -> readRequest("{\"method\":\"test\"}"));
+        assertThrows(JsonParseException.class, () -> readRequest("{\"jsonrpc\":\"1.0\",\"method\":\"test\"}"));
+        assertThrows(JsonParseException.class, () -> readRequest("{\"jsonrpc\":\"2.0\"}"));
+        assertThrows(JsonParseException.class, () -> readRequest("{\"jsonrpc\":\"2.0\",\"method\":1}"));
+        assertThrows(JsonParseException.class, () -> readRequest("{\"jsonrpc\":\"2.0\",\"method\":\"test\",\"params\":1}"));
+        assertThrows(JsonParseException.class, () -> readRequest("{\"jsonrpc\":\"2.0\",\"method\":\"test\",\"id\":[]}"));
+        assertThrows(JsonParseException.class, () -> readRequest("[]"));
+
+        JsonRpcResponse error = new JsonRpcResponse(JsonRpcErrors.METHOD_NOT_FOUND.toRpcError(new JsonPrimitive("x")),
+                new JsonPrimitive(1));
+        assertEquals(JsonRpcUtils.createGsonForJsonRpc().toJson(error),
+                new String(write(error), StandardCharsets.UTF_8));
+        JsonRpcResponse parsed = readResponse(new String(write(error), StandardCharsets.UTF_8));
+        assertEquals(JsonRpcErrors.METHOD_NOT_FOUND.code, ((JsonRpcError) parsed.getResult()).getCode());
+        assertEquals(new JsonPrimitive("x"), ((JsonRpcError) parsed.getResult()).getData());
+
+        assertThrows(JsonParseException.class, () -> readResponse("{\"jsonrpc\":\"2.0\",\"result\":1}"));
+        assertThrows(JsonParseException.class, () -> readResponse("{\"jsonrpc\":\"2.0\",\"id\":1}"));
+        assertThrows(JsonParseException.class, () -> readResponse("{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":1,\"error\":{}}"));
+        assertThrows(JsonParseException.class, () -> readResponse("{\"result\":1,\"id\":1}"));
+    }
+
+    private JsonRpcRequest readRequest(String json) throws IOException {
+        try (JsonParser parser = factory.createParser(json)) {
+            return requestSerializer.read(parser);
+        }
+    }
+
+    private JsonRpcResponse readResponse(String json) throws IOException {
+        try (JsonParser parser = factory.createParser(json)) {
+            return responseSerializer.read(parser);
+        }
+    }
+
+    private byte[] write(JsonRpcRequest request) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonGenerator generator = factory.createGenerator(out)) {
+            requestSerializer.write(request, generator);
+        }
+        return out.toByteArray();
+    }
+
+    private byte[] write(JsonRpcResponse response) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonGenerator generator = factory.createGenerator(out)) {
+            responseSerializer.write(response, generator);
+        }
+        return out.toByteArray();
+    }
+
+    public interface TestingService {
+
+        List<Item> echo(List<Item> items);
+
+        Map<String, List<Item>> group(List<Item> items);
+
+        BigInteger next(BigInteger value);
+
+        CompletableFuture<Integer> plusAsync(int a, int b);
+
+        void fail(String message);
+
+    }
+
+    public static class TestingServiceImpl implements TestingService {
+
+        @Override
+        public List<Item> echo(List<Item> items) {
+            return items;
+        }
+
+        @Override
+        public Map<String, List<Item>> group(List<Item> items) {
+            Map<String, List<Item>> result = new LinkedHashMap<>();
+            for (Item item : items) {
+                result.put(item.getName(), Arrays.asList(item));
+            }
+            return result;
+        }
+
+        @Override
+        public BigInteger next(BigInteger value) {
+            return value.add(BigInteger.ONE);
+        }
+
+        @Override
+        public CompletableFuture<Integer> plusAsync(int a, int b) {
+            return CompletableFuture.completedFuture(a + b);
+        }
+
+        @Override
+        public void fail(String message) {
+            throw new IllegalStateException(message);
+        }
+    }
+
+    public static class Item {
+
+        private int id;
+        private String name;
+
+        public Item() {
+        }
+
+        public Item(int id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public void setId(int id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Item item = (Item) o;
+            return id == item.id && Objects.equals(name, item.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(id, name);
+        }
+    }
+
+}
@@ -0,0 +1,72 @@
+plugins {
+    `java-library`
+    `maven-publish`
+}
+
+group = "net.lamgc"
+version = rootProject.version
+
+repositories {
+    mavenCentral()
+}
+
+dependencies {
+    // The processor only refers to the library by name; the library is needed to compile the generated sources in tests.
+    testImplementation(rootProject)
+    // The test sources are processed by the processor itself.
+    "testAnnotationProcessor"(sourceSets.main.get().output)
+    testRuntimeOnly("ch.qos.logback:logback-classic:1.3.3")
+    testImplementation("org.junit.jupiter:junit-jupiter-api:5.9.2")
+    testRuntimeOnly("org.junit.jupiter:junit-jupiter-engine:5.9.2")
+}
+
+tasks.withType<Javadoc> {
+    options {
+        encoding = "UTF-8"
+    }
+}
+
+java {
+    withJavadocJar()
+    withSourcesJar()
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+tasks.test {
+    useJUnitPlatform()
+}
+
+tasks.withType<AbstractArchiveTask>().configureEach {
+    isPreserveFileTimestamps = false
+    isReproducibleFileOrder = true
+}
+
+publishing {
+    repositories {
+        maven("https://git.lamgc.me/api/packages/LamGC/maven") {
+            credentials {
+                username = project.properties["repo.credentials.self-git.username"].toString()
+                password = project.properties["repo.credentials.self-git.password"].toString()
+            }
+        }
+    }
+
+    publications {
+        create<MavenPublication>("maven") {
+            from(components["java"])
+
+            pom {
+                name.set("jsonrpc-java-processor")
+                description.set("Annotation processor generating dispatchers and stubs for jsonrpc-java services.")
+                url.set("https://github.com/LamGC/jsonrpc-java")
+                licenses {
+                    license {
+                        name.set("Apache License 2.0")
+                        url.set("https://www.apache.org/licenses/LICENSE-2.0")
+                    }
+                }
+            }
+        }
+    }
+}
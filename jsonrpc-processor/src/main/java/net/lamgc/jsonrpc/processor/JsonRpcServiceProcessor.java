@@ -0,0 +1,269 @@
+package net.lamgc.jsonrpc.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@code net.lamgc.jsonrpc.JsonRpcService} 注解处理器.
+ * <p>
+ * 为每个被标记的接口生成服务端分派器 ({@code <接口名>JsonRpcDispatcher}) 和客户端存根 ({@code <接口名>JsonRpcStub}),
+ * 生成的代码只通过名称引用 jsonrpc-java 的类, 因此处理器本身不依赖 jsonrpc-java.
+ * <p>
+ * 接口的方法包括接口 (及其父接口) 的所有抽象方法和默认方法, 与 {@code JsonRpcProxyGenerator} 一致,
+ * 默认方法也将作为远程方法调用; 静态方法, 私有方法和 {@link Object} 的方法不会生成.
+ */
+public final class JsonRpcServiceProcessor extends AbstractProcessor {
+
+    private final static String ANNOTATION_NAME = "net.lamgc.jsonrpc.JsonRpcService";
+
+    private Elements elements;
+    private Types types;
+    private Filer filer;
+    private Messager messager;
+    private Set<String> objectMethods;
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        this.elements = processingEnv.getElementUtils();
+        this.types = processingEnv.getTypeUtils();
+        this.filer = processingEnv.getFiler();
+        this.messager = processingEnv.getMessager();
+        this.objectMethods = new HashSet<>();
+        TypeElement objectType = elements.getTypeElement(Object.class.getName());
+        for (ExecutableElement method : ElementFilter.methodsIn(objectType.getEnclosedElements())) {
+            objectMethods.add(signature(method));
+        }
+    }
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Collections.singleton(ANNOTATION_NAME);
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        TypeElement annotation = elements.getTypeElement(ANNOTATION_NAME);
+        if (annotation == null) {
+            return false;
+        }
+        for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+            try {
+                processService(element, findAnnotation(element, annotation));
+            } catch (IOException e) {
+                messager.printMessage(Diagnostic.Kind.ERROR,
+                        "Failed to generate the sources of " + element + ": " + e.getMessage(), element);
+            }
+        }
+        return true;
+    }
+
+    private void processService(Element element, AnnotationMirror annotation) throws IOException {
+        if (element.getKind() != ElementKind.INTERFACE) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "@JsonRpcService can only be applied to interfaces.", element);
+            return;
+        }
+        TypeElement service = (TypeElement) element;
+        if (!service.getTypeParameters().isEmpty()) {
+            messager.printMessage(Diagnostic.Kind.ERROR,
+                    "Generic service interfaces are not supported.", element);
+            return;
+        }
+        for (Element type = service; type.getKind() != ElementKind.PACKAGE; type = type.getEnclosingElement()) {
+            if (type.getModifiers().contains(Modifier.PRIVATE)) {
+                messager.printMessage(Diagnostic.Kind.ERROR,
+                        "Service interfaces must not be private: " + type, element);
+                return;
+            }
+        }
+
+        boolean generateDispatcher = annotationValue(annotation, "dispatcher");
+        boolean generateStub = annotationValue(annotation, "stub");
+        List<ServiceMethod> methods = serviceMethods(service);
+        for (ServiceMethod method : methods) {
+            // 运行时的调用计划按方法声明解析类型, 无法得知父接口类型参数的实际类型.
+            if (!((TypeElement) method.element.getEnclosingElement()).getTypeParameters().isEmpty()) {
+                messager.printMessage(Diagnostic.Kind.ERROR,
+                        "Methods inherited from generic interfaces are not supported: "
+                                + method.element.getSimpleName(), element);
+                return;
+            }
+        }
+        if (generateDispatcher && !checkOverloads(service, methods)) {
+            return;
+        }
+
+        String packageName = elements.getPackageOf(service).getQualifiedName().toString();
+        String simpleName = generatedName(service);
+        ServiceSourceWriter writer = new ServiceSourceWriter(
+                packageName, service.getQualifiedName().toString(), methods, types);
+        if (generateDispatcher) {
+            writeSource(service, packageName, simpleName + "JsonRpcDispatcher",
+                    writer.writeDispatcher(simpleName + "JsonRpcDispatcher"));
+        }
+        if (generateStub) {
+            writeSource(service, packageName, simpleName + "JsonRpcStub",
+                    writer.writeStub(simpleName + "JsonRpcStub"));
+        }
+    }
+
+    /**
+     * 获取接口需要生成的方法, 方法按名称和参数类型排序, 排序后的序号即存根调用方法时使用的序号.
+     */
+    private List<ServiceMethod> serviceMethods(TypeElement service) {
+        DeclaredType serviceType = (DeclaredType) service.asType();
+        Map<String, ServiceMethod> methods = new LinkedHashMap<>();
+        for (ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers(service))) {
+            Set<Modifier> modifiers = method.getModifiers();
+            if (modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.PRIVATE)) {
+                continue;
+            } else if (method.getEnclosingElement().getKind() != ElementKind.INTERFACE) {
+                continue;
+            }
+            String signature = signature(method);
+            if (objectMethods.contains(signature)) {
+                continue;
+            }
+            ExecutableType resolvedType = (ExecutableType) types.asMemberOf(serviceType, method);
+            methods.putIfAbsent(signature, new ServiceMethod(method, resolvedType));
+        }
+        List<ServiceMethod> result = new ArrayList<>(methods.values());
+        result.sort(Comparator.comparing(method -> signature(method.element)));
+        return result;
+    }
+
+    private boolean checkOverloads(TypeElement service, List<ServiceMethod> methods) {
+        Set<String> names = new HashSet<>();
+        for (ServiceMethod method : methods) {
+            String name = method.element.getSimpleName().toString();
+            if (!names.add(name)) {
+                messager.printMessage(Diagnostic.Kind.ERROR,
+                        "The use of overloaded methods is not supported: " + name, service);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void writeSource(TypeElement service, String packageName, String simpleName, String source)
+            throws IOException {
+        String className = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+        JavaFileObject file = filer.createSourceFile(className, service);
+        try (Writer writer = file.openWriter()) {
+            writer.write(source);
+        }
+    }
+
+    /**
+     * 获取生成类的名称前缀, 嵌套接口以外部类名和下划线作为前缀.
+     */
+    private static String generatedName(TypeElement service) {
+        StringBuilder builder = new StringBuilder(service.getSimpleName());
+        Element enclosing = service.getEnclosingElement();
+        while (!(enclosing instanceof PackageElement)) {
+            builder.insert(0, enclosing.getSimpleName() + "_");
+            enclosing = enclosing.getEnclosingElement();
+        }
+        return builder.toString();
+    }
+
+    private String signature(ExecutableElement method) {
+        StringBuilder builder = new StringBuilder(method.getSimpleName()).append('(');
+        for (int i = 0; i < method.getParameters().size(); i++) {
+            if (i != 0) {
+                builder.append(',');
+            }
+            builder.append(types.erasure(method.getParameters().get(i).asType()));
+        }
+        return builder.append(')').toString();
+    }
+
+    private static AnnotationMirror findAnnotation(Element element, TypeElement annotation) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (mirror.getAnnotationType().asElement().equals(annotation)) {
+                return mirror;
+            }
+        }
+        throw new IllegalStateException("Annotation not found on " + element);
+    }
+
+    private boolean annotationValue(AnnotationMirror annotation, String name) {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry :
+                elements.getElementValuesWithDefaults(annotation).entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(name)) {
+                return (Boolean) entry.getValue().getValue();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 需要生成的接口方法.
+     */
+    final static class ServiceMethod {
+
+        /**
+         * 方法的声明, 用于查找运行时的 {@link java.lang.reflect.Method}.
+         */
+        final ExecutableElement element;
+
+        /**
+         * 方法作为服务接口成员时的类型, 父接口的类型参数已被替换.
+         */
+        final ExecutableType type;
+
+        private ServiceMethod(ExecutableElement element, ExecutableType type) {
+            this.element = element;
+            this.type = type;
+        }
+
+        boolean isVarArgs() {
+            return element.isVarArgs();
+        }
+
+        boolean isGeneric() {
+            return !element.getTypeParameters().isEmpty();
+        }
+
+        List<? extends TypeMirror> parameterTypes() {
+            return type.getParameterTypes();
+        }
+
+    }
+
+}
@@ -0,0 +1,299 @@
+package net.lamgc.jsonrpc.processor;
+
+import net.lamgc.jsonrpc.processor.JsonRpcServiceProcessor.ServiceMethod;
+
+import javax.lang.model.element.TypeParameterElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Types;
+import java.util.List;
+
+/**
+ * 生成服务接口的分派器和存根的源代码.
+ * <p>
+ * 生成的代码中所有类型均使用全限定名, 因此不需要处理导入和名称冲突.
+ * 方法的调用计划在类初始化时通过 {@code 接口.class.getMethod("名称", 参数类型...)} 创建,
+ * 参数均为常量, GraalVM native-image 可以在构建时识别这些反射调用, 不需要额外的反射配置.
+ */
+final class ServiceSourceWriter {
+
+    private final static String GENERATED = "@javax.annotation.processing.Generated(\""
+            + JsonRpcServiceProcessor.class.getName() + "\")";
+
+    private final String packageName;
+    private final String serviceName;
+    private final List<ServiceMethod> methods;
+    private final Types types;
+
+    ServiceSourceWriter(String packageName, String serviceName, List<ServiceMethod> methods, Types types) {
+        this.packageName = packageName;
+        this.serviceName = serviceName;
+        this.methods = methods;
+        this.types = types;
+    }
+
+    /**
+     * 生成服务端分派器.
+     * <p>
+     * 分派器继承 JsonRpcExecutor, 通过 switch 按方法名查找调用计划, 调用时以调用计划的引用找到方法,
+     * 将参数强制转换为方法的参数类型后直接调用 handler.
+     */
+    String writeDispatcher(String className) {
+        StringBuilder out = new StringBuilder();
+        writeHeader(out);
+        out.append("/**\n")
+                .append(" * {@link ").append(serviceName).append("} 的服务端分派器, 由注解处理器生成.\n")
+                .append(" */\n")
+                .append(GENERATED).append('\n')
+                .append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n")
+                .append("public final class ").append(className)
+                .append(" extends net.lamgc.jsonrpc.JsonRpcExecutor {\n\n");
+        writePlans(out);
+
+        out.append("    private final ").append(serviceName).append(" service;\n\n");
+        out.append("    public ").append(className).append('(').append(serviceName)
+                .append(" service, com.google.gson.Gson gson) {\n")
+                .append("        this(service, new net.lamgc.jsonrpc.serializer.GsonParameterDeserializer(gson),\n")
+                .append("                new net.lamgc.jsonrpc.serializer.GsonReturnValueSerializer(gson));\n")
+                .append("    }\n\n");
+        out.append("    public ").append(className).append('(').append(serviceName).append(" service,\n")
+                .append("            net.lamgc.jsonrpc.serializer.ParameterDeserializer parameterDeserializer,\n")
+                .append("            net.lamgc.jsonrpc.serializer.ReturnValueSerializer returnValueSerializer) {\n")
+                .append("        super(java.util.Objects.requireNonNull(service), parameterDeserializer, returnValueSerializer);\n")
+                .append("        this.service = service;\n")
+                .append("    }\n\n");
+
+        out.append("    @Override\n")
+                .append("    protected java.lang.reflect.Method findMethod(net.lamgc.jsonrpc.JsonRpcRequest request) {\n")
+                .append("        return findMethodPlan(request).getMethod();\n")
+                .append("    }\n\n");
+
+        out.append("    @Override\n")
+                .append("    protected net.lamgc.jsonrpc.MethodPlan findMethodPlan(net.lamgc.jsonrpc.JsonRpcRequest request) {\n")
+                .append("        String method = request.getMethod();\n")
+                .append("        if (method == null) {\n")
+                .append("            throw new java.util.NoSuchElementException();\n")
+                .append("        }\n")
+                .append("        switch (method) {\n");
+        for (int i = 0; i < methods.size(); i++) {
+            out.append("            case \"").append(methods.get(i).element.getSimpleName()).append("\":\n")
+                    .append("                return PLANS[").append(i).append("];\n");
+        }
+        out.append("            default:\n")
+                .append("                throw new java.util.NoSuchElementException(method);\n")
+                .append("        }\n")
+                .append("    }\n\n");
+
+        out.append("    @Override\n")
+                .append("    protected Object invokeMethod(net.lamgc.jsonrpc.MethodPlan plan, Object[] params) throws Exception {\n");
+        // 调用计划均来自 PLANS, 因此以引用比较找到方法, 不需要再次比较方法名.
+        for (int i = 0; i < methods.size(); i++) {
+            out.append("        if (plan == PLANS[").append(i).append("]) {\n")
+                    .append("            return invoke").append(i).append("(params);\n")
+                    .append("        }\n");
+        }
+        out.append("        throw new java.util.NoSuchElementException(plan.getName());\n")
+                .append("    }\n");
+        for (int i = 0; i < methods.size(); i++) {
+            out.append('\n');
+            writeInvoker(out, i, methods.get(i));
+        }
+        out.append('\n');
+        out.append("}\n");
+        return out.toString();
+    }
+
+    /**
+     * 生成分派器中调用单个方法的方法.
+     * <p>
+     * 参数的转换在调用之前完成, 转换失败时与反射调用一致, 抛出 IllegalArgumentException;
+     * 只有方法自身抛出的异常才会被包装为 InvocationTargetException.
+     */
+    private void writeInvoker(StringBuilder out, int index, ServiceMethod method) {
+        out.append("    private Object invoke").append(index)
+                .append("(Object[] params) throws java.lang.reflect.InvocationTargetException {\n");
+        List<? extends TypeMirror> parameterTypes = method.parameterTypes();
+        StringBuilder call = new StringBuilder("service.").append(method.element.getSimpleName()).append('(');
+        if (!parameterTypes.isEmpty()) {
+            StringBuilder casts = new StringBuilder();
+            for (int i = 0; i < parameterTypes.size(); i++) {
+                // 方法的类型参数在分派器中不可见, 泛型方法的参数按擦除类型转换.
+                TypeMirror type = method.isGeneric() ? types.erasure(parameterTypes.get(i)) : parameterTypes.get(i);
+                out.append("        ").append(type.getKind().isPrimitive() ? type.toString() : castType(type))
+                        .append(" p").append(i).append(";\n");
+                casts.append("            p").append(i).append(" = (").append(castType(type))
+                        .append(") params[").append(i).append("];\n");
+                if (i != 0) {
+                    call.append(", ");
+                }
+                call.append('p').append(i);
+            }
+            out.append("        try {\n")
+                    .append(casts)
+                    .append("        } catch (ClassCastException | NullPointerException e) {\n")
+                    .append("            throw new IllegalArgumentException(\"argument type mismatch\", e);\n")
+                    .append("        }\n");
+        }
+        call.append(')');
+        out.append("        try {\n");
+        if (method.type.getReturnType().getKind() == TypeKind.VOID) {
+            out.append("            ").append(call).append(";\n")
+                    .append("            return null;\n");
+        } else {
+            out.append("            return ").append(call).append(";\n");
+        }
+        out.append("        } catch (Throwable e) {\n")
+                .append("            throw new java.lang.reflect.InvocationTargetException(e);\n")
+                .append("        }\n")
+                .append("    }\n");
+    }
+
+    /**
+     * 生成客户端存根.
+     * <p>
+     * 存根继承 JsonRpcStub 并实现服务接口, 每个方法以其在 PLANS 中的序号调用 JsonRpcStub#invoke.
+     */
+    String writeStub(String className) {
+        StringBuilder out = new StringBuilder();
+        writeHeader(out);
+        out.append("/**\n")
+                .append(" * {@link ").append(serviceName).append("} 的客户端存根, 由注解处理器生成.\n")
+                .append(" */\n")
+                .append(GENERATED).append('\n')
+                .append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n")
+                .append("public final class ").append(className)
+                .append(" extends net.lamgc.jsonrpc.JsonRpcStub implements ").append(serviceName).append(" {\n\n");
+        writePlans(out);
+
+        out.append("    public ").append(className)
+                .append("(net.lamgc.jsonrpc.JsonRpcRequestTransporter requestTransporter, com.google.gson.Gson gson) {\n")
+                .append("        this(requestTransporter, gson, true);\n")
+                .append("    }\n\n");
+        out.append("    public ").append(className)
+                .append("(net.lamgc.jsonrpc.JsonRpcRequestTransporter requestTransporter, com.google.gson.Gson gson,\n")
+                .append("            boolean enableNamedParameter) {\n")
+                .append("        this(requestTransporter, new net.lamgc.jsonrpc.serializer.GsonParameterSerializer(gson, enableNamedParameter),\n")
+                .append("                new net.lamgc.jsonrpc.serializer.GsonReturnValueDeserializer(gson));\n")
+                .append("    }\n\n");
+        out.append("    public ").append(className)
+                .append("(net.lamgc.jsonrpc.JsonRpcRequestTransporter requestTransporter,\n")
+                .append("            net.lamgc.jsonrpc.serializer.ParameterSerializer parameterSerializer,\n")
+                .append("            net.lamgc.jsonrpc.serializer.ReturnValueDeserializer returnValueDeserializer) {\n")
+                .append("        super(requestTransporter, parameterSerializer, returnValueDeserializer, PLANS);\n")
+                .append("    }\n\n");
+
+        for (int index = 0; index < methods.size(); index++) {
+            writeStubMethod(out, index, methods.get(index));
+        }
+        out.append("}\n");
+        return out.toString();
+    }
+
+    private void writeStubMethod(StringBuilder out, int index, ServiceMethod method) {
+        out.append("    @Override\n    public ");
+        List<? extends TypeParameterElement> typeParameters = method.element.getTypeParameters();
+        if (!typeParameters.isEmpty()) {
+            out.append('<');
+            for (int i = 0; i < typeParameters.size(); i++) {
+                TypeParameterElement typeParameter = typeParameters.get(i);
+                if (i != 0) {
+                    out.append(", ");
+                }
+                out.append(typeParameter.getSimpleName());
+                List<? extends TypeMirror> bounds = typeParameter.getBounds();
+                if (bounds.size() != 1 || !bounds.get(0).toString().equals("java.lang.Object")) {
+                    for (int j = 0; j < bounds.size(); j++) {
+                        out.append(j == 0 ? " extends " : " & ").append(bounds.get(j));
+                    }
+                }
+            }
+            out.append("> ");
+        }
+        TypeMirror returnType = method.type.getReturnType();
+        out.append(returnType).append(' ').append(method.element.getSimpleName()).append('(');
+
+        List<? extends VariableElement> parameters = method.element.getParameters();
+        List<? extends TypeMirror> parameterTypes = method.parameterTypes();
+        for (int i = 0; i < parameters.size(); i++) {
+            if (i != 0) {
+                out.append(", ");
+            }
+            TypeMirror type = parameterTypes.get(i);
+            if (method.isVarArgs() && i == parameters.size() - 1) {
+                out.append(((ArrayType) type).getComponentType()).append("...");
+            } else {
+                out.append(type);
+            }
+            out.append(' ').append(parameters.get(i).getSimpleName());
+        }
+        out.append(')');
+        List<? extends TypeMirror> thrownTypes = method.type.getThrownTypes();
+        for (int i = 0; i < thrownTypes.size(); i++) {
+            out.append(i == 0 ? " throws " : ", ").append(thrownTypes.get(i));
+        }
+        out.append(" {\n");
+
+        StringBuilder call = new StringBuilder("invoke(").append(index).append(", ");
+        if (parameters.isEmpty()) {
+            // 与动态代理一致, 没有参数时传入 null.
+            call.append("null");
+        } else {
+            call.append("new Object[]{");
+            for (int i = 0; i < parameters.size(); i++) {
+                call.append(i == 0 ? "" : ", ").append(parameters.get(i).getSimpleName());
+            }
+            call.append('}');
+        }
+        call.append(')');
+        if (returnType.getKind() == TypeKind.VOID) {
+            out.append("        ").append(call).append(";\n");
+        } else {
+            out.append("        return (").append(castType(returnType)).append(") ").append(call).append(";\n");
+        }
+        out.append("    }\n\n");
+    }
+
+    private void writeHeader(StringBuilder out) {
+        if (!packageName.isEmpty()) {
+            out.append("package ").append(packageName).append(";\n\n");
+        }
+    }
+
+    /**
+     * 写出按序号排列的调用计划.
+     */
+    private void writePlans(StringBuilder out) {
+        out.append("    private final static net.lamgc.jsonrpc.MethodPlan[] PLANS;\n\n")
+                .append("    static {\n")
+                .append("        try {\n")
+                .append("            PLANS = new net.lamgc.jsonrpc.MethodPlan[]{\n");
+        for (ServiceMethod method : methods) {
+            out.append("                    net.lamgc.jsonrpc.MethodPlan.of(").append(serviceName)
+                    .append(".class.getMethod(\"").append(method.element.getSimpleName()).append('"');
+            for (VariableElement parameter : method.element.getParameters()) {
+                // 运行时的方法签名由方法声明决定, 因此使用声明中参数类型的擦除类型.
+                out.append(", ").append(types.erasure(parameter.asType())).append(".class");
+            }
+            out.append(")),\n");
+        }
+        out.append("            };\n")
+                .append("        } catch (NoSuchMethodException e) {\n")
+                .append("            throw new ExceptionInInitializerError(e);\n")
+                .append("        }\n")
+                .append("    }\n\n");
+    }
+
+    /**
+     * 获取强制转换时使用的类型, 基本类型将转换为对应的包装类型, 再由编译器拆箱.
+     */
+    private String castType(TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return types.boxedClass((PrimitiveType) type).getQualifiedName().toString();
+        }
+        return type.toString();
+    }
+
+}
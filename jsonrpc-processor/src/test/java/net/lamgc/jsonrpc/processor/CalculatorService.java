@@ -0,0 +1,64 @@
+package net.lamgc.jsonrpc.processor;
+
+import net.lamgc.jsonrpc.JsonRpcService;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+@JsonRpcService
+public interface CalculatorService extends ItemRepository {
+
+    int add(int a, int b);
+
+    long primitives(long l, double d, float f, boolean z, char c, short s, byte b);
+
+    void reset();
+
+    List<Item> echo(List<Item> items, String tag);
+
+    int sum(int... values);
+
+    <T extends Number> T first(List<T> values);
+
+    CompletableFuture<String> asyncName(String prefix);
+
+    String checked() throws IOException;
+
+    default String defaultMethod() {
+        return "local";
+    }
+
+    static String staticMethod() {
+        return "static";
+    }
+
+    final class Item {
+
+        public int id;
+        public String name;
+
+        public Item() {
+        }
+
+        public Item(int id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+    }
+
+    interface Nested {
+
+        @JsonRpcService(dispatcher = false)
+        interface OverloadedService {
+
+            int value(int a);
+
+            int value(String a);
+
+        }
+
+    }
+
+}
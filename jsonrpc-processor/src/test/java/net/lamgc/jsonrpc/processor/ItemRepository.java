@@ -0,0 +1,7 @@
+package net.lamgc.jsonrpc.processor;
+
+public interface ItemRepository {
+
+    CalculatorService.Item find(int id);
+
+}
@@ -0,0 +1,278 @@
+package net.lamgc.jsonrpc.processor;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import net.lamgc.jsonrpc.AsyncJsonRpcExecutor;
+import net.lamgc.jsonrpc.AsyncJsonRpcRequestTransporter;
+import net.lamgc.jsonrpc.JsonRpcError;
+import net.lamgc.jsonrpc.JsonRpcErrors;
+import net.lamgc.jsonrpc.JsonRpcRequest;
+import net.lamgc.jsonrpc.JsonRpcRequestException;
+import net.lamgc.jsonrpc.JsonRpcResponse;
+import net.lamgc.jsonrpc.JsonRpcStub;
+import net.lamgc.jsonrpc.JsonRpcUtils;
+import net.lamgc.jsonrpc.MethodPlan;
+import net.lamgc.jsonrpc.processor.CalculatorService.Item;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonRpcServiceProcessorTest {
+
+    private final Gson gson = JsonRpcUtils.createGsonForJsonRpc();
+
+    // 生成的存根通过生成的分派器调用实现类, 覆盖各种参数类型与返回类型.
+    @Test
+    void roundTripTest() {
+        CalculatorImpl impl = new CalculatorImpl();
+        CalculatorServiceJsonRpcDispatcher dispatcher = new CalculatorServiceJsonRpcDispatcher(impl, gson);
+        CalculatorService stub = new CalculatorServiceJsonRpcStub(dispatcher::execute, gson);
+        assertTrue(stub instanceof JsonRpcStub);
+        assertSame(impl, dispatcher.getHandler());
+
+        assertEquals(3, stub.add(1, 2));
+        assertEquals(1 + 6 + 1 + 'c' + 5 + 6, stub.primitives(1L, 2.5, 3.5F, true, 'c', (short) 5, (byte) 6));
+        stub.reset();
+        assertEquals(1, impl.resetCount.get());
+
+        List<Item> items = Arrays.asList(new Item(1, "a"), new Item(2, "b"));
+        List<Item> echoed = stub.echo(items, "tag");
+        assertEquals(2, echoed.size());
+        assertEquals("a-tag", echoed.get(0).name);
+        assertEquals(2, echoed.get(1).id);
+
+        assertEquals(6, stub.sum(1, 2, 3));
+        assertEquals(0, stub.sum());
+        assertEquals(1.5, stub.<Double>first(Arrays.asList(1.5, 2.5)).doubleValue());
+        // 父接口的方法.
+        Item found = stub.find(7);
+        assertEquals(7, found.id);
+        // 与动态代理一致, 默认方法也作为远程方法调用.
+        assertEquals("remote", stub.defaultMethod());
+        assertEquals("name-1", stub.asyncName("name").join());
+    }
+
+    @Test
+    void errorTest() {
+        CalculatorImpl impl = new CalculatorImpl();
+        CalculatorServiceJsonRpcDispatcher dispatcher = new CalculatorServiceJsonRpcDispatcher(impl, gson);
+
+        JsonRpcResponse notFound = dispatcher.execute(new JsonRpcRequest("notExist", null, new JsonPrimitive(1)));
+        assertTrue(notFound.isError());
+        assertEquals(JsonRpcErrors.METHOD_NOT_FOUND.toRpcError().getCode(),
+                ((JsonRpcError) notFound.getResult()).getCode());
+
+        // 静态方法不作为远程方法.
+        JsonRpcResponse staticMethod = dispatcher.execute(new JsonRpcRequest("staticMethod", null, new JsonPrimitive(2)));
+        assertEquals(JsonRpcErrors.METHOD_NOT_FOUND.toRpcError().getCode(),
+                ((JsonRpcError) staticMethod.getResult()).getCode());
+
+        // 方法抛出的异常与反射调用时的处理方式相同.
+        JsonRpcResponse failed = dispatcher.execute(new JsonRpcRequest("checked", null, new JsonPrimitive(3)));
+        assertTrue(failed.isError());
+        assertEquals(JsonRpcErrors.INTERNAL_ERROR.toRpcError().getCode(), ((JsonRpcError) failed.getResult()).getCode());
+
+        CalculatorService stub = new CalculatorServiceJsonRpcStub(dispatcher::execute, gson);
+        assertThrows(JsonRpcRequestException.class, stub::checked);
+
+        JsonRpcResponse mismatch = dispatcher.execute(
+                new JsonRpcRequest("add", JsonParser.parseString("[1]"), new JsonPrimitive(4)));
+        assertEquals(JsonRpcErrors.INVALID_PARAMS.toRpcError().getCode(), ((JsonRpcError) mismatch.getResult()).getCode());
+    }
+
+    // 参数转换失败与反射调用一致, 不会被当作方法自身抛出的异常.
+    @Test
+    void argumentMismatchTest() throws Exception {
+        CalculatorServiceJsonRpcDispatcher dispatcher = new CalculatorServiceJsonRpcDispatcher(new CalculatorImpl(), gson);
+        MethodPlan add = dispatcher.findMethodPlan(new JsonRpcRequest("add", null, new JsonPrimitive(1)));
+        assertEquals(3, dispatcher.invokeMethod(add, new Object[]{1, 2}));
+        assertThrows(IllegalArgumentException.class, () -> dispatcher.invokeMethod(add, new Object[]{null, 2}));
+        assertThrows(IllegalArgumentException.class, () -> dispatcher.invokeMethod(add, new Object[]{"1", 2}));
+
+        MethodPlan checked = dispatcher.findMethodPlan(new JsonRpcRequest("checked", null, new JsonPrimitive(2)));
+        InvocationTargetException exception = assertThrows(InvocationTargetException.class,
+                () -> dispatcher.invokeMethod(checked, new Object[0]));
+        assertTrue(exception.getCause() instanceof IOException);
+
+        // 不属于该分派器的调用计划.
+        MethodPlan other = MethodPlan.of(Object.class.getMethod("toString"));
+        assertThrows(NoSuchElementException.class, () -> dispatcher.invokeMethod(other, new Object[0]));
+    }
+
+    @Test
+    void asyncTest() {
+        CalculatorImpl impl = new CalculatorImpl();
+        impl.pending = new CompletableFuture<>();
+        AsyncJsonRpcExecutor executor = new AsyncJsonRpcExecutor(new CalculatorServiceJsonRpcDispatcher(impl, gson));
+        CalculatorService stub = new CalculatorServiceJsonRpcStub(
+                (AsyncJsonRpcRequestTransporter) executor::executeAsync, gson);
+
+        CompletableFuture<String> name = stub.asyncName("async");
+        assertFalse(name.isDone());
+        impl.pending.complete(2);
+        assertEquals("async-2", name.join());
+        assertEquals(5, stub.add(2, 3));
+    }
+
+    // 指定不生成分派器时允许重载方法, 并且不会生成分派器.
+    @Test
+    void stubOnlyTest() {
+        CalculatorService.Nested.OverloadedService stub = new CalculatorService_Nested_OverloadedServiceJsonRpcStub(
+                request -> new JsonRpcResponse(
+                        new JsonPrimitive(request.getParams().getAsJsonArray().get(0).isJsonPrimitive()
+                                && request.getParams().getAsJsonArray().get(0).getAsJsonPrimitive().isNumber() ? 1 : 2),
+                        request.getId()), gson, false);
+        assertEquals(1, stub.value(10));
+        assertEquals(2, stub.value("10"));
+        assertThrows(ClassNotFoundException.class, () -> Class.forName(
+                getClass().getPackageName() + ".CalculatorService_Nested_OverloadedServiceJsonRpcDispatcher"));
+    }
+
+    @Test
+    void compileErrorTest(@TempDir Path output) throws IOException {
+        List<String> overloaded = compile(output, "test.Overloaded",
+                "package test;\n" +
+                        "@net.lamgc.jsonrpc.JsonRpcService\n" +
+                        "public interface Overloaded {\n" +
+                        "    int value(int a);\n" +
+                        "    int value(String a);\n" +
+                        "}\n");
+        assertEquals(Collections.singletonList("The use of overloaded methods is not supported: value"), overloaded);
+
+        List<String> notInterface = compile(output, "test.NotInterface",
+                "package test;\n" +
+                        "@net.lamgc.jsonrpc.JsonRpcService\n" +
+                        "public class NotInterface {\n" +
+                        "}\n");
+        assertEquals(Collections.singletonList("@JsonRpcService can only be applied to interfaces."), notInterface);
+
+        List<String> generic = compile(output, "test.Generic",
+                "package test;\n" +
+                        "@net.lamgc.jsonrpc.JsonRpcService\n" +
+                        "public interface Generic<T> {\n" +
+                        "    T value();\n" +
+                        "}\n");
+        assertEquals(Collections.singletonList("Generic service interfaces are not supported."), generic);
+
+        List<String> genericParent = compile(output, "test.GenericParent",
+                "package test;\n" +
+                        "@net.lamgc.jsonrpc.JsonRpcService\n" +
+                        "public interface GenericParent extends java.util.function.Supplier<String> {\n" +
+                        "}\n");
+        assertEquals(Collections.singletonList("Methods inherited from generic interfaces are not supported: get"),
+                genericParent);
+
+        assertEquals(Collections.emptyList(), compile(output, "test.Valid",
+                "package test;\n" +
+                        "@net.lamgc.jsonrpc.JsonRpcService\n" +
+                        "public interface Valid {\n" +
+                        "    String[] value(String... values) throws java.io.IOException;\n" +
+                        "}\n"));
+    }
+
+    /**
+     * 使用注解处理器编译源代码.
+     *
+     * @return 返回编译时产生的错误信息.
+     */
+    private static List<String> compile(Path output, String className, String source) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        JavaFileObject file = new SimpleJavaFileObject(URI.create("string:///" + className.replace('.', '/') +
+                JavaFileObject.Kind.SOURCE.extension), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return source;
+            }
+        };
+        List<String> options = Arrays.asList("-classpath", System.getProperty("java.class.path"),
+                "-d", output.toString(), "-s", output.toString());
+        JavaCompiler.CompilationTask task = compiler.getTask(null, null, diagnostics, options,
+                null, Collections.singletonList(file));
+        task.setProcessors(Collections.singletonList(new JsonRpcServiceProcessor()));
+        task.call();
+        return diagnostics.getDiagnostics().stream()
+                .filter(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR)
+                .map(diagnostic -> diagnostic.getMessage(null))
+                .collect(Collectors.toList());
+    }
+
+    private static class CalculatorImpl implements CalculatorService {
+
+        private final AtomicInteger resetCount = new AtomicInteger();
+        private CompletableFuture<Integer> pending = CompletableFuture.completedFuture(1);
+
+        @Override
+        public int add(int a, int b) {
+            return a + b;
+        }
+
+        @Override
+        public long primitives(long l, double d, float f, boolean z, char c, short s, byte b) {
+            return l + (long) (d + f) + (z ? 1 : 0) + c + s + b;
+        }
+
+        @Override
+        public void reset() {
+            resetCount.incrementAndGet();
+        }
+
+        @Override
+        public List<Item> echo(List<Item> items, String tag) {
+            return items.stream().map(item -> new Item(item.id, item.name + "-" + tag)).collect(Collectors.toList());
+        }
+
+        @Override
+        public int sum(int... values) {
+            return IntStream.of(values).sum();
+        }
+
+        @Override
+        public <T extends Number> T first(List<T> values) {
+            return values.get(0);
+        }
+
+        @Override
+        public CompletableFuture<String> asyncName(String prefix) {
+            return pending.thenApply(value -> prefix + "-" + value);
+        }
+
+        @Override
+        public String checked() throws IOException {
+            throw new IOException("Test Exception");
+        }
+
+        @Override
+        public String defaultMethod() {
+            return "remote";
+        }
+
+        @Override
+        public Item find(int id) {
+            return new Item(id, "found");
+        }
+
+    }
+
+}
@@ -1 +1,3 @@
 rootProject.name = "jsonrpc-java"
+include("jsonrpc-jackson")
+include("jsonrpc-processor")
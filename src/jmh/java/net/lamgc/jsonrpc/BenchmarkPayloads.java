@@ -0,0 +1,104 @@
+package net.lamgc.jsonrpc;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 基准测试使用的负载.
+ * <p>
+ * 负载大小分为 small (1 个元素), medium (64 个元素) 和 large (4096 个元素) 三档,
+ * 每个元素包含数字, 字符串, 字符串列表和映射, 以覆盖常见的类型适配器.
+ */
+final class BenchmarkPayloads {
+
+    private BenchmarkPayloads() {
+        throw new RuntimeException("The class does not allow instantiation.");
+    }
+
+    /**
+     * 获取负载大小对应的元素数量.
+     *
+     * @param size 负载大小, 可选值为 small, medium 和 large.
+     * @return 返回元素数量.
+     */
+    static int itemCount(String size) {
+        switch (size) {
+            case "small":
+                return 1;
+            case "medium":
+                return 64;
+            case "large":
+                return 4096;
+            default:
+                throw new IllegalArgumentException("Unknown payload size: " + size);
+        }
+    }
+
+    static List<Item> items(String size) {
+        int count = itemCount(size);
+        List<Item> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Item item = new Item();
+            item.id = i;
+            item.name = "item-" + i;
+            item.tags = Arrays.asList("alpha", "beta", "tag-" + (i % 16));
+            item.metrics = new LinkedHashMap<>();
+            item.metrics.put("score", i * 0.5);
+            item.metrics.put("weight", i * 1.25);
+            items.add(item);
+        }
+        return items;
+    }
+
+    public static class Item {
+
+        private int id;
+        private String name;
+        private List<String> tags;
+        private Map<String, Double> metrics;
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Item item = (Item) o;
+            return id == item.id && Objects.equals(name, item.name)
+                    && Objects.equals(tags, item.tags) && Objects.equals(metrics, item.metrics);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(id, name, tags, metrics);
+        }
+    }
+
+    public interface PayloadService {
+
+        List<Item> echo(List<Item> items, String tag);
+
+    }
+
+    /**
+     * 与 {@link PayloadService} 对应的异步客户端接口.
+     */
+    public interface AsyncPayloadService {
+
+        CompletableFuture<List<Item>> echo(List<Item> items, String tag);
+
+    }
+
+    public static class PayloadServiceImpl implements PayloadService {
+
+        @Override
+        public List<Item> echo(List<Item> items, String tag) {
+            return items;
+        }
+
+    }
+
+}
@@ -0,0 +1,58 @@
+package net.lamgc.jsonrpc;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonPrimitive;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 从请求报文到响应报文的服务端完整处理流程.
+ * <p>
+ * tree 先将报文解析为 {@link JsonRpcRequest}, 执行后再将 {@link JsonRpcResponse} 序列化为报文;
+ * streaming 直接从字符流读取请求, 并将响应直接写入 JsonWriter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExecutorPipelineBenchmark {
+
+    @Param({"small", "medium", "large"})
+    public String size;
+
+    private Gson gson;
+    private JsonRpcExecutor executor;
+    private String requestJson;
+
+    @Setup
+    public void setup() {
+        gson = JsonRpcUtils.createGsonForJsonRpc();
+        executor = new SimpleJsonRpcExecutor(new BenchmarkPayloads.PayloadServiceImpl(), gson);
+
+        JsonArray params = new JsonArray();
+        params.add(gson.toJsonTree(BenchmarkPayloads.items(size)));
+        params.add("tag");
+        requestJson = gson.toJson(new JsonRpcRequest("echo", params, new JsonPrimitive(1)));
+    }
+
+    @Benchmark
+    public String tree() {
+        JsonRpcRequest request = gson.fromJson(requestJson, JsonRpcRequest.class);
+        return gson.toJson(executor.execute(request));
+    }
+
+    @Benchmark
+    public String streaming() throws IOException {
+        StringWriter output = new StringWriter();
+        executor.execute(new StringReader(requestJson), gson.newJsonWriter(output));
+        return output.toString();
+    }
+
+}
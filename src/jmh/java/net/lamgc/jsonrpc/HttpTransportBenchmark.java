@@ -0,0 +1,76 @@
+package net.lamgc.jsonrpc;
+
+import net.lamgc.jsonrpc.transport.HttpClientJsonRpcRequestTransporter;
+import net.lamgc.jsonrpc.transport.HttpJsonRpcServer;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对比不同连接数量下 {@link HttpClientJsonRpcRequestTransporter} 的吞吐量.
+ * <p>
+ * 每次调用同时发出 {@link #CONCURRENCY} 个异步请求并等待全部完成; 在 HTTP/1.1 下,
+ * {@link #maxConcurrentRequests} 即为连接池中最多使用的连接数量 (0 表示不限制).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HttpTransportBenchmark {
+
+    private final static int CONCURRENCY = 64;
+
+    @Param({"1", "4", "16", "0"})
+    public int maxConcurrentRequests;
+
+    @Param({"small"})
+    public String size;
+
+    private HttpJsonRpcServer server;
+    private BenchmarkPayloads.AsyncPayloadService service;
+    private List<BenchmarkPayloads.Item> items;
+
+    @Setup
+    public void setup() throws IOException {
+        server = HttpJsonRpcServer.builder(new SimpleJsonRpcExecutor(
+                        new BenchmarkPayloads.PayloadServiceImpl(), JsonRpcUtils.createGsonForJsonRpc()))
+                .bind(new InetSocketAddress("127.0.0.1", 0))
+                .workerThreads(16)
+                .stopDelay(0)
+                .noDelay(true)
+                .build();
+        server.start();
+        HttpClientJsonRpcRequestTransporter transporter = HttpClientJsonRpcRequestTransporter
+                .builder(URI.create("http://127.0.0.1:" + server.getLocalAddress().getPort() + "/"))
+                .version(HttpClient.Version.HTTP_1_1)
+                .maxConcurrentRequests(maxConcurrentRequests)
+                .build();
+        service = JsonRpcProxyGenerator.createProxy(
+                BenchmarkPayloads.AsyncPayloadService.class, transporter, JsonRpcUtils.createGsonForJsonRpc());
+        items = BenchmarkPayloads.items(size);
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CONCURRENCY)
+    public Object concurrentCalls() {
+        CompletableFuture<?>[] futures = new CompletableFuture[CONCURRENCY];
+        for (int i = 0; i < CONCURRENCY; i++) {
+            futures[i] = service.echo(items, "http");
+        }
+        return CompletableFuture.allOf(futures).join();
+    }
+
+}
@@ -0,0 +1,94 @@
+package net.lamgc.jsonrpc;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonPrimitive;
+import net.lamgc.jsonrpc.serializer.GsonParameterDeserializer;
+import net.lamgc.jsonrpc.serializer.GsonReturnValueSerializer;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对比反射调用与 {@link SimpleJsonRpcExecutor} 中基于 MethodHandle 的调用.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MethodDispatchBenchmark {
+
+    private JsonRpcExecutor reflectiveExecutor;
+    private JsonRpcExecutor methodHandleExecutor;
+    private Method plusMethod;
+    private Object[] plusArgs;
+    private JsonRpcRequest plusRequest;
+
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        Gson gson = JsonRpcUtils.createGsonForJsonRpc();
+        reflectiveExecutor = new ReflectiveJsonRpcExecutor(new Handler(), gson);
+        methodHandleExecutor = new SimpleJsonRpcExecutor(new Handler(), gson);
+        plusMethod = Handler.class.getMethod("plus", int.class, int.class);
+        plusArgs = new Object[]{42, 23};
+
+        JsonArray params = new JsonArray();
+        params.add(42);
+        params.add(23);
+        plusRequest = new JsonRpcRequest("plus", params, new JsonPrimitive(1));
+    }
+
+    @Benchmark
+    public Object reflectiveInvoke() throws Exception {
+        return reflectiveExecutor.invokeMethod(plusMethod, plusArgs);
+    }
+
+    @Benchmark
+    public Object methodHandleInvoke() throws Exception {
+        return methodHandleExecutor.invokeMethod(plusMethod, plusArgs);
+    }
+
+    @Benchmark
+    public JsonRpcResponse reflectiveExecute() {
+        return reflectiveExecutor.execute(plusRequest);
+    }
+
+    @Benchmark
+    public JsonRpcResponse methodHandleExecute() {
+        return methodHandleExecutor.execute(plusRequest);
+    }
+
+    /**
+     * 仅使用 {@link JsonRpcExecutor} 默认反射调用的执行器.
+     */
+    private static final class ReflectiveJsonRpcExecutor extends JsonRpcExecutor {
+
+        private final Map<String, Method> nameToMethod = new HashMap<>();
+
+        ReflectiveJsonRpcExecutor(Object handler, Gson gson) {
+            super(handler, new GsonParameterDeserializer(gson), new GsonReturnValueSerializer(gson));
+            for (Method method : handler.getClass().getDeclaredMethods()) {
+                nameToMethod.put(method.getName(), method);
+            }
+        }
+
+        @Override
+        protected Method findMethod(JsonRpcRequest request) {
+            return nameToMethod.get(request.getMethod());
+        }
+    }
+
+    public static class Handler {
+
+        public int plus(int n1, int n2) {
+            return n1 + n2;
+        }
+
+    }
+
+}
@@ -0,0 +1,67 @@
+package net.lamgc.jsonrpc;
+
+import com.google.gson.Gson;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对比手动串联多个 {@link SimpleJsonRpcExecutor} (拆分方法名称后分两次查找) 与 {@link NamespacedJsonRpcExecutor} 的单次查找.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NamespaceRoutingBenchmark {
+
+    private final static int NAMESPACE_COUNT = 32;
+
+    private final Map<String, SimpleJsonRpcExecutor> chainedExecutors = new HashMap<>();
+    private NamespacedJsonRpcExecutor namespacedExecutor;
+    private JsonRpcRequest request;
+
+    @Setup
+    public void setup() {
+        Gson gson = JsonRpcUtils.createGsonForJsonRpc();
+        namespacedExecutor = new NamespacedJsonRpcExecutor(gson);
+        for (int i = 0; i < NAMESPACE_COUNT; i++) {
+            chainedExecutors.put("service" + i, new SimpleJsonRpcExecutor(new Handler(), gson));
+            namespacedExecutor.register("service" + i, new Handler());
+        }
+        request = new JsonRpcRequest("service17.update", null, null);
+    }
+
+    @Benchmark
+    public MethodPlan chainedLookup() {
+        String method = request.getMethod();
+        int separator = method.indexOf('.');
+        SimpleJsonRpcExecutor executor = chainedExecutors.get(method.substring(0, separator));
+        return executor.findMethodPlan(new JsonRpcRequest(method.substring(separator + 1), null, null));
+    }
+
+    @Benchmark
+    public MethodPlan namespacedLookup() {
+        return namespacedExecutor.findMethodPlan(request);
+    }
+
+    public static class Handler {
+
+        public int get(int id) {
+            return id;
+        }
+
+        public int update(int id) {
+            return id;
+        }
+
+        public int remove(int id) {
+            return id;
+        }
+
+    }
+
+}
@@ -0,0 +1,79 @@
+package net.lamgc.jsonrpc;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.stream.JsonReader;
+import net.lamgc.jsonrpc.serializer.GsonParameterDeserializer;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link net.lamgc.jsonrpc.serializer.AbstractParameterDeserializer} 以位置参数和命名参数绑定方法参数的开销,
+ * 分别测试从 JsonElement 绑定和从 JsonReader 流式绑定.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParameterBindingBenchmark {
+
+    @Param({"small", "medium", "large"})
+    public String size;
+
+    private GsonParameterDeserializer deserializer;
+    private MethodPlan plan;
+    private JsonRpcRequest positionalRequest;
+    private JsonRpcRequest namedRequest;
+    private String positionalJson;
+    private String namedJson;
+
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        Gson gson = JsonRpcUtils.createGsonForJsonRpc();
+        deserializer = new GsonParameterDeserializer(gson);
+        plan = MethodPlan.of(BenchmarkPayloads.PayloadService.class.getMethod("echo", List.class, String.class));
+        if (!plan.isNamedParameterSupported()) {
+            throw new IllegalStateException("The benchmarks must be compiled with -parameters.");
+        }
+
+        JsonArray positional = new JsonArray();
+        positional.add(gson.toJsonTree(BenchmarkPayloads.items(size)));
+        positional.add("tag");
+        JsonObject named = new JsonObject();
+        named.add("items", gson.toJsonTree(BenchmarkPayloads.items(size)));
+        named.addProperty("tag", "tag");
+
+        positionalRequest = new JsonRpcRequest("echo", positional, new JsonPrimitive(1));
+        namedRequest = new JsonRpcRequest("echo", named, new JsonPrimitive(1));
+        positionalJson = gson.toJson(positional);
+        namedJson = gson.toJson(named);
+    }
+
+    @Benchmark
+    public Object[] bindPositional() throws Exception {
+        return deserializer.deserializer(plan, positionalRequest);
+    }
+
+    @Benchmark
+    public Object[] bindNamed() throws Exception {
+        return deserializer.deserializer(plan, namedRequest);
+    }
+
+    @Benchmark
+    public Object[] bindPositionalStreaming() throws Exception {
+        return deserializer.deserializer(plan, new JsonReader(new StringReader(positionalJson)));
+    }
+
+    @Benchmark
+    public Object[] bindNamedStreaming() throws Exception {
+        return deserializer.deserializer(plan, new JsonReader(new StringReader(namedJson)));
+    }
+
+}
@@ -0,0 +1,58 @@
+package net.lamgc.jsonrpc;
+
+import com.google.gson.Gson;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 通过 {@link JsonRpcProxyGenerator} 生成的代理对象调用方法的完整往返.
+ * <p>
+ * 传输器在内存中将请求序列化为报文, 交由服务端执行后再将响应报文解析为 {@link JsonRpcResponse},
+ * 因此测试结果包括客户端和服务端两侧的序列化开销, 但不包括网络开销.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProxyRoundTripBenchmark {
+
+    @Param({"small", "medium", "large"})
+    public String size;
+
+    private BenchmarkPayloads.PayloadService positionalProxy;
+    private BenchmarkPayloads.PayloadService namedProxy;
+    private List<BenchmarkPayloads.Item> items;
+
+    @Setup
+    public void setup() {
+        Gson gson = JsonRpcUtils.createGsonForJsonRpc();
+        JsonRpcExecutor executor = new SimpleJsonRpcExecutor(new BenchmarkPayloads.PayloadServiceImpl(), gson);
+        JsonRpcRequestTransporter transporter = request -> {
+            StringWriter output = new StringWriter();
+            executor.execute(new StringReader(gson.toJson(request)), gson.newJsonWriter(output));
+            return gson.fromJson(output.toString(), JsonRpcResponse.class);
+        };
+        positionalProxy = JsonRpcProxyGenerator.createProxy(
+                BenchmarkPayloads.PayloadService.class, transporter, gson, false);
+        namedProxy = JsonRpcProxyGenerator.createProxy(
+                BenchmarkPayloads.PayloadService.class, transporter, gson, true);
+        items = BenchmarkPayloads.items(size);
+    }
+
+    @Benchmark
+    public List<BenchmarkPayloads.Item> positional() {
+        return positionalProxy.echo(items, "tag");
+    }
+
+    @Benchmark
+    public List<BenchmarkPayloads.Item> named() {
+        return namedProxy.echo(items, "tag");
+    }
+
+}
@@ -0,0 +1,61 @@
+package net.lamgc.jsonrpc;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonPrimitive;
+import net.lamgc.jsonrpc.serializer.json.JsonRpcResponseWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link net.lamgc.jsonrpc.serializer.json.JsonRpcRequestSerializer} 解析请求报文,
+ * 以及 {@link net.lamgc.jsonrpc.serializer.json.JsonRpcResponseSerializer} 和 {@link JsonRpcResponseWriter} 写出响应报文的开销.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"small", "medium", "large"})
+    public String size;
+
+    private Gson gson;
+    private JsonRpcResponseWriter responseWriter;
+    private String requestJson;
+    private JsonRpcResponse response;
+
+    @Setup
+    public void setup() {
+        gson = JsonRpcUtils.createGsonForJsonRpc();
+        responseWriter = new JsonRpcResponseWriter(gson);
+
+        JsonArray params = new JsonArray();
+        params.add(gson.toJsonTree(BenchmarkPayloads.items(size)));
+        params.add("tag");
+        requestJson = gson.toJson(new JsonRpcRequest("echo", params, new JsonPrimitive(1)));
+        response = new JsonRpcResponse(gson.toJsonTree(BenchmarkPayloads.items(size)), new JsonPrimitive(1));
+    }
+
+    @Benchmark
+    public JsonRpcRequest parseRequest() {
+        return gson.fromJson(requestJson, JsonRpcRequest.class);
+    }
+
+    @Benchmark
+    public String serializeResponse() {
+        return gson.toJson(response);
+    }
+
+    @Benchmark
+    public StringBuilder writeResponse() throws IOException {
+        StringBuilder builder = new StringBuilder();
+        responseWriter.write(response, builder);
+        return builder;
+    }
+
+}
@@ -0,0 +1,66 @@
+package net.lamgc.jsonrpc;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonPrimitive;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 比较 {@link JsonRpcProxyGenerator} 生成的动态代理与 {@link JsonRpcStubGenerator} 生成的存根在客户端的调用开销.
+ * <p>
+ * 传输器直接返回预先构造的响应, 不经过服务端, 因此测试结果只包括客户端分派方法, 序列化参数和转换返回值的开销.
+ * add 使用基本类型的参数和返回值, 用于观察分派本身的开销; echo 使用与其他基准测试相同的负载.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StubDispatchBenchmark {
+
+    @Param({"proxy", "stub"})
+    public String implementation;
+
+    private CalculatorService calculator;
+    private BenchmarkPayloads.PayloadService payloadService;
+    private List<BenchmarkPayloads.Item> items;
+
+    @Setup
+    public void setup() {
+        Gson gson = JsonRpcUtils.createGsonForJsonRpc();
+        items = BenchmarkPayloads.items("small");
+        JsonPrimitive sum = new JsonPrimitive(3);
+        JsonRpcRequestTransporter calculatorTransporter = request -> new JsonRpcResponse(sum, request.getId());
+        JsonRpcRequestTransporter payloadTransporter =
+                request -> new JsonRpcResponse(gson.toJsonTree(items), request.getId());
+        if ("proxy".equals(implementation)) {
+            calculator = JsonRpcProxyGenerator.createProxy(CalculatorService.class, calculatorTransporter, gson, false);
+            payloadService = JsonRpcProxyGenerator.createProxy(
+                    BenchmarkPayloads.PayloadService.class, payloadTransporter, gson, false);
+        } else {
+            calculator = JsonRpcStubGenerator.createStub(CalculatorService.class, calculatorTransporter, gson, false);
+            payloadService = JsonRpcStubGenerator.createStub(
+                    BenchmarkPayloads.PayloadService.class, payloadTransporter, gson, false);
+        }
+    }
+
+    @Benchmark
+    public int add() {
+        return calculator.add(1, 2);
+    }
+
+    @Benchmark
+    public List<BenchmarkPayloads.Item> echo() {
+        return payloadService.echo(items, "tag");
+    }
+
+    public interface CalculatorService {
+
+        int add(int a, int b);
+
+    }
+
+}
@@ -0,0 +1,86 @@
+package net.lamgc.jsonrpc;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对比固定大小的平台线程池与虚拟线程执行阻塞方法的批量请求.
+ * <p>
+ * 每个请求调用的方法都会阻塞 {@link #blockMillis} 毫秒, 用于模拟 JDBC 或 HTTP 调用.
+ * 运行时不支持虚拟线程时, virtual 模式将在初始化时失败.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VirtualThreadDispatchBenchmark {
+
+    @Param({"platform", "virtual"})
+    public String mode;
+
+    @Param({"256"})
+    public int batchSize;
+
+    @Param({"16"})
+    public int platformThreads;
+
+    @Param({"1"})
+    public int blockMillis;
+
+    private ExecutorService executorService;
+    private JsonRpcExecutor executor;
+    private JsonArray batch;
+
+    @Setup
+    public void setup() {
+        if ("virtual".equals(mode)) {
+            if (!VirtualThreads.isSupported()) {
+                throw new IllegalStateException("Virtual threads are not supported by the current runtime.");
+            }
+            executorService = VirtualThreads.newVirtualThreadPerTaskExecutor();
+        } else {
+            executorService = Executors.newFixedThreadPool(platformThreads);
+        }
+        executor = new SimpleJsonRpcExecutor(new BlockingHandler(), JsonRpcUtils.createGsonForJsonRpc());
+
+        batch = new JsonArray();
+        for (int i = 0; i < batchSize; i++) {
+            JsonObject request = new JsonObject();
+            request.addProperty(JsonRpcConst.JSON_RPC_VERSION_FIELD, JsonRpcConst.JSON_RPC_VERSION_VALUE);
+            request.addProperty(JsonRpcConst.JSON_RPC_REQUEST_METHOD_FIELD, "block");
+            JsonArray params = new JsonArray();
+            params.add(blockMillis);
+            request.add(JsonRpcConst.JSON_RPC_REQUEST_PARAMS_FIELD, params);
+            request.addProperty(JsonRpcConst.JSON_RPC_ID_FIELD, i);
+            batch.add(request);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Benchmark
+    public List<JsonRpcResponse> executeBatch() {
+        return executor.executeBatch(batch, executorService);
+    }
+
+    public static class BlockingHandler {
+
+        public int block(int millis) throws InterruptedException {
+            Thread.sleep(millis);
+            return millis;
+        }
+
+    }
+
+}
@@ -0,0 +1,92 @@
+package net.lamgc.jsonrpc;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+
+/**
+ * 异步 Json RPC 执行器.
+ * <p>
+ * 包装一个 {@link JsonRpcExecutor}, 以 {@link CompletableFuture} 的形式返回响应.
+ * <p>
+ * 返回类型为 {@link CompletionStage} (包括 {@link CompletableFuture}) 的方法被视为异步方法,
+ * 异步方法的结果将在其 CompletionStage 完成后按类型参数序列化 (例如 {@code CompletableFuture<List<String>>}
+ * 将按 {@code List<String>} 序列化), 等待期间不会占用任何线程. 如果 CompletionStage 异常完成,
+ * 则与同步方法抛出异常时的处理方式相同.
+ * <p>
+ * 同步方法默认在调用线程中执行, 如果方法可能阻塞, 可以指定执行同步方法的执行器.
+ */
+public final class AsyncJsonRpcExecutor {
+
+    private final JsonRpcExecutor executor;
+
+    private final Executor blockingExecutor;
+
+    /**
+     * 构造一个异步 Json RPC 执行器, 同步方法将在调用线程中执行.
+     *
+     * @param executor 实际执行请求的执行器.
+     */
+    public AsyncJsonRpcExecutor(JsonRpcExecutor executor) {
+        this(executor, null);
+    }
+
+    /**
+     * 构造一个异步 Json RPC 执行器.
+     *
+     * @param executor         实际执行请求的执行器.
+     * @param blockingExecutor 执行同步方法的执行器, 如果为 null, 则同步方法将在调用线程中执行.
+     */
+    public AsyncJsonRpcExecutor(JsonRpcExecutor executor, Executor blockingExecutor) {
+        this.executor = Objects.requireNonNull(executor);
+        this.blockingExecutor = blockingExecutor;
+    }
+
+    /**
+     * 异步执行 JsonRpc 请求.
+     *
+     * @param request JsonRpc 请求对象.
+     * @return 返回对应的 Json RPC 响应, 即使 Json RPC 请求不包含 id, 也会返回一个 Json RPC 响应.
+     * 执行过程中出现的异常均会转换为错误响应, 返回的 CompletableFuture 不会因为方法执行失败而异常完成.
+     * @see JsonRpcExecutor#execute(JsonRpcRequest)
+     */
+    public CompletableFuture<JsonRpcResponse> executeAsync(JsonRpcRequest request) {
+        return executor.executeAsync(request, blockingExecutor);
+    }
+
+    /**
+     * 异步处理 JsonRpc 请求.
+     * <p>
+     * 如果请求是通知, 则按 {@link JsonRpcExecutor#handle(JsonRpcRequest)} 处理, 并返回以 null 完成的 CompletableFuture;
+     * 否则与 {@link #executeAsync(JsonRpcRequest)} 相同.
+     *
+     * @param request JsonRpc 请求对象.
+     * @return 返回对应的 Json RPC 响应, 如果请求是通知, 则以 null 完成.
+     */
+    public CompletableFuture<JsonRpcResponse> handleAsync(JsonRpcRequest request) {
+        if (request.getId() != null) {
+            return executeAsync(request);
+        }
+        executor.handle(request);
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * 获取实际执行请求的执行器.
+     *
+     * @return 返回实际执行请求的执行器.
+     */
+    public JsonRpcExecutor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * 获取执行同步方法的执行器.
+     *
+     * @return 如果同步方法在调用线程中执行, 则返回 null.
+     */
+    public Executor getBlockingExecutor() {
+        return blockingExecutor;
+    }
+}
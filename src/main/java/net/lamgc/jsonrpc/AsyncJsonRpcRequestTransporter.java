@@ -0,0 +1,85 @@
+package net.lamgc.jsonrpc;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+
+/**
+ * 异步 JsonRpc 请求传输器.
+ * <p>
+ * 与 {@link JsonRpcRequestTransporter} 不同, 异步传输器在发出请求后立即返回, 并在收到响应后完成 CompletableFuture,
+ * 等待响应期间不占用任何线程. 配合 {@link JsonRpcProxyGenerator} 使用时,
+ * 返回类型为 {@link CompletableFuture} 或 {@link java.util.concurrent.CompletionStage} 的接口方法将以异步方式调用.
+ */
+public interface AsyncJsonRpcRequestTransporter extends JsonRpcRequestTransporter {
+
+    /**
+     * 将阻塞的请求传输器包装为异步请求传输器.
+     * <p>
+     * 请求将在 executor 中传输, 调用线程不会被阻塞. 配合 {@link VirtualThreads#newVirtualThreadPerTaskExecutor()} 使用时,
+     * 每个请求都将在一个虚拟线程中传输, 阻塞的传输器也可以支持大量同时进行的请求.
+     *
+     * @param transporter 阻塞的请求传输器.
+     * @param executor    执行传输的执行器.
+     * @return 返回异步请求传输器.
+     */
+    static AsyncJsonRpcRequestTransporter of(JsonRpcRequestTransporter transporter, Executor executor) {
+        Objects.requireNonNull(transporter);
+        Objects.requireNonNull(executor);
+        return new AsyncJsonRpcRequestTransporter() {
+            @Override
+            public CompletableFuture<JsonRpcResponse> transportRequestAsync(JsonRpcRequest request) {
+                CompletableFuture<JsonRpcResponse> future = new CompletableFuture<>();
+                executor.execute(() -> {
+                    try {
+                        future.complete(transporter.transportRequest(request));
+                    } catch (Throwable e) {
+                        future.completeExceptionally(e);
+                    }
+                });
+                return future;
+            }
+
+            @Override
+            public JsonRpcResponse transportRequest(JsonRpcRequest request) throws Exception {
+                // 同步调用时调用线程本身就需要等待, 直接传输即可.
+                return transporter.transportRequest(request);
+            }
+        };
+    }
+
+    /**
+     * 异步传输 JsonRpc 请求, 并在接收到服务端传回的 JsonRpc 响应后完成 CompletableFuture.
+     *
+     * @param request 需要发送的 JsonRpc 请求对象.
+     * @return 返回一个 CompletableFuture, 将以服务端传回的 JsonRpc 响应对象完成;
+     * 当发生异常无法发送请求或接收请求时, 将异常完成.
+     */
+    CompletableFuture<JsonRpcResponse> transportRequestAsync(JsonRpcRequest request);
+
+    /**
+     * 传输 JsonRpc 请求并等待服务端传回的 JsonRpc 响应.
+     * <p>
+     * 默认实现将调用 {@link #transportRequestAsync(JsonRpcRequest)} 并等待其完成.
+     *
+     * @param request 需要发送的 JsonRpc 请求对象.
+     * @return 返回服务端传回的 JsonRpc 响应对象.
+     * @throws Exception 当发生异常无法发送请求或接收请求时, 将抛出 CompletableFuture 异常完成的原因.
+     */
+    @Override
+    default JsonRpcResponse transportRequest(JsonRpcRequest request) throws Exception {
+        try {
+            return transportRequestAsync(request).get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+}
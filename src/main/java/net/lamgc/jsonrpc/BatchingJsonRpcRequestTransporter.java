@@ -0,0 +1,207 @@
+package net.lamgc.jsonrpc;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonPrimitive;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 自动合并请求的传输器.
+ * <p>
+ * 在一个较短的时间窗口内发出的请求会被合并为一个 JsonRpc 批量请求, 通过 {@link JsonRpcBatchRequestTransporter} 发出,
+ * 收到批量响应后再按 id 分发给各个调用方. 时间窗口从窗口内的第一个请求开始计算, 请求数量达到上限时将立即发出.
+ * <p>
+ * 适用于大量线程同时通过 {@link JsonRpcProxyGenerator} 生成的代理对象发起调用的场景, 可以减少往返次数;
+ * 代价是每个请求最多会被延迟一个时间窗口. 合并时请求的 id 将被替换为批量请求内唯一的 id,
+ * 响应依然以原请求的 id 返回, 因此调用方使用的 id 无需唯一.
+ */
+public final class BatchingJsonRpcRequestTransporter implements AsyncJsonRpcRequestTransporter, Closeable {
+
+    private final static Logger logger = LoggerFactory.getLogger(BatchingJsonRpcRequestTransporter.class);
+
+    private final static ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "jsonrpc-batching-scheduler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final JsonRpcBatchRequestTransporter transporter;
+    private final int maxBatchSize;
+    private final long windowNanos;
+
+    private final AtomicLong idGenerator = new AtomicLong();
+
+    private List<PendingRequest> currentBatch = new ArrayList<>();
+    private ScheduledFuture<?> flushTask;
+    private boolean closed = false;
+
+    /**
+     * 构造一个自动合并请求的传输器.
+     *
+     * @param transporter  实际发出批量请求的传输器.
+     * @param maxBatchSize 单个批量请求包含的最大请求数量.
+     * @param window       时间窗口长度.
+     * @param unit         时间窗口的单位.
+     */
+    public BatchingJsonRpcRequestTransporter(JsonRpcBatchRequestTransporter transporter,
+                                             int maxBatchSize, long window, TimeUnit unit) {
+        this.transporter = Objects.requireNonNull(transporter);
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("maxBatchSize must be greater than 0.");
+        } else if (window < 0) {
+            throw new IllegalArgumentException("window cannot be negative.");
+        }
+        this.maxBatchSize = maxBatchSize;
+        this.windowNanos = unit.toNanos(window);
+    }
+
+    @Override
+    public CompletableFuture<JsonRpcResponse> transportRequestAsync(JsonRpcRequest request) {
+        Objects.requireNonNull(request);
+        PendingRequest pending = new PendingRequest(request);
+        List<PendingRequest> fullBatch = null;
+        synchronized (this) {
+            if (closed) {
+                return CompletableFuture.failedFuture(new IOException("The transporter has been closed."));
+            }
+            currentBatch.add(pending);
+            if (currentBatch.size() >= maxBatchSize) {
+                fullBatch = takeBatch();
+            } else if (flushTask == null) {
+                flushTask = scheduler.schedule(this::flush, windowNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+        if (fullBatch != null) {
+            send(fullBatch);
+        }
+        return pending.future;
+    }
+
+    /**
+     * 立即发出当前时间窗口内的请求.
+     */
+    public void flush() {
+        List<PendingRequest> batch;
+        synchronized (this) {
+            batch = takeBatch();
+        }
+        send(batch);
+    }
+
+    private List<PendingRequest> takeBatch() {
+        List<PendingRequest> batch = currentBatch;
+        currentBatch = new ArrayList<>();
+        if (flushTask != null) {
+            flushTask.cancel(false);
+            flushTask = null;
+        }
+        return batch;
+    }
+
+    private void send(List<PendingRequest> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<JsonRpcRequest> requests = new ArrayList<>(batch.size());
+        Map<Long, PendingRequest> pendingRequests = new HashMap<>(batch.size() * 2);
+        for (PendingRequest pending : batch) {
+            JsonRpcRequest request = pending.request;
+            if (request.getId() == null) {
+                requests.add(request);
+                continue;
+            }
+            long id = idGenerator.incrementAndGet();
+            pendingRequests.put(id, pending);
+            requests.add(new JsonRpcRequest(request.getMethod(), request.getParams(), new JsonPrimitive(id)));
+        }
+
+        CompletableFuture<List<JsonRpcResponse>> future;
+        try {
+            future = transporter.transportBatchAsync(requests);
+        } catch (Throwable e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        future.whenComplete((responses, cause) -> {
+            if (cause != null) {
+                for (PendingRequest pending : batch) {
+                    pending.future.completeExceptionally(cause);
+                }
+                return;
+            }
+            try {
+                correlate(responses, pendingRequests);
+            } finally {
+                // 即使响应无法处理, 也要完成所有请求, 否则调用方将一直等待.
+                for (PendingRequest pending : batch) {
+                    if (pending.request.getId() == null) {
+                        pending.future.complete(null);
+                    } else if (!pending.future.isDone()) {
+                        pending.future.completeExceptionally(new IOException(
+                                "No response was received for request " + pending.request.getId() + " in the batch."));
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * 以响应中的 id 找到对应的请求, 并以响应完成请求.
+     * <p>
+     * 无法对应到请求的响应 (包括 id 为空或响应本身为空的情况) 将被忽略.
+     */
+    private static void correlate(List<JsonRpcResponse> responses, Map<Long, PendingRequest> pendingRequests) {
+        if (responses == null) {
+            logger.warn("The transporter completed the batch without a response list.");
+            return;
+        }
+        for (JsonRpcResponse response : responses) {
+            JsonElement id = response != null ? response.getId() : null;
+            // 解析得到的数字与 Long 类型的 JsonPrimitive 哈希值不同, 因此以 long 作为键.
+            PendingRequest pending = id != null && id.isJsonPrimitive() && id.getAsJsonPrimitive().isNumber()
+                    ? pendingRequests.remove(id.getAsLong()) : null;
+            if (pending == null) {
+                logger.warn("Received a response that cannot be correlated to any request: {}", response);
+                continue;
+            }
+            pending.future.complete(new JsonRpcResponse(response.getResult(), pending.request.getId()));
+        }
+    }
+
+    /**
+     * 发出尚未发出的请求, 之后的请求将以 {@link IOException} 异常完成.
+     * <p>
+     * 不会关闭实际发出请求的传输器.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+        }
+        flush();
+    }
+
+    private static final class PendingRequest {
+
+        private final JsonRpcRequest request;
+        private final CompletableFuture<JsonRpcResponse> future = new CompletableFuture<>();
+
+        private PendingRequest(JsonRpcRequest request) {
+            this.request = request;
+        }
+    }
+
+}
@@ -0,0 +1,157 @@
+package net.lamgc.jsonrpc;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
+import java.util.Map;
+
+/**
+ * 由方法名称和参数列表组成的调用键, 用于结果缓存和合并调用.
+ * <p>
+ * 与 {@link JsonRpcRequest#equals(Object)} 不同, 调用键不包括请求的 id, 并且使用结构化的哈希值:
+ * 哈希值在创建时通过一次遍历参数列表计算, 数值按其文本形式计算哈希值, 不需要像 {@link JsonPrimitive#hashCode()}
+ * 那样将数值解析为 long 或 double; 对象成员的哈希值与成员顺序无关.
+ * <p>
+ * 相等比较同样是结构化的, 对象成员的顺序不影响比较结果, 数值按文本形式比较 (因此 {@code 1} 与 {@code 1.0} 不相等,
+ * 只会使这两个调用不能共享结果). 创建调用键后, 不应再修改参数列表.
+ */
+final class CallKey {
+
+    private final String method;
+    private final JsonElement params;
+    private final int hash;
+
+    private CallKey(String method, JsonElement params, int hash) {
+        this.method = method;
+        this.params = params;
+        this.hash = hash;
+    }
+
+    /**
+     * 创建调用键.
+     *
+     * @param method 方法名称.
+     * @param params 请求的参数列表, 可以为 null.
+     * @return 返回调用键.
+     */
+    static CallKey of(String method, JsonElement params) {
+        return new CallKey(method, params, 31 * method.hashCode() + structuralHash(params));
+    }
+
+    /**
+     * 创建一个参数列表与请求无关的副本, 用于需要长期保存的场合 (例如结果缓存).
+     *
+     * @return 返回调用键的副本.
+     */
+    CallKey detach() {
+        return params == null ? this : new CallKey(method, params.deepCopy(), hash);
+    }
+
+    String getMethod() {
+        return method;
+    }
+
+    /**
+     * 计算 JsonElement 的结构化哈希值.
+     *
+     * @param element 需要计算哈希值的元素, 可以为 null (与 JsonNull 相同).
+     * @return 返回哈希值.
+     */
+    static int structuralHash(JsonElement element) {
+        if (element == null || element.isJsonNull()) {
+            return 0;
+        } else if (element.isJsonPrimitive()) {
+            JsonPrimitive primitive = (JsonPrimitive) element;
+            // 以不同的值区分相同文本的数值, 字符串和布尔值.
+            int kind = primitive.isNumber() ? 1 : primitive.isString() ? 2 : 3;
+            return 31 * primitive.getAsString().hashCode() + kind;
+        } else if (element.isJsonArray()) {
+            JsonArray array = (JsonArray) element;
+            int hash = 1;
+            for (int i = 0; i < array.size(); i++) {
+                hash = 31 * hash + structuralHash(array.get(i));
+            }
+            return hash;
+        }
+        int hash = 7;
+        for (Map.Entry<String, JsonElement> member : ((JsonObject) element).entrySet()) {
+            hash += member.getKey().hashCode() ^ structuralHash(member.getValue());
+        }
+        return hash;
+    }
+
+    /**
+     * 结构化地比较两个 JsonElement.
+     *
+     * @param a 第一个元素, 可以为 null (与 JsonNull 相同).
+     * @param b 第二个元素, 可以为 null (与 JsonNull 相同).
+     * @return 如果两个元素的结构和值均相同, 则返回 true.
+     */
+    static boolean structuralEquals(JsonElement a, JsonElement b) {
+        if (a == b) {
+            return true;
+        } else if (a == null || a.isJsonNull()) {
+            return b == null || b.isJsonNull();
+        } else if (b == null) {
+            return false;
+        } else if (a.isJsonPrimitive()) {
+            if (!b.isJsonPrimitive()) {
+                return false;
+            }
+            JsonPrimitive x = (JsonPrimitive) a;
+            JsonPrimitive y = (JsonPrimitive) b;
+            return x.isNumber() == y.isNumber() && x.isString() == y.isString()
+                    && x.getAsString().equals(y.getAsString());
+        } else if (a.isJsonArray()) {
+            if (!b.isJsonArray()) {
+                return false;
+            }
+            JsonArray x = (JsonArray) a;
+            JsonArray y = (JsonArray) b;
+            if (x.size() != y.size()) {
+                return false;
+            }
+            for (int i = 0; i < x.size(); i++) {
+                if (!structuralEquals(x.get(i), y.get(i))) {
+                    return false;
+                }
+            }
+            return true;
+        } else if (!b.isJsonObject()) {
+            return false;
+        }
+        JsonObject x = (JsonObject) a;
+        JsonObject y = (JsonObject) b;
+        if (x.size() != y.size()) {
+            return false;
+        }
+        for (Map.Entry<String, JsonElement> member : x.entrySet()) {
+            // 对象成员的值不会是 null (JSON 的 null 为 JsonNull), 因此 null 表示 y 中没有该成员.
+            JsonElement other = y.get(member.getKey());
+            if (other == null || !structuralEquals(member.getValue(), other)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CallKey that = (CallKey) o;
+        return hash == that.hash && method.equals(that.method) && structuralEquals(params, that.params);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "CallKey{" + "method='" + method + '\'' + ", params=" + params + '}';
+    }
+}
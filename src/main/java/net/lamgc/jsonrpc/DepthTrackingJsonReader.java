@@ -0,0 +1,70 @@
+package net.lamgc.jsonrpc;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * 记录当前嵌套深度的 JsonReader.
+ * <p>
+ * 当类型适配器读取到一半失败时, 可通过 {@link #skipToDepth(int)} 跳过剩余内容, 回到失败前所在的层级,
+ * 以便继续读取请求中的其他字段.
+ */
+final class DepthTrackingJsonReader extends JsonReader {
+
+    private int depth = 0;
+
+    DepthTrackingJsonReader(Reader in) {
+        super(in);
+    }
+
+    @Override
+    public void beginArray() throws IOException {
+        super.beginArray();
+        depth++;
+    }
+
+    @Override
+    public void endArray() throws IOException {
+        super.endArray();
+        depth--;
+    }
+
+    @Override
+    public void beginObject() throws IOException {
+        super.beginObject();
+        depth++;
+    }
+
+    @Override
+    public void endObject() throws IOException {
+        super.endObject();
+        depth--;
+    }
+
+    int getDepth() {
+        return depth;
+    }
+
+    /**
+     * 跳过剩余内容, 直到回到指定的嵌套深度.
+     *
+     * @param targetDepth 目标深度.
+     * @throws IOException 当 JSON 格式有误时抛出.
+     */
+    void skipToDepth(int targetDepth) throws IOException {
+        while (depth > targetDepth) {
+            // skipValue 会单独跳过一个属性名称, 因此对象中的名称和值会分两次跳过.
+            while (hasNext()) {
+                skipValue();
+            }
+            if (peek() == JsonToken.END_ARRAY) {
+                endArray();
+            } else {
+                endObject();
+            }
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package net.lamgc.jsonrpc;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * JsonRpc 批量请求传输器.
+ * <p>
+ * 批量请求传输器将多个请求作为一个 JsonRpc 批量请求 (请求数组) 发出, 用于 {@link BatchingJsonRpcRequestTransporter}.
+ */
+public interface JsonRpcBatchRequestTransporter {
+
+    /**
+     * 将多个请求作为一个批量请求传输, 并在接收到服务端传回的批量响应后完成 CompletableFuture.
+     *
+     * @param requests 需要发送的 JsonRpc 请求对象, 请求的 id 在批量请求中唯一.
+     * @return 返回一个 CompletableFuture, 将以服务端传回的 JsonRpc 响应完成, 响应的顺序不必与请求一致,
+     * 通知没有对应的响应; 当发生异常无法发送请求或接收请求时, 将异常完成.
+     */
+    CompletableFuture<List<JsonRpcResponse>> transportBatchAsync(List<JsonRpcRequest> requests);
+
+}
@@ -0,0 +1,42 @@
+package net.lamgc.jsonrpc;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 标记客户端可以缓存结果的接口方法.
+ * <p>
+ * 创建代理对象或存根时指定了 {@link JsonRpcClientCache}, 被标记的方法的调用将经过该缓存:
+ * 参数相同的调用在有效期内直接返回已反序列化的结果, 同时进行的相同调用只发送一个请求.
+ * 未标记的方法不受影响.
+ * <p>
+ * 只应标记结果仅由参数决定的方法 (例如只读的查询). 由于缓存的结果在多个调用方之间共享, 调用方不应修改返回的对象.
+ *
+ * @see JsonRpcClientCache
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface JsonRpcCacheable {
+
+    /**
+     * 结果的有效期.
+     * <p>
+     * 为 0 时不缓存结果, 只合并同时进行的相同调用; 不能为负数.
+     *
+     * @return 返回有效期, 单位由 {@link #unit()} 指定.
+     */
+    long ttl();
+
+    /**
+     * 有效期的单位.
+     *
+     * @return 默认为秒.
+     */
+    TimeUnit unit() default TimeUnit.SECONDS;
+
+}
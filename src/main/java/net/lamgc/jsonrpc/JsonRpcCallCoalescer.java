@@ -0,0 +1,147 @@
+package net.lamgc.jsonrpc;
+
+import com.google.gson.JsonElement;
+
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 合并调用.
+ * <p>
+ * 对于指定的方法, 当方法名称与参数列表均相同的多个请求同时到达时, 只有第一个请求会调用方法,
+ * 其余请求等待该调用完成, 并以相同的结果 (或错误) 响应, 响应中的 id 为各个请求自身的 id.
+ * 与 {@link JsonRpcResultCache} 不同, 调用完成后不会保留结果, 之后到达的请求将重新调用方法.
+ * <p>
+ * 设置到执行器 ({@link JsonRpcExecutor#setCallCoalescer(JsonRpcCallCoalescer)}) 后生效, 通知不会被合并.
+ * 合并调用只适用于结果仅由参数决定, 并且调用期间多次调用与一次调用效果相同的方法 (例如只读的查询).
+ * <p>
+ * 该类是线程安全的, 同一个实例可以设置给多个执行器 (此时方法名称相同的调用会被合并).
+ */
+public final class JsonRpcCallCoalescer {
+
+    private final Set<String> methods;
+
+    private final ConcurrentMap<CallKey, CompletableFuture<JsonRpcResponse>> flights = new ConcurrentHashMap<>();
+
+    private final LongAdder coalescedCount = new LongAdder();
+
+    private JsonRpcCallCoalescer(Builder builder) {
+        this.methods = new HashSet<>(builder.methods);
+    }
+
+    /**
+     * 创建合并调用构建器.
+     *
+     * @return 返回合并调用构建器.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * 方法的调用是否会被合并.
+     *
+     * @param method 方法名称.
+     * @return 如果方法的调用会被合并, 则返回 true.
+     */
+    public boolean isCoalesced(String method) {
+        return method != null && methods.contains(method);
+    }
+
+    /**
+     * 创建调用键.
+     *
+     * @param method 方法名称.
+     * @param params 请求的参数列表, 可以为 null.
+     * @return 如果方法的调用不会被合并, 则返回 null.
+     */
+    CallKey key(String method, JsonElement params) {
+        if (!isCoalesced(method)) {
+            return null;
+        }
+        return CallKey.of(method, params);
+    }
+
+    /**
+     * 加入调用.
+     * <p>
+     * 如果已有相同的调用正在进行, 则返回该调用的响应; 否则将 flight 登记为正在进行的调用,
+     * 调用方需要调用方法, 并在完成 flight 之前调用 {@link #leave(CallKey, CompletableFuture)}.
+     *
+     * @param key    调用键.
+     * @param flight 当前请求的调用.
+     * @return 如果已有相同的调用正在进行, 则返回该调用的响应, 其中的 id 为发起该调用的请求的 id; 否则返回 null.
+     */
+    CompletableFuture<JsonRpcResponse> join(CallKey key, CompletableFuture<JsonRpcResponse> flight) {
+        CompletableFuture<JsonRpcResponse> leader = flights.putIfAbsent(key, flight);
+        if (leader != null) {
+            coalescedCount.increment();
+        }
+        return leader;
+    }
+
+    /**
+     * 结束调用, 之后到达的请求将重新调用方法.
+     *
+     * @param key    调用键.
+     * @param flight 通过 {@link #join(CallKey, CompletableFuture)} 登记的调用.
+     */
+    void leave(CallKey key, CompletableFuture<JsonRpcResponse> flight) {
+        flights.remove(key, flight);
+    }
+
+    /**
+     * 获取被合并的请求数.
+     *
+     * @return 返回等待其他请求的调用结果 (而没有调用方法) 的请求数.
+     */
+    public long getCoalescedCount() {
+        return coalescedCount.sum();
+    }
+
+    /**
+     * 获取正在进行的调用数.
+     *
+     * @return 返回正在进行的调用数.
+     */
+    public int getInFlightCount() {
+        return flights.size();
+    }
+
+    /**
+     * {@link JsonRpcCallCoalescer} 构建器.
+     */
+    public static final class Builder {
+
+        private final Set<String> methods = new HashSet<>();
+
+        private Builder() {
+        }
+
+        /**
+         * 合并指定方法的调用.
+         *
+         * @param method 方法名称, 与请求中的 method 字段相同.
+         * @return 返回构建器本身.
+         */
+        public Builder coalesce(String method) {
+            methods.add(Objects.requireNonNull(method));
+            return this;
+        }
+
+        /**
+         * 构建合并调用.
+         *
+         * @return 返回合并调用.
+         */
+        public JsonRpcCallCoalescer build() {
+            return new JsonRpcCallCoalescer(this);
+        }
+    }
+
+}
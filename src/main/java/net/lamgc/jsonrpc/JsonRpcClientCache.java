@@ -0,0 +1,302 @@
+package net.lamgc.jsonrpc;
+
+import com.google.gson.JsonElement;
+
+import java.lang.reflect.Method;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 客户端结果缓存.
+ * <p>
+ * 创建代理对象 ({@link JsonRpcProxyGenerator}) 或存根 ({@link JsonRpcStubGenerator}) 时指定后,
+ * 标记了 {@link JsonRpcCacheable} 的方法的调用将经过该缓存:
+ * <ul>
+ *     <li>缓存已反序列化的结果, 缓存键为方法与序列化后的参数列表, 参数相同的调用在有效期内不再发送请求,
+ *     也不再反序列化结果;</li>
+ *     <li>参数相同的调用同时进行时, 只有第一个调用发送请求, 其余调用等待该请求完成, 并得到相同的结果或异常.</li>
+ * </ul>
+ * 只有成功的结果会被缓存. 缓存的总条目数有上限, 超出上限时淘汰最久未被访问的条目.
+ * <p>
+ * 该类是线程安全的, 同一个缓存可以用于多个代理对象或存根, 不同接口的方法不会共享结果.
+ */
+public final class JsonRpcClientCache {
+
+    private final static Policy NOT_CACHEABLE = new Policy(null, null, -1);
+
+    private final int maximumSize;
+
+    private final Map<Method, Policy> policies = new ConcurrentHashMap<>();
+
+    private final Map<CallKey, Entry> entries;
+
+    private final ConcurrentMap<CallKey, CompletableFuture<Object>> flights = new ConcurrentHashMap<>();
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+    private final LongAdder coalescedCount = new LongAdder();
+
+    private JsonRpcClientCache(Builder builder) {
+        this.maximumSize = builder.maximumSize;
+        this.entries = new LinkedHashMap<>(16, 0.75F, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CallKey, Entry> eldest) {
+                if (size() > maximumSize) {
+                    evictionCount.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * 创建客户端结果缓存构建器.
+     *
+     * @return 返回客户端结果缓存构建器.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * 获取方法的缓存策略.
+     *
+     * @param method 接口方法.
+     * @return 如果方法没有标记 {@link JsonRpcCacheable}, 则返回 null.
+     * @throws IllegalArgumentException 当方法标记的有效期为负数时抛出.
+     */
+    Policy policy(Method method) {
+        Policy policy = policies.computeIfAbsent(method, JsonRpcClientCache::resolvePolicy);
+        return policy != NOT_CACHEABLE ? policy : null;
+    }
+
+    private static Policy resolvePolicy(Method method) {
+        JsonRpcCacheable cacheable = method.getAnnotation(JsonRpcCacheable.class);
+        if (cacheable == null) {
+            return NOT_CACHEABLE;
+        } else if (cacheable.ttl() < 0) {
+            throw new IllegalArgumentException("The ttl must not be negative: " + method);
+        }
+        // 以完整的方法签名作为缓存键, 避免不同接口或重载方法之间共享结果.
+        return new Policy(method.getName(), method.toString(), cacheable.unit().toNanos(cacheable.ttl()));
+    }
+
+    /**
+     * 获取调用结果.
+     * <p>
+     * 如果缓存中有有效的结果, 则返回以该结果完成的 CompletableFuture; 如果已有相同的调用正在进行, 则返回该调用的结果;
+     * 否则通过 loader 调用方法, 并在调用成功后缓存结果.
+     *
+     * @param policy 方法的缓存策略.
+     * @param params 序列化后的参数列表, 可以为 null.
+     * @param loader 调用方法, 返回的 CompletableFuture 以方法的返回值完成.
+     * @return 返回以方法的返回值完成的 CompletableFuture, 每次返回的都是新的 CompletableFuture.
+     */
+    CompletableFuture<Object> load(Policy policy, JsonElement params, Supplier<CompletableFuture<Object>> loader) {
+        CallKey key = CallKey.of(policy.key, params);
+        if (policy.ttlNanos > 0) {
+            Entry entry = get(key);
+            if (entry != null) {
+                return CompletableFuture.completedFuture(entry.value);
+            }
+        }
+
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> leader = flights.putIfAbsent(key, flight);
+        if (leader != null) {
+            coalescedCount.increment();
+            return leader.copy();
+        }
+        CompletableFuture<Object> future;
+        try {
+            future = loader.get();
+        } catch (Throwable e) {
+            flights.remove(key, flight);
+            flight.completeExceptionally(e);
+            throw e;
+        }
+        future.whenComplete((value, cause) -> {
+            if (cause == null && policy.ttlNanos > 0) {
+                put(key, policy, value);
+            }
+            // 先缓存结果并结束调用再完成, 使之后的调用命中缓存或重新发送请求.
+            flights.remove(key, flight);
+            if (cause == null) {
+                flight.complete(value);
+            } else {
+                flight.completeExceptionally(cause);
+            }
+        });
+        return flight.copy();
+    }
+
+    private Entry get(CallKey key) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+            if (entry != null && entry.expiresAt - System.nanoTime() <= 0) {
+                entries.remove(key);
+                entry = null;
+            }
+        }
+        if (entry == null) {
+            missCount.increment();
+            return null;
+        }
+        hitCount.increment();
+        return entry;
+    }
+
+    private void put(CallKey key, Policy policy, Object value) {
+        Entry entry = new Entry(policy, value, System.nanoTime() + policy.ttlNanos);
+        // 缓存键需要长期保存, 不能引用请求中的参数列表.
+        CallKey detachedKey = key.detach();
+        synchronized (entries) {
+            entries.put(detachedKey, entry);
+        }
+    }
+
+    /**
+     * 移除方法的所有缓存结果.
+     *
+     * @param method 方法名称, 与请求中的 method 字段相同; 所有接口中该名称的方法的缓存结果都将被移除.
+     */
+    public void invalidate(String method) {
+        synchronized (entries) {
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().policy.method.equals(method)) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * 移除所有缓存结果.
+     */
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * 获取缓存的条目数, 包括已过期但尚未被移除的条目.
+     *
+     * @return 返回缓存的条目数.
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * 获取命中次数.
+     *
+     * @return 返回调用命中缓存的次数.
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * 获取未命中次数.
+     *
+     * @return 返回调用未命中缓存 (包括缓存已过期) 的次数, 不包括有效期为 0 的方法.
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * 获取因条目数超出上限而被淘汰的条目数.
+     *
+     * @return 返回被淘汰的条目数.
+     */
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    /**
+     * 获取被合并的调用数.
+     *
+     * @return 返回等待其他调用的结果 (而没有发送请求) 的调用数.
+     */
+    public long getCoalescedCount() {
+        return coalescedCount.sum();
+    }
+
+    /**
+     * 方法的缓存策略.
+     */
+    static final class Policy {
+
+        private final String method;
+        private final String key;
+        private final long ttlNanos;
+
+        private Policy(String method, String key, long ttlNanos) {
+            this.method = method;
+            this.key = key;
+            this.ttlNanos = ttlNanos;
+        }
+    }
+
+    private static final class Entry {
+
+        private final Policy policy;
+        private final Object value;
+        private final long expiresAt;
+
+        private Entry(Policy policy, Object value, long expiresAt) {
+            this.policy = policy;
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * {@link JsonRpcClientCache} 构建器.
+     */
+    public static final class Builder {
+
+        private int maximumSize = 1024;
+
+        private Builder() {
+        }
+
+        /**
+         * 设置缓存的最大条目数, 默认为 1024.
+         *
+         * @param maximumSize 最大条目数.
+         * @return 返回构建器本身.
+         */
+        public Builder maximumSize(int maximumSize) {
+            if (maximumSize <= 0) {
+                throw new IllegalArgumentException("The maximum size must be positive: " + maximumSize);
+            }
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        /**
+         * 构建客户端结果缓存.
+         *
+         * @return 返回客户端结果缓存.
+         */
+        public JsonRpcClientCache build() {
+            return new JsonRpcClientCache(this);
+        }
+    }
+
+}
@@ -2,17 +2,41 @@ package net.lamgc.jsonrpc;
 
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.stream.JsonWriter;
 import net.lamgc.jsonrpc.serializer.ParameterCountMismatchException;
 import net.lamgc.jsonrpc.serializer.ParameterDeserializer;
 import net.lamgc.jsonrpc.serializer.ParameterTypeMismatchException;
 import net.lamgc.jsonrpc.serializer.ReturnValueSerializer;
+import net.lamgc.jsonrpc.serializer.json.JsonRpcRequestSerializer;
+import net.lamgc.jsonrpc.serializer.json.JsonRpcResponseWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringWriter;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
 
 public abstract class JsonRpcExecutor {
 
@@ -24,6 +48,18 @@ public abstract class JsonRpcExecutor {
 
     private final ReturnValueSerializer returnValueSerializer;
 
+    private final Map<Method, MethodPlan> methodPlanCache = new ConcurrentHashMap<>();
+
+    private final static JsonRpcResponseWriter responseWriter = new JsonRpcResponseWriter();
+
+    private final static JsonRpcRequestSerializer batchRequestDeserializer = new JsonRpcRequestSerializer();
+
+    private volatile Executor notificationExecutor;
+
+    private volatile JsonRpcResultCache resultCache;
+
+    private volatile JsonRpcCallCoalescer callCoalescer;
+
     /**
      * 构造一个 Json RPC 执行器.
      *
@@ -45,95 +81,725 @@ public abstract class JsonRpcExecutor {
      * 也会返回一个 Json RPC 响应 (因为 JsonRpcExecutor 只负责执行请求).
      */
     public final JsonRpcResponse execute(JsonRpcRequest request) {
+        return toResponse(run(request));
+    }
+
+    /**
+     * 从字符流中读取并执行 JsonRpc 请求.
+     * <p>
+     * 与先将报文解析为 {@link JsonRpcRequest} 再调用 {@link #execute(JsonRpcRequest)} 相比,
+     * 该方法在读取到 method 字段后会立即寻找对应的方法, 并将 params 中的参数直接读取为方法所需的类型,
+     * 不会为参数列表构造中间的 JsonElement. 报文中的字段可以以任意顺序出现,
+     * 只有当 params 字段出现在 method 字段之前时, 才会将参数列表暂存为 JsonElement.
+     * <p>
+     * 由于读取参数时请求尚未读取完毕, 此时传递给 {@link #findMethodPlan(JsonRpcRequest)} 的请求对象只包含方法名称.
+     * <p>
+     * 如果报文无法解析, 将返回 {@link JsonRpcErrors#PARSE_ERROR} 错误响应;
+     * 如果报文不符合规范, 将返回 {@link JsonRpcErrors#INVALID_REQUEST} 错误响应.
+     *
+     * @param reader 包含单个 JsonRpc 请求对象的字符流, 该方法不会关闭字符流.
+     * @return 返回对应的 Json RPC 响应, 即使 Json RPC 请求不包含 id,
+     * 也会返回一个 Json RPC 响应 (因为 JsonRpcExecutor 只负责执行请求).
+     */
+    public final JsonRpcResponse execute(Reader reader) {
+        return toResponse(run(reader));
+    }
+
+    /**
+     * 执行 JsonRpc 请求, 并将响应直接写入 JsonWriter.
+     * <p>
+     * 返回值将通过 {@link ReturnValueSerializer#serializer(MethodPlan, Object, JsonWriter)} 直接写出,
+     * 不会先序列化为 JsonElement. 错误响应中的附加数据使用 {@link JsonRpcUtils#createGsonForJsonRpc()} 序列化.
+     * <p>
+     * 如果写出返回值时出现异常, 由于响应已部分写出, 将直接抛出异常, 调用方应当丢弃已写出的内容.
+     *
+     * @param request JsonRpc 请求对象.
+     * @param writer  写出响应的 JsonWriter, 该方法不会刷新或关闭 writer.
+     * @throws IOException 当写出失败时抛出.
+     * @see #execute(JsonRpcRequest)
+     */
+    public final void execute(JsonRpcRequest request, JsonWriter writer) throws IOException {
+        writeResponse(run(request), writer);
+    }
+
+    /**
+     * 从字符流中读取并执行 JsonRpc 请求, 并将响应直接写入 JsonWriter.
+     * <p>
+     * 读取方式与 {@link #execute(Reader)} 相同, 写出方式与 {@link #execute(JsonRpcRequest, JsonWriter)} 相同.
+     *
+     * @param reader 包含单个 JsonRpc 请求对象的字符流, 该方法不会关闭字符流.
+     * @param writer 写出响应的 JsonWriter, 该方法不会刷新或关闭 writer.
+     * @throws IOException 当写出失败时抛出.
+     */
+    public final void execute(Reader reader, JsonWriter writer) throws IOException {
+        writeResponse(run(reader), writer);
+    }
+
+    /**
+     * 处理 JsonRpc 请求.
+     * <p>
+     * 如果请求不是通知, 则与 {@link #execute(JsonRpcRequest)} 相同;
+     * 如果请求是通知 (不包含 id), 则只调用方法, 不会序列化返回值, 也不会构造响应对象 (包括错误响应),
+     * 处理过程中出现的异常仅记录到日志中.
+     * <p>
+     * 如果设置了通知执行器 ({@link #setNotificationExecutor(Executor)}), 通知将交由通知执行器处理,
+     * 该方法将立即返回.
+     *
+     * @param request JsonRpc 请求对象.
+     * @return 如果请求是通知, 则返回 null, 否则返回对应的 Json RPC 响应.
+     */
+    public final JsonRpcResponse handle(JsonRpcRequest request) {
+        if (request.getId() != null) {
+            return execute(request);
+        }
+        dispatchNotification(request);
+        return null;
+    }
+
+    /**
+     * 从字符流中读取并处理 JsonRpc 请求.
+     * <p>
+     * 读取方式与 {@link #execute(Reader)} 相同, 通知的处理方式与 {@link #handle(JsonRpcRequest)} 相同.
+     * 由于报文需要在调用线程中读取, 设置通知执行器后, 只有方法调用会交由通知执行器执行.
+     * <p>
+     * 按照 JsonRpc 2.0 规范, 无法解析或不符合规范的报文依然会得到错误响应.
+     *
+     * @param reader 包含单个 JsonRpc 请求对象的字符流, 该方法不会关闭字符流.
+     * @return 如果请求是通知, 则返回 null, 否则返回对应的 Json RPC 响应.
+     */
+    public final JsonRpcResponse handle(Reader reader) {
+        StreamingRequestDecoder decoder = new StreamingRequestDecoder(this, parameterDeserializer);
+        JsonRpcResponse failure = decode(decoder, reader);
+        if (failure != null) {
+            return failure;
+        } else if (decoder.getId() != null) {
+            return toResponse(run(decoder));
+        }
+        dispatchNotification(decoder);
+        return null;
+    }
+
+    /**
+     * 从字符流中读取并处理 JsonRpc 请求, 并将响应写入 JsonWriter.
+     * <p>
+     * 读取方式与 {@link #execute(Reader)} 相同, 通知的处理方式与 {@link #handle(Reader)} 相同,
+     * 是否为通知在读取完报文后即可确定, 此时还没有写出任何内容.
+     * <p>
+     * 与 {@link #execute(Reader, JsonWriter)} 不同, 返回值将先序列化到缓冲区中 (不会构造 JsonElement), 再写出响应,
+     * 因此返回值无法序列化时依然会写出完整的 {@link JsonRpcErrors#CONVERT_RETURN_VALUE_FAILURE} 错误响应.
+     *
+     * @param reader 包含单个 JsonRpc 请求对象的字符流, 该方法不会关闭字符流.
+     * @param writer 写出响应的 JsonWriter, 该方法不会刷新或关闭 writer.
+     * @return 如果请求是通知, 则不写出任何内容并返回 false, 否则返回 true.
+     * @throws IOException 当写出失败时抛出.
+     */
+    public final boolean handle(Reader reader, JsonWriter writer) throws IOException {
+        StreamingRequestDecoder decoder = new StreamingRequestDecoder(this, parameterDeserializer);
+        JsonRpcResponse failure = decode(decoder, reader);
+        if (failure != null) {
+            responseWriter.write(failure, writer);
+            return true;
+        } else if (decoder.getId() != null) {
+            writeBufferedResponse(run(decoder), writer);
+            return true;
+        }
+        dispatchNotification(decoder);
+        return false;
+    }
+
+    /**
+     * 处理以流式方式读取的通知, 处理方式与 {@link #dispatchNotification(JsonRpcRequest)} 相同.
+     */
+    private void dispatchNotification(StreamingRequestDecoder decoder) {
+        JsonRpcRequest request = decoder.toRequest();
+        MethodPlan plan;
+        Object[] params;
         try {
             JsonRpcUtils.validateRequest(request);
-            logger.debug("Request validated: " + request);
+            plan = decoder.getMethodPlan();
+            params = decoder.getParameters();
+            if (params == null) {
+                params = deserializeParameters(plan, request);
+            } else if (params.length != plan.getParameterCount()) {
+                throw new ParameterCountMismatchException(plan.getParameterCount(), params.length);
+            }
         } catch (Exception e) {
-            logger.error("Invalid request: " + request, e);
+            logger.error("Failed to process the notification: " + request.getMethod(), e);
+            return;
+        }
+
+        Object[] boundParams = params;
+        dispatch(request, () -> invokeMethod(plan, boundParams));
+    }
+
+    /**
+     * 执行批量 JsonRpc 请求.
+     * <p>
+     * 与 {@link #executeBatch(JsonArray, Executor)} 相同, 请求将在 {@link ForkJoinPool#commonPool()} 中并行执行.
+     *
+     * @param requests 批量请求数组, 数组中的每一项均为一个 JsonRpc 请求对象.
+     * @return 返回批量请求的响应列表.
+     * @see #executeBatch(JsonArray, Executor)
+     */
+    public final List<JsonRpcResponse> executeBatch(JsonArray requests) {
+        return executeBatch(requests, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 执行批量 JsonRpc 请求.
+     * <p>
+     * 批量请求中的请求相互独立, 将提交至 executor 并行执行, 调用线程会执行最后一个请求并等待其他请求完成.
+     * 如果 executor 拒绝执行某个请求, 该请求将在调用线程中执行.
+     * <p>
+     * 按照 JsonRpc 2.0 规范:
+     * <ul>
+     *     <li>响应列表的顺序与请求顺序一致, 但通知 (不包含 id 的请求) 不会产生响应;</li>
+     *     <li>数组中无法解析为请求的元素将得到一个 id 为 JsonNull 的 {@link JsonRpcErrors#INVALID_REQUEST} 错误响应;</li>
+     *     <li>如果数组为空, 将返回只包含一个 {@link JsonRpcErrors#INVALID_REQUEST} 错误响应的列表,
+     *     此时调用方应当将该响应作为单个对象 (而非数组) 返回给请求方;</li>
+     *     <li>如果请求全部为通知, 将返回空列表, 此时调用方不应返回任何内容.</li>
+     * </ul>
+     *
+     * @param requests 批量请求数组, 数组中的每一项均为一个 JsonRpc 请求对象.
+     * @param executor 执行请求的线程池.
+     * @return 返回批量请求的响应列表, 不会返回 null.
+     */
+    public final List<JsonRpcResponse> executeBatch(JsonArray requests, Executor executor) {
+        Objects.requireNonNull(requests);
+        Objects.requireNonNull(executor);
+        if (requests.size() == 0) {
+            logger.error("Invalid request: the batch is empty.");
+            return Collections.singletonList(new JsonRpcResponse(JsonRpcErrors.INVALID_REQUEST
+                    .toRpcError(JsonRpcUtils.exceptionToJsonObject(
+                            new JsonParseException("The batch request is empty."), false, false)), JsonNull.INSTANCE));
+        }
+
+        int size = requests.size();
+        JsonRpcResponse[] responses = new JsonRpcResponse[size];
+        @SuppressWarnings("unchecked")
+        CompletableFuture<JsonRpcResponse>[] futures = new CompletableFuture[size];
+        for (int i = 0; i < size; i++) {
+            JsonRpcRequest request;
+            try {
+                request = batchRequestDeserializer.deserialize(requests.get(i), JsonRpcRequest.class, null);
+            } catch (JsonParseException | IllegalStateException e) {
+                logger.error("Invalid request in batch: " + requests.get(i), e);
+                responses[i] = new JsonRpcResponse(JsonRpcErrors.INVALID_REQUEST
+                        .toRpcError(JsonRpcUtils.exceptionToJsonObject(e, false, false)), JsonNull.INSTANCE);
+                continue;
+            }
+
+            if (request.getId() == null && notificationExecutor != null) {
+                dispatchNotification(request);
+                continue;
+            }
+            if (i == size - 1) {
+                responses[i] = handle(request);
+                continue;
+            }
+            try {
+                futures[i] = CompletableFuture.supplyAsync(() -> handle(request), executor);
+            } catch (RejectedExecutionException e) {
+                logger.debug("The batch executor rejected the request, executing in the caller thread.");
+                responses[i] = handle(request);
+            }
+        }
+
+        List<JsonRpcResponse> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            JsonRpcResponse response = futures[i] != null ? futures[i].join() : responses[i];
+            if (response != null) {
+                result.add(response);
+            }
+        }
+        return result;
+    }
+
+    private Invocation run(JsonRpcRequest request) {
+        JsonRpcResponse invalidResponse = validate(request);
+        if (invalidResponse != null) {
+            return Invocation.failed(invalidResponse);
+        }
+        return share(request, () -> invoke(request));
+    }
+
+    private Invocation invoke(JsonRpcRequest request) {
+        MethodPlan plan;
+        try {
+            plan = lookupMethodPlan(request);
+        } catch (Exception e) {
+            return Invocation.failed(methodLookupFailure(request, e));
+        }
+
+        Object[] params;
+        try {
+            params = deserializeParameters(plan, request);
+        } catch (Exception e) {
+            return Invocation.failed(parameterFailure(request, e));
+        }
+
+        return invoke(plan, params, request.getId());
+    }
+
+    private Invocation run(Reader reader) {
+        StreamingRequestDecoder decoder = new StreamingRequestDecoder(this, parameterDeserializer);
+        JsonRpcResponse failure = decode(decoder, reader);
+        return failure != null ? Invocation.failed(failure) : run(decoder);
+    }
+
+    /**
+     * 读取请求报文.
+     *
+     * @return 如果报文无法解析或不符合规范, 则返回错误响应, 否则返回 null.
+     */
+    private JsonRpcResponse decode(StreamingRequestDecoder decoder, Reader reader) {
+        try {
+            decoder.decode(reader);
+        } catch (IOException | JsonParseException e) {
+            logger.error("Failed to parse the request.", e);
+            return new JsonRpcResponse(JsonRpcErrors.PARSE_ERROR
+                    .toRpcError(JsonRpcUtils.exceptionToJsonObject(e, false, false)), JsonNull.INSTANCE);
+        }
+        if (decoder.getInvalidCause() != null) {
+            logger.error("Invalid request.", decoder.getInvalidCause());
             return new JsonRpcResponse(JsonRpcErrors.INVALID_REQUEST
-                    .toRpcError(JsonRpcUtils.exceptionToJsonObject(e, false, false)),
-                    request.getId());
+                    .toRpcError(JsonRpcUtils.exceptionToJsonObject(decoder.getInvalidCause(), false, false)),
+                    decoder.getId() != null ? decoder.getId() : JsonNull.INSTANCE);
+        }
+        return null;
+    }
+
+    private Invocation run(StreamingRequestDecoder decoder) {
+        JsonRpcRequest request = decoder.toRequest();
+        JsonRpcResponse invalidResponse = validate(request);
+        if (invalidResponse != null) {
+            return Invocation.failed(invalidResponse);
         }
 
-        Method method;
+        // 结果会被缓存或调用会被合并的方法, 其参数列表总是被暂存为 JsonElement (见 StreamingRequestDecoder),
+        // 可以用于生成调用键.
+        return share(request, () -> invoke(decoder, request));
+    }
+
+    private Invocation invoke(StreamingRequestDecoder decoder, JsonRpcRequest request) {
+        MethodPlan plan;
         try {
-            method = findMethod(request);
-            if (method == null) {
-                throw new NoSuchElementException("Cannot find a method to process the request.");
-            }
-            if (logger.isDebugEnabled()) {
-                logger.debug("Method found: " + method);
+            plan = decoder.getMethodPlan();
+        } catch (Exception e) {
+            return Invocation.failed(methodLookupFailure(request, e));
+        }
+
+        Object[] params;
+        try {
+            params = decoder.getParameters();
+            if (params == null) {
+                params = deserializeParameters(plan, request);
+            } else if (params.length != plan.getParameterCount()) {
+                throw new ParameterCountMismatchException(plan.getParameterCount(), params.length);
             }
         } catch (Exception e) {
-            if (e instanceof NoSuchElementException) {
-                logger.error("Method not found: " + request.getMethod(), e);
-                return new JsonRpcResponse(JsonRpcErrors.METHOD_NOT_FOUND
-                        .toRpcError(JsonRpcUtils.exceptionToJsonObject(e, false, true)), request.getId());
-            } else {
-                logger.error("An exception occurred while finding the method: " + request.getMethod(), e);
-                return new JsonRpcResponse(JsonRpcErrors.INTERNAL_ERROR
-                        .toRpcError(JsonRpcUtils.exceptionToJsonObject(e, false, true)), request.getId());
+            return Invocation.failed(parameterFailure(request, e));
+        }
+
+        return invoke(plan, params, request.getId());
+    }
+
+    /**
+     * 以结果缓存和合并调用执行请求.
+     * <p>
+     * 如果命中结果缓存, 则直接以缓存的结果响应; 如果已有相同的调用正在进行, 则等待该调用完成并以其结果响应;
+     * 否则通过 call 执行请求. 需要缓存或共享的结果将被序列化为 JsonElement, 因此此时返回的 Invocation 已包含完整的响应.
+     *
+     * @param request 已通过验证的请求.
+     * @param call    执行请求.
+     * @return 返回执行结果.
+     */
+    private Invocation share(JsonRpcRequest request, Supplier<Invocation> call) {
+        JsonRpcResultCache cache = resultCache;
+        CallKey cacheKey = cache != null ? cache.key(request.getMethod(), request.getParams()) : null;
+        JsonRpcResponse cachedResponse = cachedResponse(cache, cacheKey, request.getId());
+        if (cachedResponse != null) {
+            return Invocation.completed(cachedResponse);
+        }
+
+        JsonRpcCallCoalescer coalescer = callCoalescer;
+        CallKey callKey = coalescer != null ? coalescer.key(request.getMethod(), request.getParams()) : null;
+        if (callKey == null) {
+            Invocation invocation = call.get();
+            if (cacheKey == null || invocation.response != null) {
+                return invocation;
             }
+            return Invocation.completed(cacheResponse(cache, cacheKey, toResponse(invocation)));
+        }
+
+        CompletableFuture<JsonRpcResponse> flight = new CompletableFuture<>();
+        CompletableFuture<JsonRpcResponse> leader = coalescer.join(callKey, flight);
+        if (leader != null) {
+            return Invocation.completed(withId(leader.join(), request.getId()));
         }
+        JsonRpcResponse response;
+        try {
+            response = cacheResponse(cache, cacheKey, toResponse(call.get()));
+        } catch (Throwable e) {
+            coalescer.leave(callKey, flight);
+            flight.completeExceptionally(e);
+            throw e;
+        }
+        // 先结束调用再完成, 使调用完成后到达的请求重新调用方法.
+        coalescer.leave(callKey, flight);
+        flight.complete(response);
+        return Invocation.completed(response);
+    }
+
+    /**
+     * 以请求自身的 id 构造共享的响应.
+     */
+    private static JsonRpcResponse withId(JsonRpcResponse response, JsonPrimitive id) {
+        return Objects.equals(response.getId(), id) ? response : new JsonRpcResponse(response.getResult(), id);
+    }
+
+    private static JsonRpcResponse cachedResponse(JsonRpcResultCache cache, CallKey cacheKey,
+                                                  JsonPrimitive id) {
+        if (cacheKey == null) {
+            return null;
+        }
+        JsonElement cachedResult = cache.get(cacheKey);
+        return cachedResult != null ? new JsonRpcResponse(cachedResult, id) : null;
+    }
+
+    private static JsonRpcResponse cacheResponse(JsonRpcResultCache cache, CallKey cacheKey,
+                                                 JsonRpcResponse response) {
+        if (cacheKey != null && !response.isError()) {
+            cache.put(cacheKey, (JsonElement) response.getResult());
+        }
+        return response;
+    }
+
+    /**
+     * 处理通知.
+     * <p>
+     * 通知不需要响应, 因此这里不会构造任何响应对象, 也不会序列化返回值.
+     */
+    private void dispatchNotification(JsonRpcRequest request) {
+        dispatch(request, () -> {
+            JsonRpcUtils.validateRequest(request);
+            MethodPlan plan = lookupMethodPlan(request);
+            return invokeMethod(plan, deserializeParameters(plan, request));
+        });
+    }
 
-        Object[] params = new Object[0];
-        if (method.getParameterCount() != 0) {
+    private void dispatch(JsonRpcRequest request, Callable<?> notification) {
+        Runnable task = () -> {
             try {
-                params = parameterDeserializer.deserializer(method, request);
-                if (params.length != method.getParameterCount()) {
-                    throw new ParameterCountMismatchException(method.getParameterCount(), params.length);
+                Object result = notification.call();
+                if (result instanceof CompletionStage) {
+                    // 异步方法的结果不需要等待, 只记录失败.
+                    ((CompletionStage<?>) result).whenComplete((ignored, cause) -> {
+                        if (cause != null) {
+                            logger.error("Failed to process the notification: " + request.getMethod(), cause);
+                        }
+                    });
+                    return;
                 }
+                logger.debug("Notification processed: {}", request.getMethod());
             } catch (Exception e) {
-                if (e instanceof ParameterTypeMismatchException || e instanceof ParameterCountMismatchException) {
-                    return new JsonRpcResponse(JsonRpcErrors.INVALID_PARAMS.toRpcError(), request.getId());
-                }
-
-                logger.error("An exception occurred while deserializing the parameters.", e);
-                return new JsonRpcResponse(JsonRpcErrors.CONVERT_PARAMS_FAILURE
-                        .toRpcError(JsonRpcUtils.exceptionToJsonObject(e, true, true)),
-                        request.getId());
+                logger.error("Failed to process the notification: " + request.getMethod(), e);
             }
-        } else if (request.getParams() != null) {
+        };
+
+        Executor executor = notificationExecutor;
+        if (executor == null) {
+            task.run();
+            return;
+        }
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            logger.warn("The notification executor is saturated, notification dropped: {}", request.getMethod());
+        }
+    }
+
+    /**
+     * 验证请求.
+     *
+     * @param request 需要验证的请求.
+     * @return 如果请求不合法, 则返回错误响应, 否则返回 null.
+     */
+    private JsonRpcResponse validate(JsonRpcRequest request) {
+        try {
+            JsonRpcUtils.validateRequest(request);
+            logger.debug("Request validated: {}", request);
+            return null;
+        } catch (Exception e) {
+            logger.error("Invalid request: " + request, e);
+            return new JsonRpcResponse(JsonRpcErrors.INVALID_REQUEST
+                    .toRpcError(JsonRpcUtils.exceptionToJsonObject(e, false, false)),
+                    request.getId());
+        }
+    }
+
+    /**
+     * 寻找请求对应的方法调用计划.
+     *
+     * @param request 需要寻找方法的请求.
+     * @return 返回方法调用计划, 不会返回 null.
+     * @throws NoSuchElementException 当找不到方法时抛出.
+     * @throws Exception              当 {@link #findMethodPlan(JsonRpcRequest)} 抛出异常时抛出.
+     */
+    final MethodPlan lookupMethodPlan(JsonRpcRequest request) throws Exception {
+        MethodPlan plan = findMethodPlan(request);
+        if (plan == null) {
+            throw new NoSuchElementException("Cannot find a method to process the request.");
+        }
+        logger.debug("Method found: {}", plan.getMethod());
+        return plan;
+    }
+
+    private JsonRpcResponse methodLookupFailure(JsonRpcRequest request, Exception e) {
+        if (e instanceof NoSuchElementException) {
+            logger.error("Method not found: " + request.getMethod(), e);
+            return new JsonRpcResponse(JsonRpcErrors.METHOD_NOT_FOUND
+                    .toRpcError(JsonRpcUtils.exceptionToJsonObject(e, false, true)), request.getId());
+        } else {
+            logger.error("An exception occurred while finding the method: " + request.getMethod(), e);
+            return new JsonRpcResponse(JsonRpcErrors.INTERNAL_ERROR
+                    .toRpcError(JsonRpcUtils.exceptionToJsonObject(e, false, true)), request.getId());
+        }
+    }
+
+    private Object[] deserializeParameters(MethodPlan plan, JsonRpcRequest request) throws Exception {
+        if (plan.getParameterCount() == 0) {
             JsonElement paramsJson = request.getParams();
             if (paramsJson instanceof JsonArray && ((JsonArray) paramsJson).size() != 0) {
-                return new JsonRpcResponse(JsonRpcErrors.INVALID_PARAMS.toRpcError(), request.getId());
+                throw new ParameterCountMismatchException(0, ((JsonArray) paramsJson).size());
             } else if (paramsJson instanceof JsonObject && ((JsonObject) paramsJson).size() != 0) {
-                return new JsonRpcResponse(JsonRpcErrors.INVALID_PARAMS.toRpcError(), request.getId());
+                throw new ParameterCountMismatchException(0, ((JsonObject) paramsJson).size());
             }
+            return new Object[0];
+        }
+
+        Object[] params = parameterDeserializer.deserializer(plan, request);
+        if (params.length != plan.getParameterCount()) {
+            throw new ParameterCountMismatchException(plan.getParameterCount(), params.length);
+        }
+        return params;
+    }
+
+    private JsonRpcResponse parameterFailure(JsonRpcRequest request, Exception e) {
+        if (e instanceof ParameterTypeMismatchException || e instanceof ParameterCountMismatchException) {
+            return new JsonRpcResponse(JsonRpcErrors.INVALID_PARAMS.toRpcError(), request.getId());
         }
 
-        Object result;
+        logger.error("An exception occurred while deserializing the parameters.", e);
+        return new JsonRpcResponse(JsonRpcErrors.CONVERT_PARAMS_FAILURE
+                .toRpcError(JsonRpcUtils.exceptionToJsonObject(e, true, true)),
+                request.getId());
+    }
+
+    private Invocation invoke(MethodPlan plan, Object[] params, JsonPrimitive id) {
         try {
-            logger.debug("Invoking method: " + method.getDeclaringClass().getName() + "." + method.getName());
-            result = method.invoke(handler, params);
+            logger.debug("Invoking method: {}", plan.getQualifiedName());
+            Object result = invokeMethod(plan, params);
+            if (plan.isAsync() && result != null) {
+                // 同步执行时只能等待异步结果完成.
+                result = awaitResult((CompletionStage<?>) result);
+            }
             logger.debug("Method invoked.");
+            return Invocation.succeeded(plan, result, id);
         } catch (Exception e) {
-            logger.error("An exception occurred while invoking the method. (Method: " +
-                    method.getDeclaringClass().getName() + "." + method.getName() + ")", e);
-            if (e instanceof InvocationTargetException) {
-                if (e.getCause() instanceof JsonRpcExecuteException) {
-                    return new JsonRpcResponse(((JsonRpcExecuteException) e.getCause()).getError(), request.getId());
-                }
-                return new JsonRpcResponse(JsonRpcErrors.INTERNAL_ERROR
-                        .toRpcError(JsonRpcUtils.exceptionToJsonObject(e.getCause(), true, true)),
-                        request.getId());
+            return Invocation.failed(invocationFailure(plan, e, id));
+        }
+    }
+
+    private static Object awaitResult(CompletionStage<?> stage) throws InvocationTargetException {
+        try {
+            return stage.toCompletableFuture().join();
+        } catch (CompletionException e) {
+            throw new InvocationTargetException(e.getCause() != null ? e.getCause() : e);
+        } catch (CancellationException e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    private JsonRpcResponse invocationFailure(MethodPlan plan, Exception e, JsonPrimitive id) {
+        logger.error("An exception occurred while invoking the method. (Method: " +
+                plan.getQualifiedName() + ")", e);
+        if (e instanceof InvocationTargetException) {
+            if (e.getCause() instanceof JsonRpcExecuteException) {
+                return new JsonRpcResponse(((JsonRpcExecuteException) e.getCause()).getError(), id);
             }
             return new JsonRpcResponse(JsonRpcErrors.INTERNAL_ERROR
-                    .toRpcError(JsonRpcUtils.exceptionToJsonObject(e, false, true)),
-                    request.getId());
+                    .toRpcError(JsonRpcUtils.exceptionToJsonObject(e.getCause(), true, true)), id);
+        }
+        return new JsonRpcResponse(JsonRpcErrors.INTERNAL_ERROR
+                .toRpcError(JsonRpcUtils.exceptionToJsonObject(e, false, true)), id);
+    }
+
+    /**
+     * 异步执行请求.
+     * <p>
+     * 请求的验证, 方法查找和参数转换在调用线程中完成. 对于异步方法, 方法同样在调用线程中调用,
+     * 返回值将在方法返回的 CompletionStage 完成后, 由完成 CompletionStage 的线程序列化, 期间不会阻塞任何线程;
+     * 对于同步方法, 如果 blockingExecutor 不为 null, 方法将在 blockingExecutor 中调用, 否则在调用线程中调用.
+     *
+     * @param request          JsonRpc 请求对象.
+     * @param blockingExecutor 调用同步方法的执行器, 可以为 null.
+     * @return 返回对应的 Json RPC 响应, 返回的 CompletableFuture 不会异常完成.
+     */
+    final CompletableFuture<JsonRpcResponse> executeAsync(JsonRpcRequest request, Executor blockingExecutor) {
+        JsonRpcResponse invalidResponse = validate(request);
+        if (invalidResponse != null) {
+            return CompletableFuture.completedFuture(invalidResponse);
+        }
+
+        JsonRpcResultCache cache = resultCache;
+        CallKey cacheKey = cache != null ? cache.key(request.getMethod(), request.getParams()) : null;
+        JsonRpcResponse cachedResponse = cachedResponse(cache, cacheKey, request.getId());
+        if (cachedResponse != null) {
+            return CompletableFuture.completedFuture(cachedResponse);
+        }
+
+        JsonRpcCallCoalescer coalescer = callCoalescer;
+        CallKey callKey = coalescer != null ? coalescer.key(request.getMethod(), request.getParams()) : null;
+        if (callKey == null) {
+            return invokeAsync(request, blockingExecutor, cache, cacheKey);
+        }
+
+        CompletableFuture<JsonRpcResponse> flight = new CompletableFuture<>();
+        CompletableFuture<JsonRpcResponse> leader = coalescer.join(callKey, flight);
+        if (leader != null) {
+            return leader.thenApply(response -> withId(response, request.getId()));
+        }
+        CompletableFuture<JsonRpcResponse> future;
+        try {
+            future = invokeAsync(request, blockingExecutor, cache, cacheKey);
+        } catch (Throwable e) {
+            coalescer.leave(callKey, flight);
+            flight.completeExceptionally(e);
+            throw e;
+        }
+        future.whenComplete((response, cause) -> {
+            coalescer.leave(callKey, flight);
+            if (cause == null) {
+                flight.complete(response);
+            } else {
+                flight.completeExceptionally(cause);
+            }
+        });
+        return future;
+    }
+
+    private CompletableFuture<JsonRpcResponse> invokeAsync(JsonRpcRequest request, Executor blockingExecutor,
+                                                           JsonRpcResultCache cache, CallKey cacheKey) {
+        MethodPlan plan;
+        try {
+            plan = lookupMethodPlan(request);
+        } catch (Exception e) {
+            return CompletableFuture.completedFuture(methodLookupFailure(request, e));
+        }
+
+        Object[] params;
+        try {
+            params = deserializeParameters(plan, request);
+        } catch (Exception e) {
+            return CompletableFuture.completedFuture(parameterFailure(request, e));
+        }
+
+        JsonPrimitive id = request.getId();
+        if (!plan.isAsync()) {
+            if (blockingExecutor != null) {
+                try {
+                    return CompletableFuture.supplyAsync(() ->
+                            cacheResponse(cache, cacheKey, toResponse(invoke(plan, params, id))), blockingExecutor);
+                } catch (RejectedExecutionException e) {
+                    logger.debug("The blocking executor rejected the request, executing in the caller thread.");
+                }
+            }
+            return CompletableFuture.completedFuture(cacheResponse(cache, cacheKey, toResponse(invoke(plan, params, id))));
         }
 
+        CompletionStage<?> stage;
         try {
-            JsonElement resultJson = returnValueSerializer.serializer(method, result);
+            logger.debug("Invoking method: {}", plan.getQualifiedName());
+            stage = (CompletionStage<?>) invokeMethod(plan, params);
+        } catch (Exception e) {
+            return CompletableFuture.completedFuture(invocationFailure(plan, e, id));
+        }
+        if (stage == null) {
+            return CompletableFuture.completedFuture(
+                    cacheResponse(cache, cacheKey, toResponse(Invocation.succeeded(plan, null, id))));
+        }
+
+        CompletableFuture<JsonRpcResponse> future = new CompletableFuture<>();
+        stage.whenComplete((result, cause) -> {
+            try {
+                if (cause == null) {
+                    logger.debug("Method completed: {}", plan.getQualifiedName());
+                    future.complete(cacheResponse(cache, cacheKey, toResponse(Invocation.succeeded(plan, result, id))));
+                } else {
+                    Throwable actualCause = cause instanceof CompletionException && cause.getCause() != null ?
+                            cause.getCause() : cause;
+                    future.complete(invocationFailure(plan, new InvocationTargetException(actualCause), id));
+                }
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    private JsonRpcResponse toResponse(Invocation invocation) {
+        if (invocation.response != null) {
+            return invocation.response;
+        }
+        try {
+            JsonElement resultJson = returnValueSerializer.serializer(invocation.plan.getMethod(), invocation.result);
             logger.debug("Request processed successfully.");
-            return new JsonRpcResponse(resultJson, request.getId());
+            return new JsonRpcResponse(resultJson, invocation.id);
         } catch (Exception e) {
-            logger.error("An exception occurred while serializing the return value.", e);
-            return new JsonRpcResponse(
-                    JsonRpcErrors.CONVERT_RETURN_VALUE_FAILURE
-                            .toRpcError(JsonRpcUtils.exceptionToJsonObject(e, false, true)),
-                    request.getId());
+            return returnValueFailure(invocation, e);
+        }
+    }
+
+    private JsonRpcResponse returnValueFailure(Invocation invocation, Exception cause) {
+        logger.error("An exception occurred while serializing the return value.", cause);
+        return new JsonRpcResponse(
+                JsonRpcErrors.CONVERT_RETURN_VALUE_FAILURE
+                        .toRpcError(JsonRpcUtils.exceptionToJsonObject(cause, false, true)), invocation.id);
+    }
+
+    private void writeResponse(Invocation invocation, JsonWriter writer) throws IOException {
+        if (invocation.response != null) {
+            responseWriter.write(invocation.response, writer);
+            return;
         }
+        responseWriter.writeResult(invocation.id, resultWriter ->
+                returnValueSerializer.serializer(invocation.plan, invocation.result, resultWriter), writer);
+        logger.debug("Request processed successfully.");
+    }
+
+    /**
+     * 先将返回值序列化到缓冲区, 再写出响应; 序列化失败时写出错误响应, 不会在 writer 中留下不完整的内容.
+     */
+    private void writeBufferedResponse(Invocation invocation, JsonWriter writer) throws IOException {
+        if (invocation.response != null) {
+            responseWriter.write(invocation.response, writer);
+            return;
+        }
+        StringWriter buffer = new StringWriter();
+        try {
+            JsonWriter bufferWriter = new JsonWriter(buffer);
+            bufferWriter.setLenient(writer.isLenient());
+            bufferWriter.setHtmlSafe(writer.isHtmlSafe());
+            bufferWriter.setSerializeNulls(true);
+            returnValueSerializer.serializer(invocation.plan, invocation.result, bufferWriter);
+            bufferWriter.flush();
+        } catch (Exception e) {
+            responseWriter.write(returnValueFailure(invocation, e), writer);
+            return;
+        }
+        responseWriter.writeResult(invocation.id, resultWriter -> resultWriter.jsonValue(buffer.toString()), writer);
+        logger.debug("Request processed successfully.");
     }
 
     /**
@@ -148,6 +814,61 @@ public abstract class JsonRpcExecutor {
      */
     protected abstract Method findMethod(JsonRpcRequest request) throws Exception;
 
+    /**
+     * 根据 JsonRpcRequest 寻找对应方法的调用计划.
+     * <p>
+     * 默认实现将通过 {@link #findMethod(JsonRpcRequest)} 寻找方法, 并为每个方法缓存一份 {@link MethodPlan};
+     * 子类如果在注册方法时已经创建了调用计划, 可覆盖该方法直接返回.
+     *
+     * @param request 需要寻找方法的 JsonRpc 请求.
+     * @return 返回对应方法的调用计划, 如果找不到方法, 可返回 null.
+     * @throws NoSuchElementException 当找不到合适的方法时抛出该异常.
+     * @throws Exception              与 {@link #findMethod(JsonRpcRequest)} 相同.
+     */
+    protected MethodPlan findMethodPlan(JsonRpcRequest request) throws Exception {
+        Method method = findMethod(request);
+        if (method == null) {
+            return null;
+        }
+        return methodPlanCache.computeIfAbsent(method, MethodPlan::of);
+    }
+
+    /**
+     * 以指定参数调用 {@link #handler} 中的方法.
+     * <p>
+     * 默认实现通过 {@link Method#invoke(Object, Object...)} 反射调用,
+     * 子类可覆盖该方法以使用开销更低的调用方式 (例如预先绑定的 {@link java.lang.invoke.MethodHandle}).
+     * <p>
+     * 覆盖该方法时, 方法自身抛出的异常需要包装为 {@link InvocationTargetException} 后抛出,
+     * 以便执行器区分 "方法执行失败" 和 "无法调用方法" 两种情况.
+     *
+     * @param method 由 {@link #findMethod(JsonRpcRequest)} 找到的方法.
+     * @param params 已反序列化的参数列表.
+     * @return 返回方法的返回值.
+     * @throws InvocationTargetException 当方法自身抛出异常时抛出, 异常原因为方法所抛出的异常.
+     * @throws Exception                 当无法调用方法时抛出.
+     */
+    protected Object invokeMethod(Method method, Object[] params) throws Exception {
+        return method.invoke(handler, params);
+    }
+
+    /**
+     * 以指定参数调用调用计划对应的方法.
+     * <p>
+     * 执行器调用方法时总是经过该方法, 默认实现调用 {@link #invokeMethod(Method, Object[])};
+     * 子类如果按调用计划分派 (例如注解处理器生成的分派器), 可覆盖该方法, 不再需要 {@link Method} 对象.
+     * 异常的要求与 {@link #invokeMethod(Method, Object[])} 相同.
+     *
+     * @param plan   由 {@link #findMethodPlan(JsonRpcRequest)} 找到的调用计划.
+     * @param params 已反序列化的参数列表.
+     * @return 返回方法的返回值.
+     * @throws InvocationTargetException 当方法自身抛出异常时抛出, 异常原因为方法所抛出的异常.
+     * @throws Exception                 当无法调用方法时抛出.
+     */
+    protected Object invokeMethod(MethodPlan plan, Object[] params) throws Exception {
+        return invokeMethod(plan.getMethod(), params);
+    }
+
     /**
      * 获取当前执行器所使用的 handler 对象.
      *
@@ -157,4 +878,121 @@ public abstract class JsonRpcExecutor {
         return handler;
     }
 
+    /**
+     * 获取通知执行器.
+     *
+     * @return 如果没有设置通知执行器, 则返回 null.
+     */
+    public final Executor getNotificationExecutor() {
+        return notificationExecutor;
+    }
+
+    /**
+     * 设置通知执行器.
+     * <p>
+     * 设置后, {@link #handle(JsonRpcRequest)} 和 {@link #executeBatch(JsonArray, Executor)} 中的通知将交由该执行器处理,
+     * 调用线程不再等待通知执行完毕, 以免通知占用处理请求的线程.
+     * <p>
+     * 建议使用有界队列的执行器 (例如使用 {@link java.util.concurrent.ArrayBlockingQueue} 的
+     * {@link java.util.concurrent.ThreadPoolExecutor}), 当执行器拒绝执行时, 通知将被丢弃并记录警告日志.
+     *
+     * @param notificationExecutor 通知执行器, 如果为 null, 则在调用线程中处理通知.
+     */
+    public final void setNotificationExecutor(Executor notificationExecutor) {
+        this.notificationExecutor = notificationExecutor;
+    }
+
+    /**
+     * 获取结果缓存.
+     *
+     * @return 如果没有设置结果缓存, 则返回 null.
+     */
+    public final JsonRpcResultCache getResultCache() {
+        return resultCache;
+    }
+
+    /**
+     * 设置结果缓存.
+     * <p>
+     * 设置后, 对于结果会被缓存的方法, 命中缓存的请求将直接以缓存的结果响应, 不再转换参数, 调用方法和序列化返回值;
+     * 未命中时, 返回值将先序列化为 JsonElement 并缓存, 再写出响应. 通知不使用结果缓存.
+     * <p>
+     * 结果缓存只适用于结果仅由参数决定的方法 (例如只读的查询), 当方法所依赖的数据发生变化时,
+     * 需要通过 {@link JsonRpcResultCache#invalidate(String)} 等方法移除缓存结果.
+     *
+     * @param resultCache 结果缓存, 如果为 null, 则不使用结果缓存.
+     */
+    public final void setResultCache(JsonRpcResultCache resultCache) {
+        this.resultCache = resultCache;
+    }
+
+    /**
+     * 获取合并调用.
+     *
+     * @return 如果没有设置合并调用, 则返回 null.
+     */
+    public final JsonRpcCallCoalescer getCallCoalescer() {
+        return callCoalescer;
+    }
+
+    /**
+     * 设置合并调用.
+     * <p>
+     * 设置后, 对于调用会被合并的方法, 方法名称与参数列表均相同的请求同时到达时只调用一次方法,
+     * 结果被序列化为 JsonElement 后用于所有等待的请求. 通知不会被合并.
+     * <p>
+     * 同步执行时, 等待的请求会阻塞调用线程直到调用完成, 因此被合并的方法不应以相同的参数 (直接或间接地) 调用自身.
+     * 与结果缓存同时使用时, 先查找缓存, 未命中时再合并调用.
+     *
+     * @param callCoalescer 合并调用, 如果为 null, 则不合并调用.
+     */
+    public final void setCallCoalescer(JsonRpcCallCoalescer callCoalescer) {
+        this.callCoalescer = callCoalescer;
+    }
+
+    /**
+     * 方法的调用是否需要以参数列表生成调用键.
+     *
+     * @param method 方法名称.
+     * @return 如果方法的结果会被缓存或调用会被合并, 则返回 true.
+     */
+    final boolean isCallKeyRequired(String method) {
+        JsonRpcResultCache cache = resultCache;
+        JsonRpcCallCoalescer coalescer = callCoalescer;
+        return cache != null && cache.isCached(method) || coalescer != null && coalescer.isCoalesced(method);
+    }
+
+    /**
+     * 请求的执行结果.
+     * <p>
+     * 如果请求在返回值序列化之前已得到响应 (请求失败, 结果来自结果缓存或合并的调用), 则 {@link #response} 为对应的响应;
+     * 否则保存方法的返回值, 由调用方决定将其序列化为 {@link JsonRpcResponse} 还是直接写出.
+     */
+    private static final class Invocation {
+
+        private final JsonRpcResponse response;
+        private final MethodPlan plan;
+        private final Object result;
+        private final JsonPrimitive id;
+
+        private Invocation(JsonRpcResponse response, MethodPlan plan, Object result, JsonPrimitive id) {
+            this.response = response;
+            this.plan = plan;
+            this.result = result;
+            this.id = id;
+        }
+
+        static Invocation failed(JsonRpcResponse failure) {
+            return new Invocation(failure, null, null, null);
+        }
+
+        static Invocation completed(JsonRpcResponse response) {
+            return new Invocation(response, null, null, null);
+        }
+
+        static Invocation succeeded(MethodPlan plan, Object result, JsonPrimitive id) {
+            return new Invocation(null, plan, result, id);
+        }
+    }
+
 }
@@ -0,0 +1,173 @@
+package net.lamgc.jsonrpc;
+
+import com.google.gson.JsonPrimitive;
+import net.lamgc.jsonrpc.serializer.ParameterSerializer;
+import net.lamgc.jsonrpc.serializer.ReturnValueDeserializer;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 客户端调用方法的公共逻辑, 由 {@link JsonRpcProxyGenerator} 生成的代理对象与 {@link JsonRpcStubGenerator} 生成的存根共用.
+ * <p>
+ * 负责构造请求, 通过传输器发送请求, 以及将响应转换为方法的返回值.
+ * 如果指定了 {@link JsonRpcClientCache}, 标记了 {@link JsonRpcCacheable} 的方法将在构造请求后经过缓存.
+ */
+final class JsonRpcMethodCaller {
+
+    private final JsonRpcRequestTransporter transporter;
+    private final JsonRpcRequestBuilder requestBuilder;
+    private final ReturnValueDeserializer valueDeserializer;
+    private final JsonRpcClientCache cache;
+
+    JsonRpcMethodCaller(
+            JsonRpcRequestTransporter transporter,
+            ParameterSerializer parameterSerializer,
+            ReturnValueDeserializer valueDeserializer
+    ) {
+        this(transporter, parameterSerializer, valueDeserializer, null);
+    }
+
+    JsonRpcMethodCaller(
+            JsonRpcRequestTransporter transporter,
+            ParameterSerializer parameterSerializer,
+            ReturnValueDeserializer valueDeserializer,
+            JsonRpcClientCache cache
+    ) {
+        this.transporter = transporter;
+        this.requestBuilder = new JsonRpcRequestBuilder(parameterSerializer);
+        this.valueDeserializer = valueDeserializer;
+        this.cache = cache;
+    }
+
+    /**
+     * 检查接口方法是否可以被调用, 在创建代理对象或存根时调用.
+     * <p>
+     * 异步方法的返回类型需要能够接受 CompletableFuture, 即 {@link CompletableFuture} 或 {@link java.util.concurrent.CompletionStage};
+     * CompletableFuture 的子类或其他 CompletionStage 的实现类无法由调用结果构造.
+     *
+     * @param plan 接口方法的调用计划.
+     * @throws IllegalArgumentException 当方法的返回类型不受支持, 或缓存设置无效时抛出.
+     */
+    void checkMethod(MethodPlan plan) {
+        if (plan.isAsync() && !plan.getReturnClass().isAssignableFrom(CompletableFuture.class)) {
+            throw new IllegalArgumentException("The return type of an asynchronous method must be " +
+                    "CompletableFuture or CompletionStage: " + plan.getMethod());
+        }
+        if (cache != null) {
+            cache.policy(plan.getMethod());
+        }
+    }
+
+    /**
+     * 调用方法.
+     * <p>
+     * 如果方法是异步方法, 将以异步方式调用并返回 CompletableFuture, 方法需要先经过 {@link #checkMethod(MethodPlan)} 检查.
+     *
+     * @param plan 被调用方法的调用计划.
+     * @param args 调用参数.
+     * @return 返回方法的返回值.
+     * @throws Exception 当请求失败, 服务端返回错误或返回值无法转换时抛出.
+     */
+    Object call(MethodPlan plan, Object[] args) throws Exception {
+        JsonPrimitive requestId = new JsonPrimitive(ThreadLocalRandom.current().nextLong());
+        JsonRpcRequest request = requestBuilder.buildRequest(plan, requestId, args);
+        boolean async = plan.isAsync();
+
+        JsonRpcClientCache.Policy policy = cache != null ? cache.policy(plan.getMethod()) : null;
+        if (policy != null) {
+            if (async) {
+                return cache.load(policy, request.getParams(), () -> callAsync(plan, request));
+            }
+            return await(cache.load(policy, request.getParams(), () -> {
+                try {
+                    return CompletableFuture.completedFuture(transport(plan, request));
+                } catch (Exception e) {
+                    return CompletableFuture.failedFuture(e);
+                }
+            }));
+        } else if (async) {
+            return callAsync(plan, request);
+        }
+        return transport(plan, request);
+    }
+
+    private Object transport(MethodPlan plan, JsonRpcRequest request) throws Exception {
+        JsonRpcResponse response;
+        try {
+            response = transporter.transportRequest(request);
+        } catch (Exception e) {
+            throw new JsonRpcRequestException(JsonRpcErrors.REQUEST_FAILURE.toRpcError(), e);
+        }
+        if (!response.isError()) {
+            return valueDeserializer.deserializer(plan, response);
+        } else {
+            throw new JsonRpcRequestException((JsonRpcError) response.getResult());
+        }
+    }
+
+    /**
+     * 等待同步调用的结果, 并抛出调用时抛出的异常.
+     */
+    private static Object await(CompletableFuture<Object> future) throws Exception {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 以异步方式调用方法.
+     * <p>
+     * 如果传输器是 {@link AsyncJsonRpcRequestTransporter}, 则不会阻塞调用线程;
+     * 否则请求将在调用线程中同步传输, 并返回已完成的 CompletableFuture.
+     */
+    private CompletableFuture<Object> callAsync(MethodPlan plan, JsonRpcRequest request) {
+        CompletableFuture<JsonRpcResponse> responseFuture;
+        if (transporter instanceof AsyncJsonRpcRequestTransporter) {
+            try {
+                responseFuture = ((AsyncJsonRpcRequestTransporter) transporter).transportRequestAsync(request);
+            } catch (Exception e) {
+                responseFuture = new CompletableFuture<>();
+                responseFuture.completeExceptionally(e);
+            }
+        } else {
+            responseFuture = new CompletableFuture<>();
+            try {
+                responseFuture.complete(transporter.transportRequest(request));
+            } catch (Exception e) {
+                responseFuture.completeExceptionally(e);
+            }
+        }
+
+        CompletableFuture<Object> resultFuture = new CompletableFuture<>();
+        responseFuture.whenComplete((response, cause) -> {
+            if (cause != null) {
+                Throwable actualCause = cause instanceof CompletionException && cause.getCause() != null ?
+                        cause.getCause() : cause;
+                resultFuture.completeExceptionally(
+                        new JsonRpcRequestException(JsonRpcErrors.REQUEST_FAILURE.toRpcError(), actualCause));
+                return;
+            }
+            try {
+                if (!response.isError()) {
+                    resultFuture.complete(valueDeserializer.deserializer(plan, response));
+                } else {
+                    resultFuture.completeExceptionally(new JsonRpcRequestException((JsonRpcError) response.getResult()));
+                }
+            } catch (Throwable e) {
+                resultFuture.completeExceptionally(e);
+            }
+        });
+        return resultFuture;
+    }
+
+}
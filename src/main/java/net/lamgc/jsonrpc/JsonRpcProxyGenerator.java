@@ -1,7 +1,6 @@
 package net.lamgc.jsonrpc;
 
 import com.google.gson.Gson;
-import com.google.gson.JsonPrimitive;
 import net.lamgc.jsonrpc.serializer.GsonParameterSerializer;
 import net.lamgc.jsonrpc.serializer.GsonReturnValueDeserializer;
 import net.lamgc.jsonrpc.serializer.ParameterSerializer;
@@ -10,12 +9,17 @@ import net.lamgc.jsonrpc.serializer.ReturnValueDeserializer;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * JsonRpc 代理对象生成器.
  * <p>
  * 通过使用代理对象, 可以简化使用 JsonRpc 的复杂度.
+ * <p>
+ * 返回类型为 {@link CompletableFuture} 或 {@link java.util.concurrent.CompletionStage} 的接口方法将以异步方式调用,
+ * 返回值将按类型参数转换; 如需在等待响应期间不占用线程, 请使用 {@link AsyncJsonRpcRequestTransporter}.
  */
 public final class JsonRpcProxyGenerator {
 
@@ -27,6 +31,7 @@ public final class JsonRpcProxyGenerator {
      * @param gson               用于序列化参数和反序列化返回值的 Gson 对象.
      * @param <T>                代理对象的类型.
      * @return 返回一个代理对象.
+     * @throws IllegalArgumentException 当异步方法的返回类型不受支持时抛出.
      */
     public static <T> T createProxy(Class<T> interfaceClass, JsonRpcRequestTransporter requestTransporter, Gson gson) {
         return createProxy(interfaceClass, requestTransporter, gson, true);
@@ -41,6 +46,7 @@ public final class JsonRpcProxyGenerator {
      * @param enableNamedParameter 是否启用命名参数.
      * @param <T>                  代理对象的类型.
      * @return 返回一个代理对象.
+     * @throws IllegalArgumentException 当异步方法的返回类型不受支持时抛出.
      */
     public static <T> T createProxy(
             Class<T> interfaceClass,
@@ -61,35 +67,65 @@ public final class JsonRpcProxyGenerator {
      * @param returnValueDeserializer 返回值反序列化器.
      * @param <T>                     代理对象的类型.
      * @return 返回一个代理对象.
+     * @throws IllegalArgumentException 当异步方法的返回类型不受支持时抛出.
      */
-    @SuppressWarnings("unchecked")
     public static <T> T createProxy(
             Class<T> interfaceClass,
             JsonRpcRequestTransporter requestTransporter,
             ParameterSerializer parameterSerializer,
             ReturnValueDeserializer returnValueDeserializer
+    ) {
+        return createProxy(interfaceClass, requestTransporter, parameterSerializer, returnValueDeserializer, null);
+    }
+
+    /**
+     * 创建一个带有客户端结果缓存的 JsonRpc 代理对象.
+     * <p>
+     * 标记了 {@link JsonRpcCacheable} 的方法的调用将经过 cache, 其他方法不受影响.
+     *
+     * @param interfaceClass          代理对象的接口类型.
+     * @param requestTransporter      Json RPC 请求传输器.
+     * @param parameterSerializer     参数序列化器.
+     * @param returnValueDeserializer 返回值反序列化器.
+     * @param cache                   客户端结果缓存, 如果为 null, 则不使用缓存.
+     * @param <T>                     代理对象的类型.
+     * @return 返回一个代理对象.
+     * @throws IllegalArgumentException 当异步方法的返回类型不受支持, 或方法标记的缓存有效期无效时抛出.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T createProxy(
+            Class<T> interfaceClass,
+            JsonRpcRequestTransporter requestTransporter,
+            ParameterSerializer parameterSerializer,
+            ReturnValueDeserializer returnValueDeserializer,
+            JsonRpcClientCache cache
     ) {
         return (T) Proxy.newProxyInstance(
                 interfaceClass.getClassLoader(),
                 new Class[]{interfaceClass},
-                new JsonRpcProxyInvocationHandler(requestTransporter, parameterSerializer, returnValueDeserializer)
+                new JsonRpcProxyInvocationHandler(interfaceClass, requestTransporter,
+                        parameterSerializer, returnValueDeserializer, cache)
         );
     }
 
     private static class JsonRpcProxyInvocationHandler implements InvocationHandler {
 
-        private final JsonRpcRequestTransporter transporter;
-        private final JsonRpcRequestBuilder requestBuilder;
-        private final ReturnValueDeserializer valueDeserializer;
+        private final JsonRpcMethodCaller caller;
+        private final Map<Method, MethodPlan> methodPlans = new HashMap<>();
 
         public JsonRpcProxyInvocationHandler(
+                Class<?> interfaceClass,
                 JsonRpcRequestTransporter transporter,
                 ParameterSerializer parameterSerializer,
-                ReturnValueDeserializer valueDeserializer
+                ReturnValueDeserializer valueDeserializer,
+                JsonRpcClientCache cache
         ) {
-            this.transporter = transporter;
-            this.requestBuilder = new JsonRpcRequestBuilder(parameterSerializer);
-            this.valueDeserializer = valueDeserializer;
+            this.caller = new JsonRpcMethodCaller(transporter, parameterSerializer, valueDeserializer, cache);
+            for (Method method : interfaceClass.getMethods()) {
+                MethodPlan plan = MethodPlan.of(method);
+                caller.checkMethod(plan);
+                methodPlans.put(method, plan);
+            }
         }
 
         @Override
@@ -98,20 +134,8 @@ public final class JsonRpcProxyGenerator {
                 return method.invoke(this, args);
             }
 
-            JsonPrimitive requestId = new JsonPrimitive(ThreadLocalRandom.current().nextLong());
-            JsonRpcRequest request = requestBuilder.buildRequest(method, requestId, args);
-
-            JsonRpcResponse response;
-            try {
-                response = transporter.transportRequest(request);
-            } catch (Exception e) {
-                throw new JsonRpcRequestException(JsonRpcErrors.REQUEST_FAILURE.toRpcError(), e);
-            }
-            if (!response.isError()) {
-                return valueDeserializer.deserializer(method, response);
-            } else {
-                throw new JsonRpcRequestException((JsonRpcError) response.getResult());
-            }
+            MethodPlan plan = methodPlans.get(method);
+            return caller.call(plan != null ? plan : MethodPlan.of(method), args);
         }
     }
 
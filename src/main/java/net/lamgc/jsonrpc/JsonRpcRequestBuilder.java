@@ -47,4 +47,17 @@ public final class JsonRpcRequestBuilder {
         return new JsonRpcRequest(method.getName(), serializedParams, id);
     }
 
+    public JsonRpcRequest buildRequest(MethodPlan plan, JsonPrimitive id, Object... args) {
+        Objects.requireNonNull(plan);
+        JsonElement serializedParams = null;
+        if (args != null) {
+            try {
+                serializedParams = parameterSerializer.serializer(plan, args);
+            } catch (Exception e) {
+                throw new ParameterSerializationException(e);
+            }
+        }
+        return new JsonRpcRequest(plan.getName(), serializedParams, id);
+    }
+
 }
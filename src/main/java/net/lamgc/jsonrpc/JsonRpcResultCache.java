@@ -0,0 +1,266 @@
+package net.lamgc.jsonrpc;
+
+import com.google.gson.JsonElement;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 方法结果缓存.
+ * <p>
+ * 为指定的方法缓存已序列化的返回值, 缓存键为方法名称与参数列表, 参数列表按结构比较 (对象成员的顺序不影响比较结果).
+ * 设置到执行器 ({@link JsonRpcExecutor#setResultCache(JsonRpcResultCache)}) 后, 命中缓存的请求将直接以缓存的结果响应,
+ * 不再转换参数, 调用方法和序列化返回值. 只有成功的结果会被缓存, 错误响应和通知不会被缓存.
+ * <p>
+ * 每个方法可以单独设置缓存有效期, 缓存的总条目数有上限, 超出上限时淘汰最久未被访问的条目.
+ * 由于缓存的结果在多个响应之间共享, 调用方不应修改响应中的结果.
+ * <p>
+ * 该类是线程安全的, 同一个缓存可以设置给多个执行器 (此时方法名称相同的方法共享缓存).
+ */
+public final class JsonRpcResultCache {
+
+    private final Map<String, Long> methodTtlNanos;
+
+    private final int maximumSize;
+
+    private final Map<CallKey, Entry> entries;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    private JsonRpcResultCache(Builder builder) {
+        this.methodTtlNanos = new HashMap<>(builder.methodTtlNanos);
+        this.maximumSize = builder.maximumSize;
+        this.entries = new LinkedHashMap<>(16, 0.75F, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CallKey, Entry> eldest) {
+                if (size() > maximumSize) {
+                    evictionCount.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * 创建结果缓存构建器.
+     *
+     * @return 返回结果缓存构建器.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * 方法的结果是否会被缓存.
+     *
+     * @param method 方法名称.
+     * @return 如果方法的结果会被缓存, 则返回 true.
+     */
+    public boolean isCached(String method) {
+        return method != null && methodTtlNanos.containsKey(method);
+    }
+
+    /**
+     * 创建缓存键.
+     *
+     * @param method 方法名称.
+     * @param params 请求的参数列表, 可以为 null.
+     * @return 如果方法的结果不会被缓存, 则返回 null.
+     */
+    CallKey key(String method, JsonElement params) {
+        if (!isCached(method)) {
+            return null;
+        }
+        return CallKey.of(method, params);
+    }
+
+    /**
+     * 获取缓存的结果.
+     *
+     * @param key 缓存键.
+     * @return 如果没有缓存或缓存已过期, 则返回 null.
+     */
+    JsonElement get(CallKey key) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+            if (entry != null && entry.expiresAt - System.nanoTime() <= 0) {
+                entries.remove(key);
+                entry = null;
+            }
+        }
+        if (entry == null) {
+            missCount.increment();
+            return null;
+        }
+        hitCount.increment();
+        return entry.result;
+    }
+
+    /**
+     * 缓存方法的结果.
+     *
+     * @param key    缓存键.
+     * @param result 已序列化的结果, 为 null 时按 JSON 的 null 缓存.
+     */
+    void put(CallKey key, JsonElement result) {
+        Entry entry = new Entry(result, System.nanoTime() + methodTtlNanos.get(key.getMethod()));
+        // 缓存键需要长期保存, 不能引用请求中的参数列表.
+        CallKey detachedKey = key.detach();
+        synchronized (entries) {
+            entries.put(detachedKey, entry);
+        }
+    }
+
+    /**
+     * 移除方法的所有缓存结果.
+     * <p>
+     * 通常在方法所依赖的数据发生变化时调用.
+     *
+     * @param method 方法名称.
+     */
+    public void invalidate(String method) {
+        synchronized (entries) {
+            Iterator<CallKey> iterator = entries.keySet().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().getMethod().equals(method)) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * 移除方法在指定参数下的缓存结果.
+     *
+     * @param method 方法名称.
+     * @param params 参数列表, 与请求中的 params 字段形式相同 (按位置传参时为数组, 按名称传参时为对象), 可以为 null.
+     */
+    public void invalidate(String method, JsonElement params) {
+        CallKey key = key(method, params);
+        if (key == null) {
+            return;
+        }
+        synchronized (entries) {
+            entries.remove(key);
+        }
+    }
+
+    /**
+     * 移除所有缓存结果.
+     */
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * 获取缓存的条目数, 包括已过期但尚未被移除的条目.
+     *
+     * @return 返回缓存的条目数.
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * 获取命中次数.
+     *
+     * @return 返回请求命中缓存的次数.
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * 获取未命中次数.
+     *
+     * @return 返回请求未命中缓存 (包括缓存已过期) 的次数, 不包括不缓存结果的方法.
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * 获取因条目数超出上限而被淘汰的条目数.
+     *
+     * @return 返回被淘汰的条目数.
+     */
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    private static final class Entry {
+
+        private final JsonElement result;
+        private final long expiresAt;
+
+        private Entry(JsonElement result, long expiresAt) {
+            this.result = result;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * {@link JsonRpcResultCache} 构建器.
+     */
+    public static final class Builder {
+
+        private final Map<String, Long> methodTtlNanos = new HashMap<>();
+        private int maximumSize = 1024;
+
+        private Builder() {
+        }
+
+        /**
+         * 缓存指定方法的结果.
+         *
+         * @param method 方法名称, 与请求中的 method 字段相同.
+         * @param ttl    结果的有效期.
+         * @return 返回构建器本身.
+         */
+        public Builder cache(String method, Duration ttl) {
+            Objects.requireNonNull(method);
+            if (ttl.isNegative() || ttl.isZero()) {
+                throw new IllegalArgumentException("The ttl must be positive: " + ttl);
+            }
+            methodTtlNanos.put(method, ttl.toNanos());
+            return this;
+        }
+
+        /**
+         * 设置缓存的最大条目数, 默认为 1024.
+         *
+         * @param maximumSize 最大条目数.
+         * @return 返回构建器本身.
+         */
+        public Builder maximumSize(int maximumSize) {
+            if (maximumSize <= 0) {
+                throw new IllegalArgumentException("The maximum size must be positive: " + maximumSize);
+            }
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        /**
+         * 构建结果缓存.
+         *
+         * @return 返回结果缓存.
+         */
+        public JsonRpcResultCache build() {
+            return new JsonRpcResultCache(this);
+        }
+    }
+
+}
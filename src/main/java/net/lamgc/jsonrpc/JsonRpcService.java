@@ -0,0 +1,44 @@
+package net.lamgc.jsonrpc;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标记 Json RPC 服务接口.
+ * <p>
+ * 使用 jsonrpc-processor 注解处理器编译时, 将为被标记的接口在同一个包中生成:
+ * <ul>
+ *     <li>{@code <接口名>JsonRpcDispatcher}: 服务端分派器, 继承 {@link JsonRpcExecutor},
+ *     通过 switch 按方法名查找调用计划, 并以强类型的直接调用执行方法;</li>
+ *     <li>{@code <接口名>JsonRpcStub}: 客户端存根, 继承 {@link JsonRpcStub} 并实现该接口,
+ *     作用与 {@link JsonRpcProxyGenerator} 创建的代理对象相同.</li>
+ * </ul>
+ * 嵌套接口生成的类名以外部类名和下划线作为前缀, 例如 {@code Outer.Service} 将生成 {@code Outer_ServiceJsonRpcStub}.
+ * <p>
+ * 生成的代码不扫描 handler 的方法, 也不在运行时定义类, 因此可以减少启动开销, 并且可以直接用于 GraalVM native-image.
+ * <p>
+ * 由于分派器按方法名分派, 生成分派器的接口不能包含重载方法; 接口也不能声明类型参数.
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface JsonRpcService {
+
+    /**
+     * 是否生成服务端分派器.
+     *
+     * @return 默认为 true.
+     */
+    boolean dispatcher() default true;
+
+    /**
+     * 是否生成客户端存根.
+     *
+     * @return 默认为 true.
+     */
+    boolean stub() default true;
+
+}
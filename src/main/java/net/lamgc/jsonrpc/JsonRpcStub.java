@@ -0,0 +1,94 @@
+package net.lamgc.jsonrpc;
+
+import net.lamgc.jsonrpc.serializer.ParameterSerializer;
+import net.lamgc.jsonrpc.serializer.ReturnValueDeserializer;
+
+import java.lang.reflect.UndeclaredThrowableException;
+
+/**
+ * {@link JsonRpcStubGenerator} 和 {@link JsonRpcService} 注解处理器生成的存根类的父类.
+ * <p>
+ * 存根类为接口的每个方法生成一个实现, 实现将参数放入数组后, 以方法的序号调用 {@link #invoke(int, Object[])};
+ * 方法的调用计划在生成存根类时按序号预先创建, 因此调用时不需要查找 {@link java.lang.reflect.Method} 对象.
+ * <p>
+ * 该类仅供生成的存根类使用, 不应手动继承.
+ */
+public abstract class JsonRpcStub {
+
+    private final JsonRpcMethodCaller caller;
+    private final MethodPlan[] plans;
+
+    /**
+     * 供注解处理器生成的存根类使用的构造方法.
+     *
+     * @param requestTransporter      Json RPC 请求传输器.
+     * @param parameterSerializer     参数序列化器.
+     * @param returnValueDeserializer 返回值反序列化器.
+     * @param plans                   按序号排列的方法调用计划.
+     * @throws IllegalArgumentException 当方法的返回类型不受支持时抛出.
+     */
+    protected JsonRpcStub(
+            JsonRpcRequestTransporter requestTransporter,
+            ParameterSerializer parameterSerializer,
+            ReturnValueDeserializer returnValueDeserializer,
+            MethodPlan[] plans
+    ) {
+        this(requestTransporter, parameterSerializer, returnValueDeserializer, null, plans);
+    }
+
+    /**
+     * 供 {@link JsonRpcStubGenerator} 生成的存根类使用的构造方法.
+     *
+     * @param requestTransporter      Json RPC 请求传输器.
+     * @param parameterSerializer     参数序列化器.
+     * @param returnValueDeserializer 返回值反序列化器.
+     * @param cache                   客户端结果缓存, 如果为 null, 则不使用缓存.
+     * @param plans                   按序号排列的方法调用计划.
+     * @throws IllegalArgumentException 当方法的返回类型不受支持, 或方法标记的缓存有效期无效时抛出.
+     */
+    protected JsonRpcStub(
+            JsonRpcRequestTransporter requestTransporter,
+            ParameterSerializer parameterSerializer,
+            ReturnValueDeserializer returnValueDeserializer,
+            JsonRpcClientCache cache,
+            MethodPlan[] plans
+    ) {
+        JsonRpcMethodCaller caller = new JsonRpcMethodCaller(
+                requestTransporter, parameterSerializer, returnValueDeserializer, cache);
+        for (MethodPlan plan : plans) {
+            caller.checkMethod(plan);
+        }
+        this.caller = caller;
+        this.plans = plans;
+    }
+
+    /**
+     * 调用方法.
+     *
+     * @param index 方法在存根类中的序号.
+     * @param args  调用参数, 方法没有参数时为 null.
+     * @return 返回方法的返回值, 基本类型的返回值将被装箱.
+     */
+    protected final Object invoke(int index, Object[] args) {
+        MethodPlan plan = plans[index];
+        try {
+            return caller.call(plan, args);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Exception e) {
+            // 与动态代理的行为一致, 方法没有声明的受检异常将被包装为 UndeclaredThrowableException.
+            for (Class<?> exceptionType : plan.getMethod().getExceptionTypes()) {
+                if (exceptionType.isInstance(e)) {
+                    throw JsonRpcStub.<RuntimeException>sneakyThrow(e);
+                }
+            }
+            throw new UndeclaredThrowableException(e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E extends Throwable> E sneakyThrow(Throwable e) throws E {
+        throw (E) e;
+    }
+
+}
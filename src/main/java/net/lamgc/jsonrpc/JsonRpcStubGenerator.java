@@ -0,0 +1,188 @@
+package net.lamgc.jsonrpc;
+
+import com.google.gson.Gson;
+import net.lamgc.jsonrpc.serializer.GsonParameterSerializer;
+import net.lamgc.jsonrpc.serializer.GsonReturnValueDeserializer;
+import net.lamgc.jsonrpc.serializer.ParameterSerializer;
+import net.lamgc.jsonrpc.serializer.ReturnValueDeserializer;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * JsonRpc 存根生成器.
+ * <p>
+ * 与 {@link JsonRpcProxyGenerator} 的作用相同, 但不使用动态代理, 而是在运行时为接口生成一个实现类 (存根类),
+ * 并通过 {@link MethodHandles.Lookup#defineClass(byte[])} 定义在接口所在的包中. 存根类的每个方法以预先分配的序号
+ * 直接取得方法的调用计划, 省去了动态代理每次调用时的 {@link java.lang.reflect.InvocationHandler} 分派和 Method 查找.
+ * <p>
+ * 每个接口的存根类只会生成一次, 之后创建存根对象时将复用已生成的存根类.
+ * 接口所在的包需要对本库开放 (在类路径上的接口总是满足该条件), 否则将抛出 {@link IllegalArgumentException},
+ * 此时可以继续使用 {@link JsonRpcProxyGenerator}.
+ * <p>
+ * 存根对象的 equals, hashCode 和 toString 方法使用 {@link Object} 的实现.
+ */
+public final class JsonRpcStubGenerator {
+
+    private final static String STUB_CLASS_SUFFIX = "$$JsonRpcStub";
+
+    private final static ClassValue<StubClass> STUB_CLASSES = new ClassValue<>() {
+        @Override
+        protected StubClass computeValue(Class<?> type) {
+            return defineStubClass(type);
+        }
+    };
+
+    private JsonRpcStubGenerator() {
+        throw new RuntimeException("The class does not allow instantiation.");
+    }
+
+    /**
+     * 创建一个 JsonRpc 存根对象.
+     *
+     * @param interfaceClass     存根对象的接口类型.
+     * @param requestTransporter Json RPC 请求传输器.
+     * @param gson               用于序列化参数和反序列化返回值的 Gson 对象.
+     * @param <T>                存根对象的类型.
+     * @return 返回一个存根对象.
+     * @throws IllegalArgumentException 当无法为接口生成存根类, 或异步方法的返回类型不受支持时抛出.
+     */
+    public static <T> T createStub(Class<T> interfaceClass, JsonRpcRequestTransporter requestTransporter, Gson gson) {
+        return createStub(interfaceClass, requestTransporter, gson, true);
+    }
+
+    /**
+     * 创建一个 JsonRpc 存根对象.
+     *
+     * @param interfaceClass       存根对象的接口类型.
+     * @param requestTransporter   Json RPC 请求传输器.
+     * @param gson                 用于序列化参数和反序列化返回值的 Gson 对象.
+     * @param enableNamedParameter 是否启用命名参数.
+     * @param <T>                  存根对象的类型.
+     * @return 返回一个存根对象.
+     * @throws IllegalArgumentException 当无法为接口生成存根类, 或异步方法的返回类型不受支持时抛出.
+     */
+    public static <T> T createStub(
+            Class<T> interfaceClass,
+            JsonRpcRequestTransporter requestTransporter,
+            Gson gson,
+            boolean enableNamedParameter
+    ) {
+        return createStub(interfaceClass, requestTransporter,
+                new GsonParameterSerializer(gson, enableNamedParameter), new GsonReturnValueDeserializer(gson));
+    }
+
+    /**
+     * 创建一个 JsonRpc 存根对象.
+     *
+     * @param interfaceClass          存根对象的接口类型.
+     * @param requestTransporter      Json RPC 请求传输器.
+     * @param parameterSerializer     参数序列化器.
+     * @param returnValueDeserializer 返回值反序列化器.
+     * @param <T>                     存根对象的类型.
+     * @return 返回一个存根对象.
+     * @throws IllegalArgumentException 当无法为接口生成存根类, 或异步方法的返回类型不受支持时抛出.
+     */
+    public static <T> T createStub(
+            Class<T> interfaceClass,
+            JsonRpcRequestTransporter requestTransporter,
+            ParameterSerializer parameterSerializer,
+            ReturnValueDeserializer returnValueDeserializer
+    ) {
+        return createStub(interfaceClass, requestTransporter, parameterSerializer, returnValueDeserializer, null);
+    }
+
+    /**
+     * 创建一个带有客户端结果缓存的 JsonRpc 存根对象.
+     * <p>
+     * 标记了 {@link JsonRpcCacheable} 的方法的调用将经过 cache, 其他方法不受影响.
+     *
+     * @param interfaceClass          存根对象的接口类型.
+     * @param requestTransporter      Json RPC 请求传输器.
+     * @param parameterSerializer     参数序列化器.
+     * @param returnValueDeserializer 返回值反序列化器.
+     * @param cache                   客户端结果缓存, 如果为 null, 则不使用缓存.
+     * @param <T>                     存根对象的类型.
+     * @return 返回一个存根对象.
+     * @throws IllegalArgumentException 当无法为接口生成存根类, 异步方法的返回类型不受支持, 或方法标记的缓存有效期无效时抛出.
+     */
+    public static <T> T createStub(
+            Class<T> interfaceClass,
+            JsonRpcRequestTransporter requestTransporter,
+            ParameterSerializer parameterSerializer,
+            ReturnValueDeserializer returnValueDeserializer,
+            JsonRpcClientCache cache
+    ) {
+        if (!interfaceClass.isInterface()) {
+            throw new IllegalArgumentException("Not an interface: " + interfaceClass.getName());
+        }
+        StubClass stubClass = STUB_CLASSES.get(interfaceClass);
+        try {
+            return interfaceClass.cast(stubClass.constructor.invoke(requestTransporter,
+                    parameterSerializer, returnValueDeserializer, cache, stubClass.plans));
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Failed to create the stub of " + interfaceClass.getName(), e);
+        }
+    }
+
+    private static StubClass defineStubClass(Class<?> interfaceClass) {
+        Method[] methods = stubMethods(interfaceClass);
+        byte[] bytecode = StubClassWriter.write(interfaceClass.getName() + STUB_CLASS_SUFFIX, interfaceClass, methods);
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(interfaceClass, MethodHandles.lookup());
+            Class<?> stubClass = lookup.defineClass(bytecode);
+            MethodHandle constructor = lookup.findConstructor(stubClass,
+                    MethodType.methodType(void.class, JsonRpcRequestTransporter.class, ParameterSerializer.class,
+                            ReturnValueDeserializer.class, JsonRpcClientCache.class, MethodPlan[].class));
+            MethodPlan[] plans = new MethodPlan[methods.length];
+            for (int i = 0; i < methods.length; i++) {
+                plans[i] = MethodPlan.of(methods[i]);
+            }
+            return new StubClass(constructor, plans);
+        } catch (IllegalAccessException | NoSuchMethodException | LinkageError | SecurityException e) {
+            throw new IllegalArgumentException("Unable to generate a stub for " + interfaceClass.getName(), e);
+        }
+    }
+
+    /**
+     * 获取存根类需要实现的方法.
+     * <p>
+     * 包括接口 (及其父接口) 的所有抽象方法和默认方法, 与动态代理一致, 默认方法也将作为远程方法调用.
+     * 名称与参数类型相同的方法只保留一个, 返回类型不同时分别实现.
+     */
+    private static Method[] stubMethods(Class<?> interfaceClass) {
+        Map<String, Method> methods = new LinkedHashMap<>();
+        Method[] candidates = interfaceClass.getMethods();
+        // getMethods 的顺序不固定, 排序后保证同一接口生成的方法序号稳定.
+        Arrays.sort(candidates, (a, b) -> a.toString().compareTo(b.toString()));
+        for (Method method : candidates) {
+            if (Modifier.isStatic(method.getModifiers()) || method.isBridge()) {
+                continue;
+            }
+            String key = method.getName() + Arrays.toString(method.getParameterTypes()) + method.getReturnType().getName();
+            methods.putIfAbsent(key, method);
+        }
+        return methods.values().toArray(new Method[0]);
+    }
+
+    private final static class StubClass {
+
+        private final MethodHandle constructor;
+        private final MethodPlan[] plans;
+
+        private StubClass(MethodHandle constructor, MethodPlan[] plans) {
+            this.constructor = constructor;
+            this.plans = plans;
+        }
+
+    }
+
+}
@@ -3,10 +3,14 @@ package net.lamgc.jsonrpc;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonWriter;
 import net.lamgc.jsonrpc.serializer.json.JsonRpcRequestSerializer;
 import net.lamgc.jsonrpc.serializer.json.JsonRpcResponseSerializer;
 
+import java.io.IOException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
 import java.util.Objects;
@@ -16,6 +20,8 @@ public final class JsonRpcUtils {
 
     private final static Pattern nonNamedParameterRegex = Pattern.compile("^arg\\d+$");
 
+    private final static TypeAdapter<JsonElement> jsonElementAdapter = new Gson().getAdapter(JsonElement.class);
+
     private JsonRpcUtils() {
         throw new RuntimeException("The class does not allow instantiation.");
     }
@@ -95,6 +101,17 @@ public final class JsonRpcUtils {
         return false;
     }
 
+    /**
+     * 将 JsonElement 写入 JsonWriter.
+     *
+     * @param element 需要写出的 JsonElement, 如果为 null, 则写出 JSON 的 null.
+     * @param writer  目标 JsonWriter.
+     * @throws IOException 当写出失败时抛出.
+     */
+    public static void writeJsonElement(JsonElement element, JsonWriter writer) throws IOException {
+        jsonElementAdapter.write(writer, element);
+    }
+
     /**
      * 创建一个用于 JsonRpc 的 Gson 对象.
      * <p>
@@ -0,0 +1,90 @@
+package net.lamgc.jsonrpc;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * 已绑定 handler 的方法调用器, 以类型为 {@code (Object[])Object} 的 {@link MethodHandle} 调用方法.
+ * <p>
+ * MethodHandle 在参数类型不匹配时抛出的 {@link ClassCastException} 或 {@link NullPointerException}
+ * 无法与方法自身抛出的异常区分, 因此调用前需要先通过 {@link #accepts(Object[])} 检查参数;
+ * 参数不能直接传递给方法时 (例如基本类型参数为 null, 或需要拓宽转换), 调用方应改为反射调用,
+ * 以得到与反射调用相同的结果 (包括 {@link IllegalArgumentException}).
+ */
+final class MethodInvoker {
+
+    private final static MethodType INVOKER_TYPE = MethodType.methodType(Object.class, Object[].class);
+
+    private final MethodHandle handle;
+    private final Class<?>[] argumentClasses;
+    private final boolean[] primitive;
+
+    private MethodInvoker(MethodHandle handle, Class<?>[] parameterClasses) {
+        this.handle = handle;
+        this.argumentClasses = new Class<?>[parameterClasses.length];
+        this.primitive = new boolean[parameterClasses.length];
+        for (int i = 0; i < parameterClasses.length; i++) {
+            primitive[i] = parameterClasses[i].isPrimitive();
+            argumentClasses[i] = MethodType.methodType(parameterClasses[i]).wrap().returnType();
+        }
+    }
+
+    /**
+     * 将方法解析为已绑定 handler 的调用器.
+     *
+     * @param lookup  用于解析方法的 Lookup 对象.
+     * @param method  需要解析的方法.
+     * @param handler 方法所属的 handler 对象.
+     * @return 如果无法解析, 则返回 null.
+     */
+    static MethodInvoker of(MethodHandles.Lookup lookup, Method method, Object handler) {
+        try {
+            MethodHandle handle = lookup.unreflect(method)
+                    .bindTo(handler)
+                    .asSpreader(Object[].class, method.getParameterCount())
+                    .asType(INVOKER_TYPE);
+            return new MethodInvoker(handle, method.getParameterTypes());
+        } catch (IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 参数是否可以不经转换直接传递给方法.
+     *
+     * @param params 参数列表, 可以为 null (与空数组相同).
+     * @return 如果参数数量与类型均与方法一致, 则返回 true.
+     */
+    boolean accepts(Object[] params) {
+        int count = params == null ? 0 : params.length;
+        if (count != argumentClasses.length) {
+            return false;
+        }
+        for (int i = 0; i < count; i++) {
+            Object param = params[i];
+            if (param == null ? primitive[i] : !argumentClasses[i].isInstance(param)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 调用方法, 调用前需要通过 {@link #accepts(Object[])} 检查参数.
+     *
+     * @param params 参数列表.
+     * @return 返回方法的返回值.
+     * @throws InvocationTargetException 当方法自身抛出异常时抛出.
+     */
+    Object invoke(Object[] params) throws InvocationTargetException {
+        try {
+            return (Object) handle.invokeExact(params);
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+
+}
@@ -0,0 +1,240 @@
+package net.lamgc.jsonrpc;
+
+import com.google.gson.reflect.TypeToken;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * 方法调用计划.
+ * <p>
+ * 在方法注册时一次性解析方法的参数名称, 参数类型, 返回值类型 (包括异步方法的结果类型) 以及是否支持命名参数等元数据,
+ * 处理请求时直接读取这些结果, 不再调用 {@link Method#getParameters()} 等会复制数组的反射方法.
+ * <p>
+ * 该对象不可变, 可以在多个线程间共享.
+ */
+public final class MethodPlan {
+
+    private final Method method;
+    private final String name;
+    private final String qualifiedName;
+    private final Parameter[] parameters;
+    private final String[] parameterNames;
+    private final Class<?>[] parameterClasses;
+    private final Type[] parameterTypes;
+    private final Class<?> returnClass;
+    private final Type returnType;
+    private final boolean async;
+    private final Class<?> resultClass;
+    private final Type resultType;
+    private final boolean namedParameterSupported;
+    private final Map<String, Integer> nameToIndex;
+
+    private MethodPlan(Method method) {
+        this.method = method;
+        this.name = method.getName();
+        this.qualifiedName = method.getDeclaringClass().getName() + "." + method.getName();
+        this.parameters = method.getParameters();
+        this.parameterNames = new String[parameters.length];
+        this.parameterClasses = new Class<?>[parameters.length];
+        this.parameterTypes = new Type[parameters.length];
+        Map<String, Integer> nameToIndex = new HashMap<>();
+        for (int i = 0; i < parameters.length; i++) {
+            parameterNames[i] = parameters[i].getName();
+            parameterClasses[i] = parameters[i].getType();
+            parameterTypes[i] = parameters[i].getParameterizedType();
+            nameToIndex.put(parameterNames[i], i);
+        }
+        this.nameToIndex = Collections.unmodifiableMap(nameToIndex);
+        this.returnClass = method.getReturnType();
+        this.returnType = method.getGenericReturnType();
+        this.async = CompletionStage.class.isAssignableFrom(returnClass);
+        this.resultType = async ? resolveAsyncResultType(returnType) : returnType;
+        this.resultClass = async ? TypeToken.get(resultType).getRawType() : returnClass;
+        this.namedParameterSupported = JsonRpcUtils.canUseNamedParameter(method);
+    }
+
+    /**
+     * 获取异步方法的结果类型.
+     * <p>
+     * 只解析 {@link CompletableFuture} 和 {@link CompletionStage} 的类型参数, 其他情况按 Object 处理.
+     */
+    private static Type resolveAsyncResultType(Type returnType) {
+        if (returnType instanceof ParameterizedType) {
+            ParameterizedType parameterizedType = (ParameterizedType) returnType;
+            Type rawType = parameterizedType.getRawType();
+            if (rawType == CompletableFuture.class || rawType == CompletionStage.class) {
+                Type argument = parameterizedType.getActualTypeArguments()[0];
+                if (argument instanceof WildcardType) {
+                    return ((WildcardType) argument).getUpperBounds()[0];
+                }
+                return argument;
+            }
+        }
+        return Object.class;
+    }
+
+    /**
+     * 为方法创建调用计划.
+     * <p>
+     * 创建过程需要进行反射查询, 调用方应当在注册方法时创建并缓存计划, 而不是在每次请求时创建.
+     *
+     * @param method 需要创建计划的方法.
+     * @return 返回方法的调用计划.
+     */
+    public static MethodPlan of(Method method) {
+        return new MethodPlan(Objects.requireNonNull(method));
+    }
+
+    public Method getMethod() {
+        return method;
+    }
+
+    /**
+     * 获取方法名称.
+     *
+     * @return 返回方法名称, 等同于 {@code getMethod().getName()}.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 获取带有声明类名称的方法名, 主要用于日志.
+     *
+     * @return 返回 "{@code 类名.方法名}" 形式的名称.
+     */
+    public String getQualifiedName() {
+        return qualifiedName;
+    }
+
+    public int getParameterCount() {
+        return parameters.length;
+    }
+
+    public Parameter getParameter(int index) {
+        return parameters[index];
+    }
+
+    public String getParameterName(int index) {
+        return parameterNames[index];
+    }
+
+    /**
+     * 获取参数的擦除类型.
+     *
+     * @param index 参数索引.
+     * @return 返回参数的 {@link Class}.
+     */
+    public Class<?> getParameterClass(int index) {
+        return parameterClasses[index];
+    }
+
+    /**
+     * 获取参数的泛型类型.
+     *
+     * @param index 参数索引.
+     * @return 返回参数的 {@link Parameter#getParameterizedType()}.
+     */
+    public Type getParameterType(int index) {
+        return parameterTypes[index];
+    }
+
+    /**
+     * 根据参数名称获取参数索引.
+     *
+     * @param parameterName 参数名称.
+     * @return 如果方法没有该名称的参数, 则返回 -1.
+     */
+    public int getParameterIndex(String parameterName) {
+        Integer index = nameToIndex.get(parameterName);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * 获取方法的擦除返回类型.
+     *
+     * @return 返回 {@link Method#getReturnType()}.
+     */
+    public Class<?> getReturnClass() {
+        return returnClass;
+    }
+
+    /**
+     * 获取方法的泛型返回类型.
+     *
+     * @return 返回 {@link Method#getGenericReturnType()}.
+     */
+    public Type getReturnType() {
+        return returnType;
+    }
+
+    /**
+     * 方法是否为异步方法.
+     * <p>
+     * 返回类型为 {@link CompletionStage} (包括 {@link CompletableFuture}) 的方法被视为异步方法,
+     * 方法的结果为 CompletionStage 完成时的值.
+     *
+     * @return 如果方法是异步方法, 则返回 true.
+     */
+    public boolean isAsync() {
+        return async;
+    }
+
+    /**
+     * 获取方法结果的擦除类型.
+     *
+     * @return 如果方法是异步方法, 则返回 {@link #getResultType()} 的擦除类型, 否则与 {@link #getReturnClass()} 相同.
+     */
+    public Class<?> getResultClass() {
+        return resultClass;
+    }
+
+    /**
+     * 获取方法结果的泛型类型.
+     * <p>
+     * 对于异步方法, 结果类型为 CompletionStage 的类型参数 (例如 {@code CompletableFuture<List<String>>}
+     * 的结果类型为 {@code List<String>}), 无法解析时为 Object.
+     *
+     * @return 如果方法是异步方法, 则返回结果类型, 否则与 {@link #getReturnType()} 相同.
+     */
+    public Type getResultType() {
+        return resultType;
+    }
+
+    /**
+     * 方法是否可以使用命名参数.
+     *
+     * @return 返回 {@link JsonRpcUtils#canUseNamedParameter(Method)} 的结果.
+     */
+    public boolean isNamedParameterSupported() {
+        return namedParameterSupported;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        MethodPlan that = (MethodPlan) o;
+        return method.equals(that.method);
+    }
+
+    @Override
+    public int hashCode() {
+        return method.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "MethodPlan{" + method + '}';
+    }
+}
@@ -0,0 +1,220 @@
+package net.lamgc.jsonrpc;
+
+import com.google.gson.Gson;
+import net.lamgc.jsonrpc.serializer.GsonParameterDeserializer;
+import net.lamgc.jsonrpc.serializer.GsonReturnValueSerializer;
+import net.lamgc.jsonrpc.serializer.ParameterDeserializer;
+import net.lamgc.jsonrpc.serializer.ReturnValueSerializer;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * 支持多个 handler 的 Rpc 执行器.
+ * <p>
+ * 每个 handler 注册在一个命名空间下, handler 中的方法以 {@code <命名空间>.<方法名>} 作为请求中的方法名称,
+ * 例如注册在 {@code user} 命名空间下的 handler 的 {@code get} 方法对应 {@code user.get}.
+ * 命名空间为空字符串时, 方法名称即为请求中的方法名称. 对每个 handler 的要求与 {@link SimpleJsonRpcExecutor} 相同.
+ * <p>
+ * 注册时预先拼接完整的方法名称, 并生成包含所有方法的路由表, 查找方法时以请求中的方法名称查找一次路由表,
+ * 不需要拆分方法名称. 路由表在注册时以写时复制的方式整体替换, 因此可以在运行期间注册 handler,
+ * 查找方法时不需要加锁; 注册完成后到达的请求即可调用新注册的方法.
+ * <p>
+ * 注册后的 handler 不能被移除或替换.
+ */
+public final class NamespacedJsonRpcExecutor extends JsonRpcExecutor {
+
+    private final static char NAMESPACE_SEPARATOR = '.';
+
+    private final Object registrationLock = new Object();
+
+    private volatile RouteTable routeTable = new RouteTable(
+            Collections.emptyMap(), Collections.emptyMap(), new IdentityHashMap<>(), Collections.emptyMap());
+
+    public NamespacedJsonRpcExecutor(Gson gson) {
+        this(new GsonParameterDeserializer(gson), new GsonReturnValueSerializer(gson));
+    }
+
+    public NamespacedJsonRpcExecutor(ParameterDeserializer parameterDeserializer, ReturnValueSerializer returnValueSerializer) {
+        super(null, parameterDeserializer, returnValueSerializer);
+    }
+
+    /**
+     * 在命名空间下注册 handler.
+     * <p>
+     * 注册是原子的: 如果 handler 无法注册, 路由表不会发生任何变化.
+     *
+     * @param namespace 命名空间, 为空字符串时不添加前缀.
+     * @param handler   handler 对象.
+     * @throws IllegalArgumentException 当命名空间已被注册, 或 handler 中存在重载方法时抛出.
+     */
+    public void register(String namespace, Object handler) {
+        Objects.requireNonNull(namespace);
+        Objects.requireNonNull(handler);
+        Map<String, Route> routes = resolveRoutes(namespace, handler);
+        synchronized (registrationLock) {
+            RouteTable current = routeTable;
+            // Java 方法名称不包含分隔符, 因此命名空间不同时, 完整的方法名称不会冲突.
+            if (current.handlers.containsKey(namespace)) {
+                throw new IllegalArgumentException("The namespace has been registered: " + namespace);
+            }
+
+            Map<String, Object> handlers = new LinkedHashMap<>(current.handlers);
+            handlers.put(namespace, handler);
+            Map<String, Route> nameToRoute = new HashMap<>(current.nameToRoute);
+            nameToRoute.putAll(routes);
+            IdentityHashMap<MethodPlan, Route> planToRoute = new IdentityHashMap<>(current.planToRoute);
+            Map<Method, Route> methodToRoute = new HashMap<>(current.methodToRoute);
+            for (Route route : routes.values()) {
+                planToRoute.put(route.plan, route);
+                // 同一个方法注册在多个命名空间下时, 无法仅凭方法找到 handler, 以 null 标记.
+                Method method = route.plan.getMethod();
+                methodToRoute.put(method, methodToRoute.containsKey(method) ? null : route);
+            }
+            routeTable = new RouteTable(handlers, nameToRoute, planToRoute, methodToRoute);
+        }
+    }
+
+    /**
+     * 解析 handler 中的方法, 并以完整的方法名称生成路由.
+     */
+    private static Map<String, Route> resolveRoutes(String namespace, Object handler) {
+        String prefix = namespace.isEmpty() ? "" : namespace + NAMESPACE_SEPARATOR;
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        Map<String, Route> routes = new HashMap<>();
+        for (Method method : handler.getClass().getDeclaredMethods()) {
+            // 名称只在此处拼接一次, 之后以该字符串作为路由表的键.
+            String name = prefix + method.getName();
+            if (routes.containsKey(name)) {
+                throw new IllegalArgumentException("The use of overloaded methods is not supported: " + name);
+            }
+
+            if (Modifier.isStatic(method.getModifiers())) {
+                continue;
+            } else if (!method.canAccess(handler)) {
+                continue;
+            }
+
+            routes.put(name, new Route(MethodPlan.of(method), handler,
+                    MethodInvoker.of(lookup, method, handler)));
+        }
+        return routes;
+    }
+
+    /**
+     * 获取命名空间下的 handler.
+     *
+     * @param namespace 命名空间.
+     * @return 如果命名空间没有被注册, 则返回 null.
+     */
+    public Object getHandler(String namespace) {
+        return routeTable.handlers.get(namespace);
+    }
+
+    /**
+     * 获取已注册的所有命名空间及其 handler.
+     *
+     * @return 返回按注册顺序排列的只读 Map.
+     */
+    public Map<String, Object> getHandlers() {
+        return Collections.unmodifiableMap(routeTable.handlers);
+    }
+
+    @Override
+    protected Method findMethod(JsonRpcRequest request) {
+        return findMethodPlan(request).getMethod();
+    }
+
+    @Override
+    protected MethodPlan findMethodPlan(JsonRpcRequest request) {
+        Route route = routeTable.nameToRoute.get(request.getMethod());
+        if (route == null) {
+            throw new NoSuchElementException(request.getMethod());
+        }
+        return route.plan;
+    }
+
+    @Override
+    protected Object invokeMethod(MethodPlan plan, Object[] params) throws Exception {
+        // 路由表只会增加路由, 因此查找调用计划时使用的路由一定存在于当前的路由表中.
+        Route route = routeTable.planToRoute.get(plan);
+        if (route == null) {
+            throw new NoSuchElementException(plan.getQualifiedName());
+        }
+        return route.invoke(params);
+    }
+
+    /**
+     * 调用方法.
+     * <p>
+     * 执行器总是通过调用计划调用方法; 该方法仅以方法查找路由,
+     * 因此同一个方法 (例如同一个类的不同实例) 注册在多个命名空间下时无法确定 handler.
+     *
+     * @throws IllegalStateException  当方法注册在多个命名空间下时抛出.
+     * @throws NoSuchElementException 当方法没有被注册时抛出.
+     */
+    @Override
+    protected Object invokeMethod(Method method, Object[] params) throws Exception {
+        Map<Method, Route> methodToRoute = routeTable.methodToRoute;
+        Route route = methodToRoute.get(method);
+        if (route == null) {
+            if (methodToRoute.containsKey(method)) {
+                throw new IllegalStateException("The method is registered under multiple namespaces, "
+                        + "it can only be invoked by its plan: " + method);
+            }
+            throw new NoSuchElementException(method.toString());
+        }
+        return route.invoke(params);
+    }
+
+    /**
+     * 路由表, 创建后不再修改.
+     */
+    private static final class RouteTable {
+
+        private final Map<String, Object> handlers;
+        private final Map<String, Route> nameToRoute;
+        private final IdentityHashMap<MethodPlan, Route> planToRoute;
+        /**
+         * 方法对应的路由, 方法注册在多个命名空间下时对应的值为 null.
+         */
+        private final Map<Method, Route> methodToRoute;
+
+        private RouteTable(Map<String, Object> handlers, Map<String, Route> nameToRoute,
+                           IdentityHashMap<MethodPlan, Route> planToRoute, Map<Method, Route> methodToRoute) {
+            this.handlers = handlers;
+            this.nameToRoute = nameToRoute;
+            this.planToRoute = planToRoute;
+            this.methodToRoute = methodToRoute;
+        }
+    }
+
+    private static final class Route {
+
+        private final MethodPlan plan;
+        private final Object handler;
+        private final MethodInvoker invoker;
+
+        private Route(MethodPlan plan, Object handler, MethodInvoker invoker) {
+            this.plan = plan;
+            this.handler = handler;
+            this.invoker = invoker;
+        }
+
+        private Object invoke(Object[] params) throws Exception {
+            if (invoker == null || !invoker.accepts(params)) {
+                return plan.getMethod().invoke(handler, params);
+            }
+            return invoker.invoke(params);
+        }
+    }
+
+}
@@ -6,6 +6,7 @@ import net.lamgc.jsonrpc.serializer.GsonReturnValueSerializer;
 import net.lamgc.jsonrpc.serializer.ParameterDeserializer;
 import net.lamgc.jsonrpc.serializer.ReturnValueSerializer;
 
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.HashMap;
@@ -16,10 +17,16 @@ import java.util.NoSuchElementException;
  * 简单的 Rpc 执行器实现.
  * <p>
  * 要求 handler 中的方法命名不能有重复, 不允许使用方法重载.
+ * <p>
+ * 执行器在构造时会将每个方法解析为已绑定 handler 的 {@link java.lang.invoke.MethodHandle},
+ * 调用时不再经过反射的访问检查; 如果某个方法无法解析为 MethodHandle, 或参数不能直接传递给方法
+ * (例如基本类型参数为 null), 则退回到反射调用, 以得到与反射调用相同的异常.
  */
 public final class SimpleJsonRpcExecutor extends JsonRpcExecutor {
 
-    private final Map<String, Method> nameToMethod = new HashMap<>();
+    private final Map<String, MethodPlan> nameToPlan = new HashMap<>();
+
+    private final Map<String, MethodInvoker> nameToInvoker = new HashMap<>();
 
     public SimpleJsonRpcExecutor(Object handler, Gson gson) {
         this(handler, new GsonParameterDeserializer(gson), new GsonReturnValueSerializer(gson));
@@ -27,8 +34,9 @@ public final class SimpleJsonRpcExecutor extends JsonRpcExecutor {
 
     public SimpleJsonRpcExecutor(Object handler, ParameterDeserializer parameterDeserializer, ReturnValueSerializer returnValueSerializer) {
         super(handler, parameterDeserializer, returnValueSerializer);
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
         for (Method method : getHandler().getClass().getDeclaredMethods()) {
-            if (nameToMethod.containsKey(method.getName())) {
+            if (nameToPlan.containsKey(method.getName())) {
                 throw new IllegalArgumentException("The use of overloaded methods is not supported: " + method.getName());
             }
 
@@ -38,16 +46,34 @@ public final class SimpleJsonRpcExecutor extends JsonRpcExecutor {
                 continue;
             }
 
-            nameToMethod.put(method.getName(), method);
+            nameToPlan.put(method.getName(), MethodPlan.of(method));
+            MethodInvoker invoker = MethodInvoker.of(lookup, method, handler);
+            if (invoker != null) {
+                nameToInvoker.put(method.getName(), invoker);
+            }
         }
     }
 
     @Override
     protected Method findMethod(JsonRpcRequest request) {
-        Method method = nameToMethod.get(request.getMethod());
-        if (method == null) {
+        return findMethodPlan(request).getMethod();
+    }
+
+    @Override
+    protected MethodPlan findMethodPlan(JsonRpcRequest request) {
+        MethodPlan plan = nameToPlan.get(request.getMethod());
+        if (plan == null) {
             throw new NoSuchElementException(request.getMethod());
         }
-        return method;
+        return plan;
+    }
+
+    @Override
+    protected Object invokeMethod(Method method, Object[] params) throws Exception {
+        MethodInvoker invoker = nameToInvoker.get(method.getName());
+        if (invoker == null || !invoker.accepts(params)) {
+            return super.invokeMethod(method, params);
+        }
+        return invoker.invoke(params);
     }
 }
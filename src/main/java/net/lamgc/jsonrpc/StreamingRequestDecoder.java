@@ -0,0 +1,216 @@
+package net.lamgc.jsonrpc;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.stream.JsonToken;
+import net.lamgc.jsonrpc.serializer.ParameterDeserializer;
+
+import java.io.IOException;
+import java.io.Reader;
+
+import static net.lamgc.jsonrpc.JsonRpcConst.*;
+
+/**
+ * 流式 JsonRpc 请求解码器.
+ * <p>
+ * 在读取到 method 字段后立即寻找对应的方法, 随后将 params 直接交给 {@link ParameterDeserializer} 读取;
+ * 如果 params 出现在 method 之前, 则将其暂存为 JsonElement.
+ * <p>
+ * 每个实例只能解码一个请求, 不是线程安全的.
+ */
+final class StreamingRequestDecoder {
+
+    private final JsonRpcExecutor executor;
+    private final ParameterDeserializer parameterDeserializer;
+
+    private boolean versionPresent = false;
+    private String method;
+    private JsonPrimitive id;
+    private JsonElement params;
+    private Object[] boundParams;
+    private MethodPlan plan;
+    private Exception lookupFailure;
+    private Exception bindFailure;
+    private Exception invalidCause;
+
+    StreamingRequestDecoder(JsonRpcExecutor executor, ParameterDeserializer parameterDeserializer) {
+        this.executor = executor;
+        this.parameterDeserializer = parameterDeserializer;
+    }
+
+    /**
+     * 读取一个请求对象.
+     *
+     * @param in 字符流.
+     * @throws IOException        当报文不是合法的 JSON 时抛出.
+     * @throws JsonParseException 当报文不是合法的 JSON 时抛出.
+     */
+    void decode(Reader in) throws IOException {
+        DepthTrackingJsonReader reader = new DepthTrackingJsonReader(in);
+        reader.setLenient(true);
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            reader.skipValue();
+            invalid("The request must be a JsonObject.");
+            return;
+        }
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case JSON_RPC_VERSION_FIELD:
+                    readVersion(reader);
+                    break;
+                case JSON_RPC_REQUEST_METHOD_FIELD:
+                    readMethod(reader);
+                    break;
+                case JSON_RPC_REQUEST_PARAMS_FIELD:
+                    readParams(reader);
+                    break;
+                case JSON_RPC_ID_FIELD:
+                    readId(reader);
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+
+        if (!versionPresent) {
+            invalid("The specification version number field is missing.");
+        } else if (method == null) {
+            invalid("The method field is missing");
+        }
+    }
+
+    private void readVersion(DepthTrackingJsonReader reader) throws IOException {
+        versionPresent = true;
+        if (reader.peek() != JsonToken.STRING) {
+            reader.skipValue();
+            invalid("The specification version number field must be a string.");
+            return;
+        }
+        String version = reader.nextString();
+        if (!JSON_RPC_VERSION_VALUE.equals(version)) {
+            invalid("Unsupported JsonRpc specification version: " + version);
+        }
+    }
+
+    private void readMethod(DepthTrackingJsonReader reader) throws IOException {
+        if (reader.peek() != JsonToken.STRING) {
+            reader.skipValue();
+            invalid("The method name field must be a string.");
+            return;
+        }
+        method = reader.nextString();
+        if (method.trim().isEmpty()) {
+            // 交由 JsonRpcUtils.validateRequest 报告.
+            return;
+        }
+        try {
+            plan = executor.lookupMethodPlan(new JsonRpcRequest(method, null, null));
+        } catch (Exception e) {
+            lookupFailure = e;
+        }
+    }
+
+    private void readParams(DepthTrackingJsonReader reader) throws IOException {
+        JsonToken token = reader.peek();
+        if (token == JsonToken.NULL) {
+            reader.nextNull();
+            return;
+        } else if (token != JsonToken.BEGIN_ARRAY && token != JsonToken.BEGIN_OBJECT) {
+            reader.skipValue();
+            invalid("The value of params field is not the correct type: " + token);
+            return;
+        }
+
+        if (lookupFailure != null) {
+            // 方法不存在, 参数不会被使用.
+            reader.skipValue();
+        } else if (plan == null || plan.getParameterCount() == 0 || executor.isCallKeyRequired(method)) {
+            // 结果会被缓存或调用会被合并的方法需要以参数列表生成调用键, 因此同样暂存参数列表.
+            params = JsonParser.parseReader(reader);
+        } else {
+            int depth = reader.getDepth();
+            try {
+                boundParams = parameterDeserializer.deserializer(plan, reader);
+            } catch (IOException e) {
+                throw e;
+            } catch (Exception e) {
+                bindFailure = e;
+                reader.skipToDepth(depth);
+            }
+        }
+    }
+
+    private void readId(DepthTrackingJsonReader reader) throws IOException {
+        JsonToken token = reader.peek();
+        if (token == JsonToken.STRING || token == JsonToken.NUMBER) {
+            id = JsonParser.parseReader(reader).getAsJsonPrimitive();
+        } else {
+            reader.skipValue();
+            invalid("The JSON has an id field, but the value of the field is not the correct type: " + token);
+        }
+    }
+
+    private void invalid(String message) {
+        if (invalidCause == null) {
+            invalidCause = new JsonParseException(message);
+        }
+    }
+
+    /**
+     * 获取报文不符合规范的原因.
+     *
+     * @return 如果报文符合规范, 则返回 null.
+     */
+    Exception getInvalidCause() {
+        return invalidCause;
+    }
+
+    JsonPrimitive getId() {
+        return id;
+    }
+
+    /**
+     * 将已读取的信息转换为请求对象.
+     * <p>
+     * 如果参数已经直接读取为方法参数, 则请求对象中不包含参数列表.
+     *
+     * @return 返回请求对象.
+     */
+    JsonRpcRequest toRequest() {
+        return new JsonRpcRequest(method, params, id);
+    }
+
+    /**
+     * 获取请求对应的方法调用计划.
+     *
+     * @return 返回方法调用计划.
+     * @throws Exception 如果寻找方法时出现异常, 则抛出该异常.
+     */
+    MethodPlan getMethodPlan() throws Exception {
+        if (lookupFailure != null) {
+            throw lookupFailure;
+        } else if (plan == null) {
+            plan = executor.lookupMethodPlan(toRequest());
+        }
+        return plan;
+    }
+
+    /**
+     * 获取已直接读取的参数列表.
+     *
+     * @return 如果参数没有被直接读取 (参数列表被暂存, 或请求不包含参数列表), 则返回 null.
+     * @throws Exception 如果读取参数时出现异常, 则抛出该异常.
+     */
+    Object[] getParameters() throws Exception {
+        if (bindFailure != null) {
+            throw bindFailure;
+        }
+        return boundParams;
+    }
+}
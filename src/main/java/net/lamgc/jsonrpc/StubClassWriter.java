@@ -0,0 +1,339 @@
+package net.lamgc.jsonrpc;
+
+import net.lamgc.jsonrpc.serializer.ParameterSerializer;
+import net.lamgc.jsonrpc.serializer.ReturnValueDeserializer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 生成存根类的字节码.
+ * <p>
+ * 生成的类继承 {@link JsonRpcStub} 并实现指定接口, 接口的每个方法将参数 (基本类型将被装箱) 放入数组 (没有参数时为 null),
+ * 以方法在 methods 中的序号调用 {@link JsonRpcStub#invoke(int, Object[])}, 再将结果转换为方法的返回类型.
+ * <p>
+ * 生成的方法不包含分支, 因此不需要 StackMapTable.
+ */
+final class StubClassWriter {
+
+    private final static int CLASS_FILE_VERSION = 55;
+
+    private final static int ACC_PUBLIC = 0x0001;
+    private final static int ACC_FINAL = 0x0010;
+    private final static int ACC_SUPER = 0x0020;
+    private final static int ACC_SYNTHETIC = 0x1000;
+
+    private final static String STUB_CLASS = internalName(JsonRpcStub.class);
+    private final static String CONSTRUCTOR_DESCRIPTOR = "(" + descriptor(JsonRpcRequestTransporter.class)
+            + descriptor(ParameterSerializer.class) + descriptor(ReturnValueDeserializer.class)
+            + descriptor(JsonRpcClientCache.class) + descriptor(MethodPlan[].class) + ")V";
+    private final static String INVOKE_DESCRIPTOR = "(I[Ljava/lang/Object;)Ljava/lang/Object;";
+
+    private final ByteArrayOutputStream poolBytes = new ByteArrayOutputStream();
+    private final DataOutputStream pool = new DataOutputStream(poolBytes);
+    private final Map<String, Integer> poolIndexes = new HashMap<>();
+    private int poolCount = 1;
+
+    private StubClassWriter() {
+    }
+
+    /**
+     * 生成存根类.
+     *
+     * @param className      存根类的二进制名称, 需要与接口位于同一个包中.
+     * @param interfaceClass 存根类实现的接口.
+     * @param methods        需要实现的接口方法, 方法的序号即调用 {@link JsonRpcStub#invoke(int, Object[])} 时传入的序号.
+     * @return 返回存根类的字节码.
+     */
+    static byte[] write(String className, Class<?> interfaceClass, Method[] methods) {
+        try {
+            return new StubClassWriter().writeClass(className.replace('.', '/'), interfaceClass, methods);
+        } catch (IOException e) {
+            // 只写入内存, 不会发生.
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private byte[] writeClass(String className, Class<?> interfaceClass, Method[] methods) throws IOException {
+        int thisClass = classConstant(className);
+        int superClass = classConstant(STUB_CLASS);
+        int interfaceIndex = classConstant(internalName(interfaceClass));
+
+        ByteArrayOutputStream methodBytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(methodBytes);
+        writeConstructor(out);
+        for (int i = 0; i < methods.length; i++) {
+            writeMethod(out, i, methods[i]);
+        }
+        out.flush();
+
+        ByteArrayOutputStream classBytes = new ByteArrayOutputStream();
+        DataOutputStream classOut = new DataOutputStream(classBytes);
+        classOut.writeInt(0xCAFEBABE);
+        classOut.writeShort(0);
+        classOut.writeShort(CLASS_FILE_VERSION);
+        pool.flush();
+        classOut.writeShort(poolCount);
+        poolBytes.writeTo(classOut);
+        classOut.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER | ACC_SYNTHETIC);
+        classOut.writeShort(thisClass);
+        classOut.writeShort(superClass);
+        classOut.writeShort(1);
+        classOut.writeShort(interfaceIndex);
+        // fields
+        classOut.writeShort(0);
+        classOut.writeShort(methods.length + 1);
+        methodBytes.writeTo(classOut);
+        // attributes
+        classOut.writeShort(0);
+        classOut.flush();
+        return classBytes.toByteArray();
+    }
+
+    private void writeConstructor(DataOutputStream out) throws IOException {
+        Code code = new Code();
+        // 将 this 与全部 5 个参数原样传递给父类的构造方法.
+        for (int slot = 0; slot <= 5; slot++) {
+            code.load(0x19, slot); // aload
+        }
+        code.op(0xB7).u2(methodConstant(STUB_CLASS, "<init>", CONSTRUCTOR_DESCRIPTOR)); // invokespecial
+        code.op(0xB1); // return
+        writeMethodInfo(out, "<init>", CONSTRUCTOR_DESCRIPTOR, code, 6, 6);
+    }
+
+    private void writeMethod(DataOutputStream out, int index, Method method) throws IOException {
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        Code code = new Code();
+        code.op(0x2A); // aload_0
+        code.pushInt(index);
+        if (parameterTypes.length == 0) {
+            // 与动态代理一致, 没有参数时传入 null.
+            code.op(0x01); // aconst_null
+        } else {
+            code.pushInt(parameterTypes.length);
+            code.op(0xBD).u2(classConstant("java/lang/Object")); // anewarray
+        }
+        int slot = 1;
+        for (int i = 0; i < parameterTypes.length; i++) {
+            Class<?> type = parameterTypes[i];
+            code.op(0x59); // dup
+            code.pushInt(i);
+            code.load(loadOpcode(type), slot);
+            if (type.isPrimitive()) {
+                Class<?> boxType = boxType(type);
+                code.op(0xB8).u2(methodConstant(internalName(boxType), "valueOf",
+                        "(" + descriptor(type) + ")" + descriptor(boxType))); // invokestatic
+            }
+            code.op(0x53); // aastore
+            slot += type == long.class || type == double.class ? 2 : 1;
+        }
+        code.op(0xB6).u2(methodConstant(STUB_CLASS, "invoke", INVOKE_DESCRIPTOR)); // invokevirtual
+
+        Class<?> returnType = method.getReturnType();
+        if (returnType == void.class) {
+            code.op(0x57); // pop
+            code.op(0xB1); // return
+        } else if (returnType.isPrimitive()) {
+            Class<?> boxType = boxType(returnType);
+            code.op(0xC0).u2(classConstant(internalName(boxType))); // checkcast
+            code.op(0xB6).u2(methodConstant(internalName(boxType), returnType.getName() + "Value",
+                    "()" + descriptor(returnType))); // invokevirtual
+            code.op(returnOpcode(returnType));
+        } else {
+            if (returnType != Object.class) {
+                code.op(0xC0).u2(classConstant(internalName(returnType))); // checkcast
+            }
+            code.op(0xB0); // areturn
+        }
+
+        StringBuilder methodDescriptor = new StringBuilder("(");
+        for (Class<?> type : parameterTypes) {
+            methodDescriptor.append(descriptor(type));
+        }
+        methodDescriptor.append(')').append(descriptor(returnType));
+        // this, 序号, 数组, 数组 (dup), 下标, 参数值 (最多占用两个位置).
+        writeMethodInfo(out, method.getName(), methodDescriptor.toString(), code, 7, slot);
+    }
+
+    private void writeMethodInfo(DataOutputStream out, String name, String descriptor,
+                                 Code code, int maxStack, int maxLocals) throws IOException {
+        out.writeShort(ACC_PUBLIC);
+        out.writeShort(utf8Constant(name));
+        out.writeShort(utf8Constant(descriptor));
+        out.writeShort(1);
+        out.writeShort(utf8Constant("Code"));
+        byte[] bytecode = code.toByteArray();
+        // max_stack, max_locals, code_length, code, exception_table_length, attributes_count
+        out.writeInt(2 + 2 + 4 + bytecode.length + 2 + 2);
+        out.writeShort(maxStack);
+        out.writeShort(maxLocals);
+        out.writeInt(bytecode.length);
+        out.write(bytecode);
+        out.writeShort(0);
+        out.writeShort(0);
+    }
+
+    private int utf8Constant(String value) throws IOException {
+        Integer index = poolIndexes.get("U" + value);
+        if (index == null) {
+            pool.writeByte(1);
+            pool.writeUTF(value);
+            index = poolCount++;
+            poolIndexes.put("U" + value, index);
+        }
+        return index;
+    }
+
+    private int classConstant(String internalName) throws IOException {
+        Integer index = poolIndexes.get("C" + internalName);
+        if (index == null) {
+            int nameIndex = utf8Constant(internalName);
+            pool.writeByte(7);
+            pool.writeShort(nameIndex);
+            index = poolCount++;
+            poolIndexes.put("C" + internalName, index);
+        }
+        return index;
+    }
+
+    private int methodConstant(String owner, String name, String descriptor) throws IOException {
+        String key = "M" + owner + '.' + name + descriptor;
+        Integer index = poolIndexes.get(key);
+        if (index == null) {
+            int ownerIndex = classConstant(owner);
+            int nameIndex = utf8Constant(name);
+            int descriptorIndex = utf8Constant(descriptor);
+            pool.writeByte(12);
+            pool.writeShort(nameIndex);
+            pool.writeShort(descriptorIndex);
+            int nameAndTypeIndex = poolCount++;
+            pool.writeByte(10);
+            pool.writeShort(ownerIndex);
+            pool.writeShort(nameAndTypeIndex);
+            index = poolCount++;
+            poolIndexes.put(key, index);
+        }
+        return index;
+    }
+
+    private static String internalName(Class<?> type) {
+        return type.getName().replace('.', '/');
+    }
+
+    private static String descriptor(Class<?> type) {
+        if (type.isArray()) {
+            return internalName(type);
+        } else if (!type.isPrimitive()) {
+            return "L" + internalName(type) + ";";
+        } else if (type == int.class) {
+            return "I";
+        } else if (type == long.class) {
+            return "J";
+        } else if (type == double.class) {
+            return "D";
+        } else if (type == float.class) {
+            return "F";
+        } else if (type == boolean.class) {
+            return "Z";
+        } else if (type == byte.class) {
+            return "B";
+        } else if (type == char.class) {
+            return "C";
+        } else if (type == short.class) {
+            return "S";
+        }
+        return "V";
+    }
+
+    private static Class<?> boxType(Class<?> type) {
+        if (type == int.class) {
+            return Integer.class;
+        } else if (type == long.class) {
+            return Long.class;
+        } else if (type == double.class) {
+            return Double.class;
+        } else if (type == float.class) {
+            return Float.class;
+        } else if (type == boolean.class) {
+            return Boolean.class;
+        } else if (type == byte.class) {
+            return Byte.class;
+        } else if (type == char.class) {
+            return Character.class;
+        }
+        return Short.class;
+    }
+
+    private static int loadOpcode(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return 0x19; // aload
+        } else if (type == long.class) {
+            return 0x16; // lload
+        } else if (type == double.class) {
+            return 0x18; // dload
+        } else if (type == float.class) {
+            return 0x17; // fload
+        }
+        return 0x15; // iload
+    }
+
+    private static int returnOpcode(Class<?> type) {
+        if (type == long.class) {
+            return 0xAD; // lreturn
+        } else if (type == double.class) {
+            return 0xAF; // dreturn
+        } else if (type == float.class) {
+            return 0xAE; // freturn
+        }
+        return 0xAC; // ireturn
+    }
+
+    /**
+     * 方法体的字节码.
+     */
+    private final static class Code {
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        Code op(int opcode) {
+            bytes.write(opcode);
+            return this;
+        }
+
+        Code u2(int value) {
+            bytes.write(value >>> 8);
+            bytes.write(value);
+            return this;
+        }
+
+        void pushInt(int value) {
+            if (value <= 5) {
+                op(0x03 + value); // iconst_<n>
+            } else if (value <= Byte.MAX_VALUE) {
+                op(0x10).op(value); // bipush
+            } else if (value <= Short.MAX_VALUE) {
+                op(0x11).u2(value); // sipush
+            } else {
+                throw new IllegalArgumentException("Too many methods or parameters: " + value);
+            }
+        }
+
+        void load(int opcode, int slot) {
+            if (slot <= 0xFF) {
+                op(opcode).op(slot);
+            } else {
+                op(0xC4).op(opcode).u2(slot); // wide
+            }
+        }
+
+        byte[] toByteArray() {
+            return bytes.toByteArray();
+        }
+    }
+
+}
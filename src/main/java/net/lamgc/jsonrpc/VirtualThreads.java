@@ -0,0 +1,89 @@
+package net.lamgc.jsonrpc;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * 虚拟线程支持.
+ * <p>
+ * 本依赖库以 Java 11 为基线, 因此通过反射探测运行时是否支持虚拟线程 (Java 21 及以上版本,
+ * 或启用了预览特性的 Java 19/20). 创建的执行器为每个任务创建一个虚拟线程, 适合执行会阻塞的方法 (例如 JDBC 或 HTTP 调用),
+ * 并发量不再受线程池大小的限制.
+ * <p>
+ * 执行器可用于 {@link JsonRpcExecutor#executeBatch(com.google.gson.JsonArray, java.util.concurrent.Executor)}
+ * (每个批量请求元素使用一个虚拟线程), {@link AsyncJsonRpcExecutor} 的同步方法执行器 (每个请求使用一个虚拟线程),
+ * 以及 {@link AsyncJsonRpcRequestTransporter#of(JsonRpcRequestTransporter, java.util.concurrent.Executor)}
+ * (在虚拟线程中执行阻塞的传输器).
+ */
+public final class VirtualThreads {
+
+    private final static Logger logger = LoggerFactory.getLogger(VirtualThreads.class);
+
+    private final static MethodHandle newVirtualThreadPerTaskExecutor = probe();
+
+    private VirtualThreads() {
+        throw new RuntimeException("The class does not allow instantiation.");
+    }
+
+    private static MethodHandle probe() {
+        try {
+            MethodHandle handle = MethodHandles.publicLookup().findStatic(Executors.class,
+                    "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class));
+            // 预览版本中未启用预览特性时, 调用会抛出 UnsupportedOperationException.
+            ((ExecutorService) handle.invokeExact()).shutdown();
+            logger.debug("Virtual threads are supported.");
+            return handle;
+        } catch (Throwable e) {
+            logger.debug("Virtual threads are not supported by the current runtime: {}", e.toString());
+            return null;
+        }
+    }
+
+    /**
+     * 当前运行时是否支持虚拟线程.
+     *
+     * @return 如果支持虚拟线程, 则返回 true.
+     */
+    public static boolean isSupported() {
+        return newVirtualThreadPerTaskExecutor != null;
+    }
+
+    /**
+     * 创建一个为每个任务创建虚拟线程的执行器.
+     *
+     * @return 返回 {@code Executors.newVirtualThreadPerTaskExecutor()} 创建的执行器.
+     * @throws UnsupportedOperationException 如果当前运行时不支持虚拟线程.
+     */
+    public static ExecutorService newVirtualThreadPerTaskExecutor() {
+        if (newVirtualThreadPerTaskExecutor == null) {
+            throw new UnsupportedOperationException("Virtual threads are not supported by the current runtime.");
+        }
+        try {
+            return (ExecutorService) newVirtualThreadPerTaskExecutor.invokeExact();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Failed to create the virtual thread executor.", e);
+        }
+    }
+
+    /**
+     * 创建一个为每个任务创建虚拟线程的执行器, 如果当前运行时不支持虚拟线程, 则使用 fallback 创建执行器.
+     *
+     * @param fallback 当不支持虚拟线程时, 用于创建执行器的 Supplier, 例如 {@code () -> Executors.newFixedThreadPool(64)}.
+     * @return 返回执行器.
+     */
+    public static ExecutorService newVirtualThreadPerTaskExecutor(Supplier<ExecutorService> fallback) {
+        Objects.requireNonNull(fallback);
+        return isSupported() ? newVirtualThreadPerTaskExecutor() : fallback.get();
+    }
+
+}
@@ -0,0 +1,441 @@
+package net.lamgc.jsonrpc.codec;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonPrimitive;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+
+/**
+ * CBOR (RFC 8949) 编码格式.
+ * <p>
+ * 报文按以下方式与 CBOR 数据项对应:
+ * <ul>
+ *     <li>整数编码为 CBOR 整数 (超出 64 位的整数编码为大整数标签 2/3), 其他数字编码为单精度或双精度浮点数
+ *     (在不损失精度时使用单精度).</li>
+ *     <li>字符串, 数组, 对象, 布尔值和 null 编码为对应的 CBOR 类型, 数组和对象使用确定长度编码.</li>
+ * </ul>
+ * 解码时额外支持不定长度的字符串, 数组和映射, 以及半精度浮点数; 字节串将被解码为 Base64 字符串,
+ * undefined 被解码为 null, 映射的键必须是字符串, 其他标签将被忽略.
+ */
+public final class CborCodec implements JsonRpcCodec {
+
+    /**
+     * 解码时允许的最大嵌套深度.
+     */
+    private final static int MAX_DEPTH = 512;
+
+    private final static int MAJOR_UNSIGNED = 0;
+    private final static int MAJOR_NEGATIVE = 1;
+    private final static int MAJOR_BYTES = 2;
+    private final static int MAJOR_TEXT = 3;
+    private final static int MAJOR_ARRAY = 4;
+    private final static int MAJOR_MAP = 5;
+    private final static int MAJOR_TAG = 6;
+    private final static int MAJOR_SIMPLE = 7;
+
+    private final static int INDEFINITE = 31;
+    private final static int BREAK = 0xFF;
+
+    private final static BigInteger UINT64_MAX = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+
+    CborCodec() {
+    }
+
+    @Override
+    public String getName() {
+        return "cbor";
+    }
+
+    @Override
+    public String getContentType() {
+        return "application/cbor";
+    }
+
+    @Override
+    public boolean isBinary() {
+        return true;
+    }
+
+    @Override
+    public void encode(JsonElement element, OutputStream out) throws IOException {
+        OutputStream buffered = out instanceof BufferedOutputStream || out instanceof ByteArrayOutputStream
+                ? out : new BufferedOutputStream(out);
+        write(element, buffered);
+        buffered.flush();
+    }
+
+    private static void write(JsonElement element, OutputStream out) throws IOException {
+        if (element == null || element.isJsonNull()) {
+            out.write(0xF6);
+        } else if (element.isJsonObject()) {
+            JsonObject object = element.getAsJsonObject();
+            writeHead(MAJOR_MAP, object.size(), out);
+            for (Map.Entry<String, JsonElement> entry : object.entrySet()) {
+                writeText(entry.getKey(), out);
+                write(entry.getValue(), out);
+            }
+        } else if (element.isJsonArray()) {
+            JsonArray array = element.getAsJsonArray();
+            writeHead(MAJOR_ARRAY, array.size(), out);
+            for (JsonElement item : array) {
+                write(item, out);
+            }
+        } else {
+            JsonPrimitive primitive = element.getAsJsonPrimitive();
+            if (primitive.isBoolean()) {
+                out.write(primitive.getAsBoolean() ? 0xF5 : 0xF4);
+            } else if (primitive.isString()) {
+                writeText(primitive.getAsString(), out);
+            } else {
+                writeNumber(primitive.getAsNumber(), out);
+            }
+        }
+    }
+
+    private static void writeNumber(Number number, OutputStream out) throws IOException {
+        if (number instanceof Integer || number instanceof Long || number instanceof Short || number instanceof Byte) {
+            writeInteger(number.longValue(), out);
+            return;
+        }
+
+        BigInteger integer = toBigInteger(number);
+        if (integer != null) {
+            if (integer.bitLength() < 64) {
+                writeInteger(integer.longValue(), out);
+            } else if (integer.signum() >= 0 && integer.compareTo(UINT64_MAX) <= 0) {
+                writeHead(MAJOR_UNSIGNED, integer.longValue(), out);
+            } else if (integer.signum() < 0 && integer.negate().subtract(BigInteger.ONE).compareTo(UINT64_MAX) <= 0) {
+                writeHead(MAJOR_NEGATIVE, integer.negate().subtract(BigInteger.ONE).longValue(), out);
+            } else {
+                // 大整数标签: 2 为非负数, 3 为负数 (值为 -1 - n).
+                BigInteger magnitude = integer.signum() >= 0 ? integer : integer.negate().subtract(BigInteger.ONE);
+                writeHead(MAJOR_TAG, integer.signum() >= 0 ? 2 : 3, out);
+                byte[] bytes = magnitude.toByteArray();
+                int offset = bytes[0] == 0 ? 1 : 0;
+                writeHead(MAJOR_BYTES, bytes.length - offset, out);
+                out.write(bytes, offset, bytes.length - offset);
+            }
+            return;
+        }
+
+        double value = number.doubleValue();
+        float floatValue = (float) value;
+        if (floatValue == value || Double.isNaN(value)) {
+            out.write(0xFA);
+            int bits = Float.floatToIntBits(floatValue);
+            out.write(bits >>> 24);
+            out.write(bits >>> 16);
+            out.write(bits >>> 8);
+            out.write(bits);
+        } else {
+            out.write(0xFB);
+            long bits = Double.doubleToLongBits(value);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                out.write((int) (bits >>> shift));
+            }
+        }
+    }
+
+    /**
+     * 如果数字是整数, 则转换为 BigInteger.
+     *
+     * @return 如果数字不是整数 (包括 Float, Double 和带有小数点或指数的数字), 返回 null.
+     */
+    private static BigInteger toBigInteger(Number number) {
+        if (number instanceof BigInteger) {
+            return (BigInteger) number;
+        } else if (number instanceof Float || number instanceof Double || number instanceof BigDecimal) {
+            return null;
+        }
+        // Gson 解析得到的数字 (LazilyParsedNumber) 保留了原始文本.
+        String text = number.toString();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if ((c < '0' || c > '9') && !(i == 0 && c == '-')) {
+                return null;
+            }
+        }
+        try {
+            return new BigInteger(text);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static void writeInteger(long value, OutputStream out) throws IOException {
+        if (value >= 0) {
+            writeHead(MAJOR_UNSIGNED, value, out);
+        } else {
+            writeHead(MAJOR_NEGATIVE, -1 - value, out);
+        }
+    }
+
+    private static void writeText(String text, OutputStream out) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        writeHead(MAJOR_TEXT, bytes.length, out);
+        out.write(bytes);
+    }
+
+    /**
+     * 写出数据项的头部.
+     *
+     * @param value 作为无符号 64 位整数处理.
+     */
+    private static void writeHead(int major, long value, OutputStream out) throws IOException {
+        int type = major << 5;
+        if (value >= 0 && value < 24) {
+            out.write(type | (int) value);
+        } else if (value >= 0 && value <= 0xFF) {
+            out.write(type | 24);
+            out.write((int) value);
+        } else if (value >= 0 && value <= 0xFFFF) {
+            out.write(type | 25);
+            out.write((int) (value >>> 8));
+            out.write((int) value);
+        } else if (value >= 0 && value <= 0xFFFFFFFFL) {
+            out.write(type | 26);
+            for (int shift = 24; shift >= 0; shift -= 8) {
+                out.write((int) (value >>> shift));
+            }
+        } else {
+            out.write(type | 27);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                out.write((int) (value >>> shift));
+            }
+        }
+    }
+
+    @Override
+    public JsonElement decode(InputStream in) throws IOException {
+        try {
+            InputStream input = in instanceof ByteArrayInputStream || in instanceof BufferedInputStream
+                    ? in : new BufferedInputStream(in);
+            return new Decoder(input).read(0);
+        } catch (EOFException e) {
+            throw new JsonParseException("Unexpected end of CBOR data.", e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CborCodec";
+    }
+
+    private static final class Decoder {
+
+        private final InputStream in;
+
+        private Decoder(InputStream in) {
+            this.in = in;
+        }
+
+        private JsonElement read(int depth) throws IOException {
+            int initial = readByte();
+            if (initial == BREAK) {
+                throw new JsonParseException("Unexpected break.");
+            }
+            return read(initial, depth);
+        }
+
+        private JsonElement read(int initial, int depth) throws IOException {
+            if (depth > MAX_DEPTH) {
+                throw new JsonParseException("The CBOR data is nested too deeply.");
+            }
+            int major = initial >>> 5;
+            int info = initial & 0x1F;
+            switch (major) {
+                case MAJOR_UNSIGNED: {
+                    long value = readArgument(info);
+                    return new JsonPrimitive(value >= 0 ? (Number) value : unsigned(value));
+                }
+                case MAJOR_NEGATIVE: {
+                    long value = readArgument(info);
+                    return new JsonPrimitive(value >= 0 ? (Number) (-1 - value) : unsigned(value).negate().subtract(BigInteger.ONE));
+                }
+                case MAJOR_BYTES:
+                    return new JsonPrimitive(Base64.getEncoder().encodeToString(readString(MAJOR_BYTES, info)));
+                case MAJOR_TEXT:
+                    return new JsonPrimitive(new String(readString(MAJOR_TEXT, info), StandardCharsets.UTF_8));
+                case MAJOR_ARRAY: {
+                    JsonArray array = new JsonArray();
+                    if (info == INDEFINITE) {
+                        int next;
+                        while ((next = readByte()) != BREAK) {
+                            array.add(read(next, depth + 1));
+                        }
+                    } else {
+                        long length = readLength(info);
+                        for (long i = 0; i < length; i++) {
+                            array.add(read(depth + 1));
+                        }
+                    }
+                    return array;
+                }
+                case MAJOR_MAP: {
+                    JsonObject object = new JsonObject();
+                    if (info == INDEFINITE) {
+                        int next;
+                        while ((next = readByte()) != BREAK) {
+                            object.add(readKey(read(next, depth + 1)), read(depth + 1));
+                        }
+                    } else {
+                        long length = readLength(info);
+                        for (long i = 0; i < length; i++) {
+                            object.add(readKey(read(depth + 1)), read(depth + 1));
+                        }
+                    }
+                    return object;
+                }
+                case MAJOR_TAG: {
+                    long tag = readArgument(info);
+                    int next = readByte();
+                    if ((tag == 2 || tag == 3) && next >>> 5 == MAJOR_BYTES) {
+                        BigInteger magnitude = new BigInteger(1, readString(MAJOR_BYTES, next & 0x1F));
+                        return new JsonPrimitive(tag == 2 ? magnitude : magnitude.negate().subtract(BigInteger.ONE));
+                    } else if (next == BREAK) {
+                        throw new JsonParseException("Unexpected break.");
+                    }
+                    return read(next, depth + 1);
+                }
+                case MAJOR_SIMPLE:
+                default:
+                    return readSimple(info);
+            }
+        }
+
+        private JsonElement readSimple(int info) throws IOException {
+            switch (info) {
+                case 20:
+                    return new JsonPrimitive(false);
+                case 21:
+                    return new JsonPrimitive(true);
+                case 22:
+                case 23:
+                    return JsonNull.INSTANCE;
+                case 25: {
+                    int bits = (readByte() << 8) | readByte();
+                    return new JsonPrimitive(halfToFloat(bits));
+                }
+                case 26:
+                    return new JsonPrimitive(Float.intBitsToFloat((int) readUnsigned(4)));
+                case 27:
+                    return new JsonPrimitive(Double.longBitsToDouble(readUnsigned(8)));
+                default:
+                    throw new JsonParseException("Unsupported CBOR simple value: " + info);
+            }
+        }
+
+        private static String readKey(JsonElement key) {
+            if (!key.isJsonPrimitive() || !key.getAsJsonPrimitive().isString()) {
+                throw new JsonParseException("The key of a CBOR map must be a text string: " + key);
+            }
+            return key.getAsString();
+        }
+
+        private byte[] readString(int major, int info) throws IOException {
+            if (info != INDEFINITE) {
+                long length = readLength(info);
+                return readBytes(length);
+            }
+            // 不定长度的字符串由若干个相同类型的定长分块组成.
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            int next;
+            while ((next = readByte()) != BREAK) {
+                if (next >>> 5 != major || (next & 0x1F) == INDEFINITE) {
+                    throw new JsonParseException("Invalid chunk in an indefinite-length string.");
+                }
+                buffer.write(readBytes(readLength(next & 0x1F)));
+            }
+            return buffer.toByteArray();
+        }
+
+        private byte[] readBytes(long length) throws IOException {
+            if (length > Integer.MAX_VALUE - 8) {
+                throw new JsonParseException("The CBOR string is too long: " + length);
+            }
+            // readNBytes 按实际读取到的数据分配内存, 不会因为声明的长度过大而预先分配.
+            byte[] bytes = in.readNBytes((int) length);
+            if (bytes.length != length) {
+                throw new EOFException();
+            }
+            return bytes;
+        }
+
+        private long readLength(int info) throws IOException {
+            long length = readArgument(info);
+            if (length < 0) {
+                throw new JsonParseException("The CBOR length is too large.");
+            }
+            return length;
+        }
+
+        private long readArgument(int info) throws IOException {
+            if (info < 24) {
+                return info;
+            }
+            switch (info) {
+                case 24:
+                    return readUnsigned(1);
+                case 25:
+                    return readUnsigned(2);
+                case 26:
+                    return readUnsigned(4);
+                case 27:
+                    return readUnsigned(8);
+                default:
+                    throw new JsonParseException("Invalid CBOR additional information: " + info);
+            }
+        }
+
+        private long readUnsigned(int bytes) throws IOException {
+            long value = 0;
+            for (int i = 0; i < bytes; i++) {
+                value = (value << 8) | readByte();
+            }
+            return value;
+        }
+
+        private int readByte() throws IOException {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException();
+            }
+            return b;
+        }
+
+        private static BigInteger unsigned(long value) {
+            return new BigInteger(Long.toUnsignedString(value));
+        }
+
+        private static float halfToFloat(int bits) {
+            int sign = (bits & 0x8000) << 16;
+            int exponent = (bits >>> 10) & 0x1F;
+            int mantissa = bits & 0x3FF;
+            if (exponent == 0) {
+                // 非规格化数.
+                float value = mantissa * (1f / (1 << 24));
+                return sign == 0 ? value : -value;
+            } else if (exponent == 0x1F) {
+                return Float.intBitsToFloat(sign | 0x7F800000 | (mantissa << 13));
+            }
+            return Float.intBitsToFloat(sign | ((exponent + 112) << 23) | (mantissa << 13));
+        }
+    }
+
+}
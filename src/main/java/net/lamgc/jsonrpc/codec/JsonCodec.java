@@ -0,0 +1,57 @@
+package net.lamgc.jsonrpc.codec;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonWriter;
+import net.lamgc.jsonrpc.JsonRpcUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * JSON 编码格式 (UTF-8), 即 JsonRpc 2.0 规范使用的编码格式.
+ */
+public final class JsonCodec implements JsonRpcCodec {
+
+    private final static Gson gson = JsonRpcUtils.createGsonForJsonRpc();
+
+    JsonCodec() {
+    }
+
+    @Override
+    public String getName() {
+        return "json";
+    }
+
+    @Override
+    public String getContentType() {
+        return "application/json";
+    }
+
+    @Override
+    public boolean isBinary() {
+        return false;
+    }
+
+    @Override
+    public void encode(JsonElement element, OutputStream out) throws IOException {
+        JsonWriter writer = gson.newJsonWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        gson.toJson(element, writer);
+        writer.flush();
+    }
+
+    @Override
+    public JsonElement decode(InputStream in) {
+        return JsonParser.parseReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public String toString() {
+        return "JsonCodec";
+    }
+}
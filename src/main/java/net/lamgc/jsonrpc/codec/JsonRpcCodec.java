@@ -0,0 +1,64 @@
+package net.lamgc.jsonrpc.codec;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * JsonRpc 报文的编码格式.
+ * <p>
+ * 编码格式只决定报文在传输时的表示方式, 报文的结构 (JsonRpc 2.0 的请求和响应对象, 以及批量请求数组)
+ * 与 JSON 编码时完全相同, 因此编码格式在 {@link JsonElement} 与字节流之间转换.
+ * <p>
+ * 内置的编码格式可以通过 {@link JsonRpcCodecs} 获取; 其他编码格式可以通过
+ * {@link java.util.ServiceLoader} 注册 (在 {@code META-INF/services/net.lamgc.jsonrpc.codec.JsonRpcCodec} 中声明实现类).
+ * 实现需要是线程安全的.
+ */
+public interface JsonRpcCodec {
+
+    /**
+     * 获取编码格式的名称, 例如 "json" 或 "cbor".
+     *
+     * @return 返回编码格式的名称, 名称不区分大小写.
+     */
+    String getName();
+
+    /**
+     * 获取编码格式对应的媒体类型, 例如 "application/json", 用于 HTTP 等传输方式协商编码格式.
+     *
+     * @return 返回不包含参数的媒体类型.
+     */
+    String getContentType();
+
+    /**
+     * 编码后的报文是否可能包含任意字节.
+     * <p>
+     * 二进制报文中可能出现换行符, 因此不能使用按换行符分帧的传输方式.
+     *
+     * @return 如果是二进制编码格式, 返回 true.
+     */
+    boolean isBinary();
+
+    /**
+     * 将报文编码并写入字节流.
+     *
+     * @param element 报文.
+     * @param out     目标字节流, 写出后将刷新但不会关闭.
+     * @throws IOException 当写出失败时抛出.
+     */
+    void encode(JsonElement element, OutputStream out) throws IOException;
+
+    /**
+     * 从字节流中解码一个报文.
+     *
+     * @param in 包含单个报文的字节流, 该方法不会关闭字节流.
+     * @return 返回解码后的报文.
+     * @throws IOException        当读取失败时抛出.
+     * @throws JsonParseException 当报文格式有误时抛出.
+     */
+    JsonElement decode(InputStream in) throws IOException;
+
+}
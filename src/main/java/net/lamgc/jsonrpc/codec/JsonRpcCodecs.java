@@ -0,0 +1,98 @@
+package net.lamgc.jsonrpc.codec;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+
+/**
+ * 编码格式注册表.
+ * <p>
+ * 包含内置的 {@link #JSON} 和 {@link #CBOR}, 以及通过 {@link ServiceLoader} 注册的编码格式;
+ * 名称或媒体类型相同时, 内置的编码格式优先.
+ */
+public final class JsonRpcCodecs {
+
+    private final static Logger logger = LoggerFactory.getLogger(JsonRpcCodecs.class);
+
+    /**
+     * JSON 编码格式, 默认使用的编码格式.
+     */
+    public final static JsonRpcCodec JSON = new JsonCodec();
+
+    /**
+     * CBOR (RFC 8949) 编码格式.
+     */
+    public final static JsonRpcCodec CBOR = new CborCodec();
+
+    private final static List<JsonRpcCodec> codecs = loadCodecs();
+
+    private JsonRpcCodecs() {
+        throw new RuntimeException("The class does not allow instantiation.");
+    }
+
+    private static List<JsonRpcCodec> loadCodecs() {
+        List<JsonRpcCodec> codecs = new ArrayList<>();
+        codecs.add(JSON);
+        codecs.add(CBOR);
+        try {
+            for (JsonRpcCodec codec : ServiceLoader.load(JsonRpcCodec.class, JsonRpcCodecs.class.getClassLoader())) {
+                logger.debug("Codec loaded: {} ({})", codec.getName(), codec.getContentType());
+                codecs.add(codec);
+            }
+        } catch (ServiceConfigurationError e) {
+            logger.warn("Failed to load codecs.", e);
+        }
+        return Collections.unmodifiableList(codecs);
+    }
+
+    /**
+     * 获取所有可用的编码格式.
+     *
+     * @return 返回不可修改的编码格式列表.
+     */
+    public static List<JsonRpcCodec> getCodecs() {
+        return codecs;
+    }
+
+    /**
+     * 根据名称获取编码格式.
+     *
+     * @param name 编码格式名称, 不区分大小写.
+     * @return 返回对应的编码格式, 如果不存在, 返回 null.
+     */
+    public static JsonRpcCodec forName(String name) {
+        for (JsonRpcCodec codec : codecs) {
+            if (codec.getName().equalsIgnoreCase(name)) {
+                return codec;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 根据媒体类型获取编码格式.
+     *
+     * @param contentType 媒体类型, 可以包含参数 (例如 "application/json; charset=utf-8"), 不区分大小写.
+     * @return 返回对应的编码格式, 如果不存在, 返回 null.
+     */
+    public static JsonRpcCodec forContentType(String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        int index = contentType.indexOf(';');
+        String mediaType = (index < 0 ? contentType : contentType.substring(0, index)).trim().toLowerCase(Locale.ROOT);
+        for (JsonRpcCodec codec : codecs) {
+            if (codec.getContentType().equalsIgnoreCase(mediaType)) {
+                return codec;
+            }
+        }
+        return null;
+    }
+
+}
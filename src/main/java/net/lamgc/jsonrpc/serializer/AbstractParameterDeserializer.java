@@ -3,46 +3,136 @@ package net.lamgc.jsonrpc.serializer;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import net.lamgc.jsonrpc.JsonRpcRequest;
-import net.lamgc.jsonrpc.JsonRpcUtils;
+import net.lamgc.jsonrpc.MethodPlan;
 
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public abstract class AbstractParameterDeserializer implements ParameterDeserializer {
 
+    /**
+     * 接受 {@link Method} 的重载所使用的调用计划.
+     * <p>
+     * 创建调用计划需要进行反射查询, 因此每个方法只创建一次.
+     */
+    private final Map<Method, MethodPlan> methodPlans = new ConcurrentHashMap<>();
+
     @Override
     public final Object[] deserializer(Method method, JsonRpcRequest request) throws Exception {
-        Parameter[] methodParams = method.getParameters();
+        return deserializer(methodPlans.computeIfAbsent(method, MethodPlan::of), request);
+    }
+
+    @Override
+    public final Object[] deserializer(MethodPlan plan, JsonRpcRequest request) throws Exception {
+        int parameterCount = plan.getParameterCount();
         JsonElement params = request.getParams();
-        List<Object> paramList = new ArrayList<>(methodParams.length);
         if (params.isJsonObject()) {
-            if (!JsonRpcUtils.canUseNamedParameter(method)) {
+            if (!plan.isNamedParameterSupported()) {
                 throw new IllegalArgumentException("Method does not support named parameters.");
             }
             JsonObject paramsObject = params.getAsJsonObject();
-            if (paramsObject.size() != methodParams.length) {
-                throw new ParameterCountMismatchException(methodParams.length, paramsObject.size());
+            if (paramsObject.size() != parameterCount) {
+                throw new ParameterCountMismatchException(parameterCount, paramsObject.size());
             }
-            for (int i = 0; i < method.getParameters().length; i++) {
-                Parameter parameter = methodParams[i];
-                JsonElement param = paramsObject.get(parameter.getName());
-                paramList.add(toParameterObject(method, parameter, param));
+            Object[] paramValues = new Object[parameterCount];
+            for (int i = 0; i < parameterCount; i++) {
+                JsonElement param = paramsObject.get(plan.getParameterName(i));
+                paramValues[i] = toParameterObject(plan, i, param);
             }
+            return paramValues;
         } else if (params.isJsonArray()) {
             JsonArray paramsArray = params.getAsJsonArray();
-            if (paramsArray.size() != methodParams.length) {
-                throw new ParameterCountMismatchException(methodParams.length, paramsArray.size());
+            if (paramsArray.size() != parameterCount) {
+                throw new ParameterCountMismatchException(parameterCount, paramsArray.size());
             }
-            for (int i = 0; i < method.getParameters().length; i++) {
-                Parameter parameter = methodParams[i];
+            Object[] paramValues = new Object[parameterCount];
+            for (int i = 0; i < parameterCount; i++) {
                 JsonElement param = paramsArray.get(i);
-                paramList.add(toParameterObject(method, parameter, param));
+                paramValues[i] = toParameterObject(plan, i, param);
+            }
+            return paramValues;
+        }
+        return new Object[0];
+    }
+
+    @Override
+    public final Object[] deserializer(MethodPlan plan, JsonReader reader) throws Exception {
+        int parameterCount = plan.getParameterCount();
+        Object[] paramValues = new Object[parameterCount];
+        int actualCount = 0;
+        JsonToken token = reader.peek();
+        if (token == JsonToken.BEGIN_OBJECT) {
+            if (!plan.isNamedParameterSupported()) {
+                throw new IllegalArgumentException("Method does not support named parameters.");
             }
+            // 命名参数可以以任意顺序出现, 通过名称找到对应的参数位置.
+            reader.beginObject();
+            while (reader.hasNext()) {
+                int index = plan.getParameterIndex(reader.nextName());
+                actualCount++;
+                if (index == -1) {
+                    reader.skipValue();
+                } else {
+                    paramValues[index] = readParameterObject(plan, index, reader);
+                }
+            }
+            reader.endObject();
+        } else if (token == JsonToken.BEGIN_ARRAY) {
+            reader.beginArray();
+            while (reader.hasNext()) {
+                if (actualCount < parameterCount) {
+                    paramValues[actualCount] = readParameterObject(plan, actualCount, reader);
+                } else {
+                    reader.skipValue();
+                }
+                actualCount++;
+            }
+            reader.endArray();
+        } else {
+            throw new IllegalArgumentException("Parameter field type can only be JsonObject or JsonArray.");
         }
-        return paramList.toArray();
+        if (actualCount != parameterCount) {
+            throw new ParameterCountMismatchException(parameterCount, actualCount);
+        }
+        return paramValues;
+    }
+
+    /**
+     * 从 JsonReader 中读取一个参数值并转换成对应的参数类型.
+     * <p>
+     * 默认实现会先将参数值读取为 JsonElement, 再调用 {@link #toParameterObject(MethodPlan, int, JsonElement)},
+     * 实现可覆盖该方法以直接读取参数值.
+     *
+     * @param plan   与转换相关的方法调用计划.
+     * @param index  目标参数的索引.
+     * @param reader 位于参数值之前的 JsonReader, 返回时需要将参数值读取完毕.
+     * @return 返回对应类型的参数对象.
+     * @throws Exception 如果转换失败, 可抛出异常.
+     */
+    protected Object readParameterObject(MethodPlan plan, int index, JsonReader reader) throws Exception {
+        return toParameterObject(plan, index, JsonParser.parseReader(reader));
+    }
+
+    /**
+     * 将 Json 形式的参数值转换成对应的参数类型.
+     * <p>
+     * 默认实现将调用 {@link #toParameterObject(Method, Parameter, JsonElement)},
+     * 实现可覆盖该方法以直接使用调用计划中预先解析的信息.
+     *
+     * @param plan      与转换相关的方法调用计划.
+     * @param index     目标参数的索引.
+     * @param paramJson 从 RPC 请求传入的 JSON 形式参数.
+     * @return 返回对应类型的参数对象.
+     * @throws Exception 如果转换失败, 可抛出异常.
+     */
+    protected Object toParameterObject(MethodPlan plan, int index, JsonElement paramJson) throws Exception {
+        return toParameterObject(plan.getMethod(), plan.getParameter(index), paramJson);
     }
 
     /**
@@ -3,51 +3,77 @@ package net.lamgc.jsonrpc.serializer;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
-import net.lamgc.jsonrpc.JsonRpcUtils;
+import net.lamgc.jsonrpc.MethodPlan;
 
 import java.lang.reflect.Method;
-import java.lang.reflect.Parameter;
 import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public abstract class AbstractParameterSerializer implements ParameterSerializer {
 
     private final boolean enableNamedParameter;
 
+    /**
+     * 接受 {@link Method} 的重载所使用的调用计划.
+     * <p>
+     * 创建调用计划需要进行反射查询, 因此每个方法只创建一次.
+     */
+    private final Map<Method, MethodPlan> methodPlans = new ConcurrentHashMap<>();
+
     public AbstractParameterSerializer(boolean enableNamedParameter) {
         this.enableNamedParameter = enableNamedParameter;
     }
 
     @Override
     public final JsonElement serializer(Method method, String methodName, Object[] parameters) {
-        if (enableNamedParameter && method != null && JsonRpcUtils.canUseNamedParameter(method)) {
+        if (method != null) {
+            return serializer(methodPlans.computeIfAbsent(method, MethodPlan::of), parameters);
+        }
+        JsonArray paramsArray = new JsonArray();
+        for (Object parameter : parameters) {
+            paramsArray.add(serializerParameter(parameter.getClass(), parameter));
+        }
+        return paramsArray;
+    }
+
+    @Override
+    public final JsonElement serializer(MethodPlan plan, Object[] parameters) {
+        if (enableNamedParameter && plan.isNamedParameterSupported()) {
             JsonObject paramsObj = new JsonObject();
             for (int i = 0; i < parameters.length; i++) {
-                Parameter parameter = method.getParameters()[i];
-                paramsObj.add(parameter.getName(), serializerParameter(parameter.getType(), parameters[i]));
+                paramsObj.add(plan.getParameterName(i), serializerParameter(plan, i, parameters[i]));
             }
             return paramsObj;
-        } else if (method != null) {
-            JsonArray paramsArray = new JsonArray();
-            for (int i = 0; i < parameters.length; i++) {
-                Parameter parameter = method.getParameters()[i];
-                paramsArray.add(serializerParameter(parameter.getType(), parameters[i]));
-            }
-            return paramsArray;
         } else {
             JsonArray paramsArray = new JsonArray();
-            for (Object parameter : parameters) {
-                paramsArray.add(serializerParameter(parameter.getClass(), parameter));
+            for (int i = 0; i < parameters.length; i++) {
+                paramsArray.add(serializerParameter(plan, i, parameters[i]));
             }
             return paramsArray;
         }
     }
 
+    /**
+     * 序列化方法调用计划中的一个参数.
+     * <p>
+     * 默认实现将以参数声明的泛型类型 ({@link MethodPlan#getParameterType(int)}) 调用 {@link #serializerParameter(Type, Object)},
+     * 实现可覆盖该方法以使用按调用计划缓存的信息.
+     *
+     * @param plan  参数所属方法的调用计划.
+     * @param index 参数的索引.
+     * @param value 传入的参数值.
+     * @return 返回参数值的 JSON 序列化对象.
+     */
+    protected JsonElement serializerParameter(MethodPlan plan, int index, Object value) {
+        return serializerParameter(plan.getParameterType(index), value);
+    }
 
     /**
      * 序列化参数
      *
      * @param expectType 参数的预期类型, 如果 {@linkplain AbstractParameterSerializer} 被调用时获得了 {@link Method},
-     *                   那么 expectType 为对应参数的参数类型, 如果没有获得 Method 对象, 那么将传入 value 的类型.
+     *                   那么 expectType 为对应参数声明的 (泛型) 参数类型, 如果没有获得 Method 对象, 那么将传入 value 的类型.
      * @param value      传入的参数值.
      * @return 返回参数值的 JSON 序列化对象.
      */
@@ -3,24 +3,88 @@ package net.lamgc.jsonrpc.serializer;
 import com.google.gson.Gson;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import net.lamgc.jsonrpc.MethodPlan;
 
+import java.io.IOException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class GsonParameterDeserializer extends AbstractParameterDeserializer {
 
     private final Gson gson;
 
+    /**
+     * 每个方法调用计划所对应的参数绑定.
+     * <p>
+     * TypeAdapter 与 Gson 对象绑定, 因此由反序列化器而不是 {@link MethodPlan} 持有.
+     */
+    private final Map<MethodPlan, ParameterBinding[]> parameterBindings = new ConcurrentHashMap<>();
+
     public GsonParameterDeserializer(Gson gson) {
         this.gson = gson;
     }
 
+    @Override
+    protected Object toParameterObject(MethodPlan plan, int index, JsonElement paramJson) {
+        if (paramJson == null) {
+            return null;
+        }
+        ParameterBinding binding = parameterBindings.computeIfAbsent(plan, this::resolveBindings)[index];
+        try {
+            return binding.scalar != null ? binding.scalar.fromJsonTree(paramJson) : binding.adapter.fromJsonTree(paramJson);
+        } catch (JsonSyntaxException | IllegalStateException e) {
+            throw new ParameterTypeMismatchException(plan.getName(), plan.getParameterName(index),
+                    plan.getParameterClass(index), e);
+        }
+    }
+
+    @Override
+    protected Object readParameterObject(MethodPlan plan, int index, JsonReader reader) throws IOException {
+        ParameterBinding binding = parameterBindings.computeIfAbsent(plan, this::resolveBindings)[index];
+        try {
+            return binding.scalar != null ? binding.scalar.read(reader) : binding.adapter.read(reader);
+        } catch (JsonSyntaxException | IllegalStateException e) {
+            throw new ParameterTypeMismatchException(plan.getName(), plan.getParameterName(index),
+                    plan.getParameterClass(index), e);
+        }
+    }
+
     @Override
     protected Object toParameterObject(Method method, Parameter parameter, JsonElement paramJson) {
         try {
-            return gson.fromJson(paramJson, parameter.getType());
+            return gson.fromJson(paramJson, TypeToken.get(parameter.getParameterizedType()));
         } catch (JsonSyntaxException e) {
             throw new ParameterTypeMismatchException(method.getName(), parameter.getName(), parameter.getType(), e);
         }
     }
+
+    private ParameterBinding[] resolveBindings(MethodPlan plan) {
+        ParameterBinding[] bindings = new ParameterBinding[plan.getParameterCount()];
+        for (int i = 0; i < bindings.length; i++) {
+            ScalarBinding scalar = ScalarBinding.resolve(gson, plan.getParameterType(i));
+            bindings[i] = new ParameterBinding(scalar,
+                    scalar == null ? gson.getAdapter(TypeToken.get(plan.getParameterType(i))) : null);
+        }
+        return bindings;
+    }
+
+    /**
+     * 参数的绑定方式, 基本类型, 包装类型与 String 使用 {@link ScalarBinding}, 其他类型使用 TypeAdapter.
+     */
+    private final static class ParameterBinding {
+
+        private final ScalarBinding scalar;
+        private final TypeAdapter<?> adapter;
+
+        private ParameterBinding(ScalarBinding scalar, TypeAdapter<?> adapter) {
+            this.scalar = scalar;
+            this.adapter = adapter;
+        }
+
+    }
 }
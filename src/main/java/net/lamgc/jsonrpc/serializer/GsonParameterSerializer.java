@@ -2,13 +2,26 @@ package net.lamgc.jsonrpc.serializer;
 
 import com.google.gson.Gson;
 import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import net.lamgc.jsonrpc.MethodPlan;
 
 import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class GsonParameterSerializer extends AbstractParameterSerializer {
 
     private final Gson gson;
 
+    /**
+     * 每个方法调用计划所对应的参数 TypeAdapter (按参数声明的泛型类型解析).
+     * <p>
+     * TypeAdapter 与 Gson 对象绑定, 因此由序列化器而不是 {@link MethodPlan} 持有.
+     */
+    private final Map<MethodPlan, TypeAdapter<?>[]> parameterAdapters = new ConcurrentHashMap<>();
+
     public GsonParameterSerializer(Gson gson) {
         super(false);
         this.gson = gson;
@@ -19,8 +32,33 @@ public class GsonParameterSerializer extends AbstractParameterSerializer {
         this.gson = gson;
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    protected JsonElement serializerParameter(MethodPlan plan, int index, Object value) {
+        if (value == null) {
+            return JsonNull.INSTANCE;
+        } else if (value.getClass() != plan.getParameterClass(index)) {
+            // 参数值的实际类型与声明类型不同时, 与 toJsonTree 一样按实际类型序列化.
+            return gson.toJsonTree(value);
+        } else if (!gson.serializeNulls()) {
+            // TypeAdapter#toJsonTree 总是写出值为 null 的字段, 需要交由 Gson 应用其配置.
+            return gson.toJsonTree(value, plan.getParameterType(index));
+        }
+        TypeAdapter<Object> adapter = (TypeAdapter<Object>)
+                parameterAdapters.computeIfAbsent(plan, this::resolveAdapters)[index];
+        return adapter.toJsonTree(value);
+    }
+
     @Override
     protected JsonElement serializerParameter(Type expectType, Object value) {
         return gson.toJsonTree(value);
     }
+
+    private TypeAdapter<?>[] resolveAdapters(MethodPlan plan) {
+        TypeAdapter<?>[] adapters = new TypeAdapter<?>[plan.getParameterCount()];
+        for (int i = 0; i < adapters.length; i++) {
+            adapters[i] = gson.getAdapter(TypeToken.get(plan.getParameterType(i)));
+        }
+        return adapters;
+    }
 }
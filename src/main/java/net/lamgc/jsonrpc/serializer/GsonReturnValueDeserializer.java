@@ -2,9 +2,14 @@ package net.lamgc.jsonrpc.serializer;
 
 import com.google.gson.Gson;
 import com.google.gson.JsonElement;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
 import net.lamgc.jsonrpc.JsonRpcResponse;
+import net.lamgc.jsonrpc.MethodPlan;
 
 import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 使用 Gson 将 Rpc Response 中的 ReturnValue 转换为对应类型.
@@ -18,12 +23,30 @@ public class GsonReturnValueDeserializer implements ReturnValueDeserializer {
 
     private final Gson gson;
 
+    /**
+     * 每个方法调用计划所对应的结果 TypeAdapter (按方法声明的泛型结果类型解析, 异步方法将使用 CompletionStage 的类型参数).
+     */
+    private final Map<MethodPlan, TypeAdapter<?>> resultAdapters = new ConcurrentHashMap<>();
+
     public GsonReturnValueDeserializer(Gson gson) {
         this.gson = gson;
     }
 
     @Override
     public Object deserializer(Method method, JsonRpcResponse response) {
-        return gson.fromJson((JsonElement) response.getResult(), method.getReturnType());
+        return gson.fromJson((JsonElement) response.getResult(), TypeToken.get(method.getGenericReturnType()));
+    }
+
+    @Override
+    public Object deserializer(MethodPlan plan, JsonRpcResponse response) {
+        JsonElement result = (JsonElement) response.getResult();
+        if (result == null) {
+            return null;
+        } else if (plan.getResultClass() == void.class || plan.getResultClass() == Void.class) {
+            // 无返回值的方法不需要转换结果, Gson 也无法为 void 创建 TypeAdapter.
+            return null;
+        }
+        return resultAdapters.computeIfAbsent(plan, key -> gson.getAdapter(TypeToken.get(key.getResultType())))
+                .fromJsonTree(result);
     }
 }
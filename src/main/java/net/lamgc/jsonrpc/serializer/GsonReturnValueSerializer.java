@@ -2,8 +2,16 @@ package net.lamgc.jsonrpc.serializer;
 
 import com.google.gson.Gson;
 import com.google.gson.JsonElement;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonWriter;
+import net.lamgc.jsonrpc.MethodPlan;
 
+import java.io.IOException;
 import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 使用 Gson 将 Rpc Response 中的 ReturnValue 转换为对应类型.
@@ -16,12 +24,63 @@ import java.lang.reflect.Method;
 public class GsonReturnValueSerializer implements ReturnValueSerializer {
     private final Gson gson;
 
+    /**
+     * 每个方法调用计划所对应的返回值 TypeAdapter (按方法声明的结果类型解析, 异步方法将使用 CompletionStage 的类型参数).
+     */
+    private final Map<MethodPlan, TypeAdapter<?>> returnValueAdapters = new ConcurrentHashMap<>();
+
+    /**
+     * 返回值的实际类型所对应的快速绑定, 只包含 Gson 使用内置 TypeAdapter 的类型, 创建后不再修改.
+     */
+    private final Map<Class<?>, ScalarBinding> scalarBindings = new HashMap<>();
+
     public GsonReturnValueSerializer(Gson gson) {
         this.gson = gson;
+        for (Class<?> type : new Class<?>[]{Integer.class, Long.class, Double.class, Boolean.class, String.class}) {
+            ScalarBinding binding = ScalarBinding.resolve(gson, type);
+            if (binding != null) {
+                scalarBindings.put(type, binding);
+            }
+        }
     }
 
     @Override
     public JsonElement serializer(Method method, Object returnValue) {
+        if (returnValue != null) {
+            ScalarBinding binding = scalarBindings.get(returnValue.getClass());
+            if (binding != null) {
+                return binding.toJsonTree(returnValue);
+            }
+        }
         return gson.toJsonTree(returnValue);
     }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void serializer(MethodPlan plan, Object returnValue, JsonWriter writer) throws IOException {
+        if (returnValue == null) {
+            writer.nullValue();
+            return;
+        }
+        ScalarBinding binding = scalarBindings.get(returnValue.getClass());
+        if (binding != null) {
+            binding.write(writer, returnValue);
+            return;
+        }
+        boolean oldSerializeNulls = writer.getSerializeNulls();
+        writer.setSerializeNulls(gson.serializeNulls());
+        try {
+            TypeAdapter<Object> adapter;
+            if (returnValue.getClass() == plan.getResultClass()) {
+                adapter = (TypeAdapter<Object>) returnValueAdapters.computeIfAbsent(plan,
+                        key -> gson.getAdapter(TypeToken.get(key.getResultType())));
+            } else {
+                // 返回值的实际类型与声明类型不同时, 与 toJsonTree 一样按实际类型序列化.
+                adapter = (TypeAdapter<Object>) gson.getAdapter(returnValue.getClass());
+            }
+            adapter.write(writer, returnValue);
+        } finally {
+            writer.setSerializeNulls(oldSerializeNulls);
+        }
+    }
 }
@@ -1,6 +1,9 @@
 package net.lamgc.jsonrpc.serializer;
 
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
 import net.lamgc.jsonrpc.JsonRpcRequest;
+import net.lamgc.jsonrpc.MethodPlan;
 
 import java.lang.reflect.Method;
 
@@ -25,4 +28,34 @@ public interface ParameterDeserializer {
      */
     Object[] deserializer(Method method, JsonRpcRequest request) throws Exception;
 
+    /**
+     * 使用预先解析的调用计划将 JsonRpcRequest 中的参数反序列化为方法参数列表.
+     * <p>
+     * 默认实现将调用 {@link #deserializer(Method, JsonRpcRequest)}, 实现可覆盖该方法以避免重复的反射查询.
+     *
+     * @param plan    与反序列化有关的方法调用计划.
+     * @param request Json RPC 请求对象.
+     * @return 返回可用于 method 的参数列表.
+     * @throws Exception 当反序列化出现异常时可直接抛出, 调用方将负责处理此异常.
+     */
+    default Object[] deserializer(MethodPlan plan, JsonRpcRequest request) throws Exception {
+        return deserializer(plan.getMethod(), request);
+    }
+
+    /**
+     * 直接从 JsonReader 中读取参数列表.
+     * <p>
+     * 调用时 reader 位于 params 字段的值 (JsonArray 或 JsonObject) 之前, 返回时需要将整个值读取完毕.
+     * 默认实现会先将参数列表读取为 JsonElement, 再调用 {@link #deserializer(MethodPlan, JsonRpcRequest)};
+     * 实现可覆盖该方法, 将参数直接读取为对应类型, 避免构造中间的 JsonElement.
+     *
+     * @param plan   与反序列化有关的方法调用计划.
+     * @param reader 位于参数列表之前的 JsonReader.
+     * @return 返回可用于 method 的参数列表.
+     * @throws Exception 当反序列化出现异常时可直接抛出, 调用方将负责处理此异常.
+     */
+    default Object[] deserializer(MethodPlan plan, JsonReader reader) throws Exception {
+        return deserializer(plan, new JsonRpcRequest(plan.getName(), JsonParser.parseReader(reader), null));
+    }
+
 }
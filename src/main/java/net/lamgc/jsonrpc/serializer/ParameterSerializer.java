@@ -2,6 +2,7 @@ package net.lamgc.jsonrpc.serializer;
 
 import com.google.gson.JsonElement;
 import net.lamgc.jsonrpc.JsonRpcProxyGenerator;
+import net.lamgc.jsonrpc.MethodPlan;
 
 import java.lang.reflect.Method;
 
@@ -25,4 +26,18 @@ public interface ParameterSerializer {
      */
     JsonElement serializer(Method method, String methodName, Object[] parameters) throws Exception;
 
+    /**
+     * 使用预先解析的调用计划序列化参数列表.
+     * <p>
+     * 默认实现将调用 {@link #serializer(Method, String, Object[])}, 实现可覆盖该方法以避免重复的反射查询.
+     *
+     * @param plan       与序列化有关的方法调用计划.
+     * @param parameters 需要序列化的参数列表.
+     * @return 返回参数列表的序列化 JSON 对象.
+     * @throws Exception 当序列化出现异常时可直接抛出, 调用方将负责处理此异常.
+     */
+    default JsonElement serializer(MethodPlan plan, Object[] parameters) throws Exception {
+        return serializer(plan.getMethod(), plan.getName(), parameters);
+    }
+
 }
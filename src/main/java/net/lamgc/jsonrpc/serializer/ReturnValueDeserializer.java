@@ -1,6 +1,7 @@
 package net.lamgc.jsonrpc.serializer;
 
 import net.lamgc.jsonrpc.JsonRpcResponse;
+import net.lamgc.jsonrpc.MethodPlan;
 
 import java.lang.reflect.Method;
 
@@ -23,4 +24,20 @@ public interface ReturnValueDeserializer {
      */
     Object deserializer(Method method, JsonRpcResponse response) throws Exception;
 
+    /**
+     * 将 Rpc Response 中的 ReturnValue 转换为方法结果类型的对象.
+     * <p>
+     * 如果方法是异步方法 ({@link MethodPlan#isAsync()}), 需要转换为 {@link MethodPlan#getResultType()} 类型的对象,
+     * 而不是方法的返回类型. 默认实现将直接调用 {@link #deserializer(Method, JsonRpcResponse)},
+     * 如果需要支持异步方法, 实现需要覆盖该方法.
+     *
+     * @param plan     Json RPC 所调用方法的调用计划.
+     * @param response Json RPC 响应.
+     * @return 返回与方法结果类型相同的对象.
+     * @throws Exception 当转换发生错误时可抛出异常.
+     */
+    default Object deserializer(MethodPlan plan, JsonRpcResponse response) throws Exception {
+        return deserializer(plan.getMethod(), response);
+    }
+
 }
@@ -1,6 +1,9 @@
 package net.lamgc.jsonrpc.serializer;
 
 import com.google.gson.JsonElement;
+import com.google.gson.stream.JsonWriter;
+import net.lamgc.jsonrpc.JsonRpcUtils;
+import net.lamgc.jsonrpc.MethodPlan;
 
 import java.lang.reflect.Method;
 
@@ -15,6 +18,8 @@ public interface ReturnValueSerializer {
 
     /**
      * 序列化方法返回值.
+     * <p>
+     * 如果方法的返回类型为 {@link java.util.concurrent.CompletionStage}, returnValue 为异步结果完成时的值.
      *
      * @param method      对应的方法对象.
      * @param returnValue 方法所返回的值, 返回值有可能是 null.
@@ -23,4 +28,21 @@ public interface ReturnValueSerializer {
      */
     JsonElement serializer(Method method, Object returnValue) throws Exception;
 
+    /**
+     * 序列化方法返回值, 并直接写入 JsonWriter.
+     * <p>
+     * 实现需要向 writer 写出且只写出一个值.
+     * 如果方法是异步方法 ({@link MethodPlan#isAsync()}), returnValue 为异步结果完成时的值, 而不是 CompletionStage 本身.
+     * 默认实现将调用 {@link #serializer(Method, Object)} 后写出得到的 JsonElement;
+     * 实现可覆盖该方法以直接写出返回值, 避免构造中间的 JsonElement.
+     *
+     * @param plan        对应方法的调用计划.
+     * @param returnValue 方法所返回的值, 返回值有可能是 null.
+     * @param writer      写出返回值的 JsonWriter.
+     * @throws Exception 当无法完成序列化时可抛出异常.
+     */
+    default void serializer(MethodPlan plan, Object returnValue, JsonWriter writer) throws Exception {
+        JsonRpcUtils.writeJsonElement(serializer(plan.getMethod(), returnValue), writer);
+    }
+
 }
@@ -0,0 +1,273 @@
+package net.lamgc.jsonrpc.serializer;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.google.gson.stream.MalformedJsonException;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * 基本类型, 基本类型的包装类型与 String 的快速绑定.
+ * <p>
+ * 直接读写 {@link JsonPrimitive} 与 {@link JsonReader} / {@link JsonWriter}, 省去 Gson 查找 TypeAdapter 和构造
+ * JsonTreeReader / JsonTreeWriter 的开销. 各方法的行为 (包括溢出与类型不匹配时抛出的异常) 与 Gson 内置的
+ * TypeAdapter 保持一致, 因此只有当 Gson 对该类型使用的是内置 TypeAdapter 时才会启用, 参见 {@link #resolve(Gson, Type)}.
+ */
+enum ScalarBinding {
+
+    INT(int.class, Integer.class) {
+        @Override
+        Object fromJsonTree(JsonPrimitive primitive) {
+            checkNumber(primitive);
+            try {
+                return primitive.getAsInt();
+            } catch (NumberFormatException e) {
+                throw new JsonSyntaxException(e);
+            }
+        }
+
+        @Override
+        Object readValue(JsonReader reader) throws IOException {
+            try {
+                return reader.nextInt();
+            } catch (NumberFormatException e) {
+                throw new JsonSyntaxException(e);
+            }
+        }
+
+        @Override
+        void writeValue(JsonWriter writer, Object value) throws IOException {
+            writer.value(((Integer) value).intValue());
+        }
+    },
+    LONG(long.class, Long.class) {
+        @Override
+        Object fromJsonTree(JsonPrimitive primitive) {
+            checkNumber(primitive);
+            try {
+                return primitive.getAsLong();
+            } catch (NumberFormatException e) {
+                throw new JsonSyntaxException(e);
+            }
+        }
+
+        @Override
+        Object readValue(JsonReader reader) throws IOException {
+            try {
+                return reader.nextLong();
+            } catch (NumberFormatException e) {
+                throw new JsonSyntaxException(e);
+            }
+        }
+
+        @Override
+        void writeValue(JsonWriter writer, Object value) throws IOException {
+            writer.value(((Long) value).longValue());
+        }
+    },
+    DOUBLE(double.class, Double.class) {
+        @Override
+        Object fromJsonTree(JsonPrimitive primitive) {
+            checkNumber(primitive);
+            // 与 Gson 一样, 无法解析的字符串将直接抛出 NumberFormatException.
+            double value = primitive.getAsDouble();
+            if (Double.isNaN(value) || Double.isInfinite(value)) {
+                throw new JsonIOException(new MalformedJsonException("JSON forbids NaN and infinities: " + value));
+            }
+            return value;
+        }
+
+        @Override
+        Object readValue(JsonReader reader) throws IOException {
+            return reader.nextDouble();
+        }
+
+        @Override
+        JsonElement toJsonTree(Object value) {
+            if (value == null) {
+                return JsonNull.INSTANCE;
+            }
+            checkValidFloatingPoint((Double) value);
+            return new JsonPrimitive((Double) value);
+        }
+
+        @Override
+        void writeValue(JsonWriter writer, Object value) throws IOException {
+            double doubleValue = (Double) value;
+            checkValidFloatingPoint(doubleValue);
+            writer.value(doubleValue);
+        }
+    },
+    BOOLEAN(boolean.class, Boolean.class) {
+        @Override
+        Object fromJsonTree(JsonPrimitive primitive) {
+            if (primitive.isString()) {
+                return Boolean.parseBoolean(primitive.getAsString());
+            } else if (!primitive.isBoolean()) {
+                throw new IllegalStateException("Expected BOOLEAN but was NUMBER");
+            }
+            return primitive.getAsBoolean();
+        }
+
+        @Override
+        Object readValue(JsonReader reader) throws IOException {
+            if (reader.peek() == JsonToken.STRING) {
+                return Boolean.parseBoolean(reader.nextString());
+            }
+            return reader.nextBoolean();
+        }
+
+        @Override
+        void writeValue(JsonWriter writer, Object value) throws IOException {
+            writer.value(((Boolean) value).booleanValue());
+        }
+    },
+    STRING(null, String.class) {
+        @Override
+        Object fromJsonTree(JsonPrimitive primitive) {
+            return primitive.getAsString();
+        }
+
+        @Override
+        Object readValue(JsonReader reader) throws IOException {
+            if (reader.peek() == JsonToken.BOOLEAN) {
+                return Boolean.toString(reader.nextBoolean());
+            }
+            return reader.nextString();
+        }
+
+        @Override
+        void writeValue(JsonWriter writer, Object value) throws IOException {
+            writer.value((String) value);
+        }
+    };
+
+    /**
+     * 用于判断 Gson 是否使用了内置 TypeAdapter 的默认 Gson 对象.
+     */
+    private final static Gson DEFAULT_GSON = new Gson();
+
+    private final Class<?> primitiveClass;
+    private final Class<?> boxedClass;
+
+    ScalarBinding(Class<?> primitiveClass, Class<?> boxedClass) {
+        this.primitiveClass = primitiveClass;
+        this.boxedClass = boxedClass;
+    }
+
+    /**
+     * 获取类型在指定 Gson 对象下可用的快速绑定.
+     * <p>
+     * 如果 Gson 为该类型注册了自定义的 TypeAdapter (或更改了相关的序列化选项, 例如 LongSerializationPolicy),
+     * 将不会启用快速绑定, 以免改变序列化结果.
+     *
+     * @param gson 绑定所替代的 Gson 对象.
+     * @param type 参数或返回值的类型.
+     * @return 如果类型可以使用快速绑定, 返回对应的绑定, 否则返回 null.
+     */
+    static ScalarBinding resolve(Gson gson, Type type) {
+        for (ScalarBinding binding : values()) {
+            if (type == binding.primitiveClass || type == binding.boxedClass) {
+                TypeToken<?> token = TypeToken.get(type);
+                TypeAdapter<?> adapter = gson.getAdapter(token);
+                // 内置 TypeAdapter 多为单例, 但 double 的 TypeAdapter 会随 Gson 对象创建, 因此比较 TypeAdapter 的类.
+                return adapter.getClass() == DEFAULT_GSON.getAdapter(token).getClass() ? binding : null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 将 JsonElement 转换为对应类型的值, 与 {@link TypeAdapter#fromJsonTree(JsonElement)} 的行为相同.
+     *
+     * @param element 需要转换的 JsonElement.
+     * @return 返回转换后的值, 如果 element 为 JsonNull, 返回 null.
+     * @throws JsonSyntaxException   当数值无法转换为对应类型 (例如溢出) 时抛出.
+     * @throws IllegalStateException 当 JSON 的类型与对应类型不匹配时抛出.
+     */
+    final Object fromJsonTree(JsonElement element) {
+        if (element.isJsonNull()) {
+            return null;
+        } else if (!element.isJsonPrimitive()) {
+            throw new IllegalStateException("Expected " + this + " but was " + (element.isJsonArray() ? "BEGIN_ARRAY" : "BEGIN_OBJECT"));
+        }
+        return fromJsonTree(element.getAsJsonPrimitive());
+    }
+
+    abstract Object fromJsonTree(JsonPrimitive primitive);
+
+    /**
+     * 从 JsonReader 中读取对应类型的值, 与 {@link TypeAdapter#read(JsonReader)} 的行为相同.
+     *
+     * @param reader 位于值之前的 JsonReader.
+     * @return 返回读取到的值, 如果值为 null, 返回 null.
+     * @throws IOException 当读取失败时抛出.
+     */
+    final Object read(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+        return readValue(reader);
+    }
+
+    abstract Object readValue(JsonReader reader) throws IOException;
+
+    /**
+     * 将值转换为 JsonElement, 与 {@link Gson#toJsonTree(Object)} 的行为相同.
+     *
+     * @param value 需要转换的值, 类型需要与绑定对应.
+     * @return 返回转换后的 JsonElement.
+     */
+    JsonElement toJsonTree(Object value) {
+        if (value == null) {
+            return JsonNull.INSTANCE;
+        } else if (value instanceof Number) {
+            return new JsonPrimitive((Number) value);
+        } else if (value instanceof Boolean) {
+            return new JsonPrimitive((Boolean) value);
+        }
+        return new JsonPrimitive((String) value);
+    }
+
+    /**
+     * 将值写入 JsonWriter, 与 {@link TypeAdapter#write(JsonWriter, Object)} 的行为相同.
+     *
+     * @param writer 目标 JsonWriter.
+     * @param value  需要写出的值, 类型需要与绑定对应.
+     * @throws IOException 当写出失败时抛出.
+     */
+    final void write(JsonWriter writer, Object value) throws IOException {
+        if (value == null) {
+            writer.nullValue();
+        } else {
+            writeValue(writer, value);
+        }
+    }
+
+    abstract void writeValue(JsonWriter writer, Object value) throws IOException;
+
+    private static void checkNumber(JsonPrimitive primitive) {
+        if (primitive.isBoolean()) {
+            throw new IllegalStateException("Expected NUMBER but was BOOLEAN");
+        }
+    }
+
+    private static void checkValidFloatingPoint(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            throw new IllegalArgumentException(value + " is not a valid double value as per JSON specification. "
+                    + "To override this behavior, use GsonBuilder.serializeSpecialFloatingPointValues() method.");
+        }
+    }
+
+}
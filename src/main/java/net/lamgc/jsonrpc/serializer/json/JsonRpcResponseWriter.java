@@ -0,0 +1,246 @@
+package net.lamgc.jsonrpc.serializer.json;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.stream.JsonWriter;
+import net.lamgc.jsonrpc.JsonRpcError;
+import net.lamgc.jsonrpc.JsonRpcException;
+import net.lamgc.jsonrpc.JsonRpcResponse;
+import net.lamgc.jsonrpc.JsonRpcUtils;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+import static net.lamgc.jsonrpc.JsonRpcConst.*;
+
+/**
+ * JsonRpc 响应写出器.
+ * <p>
+ * 与 {@link JsonRpcResponseSerializer} 不同, 写出器将响应直接写入 {@link JsonWriter},
+ * 不会为响应构造 JsonObject; 配合 {@link #writeResult(JsonElement, ValueWriter, JsonWriter)},
+ * 返回值也可以直接写出, 无需先序列化为 JsonElement.
+ * <p>
+ * 写出的报文与 {@link JsonRpcResponseSerializer} (启用 Null 序列化时) 相同:
+ * 成功响应的 result 为 null 时依然会写出 result 字段, 对于无法得到 id 的错误响应会写出值为 null 的 id 字段,
+ * 对于 id 为 null 的响应对象则不写出 id 字段.
+ */
+public final class JsonRpcResponseWriter {
+
+    private final Gson gson;
+
+    /**
+     * 使用 {@link JsonRpcUtils#createGsonForJsonRpc()} 创建的 Gson 构造写出器.
+     */
+    public JsonRpcResponseWriter() {
+        this(JsonRpcUtils.createGsonForJsonRpc());
+    }
+
+    /**
+     * 构造写出器.
+     *
+     * @param gson 用于序列化 {@link JsonRpcError#getData()} 的 Gson 对象.
+     */
+    public JsonRpcResponseWriter(Gson gson) {
+        this.gson = Objects.requireNonNull(gson);
+    }
+
+    /**
+     * 将响应写入 JsonWriter.
+     *
+     * @param response 需要写出的响应.
+     * @param writer   目标 JsonWriter.
+     * @throws IOException 当写出失败时抛出.
+     */
+    public void write(JsonRpcResponse response, JsonWriter writer) throws IOException {
+        if (response.isError()) {
+            writer.beginObject();
+            writer.name(JSON_RPC_VERSION_FIELD).value(JSON_RPC_VERSION_VALUE);
+            writer.name(JSON_RPC_RESPONSE_ERROR_FIELD);
+            writeError((JsonRpcError) response.getResult(), writer);
+            writeId(response.getId(), writer);
+            writer.endObject();
+        } else {
+            writeResult(response.getId(),
+                    resultWriter -> JsonRpcUtils.writeJsonElement((JsonElement) response.getResult(), resultWriter),
+                    writer);
+        }
+    }
+
+    /**
+     * 将响应以 UTF-8 编码写入字节流.
+     *
+     * @param response 需要写出的响应.
+     * @param out      目标字节流, 写出后将刷新但不会关闭.
+     * @throws IOException 当写出失败时抛出.
+     */
+    public void write(JsonRpcResponse response, OutputStream out) throws IOException {
+        write(response, new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 将响应写入字符序列.
+     *
+     * @param response 需要写出的响应.
+     * @param out      目标字符序列, 如果是 {@link Writer}, 写出后将刷新但不会关闭.
+     * @throws IOException 当写出失败时抛出.
+     */
+    public void write(JsonRpcResponse response, Appendable out) throws IOException {
+        Writer writer = out instanceof Writer ? (Writer) out : new AppendableWriter(out);
+        JsonWriter jsonWriter = gson.newJsonWriter(writer);
+        write(response, jsonWriter);
+        jsonWriter.flush();
+    }
+
+    /**
+     * 写出成功响应.
+     * <p>
+     * result 字段的值由 resultWriter 写出; 如果写出返回值时出现异常, 由于响应已部分写出,
+     * 将直接抛出异常, 调用方应当丢弃已写出的内容.
+     *
+     * @param id           响应的 id, 如果为 null, 则不写出 id 字段.
+     * @param resultWriter 写出 result 字段值的写出器, 需要写出且只写出一个值.
+     * @param writer       目标 JsonWriter.
+     * @throws IOException      当写出失败时抛出.
+     * @throws JsonRpcException 当 resultWriter 抛出 IOException 以外的异常时抛出.
+     */
+    public void writeResult(JsonElement id, ValueWriter resultWriter, JsonWriter writer) throws IOException {
+        writer.beginObject();
+        writer.name(JSON_RPC_VERSION_FIELD).value(JSON_RPC_VERSION_VALUE);
+        boolean oldSerializeNulls = writer.getSerializeNulls();
+        // result 字段必须存在, 即使返回值为 null (JsonWriter 在写出 null 值时才会决定是否省略字段).
+        writer.setSerializeNulls(true);
+        writer.name(JSON_RPC_RESPONSE_RESULT_FIELD);
+        try {
+            resultWriter.write(writer);
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new JsonRpcException("Failed to write the result.", e);
+        } finally {
+            writer.setSerializeNulls(oldSerializeNulls);
+        }
+        writeId(id, writer);
+        writer.endObject();
+    }
+
+    private void writeError(JsonRpcError error, JsonWriter writer) throws IOException {
+        writer.beginObject();
+        writer.name(JSON_RPC_ERROR_CODE_FIELD).value(error.getCode());
+        writer.name(JSON_RPC_ERROR_MESSAGE_FIELD).value(error.getMessage());
+        writer.name(JSON_RPC_ERROR_DATA_FIELD);
+        Object data = error.getData();
+        if (data == null) {
+            writer.nullValue();
+        } else if (data instanceof JsonElement) {
+            JsonRpcUtils.writeJsonElement((JsonElement) data, writer);
+        } else {
+            gson.toJson(data, data.getClass(), writer);
+        }
+        writer.endObject();
+    }
+
+    private static void writeId(JsonElement id, JsonWriter writer) throws IOException {
+        if (id == null) {
+            return;
+        }
+        boolean oldSerializeNulls = writer.getSerializeNulls();
+        writer.setSerializeNulls(true);
+        try {
+            writer.name(JSON_RPC_ID_FIELD);
+            JsonRpcUtils.writeJsonElement(id, writer);
+        } finally {
+            writer.setSerializeNulls(oldSerializeNulls);
+        }
+    }
+
+    /**
+     * 向 JsonWriter 写出一个值.
+     */
+    @FunctionalInterface
+    public interface ValueWriter {
+
+        /**
+         * 写出一个值.
+         *
+         * @param writer 目标 JsonWriter.
+         * @throws Exception 当写出失败时抛出.
+         */
+        void write(JsonWriter writer) throws Exception;
+
+    }
+
+    /**
+     * 将 {@link Appendable} 适配为 {@link Writer}.
+     */
+    private static final class AppendableWriter extends Writer {
+
+        private final Appendable appendable;
+
+        private AppendableWriter(Appendable appendable) {
+            this.appendable = appendable;
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            appendable.append(new CharArraySequence(cbuf, off, len));
+        }
+
+        @Override
+        public void write(int c) throws IOException {
+            appendable.append((char) c);
+        }
+
+        @Override
+        public void write(String str, int off, int len) throws IOException {
+            appendable.append(str, off, off + len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (appendable instanceof Flushable) {
+                ((Flushable) appendable).flush();
+            }
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * 不复制数组的 CharSequence 视图.
+     */
+    private static final class CharArraySequence implements CharSequence {
+
+        private final char[] chars;
+        private final int offset;
+        private final int length;
+
+        private CharArraySequence(char[] chars, int offset, int length) {
+            this.chars = chars;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return chars[offset + index];
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new CharArraySequence(chars, offset + start, end - start);
+        }
+
+        @Override
+        public String toString() {
+            return new String(chars, offset, length);
+        }
+    }
+}
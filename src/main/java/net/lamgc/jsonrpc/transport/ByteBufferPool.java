@@ -0,0 +1,77 @@
+package net.lamgc.jsonrpc.transport;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 固定大小的 ByteBuffer 池.
+ * <p>
+ * 池中最多保留 maxPooled 个缓冲区, 超出部分将交由 GC 回收. 池是线程安全的.
+ */
+final class ByteBufferPool {
+
+    private final int bufferSize;
+    private final int maxPooled;
+    private final boolean direct;
+    private final Queue<ByteBuffer> buffers = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooled = new AtomicInteger();
+
+    ByteBufferPool(int bufferSize, int maxPooled, boolean direct) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("bufferSize must be greater than 0.");
+        } else if (maxPooled < 0) {
+            throw new IllegalArgumentException("maxPooled cannot be negative.");
+        }
+        this.bufferSize = bufferSize;
+        this.maxPooled = maxPooled;
+        this.direct = direct;
+    }
+
+    /**
+     * 获取一个已清空的缓冲区.
+     *
+     * @return 返回写模式的缓冲区.
+     */
+    ByteBuffer acquire() {
+        ByteBuffer buffer = buffers.poll();
+        if (buffer == null) {
+            return direct ? ByteBuffer.allocateDirect(bufferSize) : ByteBuffer.allocate(bufferSize);
+        }
+        pooled.decrementAndGet();
+        buffer.clear();
+        return buffer;
+    }
+
+    /**
+     * 归还缓冲区, 归还后调用方不能再使用该缓冲区.
+     *
+     * @param buffer 需要归还的缓冲区, 不是由该池创建的缓冲区将被忽略.
+     */
+    void release(ByteBuffer buffer) {
+        if (buffer.capacity() != bufferSize || buffer.isDirect() != direct) {
+            return;
+        }
+        if (pooled.incrementAndGet() > maxPooled) {
+            pooled.decrementAndGet();
+            return;
+        }
+        buffer.clear();
+        buffers.offer(buffer);
+    }
+
+    int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * 获取池中空闲的缓冲区数量.
+     *
+     * @return 返回空闲缓冲区数量.
+     */
+    int getPooledCount() {
+        return pooled.get();
+    }
+
+}
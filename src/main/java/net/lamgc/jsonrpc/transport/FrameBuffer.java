@@ -0,0 +1,44 @@
+package net.lamgc.jsonrpc.transport;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * 用于写出单个报文帧的缓冲区.
+ * <p>
+ * 报文直接写入缓冲区, 完成后通过 {@link #toByteBuffer()} 补全分帧信息, 不会复制报文内容.
+ */
+final class FrameBuffer extends ByteArrayOutputStream {
+
+    private final FrameFormat format;
+
+    FrameBuffer(FrameFormat format) {
+        super(256);
+        this.format = format;
+        if (format == FrameFormat.LENGTH_PREFIXED) {
+            // 预留长度字段.
+            count = 4;
+        }
+    }
+
+    /**
+     * 补全分帧信息, 并返回包含整个帧的缓冲区.
+     * <p>
+     * 调用后不能再向缓冲区写入数据.
+     *
+     * @return 返回读模式的 ByteBuffer, 与该对象共享数据.
+     */
+    ByteBuffer toByteBuffer() {
+        if (format == FrameFormat.NEWLINE_DELIMITED) {
+            write('\n');
+        } else {
+            int length = count - 4;
+            buf[0] = (byte) (length >>> 24);
+            buf[1] = (byte) (length >>> 16);
+            buf[2] = (byte) (length >>> 8);
+            buf[3] = (byte) length;
+        }
+        return ByteBuffer.wrap(buf, 0, count);
+    }
+
+}
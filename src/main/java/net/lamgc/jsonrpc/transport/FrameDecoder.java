@@ -0,0 +1,133 @@
+package net.lamgc.jsonrpc.transport;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 从字节流中拆分报文帧.
+ * <p>
+ * 未读取完整的帧将暂存在解码器中, 直到后续数据到达. 每个连接需要使用独立的解码器, 解码器不是线程安全的.
+ */
+final class FrameDecoder {
+
+    private final static int INITIAL_CAPACITY = 256;
+
+    /**
+     * 处理完超过该大小的帧后, 将释放暂存数组, 以免空闲连接长期占用内存.
+     */
+    private final static int RETAINED_CAPACITY = 64 * 1024;
+
+    private final FrameFormat format;
+    private final int maxFrameSize;
+
+    private byte[] frame = new byte[INITIAL_CAPACITY];
+    private int frameLength = 0;
+
+    private final byte[] header = new byte[4];
+    private int headerLength = 0;
+    private int expectedLength = -1;
+
+    FrameDecoder(FrameFormat format, int maxFrameSize) {
+        this.format = Objects.requireNonNull(format);
+        if (maxFrameSize <= 0) {
+            throw new IllegalArgumentException("maxFrameSize must be greater than 0.");
+        }
+        this.maxFrameSize = maxFrameSize;
+    }
+
+    /**
+     * 读取 input 中的全部数据, 并将其中完整的帧加入 frames.
+     *
+     * @param input  读模式的缓冲区, 读取后 position 将位于 limit.
+     * @param frames 存放完整帧的列表.
+     * @throws IOException 当帧的大小超过限制时抛出, 此时字节流已无法继续解析, 应当关闭连接.
+     */
+    void decode(ByteBuffer input, List<byte[]> frames) throws IOException {
+        if (format == FrameFormat.NEWLINE_DELIMITED) {
+            decodeNewlineDelimited(input, frames);
+        } else {
+            decodeLengthPrefixed(input, frames);
+        }
+    }
+
+    private void decodeNewlineDelimited(ByteBuffer input, List<byte[]> frames) throws IOException {
+        while (input.hasRemaining()) {
+            int start = input.position();
+            int end = start;
+            int limit = input.limit();
+            while (end < limit && input.get(end) != '\n') {
+                end++;
+            }
+            append(input, end - start);
+            if (end == limit) {
+                return;
+            }
+            // 跳过换行符.
+            input.get();
+            int length = frameLength;
+            if (length > 0 && frame[length - 1] == '\r') {
+                length--;
+            }
+            if (length > 0) {
+                frames.add(Arrays.copyOf(frame, length));
+            }
+            reset();
+        }
+    }
+
+    private void decodeLengthPrefixed(ByteBuffer input, List<byte[]> frames) throws IOException {
+        while (input.hasRemaining()) {
+            if (expectedLength < 0) {
+                while (headerLength < header.length && input.hasRemaining()) {
+                    header[headerLength++] = input.get();
+                }
+                if (headerLength < header.length) {
+                    return;
+                }
+                long length = ((header[0] & 0xFFL) << 24) | ((header[1] & 0xFF) << 16)
+                        | ((header[2] & 0xFF) << 8) | (header[3] & 0xFF);
+                if (length > maxFrameSize) {
+                    throw new IOException("Frame size " + length + " exceeds the limit of " + maxFrameSize + " bytes.");
+                }
+                expectedLength = (int) length;
+            }
+
+            append(input, Math.min(input.remaining(), expectedLength - frameLength));
+            if (frameLength < expectedLength) {
+                return;
+            }
+            if (expectedLength > 0) {
+                frames.add(Arrays.copyOf(frame, frameLength));
+            }
+            reset();
+        }
+    }
+
+    private void append(ByteBuffer input, int length) throws IOException {
+        if (length == 0) {
+            return;
+        }
+        int required = frameLength + length;
+        if (required > maxFrameSize) {
+            throw new IOException("Frame size exceeds the limit of " + maxFrameSize + " bytes.");
+        }
+        if (required > frame.length) {
+            frame = Arrays.copyOf(frame, Math.min(Math.max(frame.length * 2, required), maxFrameSize));
+        }
+        input.get(frame, frameLength, length);
+        frameLength = required;
+    }
+
+    private void reset() {
+        frameLength = 0;
+        headerLength = 0;
+        expectedLength = -1;
+        if (frame.length > RETAINED_CAPACITY) {
+            frame = new byte[INITIAL_CAPACITY];
+        }
+    }
+
+}
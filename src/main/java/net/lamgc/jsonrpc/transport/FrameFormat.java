@@ -0,0 +1,37 @@
+package net.lamgc.jsonrpc.transport;
+
+import net.lamgc.jsonrpc.codec.JsonRpcCodec;
+
+/**
+ * 报文分帧格式.
+ * <p>
+ * 流式传输 (例如 TCP) 没有消息边界, 因此需要约定每个 JsonRpc 报文在字节流中的边界.
+ */
+public enum FrameFormat {
+
+    /**
+     * 每个报文以换行符 ({@code '\n'}) 结尾, 报文末尾的 {@code '\r'} 将被忽略, 空行将被跳过.
+     * <p>
+     * 由于紧凑格式的 JSON 中不会出现未转义的换行符, 因此报文本身不需要任何转义;
+     * 但二进制编码格式 (参见 {@link JsonRpcCodec#isBinary()}) 的报文中可能出现换行符, 不能使用该格式.
+     */
+    NEWLINE_DELIMITED,
+
+    /**
+     * 每个报文前有一个 4 字节的大端序无符号长度 (不包括长度本身), 长度为 0 的帧将被跳过.
+     */
+    LENGTH_PREFIXED;
+
+    /**
+     * 检查编码格式能否使用该分帧格式.
+     *
+     * @throws IllegalStateException 当二进制编码格式与 {@link #NEWLINE_DELIMITED} 一同使用时抛出.
+     */
+    void checkCodec(JsonRpcCodec codec) {
+        if (this == NEWLINE_DELIMITED && codec.isBinary()) {
+            throw new IllegalStateException("The binary codec '" + codec.getName()
+                    + "' cannot be used with " + this + ", use " + LENGTH_PREFIXED + " instead.");
+        }
+    }
+
+}
@@ -0,0 +1,410 @@
+package net.lamgc.jsonrpc.transport;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonWriter;
+import net.lamgc.jsonrpc.AsyncJsonRpcRequestTransporter;
+import net.lamgc.jsonrpc.JsonRpcBatchRequestTransporter;
+import net.lamgc.jsonrpc.JsonRpcRequest;
+import net.lamgc.jsonrpc.JsonRpcResponse;
+import net.lamgc.jsonrpc.JsonRpcUtils;
+import net.lamgc.jsonrpc.codec.JsonRpcCodec;
+import net.lamgc.jsonrpc.codec.JsonRpcCodecs;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 基于 {@link HttpClient} 的请求传输器.
+ * <p>
+ * 请求通过 {@link HttpClient#sendAsync(HttpRequest, HttpResponse.BodyHandler)} 以 POST 方式发出,
+ * 请求体直接序列化为字节数组, 不会先转换为字符串; 响应从响应体的 InputStream 中解析.
+ * HttpClient 会复用连接: 对于 HTTPS 服务端, 如果服务端支持 HTTP/2, 多个请求将在同一个连接上多路复用;
+ * 否则将使用连接池中保持活动的 HTTP/1.1 连接.
+ * <p>
+ * 在 HTTP/1.1 下, 每个同时进行的请求都需要占用一个连接, 因此可以通过
+ * {@link Builder#maxConcurrentRequests(int)} 限制同时进行的请求数量, 从而限制连接数量,
+ * 超出限制的请求将排队等待 (不会阻塞调用线程).
+ * <p>
+ * 请求默认使用 JSON 编码, 也可以通过 {@link Builder#codec(JsonRpcCodec)} 指定其他编码格式,
+ * 编码格式的媒体类型将作为 Content-Type 和 Accept 发出; 响应按照其 Content-Type 选择编码格式解码.
+ * <p>
+ * 传输器同时实现了 {@link JsonRpcBatchRequestTransporter}, 批量请求将作为一个 HTTP 请求发出.
+ */
+public final class HttpClientJsonRpcRequestTransporter
+        implements AsyncJsonRpcRequestTransporter, JsonRpcBatchRequestTransporter {
+
+    private final static String JSON_CONTENT_TYPE = "application/json; charset=utf-8";
+
+    private final HttpClient httpClient;
+    private final URI uri;
+    private final Duration requestTimeout;
+    private final Gson gson;
+    private final JsonRpcCodec codec;
+
+    private final int maxConcurrentRequests;
+    private final AtomicInteger activeRequests = new AtomicInteger();
+    private final Queue<Runnable> waitingRequests = new ConcurrentLinkedQueue<>();
+
+    private HttpClientJsonRpcRequestTransporter(Builder builder) {
+        this.httpClient = builder.httpClient != null ? builder.httpClient : HttpClient.newBuilder()
+                .version(builder.version)
+                .connectTimeout(builder.connectTimeout)
+                .build();
+        this.uri = builder.uri;
+        this.requestTimeout = builder.requestTimeout;
+        this.gson = builder.gson;
+        this.codec = builder.codec;
+        this.maxConcurrentRequests = builder.maxConcurrentRequests;
+    }
+
+    /**
+     * 创建传输器构建器.
+     *
+     * @param uri JsonRpc 端点的地址.
+     * @return 返回传输器构建器.
+     */
+    public static Builder builder(URI uri) {
+        return new Builder(uri);
+    }
+
+    @Override
+    public CompletableFuture<JsonRpcResponse> transportRequestAsync(JsonRpcRequest request) {
+        Objects.requireNonNull(request);
+        return submit(() -> {
+            RequestBody body = new RequestBody();
+            if (codec == JsonRpcCodecs.JSON) {
+                try (JsonWriter writer = body.newJsonWriter()) {
+                    gson.toJson(request, JsonRpcRequest.class, writer);
+                }
+            } else {
+                codec.encode(gson.toJsonTree(request, JsonRpcRequest.class), body);
+            }
+            return send(body, this::readResponse);
+        });
+    }
+
+    @Override
+    public CompletableFuture<List<JsonRpcResponse>> transportBatchAsync(List<JsonRpcRequest> requests) {
+        if (requests.isEmpty()) {
+            return CompletableFuture.completedFuture(Collections.emptyList());
+        }
+        return submit(() -> {
+            RequestBody body = new RequestBody();
+            if (codec == JsonRpcCodecs.JSON) {
+                try (JsonWriter writer = body.newJsonWriter()) {
+                    writer.beginArray();
+                    for (JsonRpcRequest request : requests) {
+                        gson.toJson(Objects.requireNonNull(request), JsonRpcRequest.class, writer);
+                    }
+                    writer.endArray();
+                }
+            } else {
+                JsonArray array = new JsonArray(requests.size());
+                for (JsonRpcRequest request : requests) {
+                    array.add(gson.toJsonTree(Objects.requireNonNull(request), JsonRpcRequest.class));
+                }
+                codec.encode(array, body);
+            }
+            return send(body, this::readBatchResponse);
+        });
+    }
+
+    /**
+     * 获取正在进行的请求数量 (不包括排队等待的请求).
+     *
+     * @return 返回正在进行的请求数量.
+     */
+    public int getActiveRequestCount() {
+        return activeRequests.get();
+    }
+
+    /**
+     * 获取使用的 HttpClient.
+     *
+     * @return 返回使用的 HttpClient.
+     */
+    public HttpClient getHttpClient() {
+        return httpClient;
+    }
+
+    private <T> CompletableFuture<T> send(RequestBody body, ResponseReader<T> responseReader) {
+        HttpRequest.Builder requestBuilder = HttpRequest.newBuilder(uri)
+                .header("Content-Type", codec == JsonRpcCodecs.JSON ? JSON_CONTENT_TYPE : codec.getContentType())
+                .header("Accept", codec.getContentType())
+                .POST(body.toPublisher());
+        if (requestTimeout != null) {
+            requestBuilder.timeout(requestTimeout);
+        }
+        return httpClient.sendAsync(requestBuilder.build(), HttpResponse.BodyHandlers.ofInputStream())
+                .thenApply(response -> {
+                    try (InputStream in = response.body()) {
+                        if (response.statusCode() == 204) {
+                            return responseReader.read(null, codec);
+                        } else if (response.statusCode() != 200) {
+                            throw new HttpStatusException(response.statusCode());
+                        }
+                        JsonRpcCodec responseCodec = response.headers().firstValue("Content-Type")
+                                .map(JsonRpcCodecs::forContentType)
+                                .orElse(codec);
+                        return responseReader.read(in, responseCodec);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    /**
+     * @param in    响应体, 如果服务端返回 204 (请求是通知), 则为 null.
+     * @param codec 响应体的编码格式.
+     */
+    private JsonRpcResponse readResponse(InputStream in, JsonRpcCodec codec) throws IOException {
+        if (in == null) {
+            return null;
+        } else if (codec == JsonRpcCodecs.JSON) {
+            return gson.fromJson(new InputStreamReader(in, StandardCharsets.UTF_8), JsonRpcResponse.class);
+        }
+        return gson.fromJson(codec.decode(in), JsonRpcResponse.class);
+    }
+
+    private List<JsonRpcResponse> readBatchResponse(InputStream in, JsonRpcCodec codec) throws IOException {
+        if (in == null) {
+            return Collections.emptyList();
+        }
+        JsonElement element = codec.decode(in);
+        if (!element.isJsonArray()) {
+            // 服务端无法解析批量请求时, 将返回单个错误响应.
+            return Collections.singletonList(gson.fromJson(element, JsonRpcResponse.class));
+        }
+        List<JsonRpcResponse> responses = new ArrayList<>(element.getAsJsonArray().size());
+        for (JsonElement response : element.getAsJsonArray()) {
+            responses.add(gson.fromJson(response, JsonRpcResponse.class));
+        }
+        return responses;
+    }
+
+    /**
+     * 在并发数量限制内发出请求, 超出限制时排队等待.
+     */
+    private <T> CompletableFuture<T> submit(RequestTask<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Runnable runnable = () -> {
+            CompletableFuture<T> future;
+            try {
+                future = task.start();
+            } catch (Throwable e) {
+                future = CompletableFuture.failedFuture(e);
+            }
+            future.whenComplete((value, cause) -> {
+                release();
+                if (cause != null) {
+                    result.completeExceptionally(unwrap(cause));
+                } else {
+                    result.complete(value);
+                }
+            });
+        };
+
+        if (maxConcurrentRequests <= 0) {
+            activeRequests.incrementAndGet();
+            runnable.run();
+            return result;
+        }
+        waitingRequests.offer(runnable);
+        drain();
+        return result;
+    }
+
+    private void release() {
+        activeRequests.decrementAndGet();
+        drain();
+    }
+
+    private void drain() {
+        if (maxConcurrentRequests <= 0) {
+            return;
+        }
+        while (!waitingRequests.isEmpty()) {
+            int active = activeRequests.get();
+            if (active >= maxConcurrentRequests) {
+                return;
+            } else if (!activeRequests.compareAndSet(active, active + 1)) {
+                continue;
+            }
+            Runnable runnable = waitingRequests.poll();
+            if (runnable == null) {
+                activeRequests.decrementAndGet();
+                // 在归还许可前可能有新的请求入队.
+                continue;
+            }
+            runnable.run();
+        }
+    }
+
+    private static Throwable unwrap(Throwable cause) {
+        while ((cause instanceof CompletionException
+                || cause instanceof UncheckedIOException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    @FunctionalInterface
+    private interface RequestTask<T> {
+        CompletableFuture<T> start() throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface ResponseReader<T> {
+        T read(InputStream in, JsonRpcCodec codec) throws IOException, JsonParseException;
+    }
+
+    /**
+     * 请求体缓冲区, 发出请求时直接使用内部数组, 不会复制.
+     */
+    private final class RequestBody extends ByteArrayOutputStream {
+
+        private RequestBody() {
+            super(256);
+        }
+
+        private JsonWriter newJsonWriter() throws IOException {
+            return gson.newJsonWriter(new OutputStreamWriter(this, StandardCharsets.UTF_8));
+        }
+
+        private HttpRequest.BodyPublisher toPublisher() {
+            return HttpRequest.BodyPublishers.ofByteArray(buf, 0, count);
+        }
+    }
+
+    /**
+     * 服务端返回了非预期的 HTTP 状态码.
+     */
+    public static final class HttpStatusException extends IOException {
+
+        private final int statusCode;
+
+        private HttpStatusException(int statusCode) {
+            super("Unexpected HTTP status code: " + statusCode);
+            this.statusCode = statusCode;
+        }
+
+        /**
+         * 获取 HTTP 状态码.
+         *
+         * @return 返回 HTTP 状态码.
+         */
+        public int getStatusCode() {
+            return statusCode;
+        }
+    }
+
+    /**
+     * {@link HttpClientJsonRpcRequestTransporter} 构建器.
+     */
+    public static final class Builder {
+
+        private final URI uri;
+        private HttpClient httpClient;
+        private HttpClient.Version version = HttpClient.Version.HTTP_2;
+        private Duration connectTimeout = Duration.ofSeconds(10);
+        private Duration requestTimeout = Duration.ofSeconds(30);
+        private int maxConcurrentRequests = 0;
+        private Gson gson = JsonRpcUtils.createGsonForJsonRpc();
+        private JsonRpcCodec codec = JsonRpcCodecs.JSON;
+
+        private Builder(URI uri) {
+            this.uri = Objects.requireNonNull(uri);
+        }
+
+        /**
+         * 使用已有的 HttpClient, 设置后 {@link #version(HttpClient.Version)} 和 {@link #connectTimeout(Duration)} 将不起作用.
+         */
+        public Builder httpClient(HttpClient httpClient) {
+            this.httpClient = Objects.requireNonNull(httpClient);
+            return this;
+        }
+
+        /**
+         * 设置首选的 HTTP 版本, 默认为 HTTP/2, 服务端不支持时将自动使用 HTTP/1.1.
+         */
+        public Builder version(HttpClient.Version version) {
+            this.version = Objects.requireNonNull(version);
+            return this;
+        }
+
+        /**
+         * 设置连接超时时间, 默认为 10 秒.
+         */
+        public Builder connectTimeout(Duration connectTimeout) {
+            this.connectTimeout = Objects.requireNonNull(connectTimeout);
+            return this;
+        }
+
+        /**
+         * 设置请求超时时间, 默认为 30 秒; 为 null 时不限制.
+         */
+        public Builder requestTimeout(Duration requestTimeout) {
+            this.requestTimeout = requestTimeout;
+            return this;
+        }
+
+        /**
+         * 设置同时进行的最大请求数量, 默认为 0 (不限制).
+         */
+        public Builder maxConcurrentRequests(int maxConcurrentRequests) {
+            if (maxConcurrentRequests < 0) {
+                throw new IllegalArgumentException("maxConcurrentRequests cannot be negative.");
+            }
+            this.maxConcurrentRequests = maxConcurrentRequests;
+            return this;
+        }
+
+        /**
+         * 设置序列化请求和反序列化响应使用的 Gson, 默认为 {@link JsonRpcUtils#createGsonForJsonRpc()}.
+         */
+        public Builder gson(Gson gson) {
+            this.gson = Objects.requireNonNull(gson);
+            return this;
+        }
+
+        /**
+         * 设置请求的编码格式, 默认为 {@link JsonRpcCodecs#JSON}; 服务端需要支持该编码格式.
+         */
+        public Builder codec(JsonRpcCodec codec) {
+            this.codec = Objects.requireNonNull(codec);
+            return this;
+        }
+
+        /**
+         * 构建传输器.
+         *
+         * @return 返回传输器.
+         */
+        public HttpClientJsonRpcRequestTransporter build() {
+            return new HttpClientJsonRpcRequestTransporter(this);
+        }
+    }
+
+}
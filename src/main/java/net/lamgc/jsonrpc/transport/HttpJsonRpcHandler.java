@@ -0,0 +1,142 @@
+package net.lamgc.jsonrpc.transport;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import net.lamgc.jsonrpc.JsonRpcExecutor;
+import net.lamgc.jsonrpc.codec.JsonRpcCodec;
+import net.lamgc.jsonrpc.codec.JsonRpcCodecs;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * 将 {@link JsonRpcExecutor} 接入 JDK 内置 HTTP 服务端 ({@link com.sun.net.httpserver.HttpServer}) 的处理器.
+ * <p>
+ * 请求体将直接交由执行器解码, 响应也将直接写入响应体, 不会先转换为字符串.
+ * 请求体可以是单个请求对象, 也可以是批量请求数组; 如果请求是通知 (或批量请求全部为通知),
+ * 则返回 204 No Content. 只接受 POST 请求, 其他方法将返回 405 Method Not Allowed.
+ * <p>
+ * 请求体的编码格式由 Content-Type 决定 (参见 {@link JsonRpcCodecs#forContentType(String)}), 未指定时使用 JSON,
+ * 响应使用与请求相同的编码格式; 不支持的 Content-Type 将返回 415 Unsupported Media Type.
+ * <p>
+ * 处理器可以直接注册到已有的 HttpServer 中, 也可以使用 {@link HttpJsonRpcServer} 创建一个独立的服务端.
+ * 直接注册时, 建议将系统属性 {@code sun.net.httpserver.nodelay} 设为 true, 原因参见 {@link HttpJsonRpcServer}.
+ */
+public final class HttpJsonRpcHandler implements HttpHandler {
+
+    private final static Logger logger = LoggerFactory.getLogger(HttpJsonRpcHandler.class);
+
+    private final static String JSON_CONTENT_TYPE = "application/json; charset=utf-8";
+
+    private final JsonRpcMessageHandler messageHandler;
+
+    /**
+     * 构造一个 HTTP 处理器, 批量请求将在 {@link ForkJoinPool#commonPool()} 中并行执行.
+     *
+     * @param executor 执行请求的执行器.
+     */
+    public HttpJsonRpcHandler(JsonRpcExecutor executor) {
+        this(executor, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 构造一个 HTTP 处理器.
+     *
+     * @param executor      执行请求的执行器.
+     * @param batchExecutor 并行执行批量请求元素的执行器.
+     * @see JsonRpcExecutor#executeBatch(com.google.gson.JsonArray, Executor)
+     */
+    public HttpJsonRpcHandler(JsonRpcExecutor executor, Executor batchExecutor) {
+        this.messageHandler = new JsonRpcMessageHandler(executor, batchExecutor);
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (!"POST".equalsIgnoreCase(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().set("Allow", "POST");
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+
+            String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+            JsonRpcCodec codec = contentType == null ? JsonRpcCodecs.JSON : JsonRpcCodecs.forContentType(contentType);
+            if (codec == null) {
+                exchange.sendResponseHeaders(415, -1);
+                return;
+            }
+
+            boolean replied;
+            try (InputStream body = exchange.getRequestBody()) {
+                ResponseBody responseBody = new ResponseBody(exchange, body,
+                        codec == JsonRpcCodecs.JSON ? JSON_CONTENT_TYPE : codec.getContentType());
+                replied = messageHandler.handle(body, codec, responseBody);
+                // 读完剩余的请求体, 以便连接可以继续用于后续请求.
+                body.transferTo(OutputStream.nullOutputStream());
+            }
+
+            if (!replied) {
+                exchange.sendResponseHeaders(204, -1);
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.error("An exception occurred while handling the HTTP request from {}.", exchange.getRemoteAddress(), e);
+            throw e;
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * 响应体, 在首次写出数据时才发送响应头.
+     * <p>
+     * 报文是否需要响应在写出之前即可确定, 因此没有写出任何数据时, 可以改为返回 204 No Content.
+     */
+    private static final class ResponseBody extends OutputStream {
+
+        private final HttpExchange exchange;
+        private final InputStream requestBody;
+        private final String contentType;
+        private OutputStream out;
+
+        private ResponseBody(HttpExchange exchange, InputStream requestBody, String contentType) {
+            this.exchange = exchange;
+            this.requestBody = requestBody;
+            this.contentType = contentType;
+        }
+
+        private OutputStream commit() throws IOException {
+            if (out == null) {
+                // 发送响应头前读完剩余的请求体, 以便连接可以继续用于后续请求.
+                requestBody.transferTo(OutputStream.nullOutputStream());
+                exchange.getResponseHeaders().set("Content-Type", contentType);
+                // 长度为 0 表示使用分块传输, 响应将直接写入连接.
+                exchange.sendResponseHeaders(200, 0);
+                out = exchange.getResponseBody();
+            }
+            return out;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            commit().write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            commit().write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (out != null) {
+                out.flush();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,253 @@
+package net.lamgc.jsonrpc.transport;
+
+import com.sun.net.httpserver.HttpServer;
+import net.lamgc.jsonrpc.JsonRpcExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 基于 JDK 内置 HTTP 服务端的 JsonRpc 服务端.
+ * <p>
+ * 在指定路径上注册 {@link HttpJsonRpcHandler}, HTTP/1.1 连接默认保持活动, 可以连续发送多个请求.
+ * 处理 HTTP 请求的执行器可以通过 {@link Builder#executor(Executor)} 指定,
+ * 例如使用 {@link net.lamgc.jsonrpc.VirtualThreads#newVirtualThreadPerTaskExecutor()} 为每个请求创建一个虚拟线程.
+ * <p>
+ * JDK 内置 HTTP 服务端默认不启用 TCP_NODELAY, 响应头和响应体分开写出时, 与客户端的延迟确认叠加,
+ * 保持活动的连接上每个请求都会额外等待约 40 毫秒. 该行为只能通过系统属性 {@value #NO_DELAY_PROPERTY} 修改,
+ * 属性在进程中首次创建 HttpServer 时读取, 对同一进程中的所有 HttpServer 生效, 因此该类默认不会修改它;
+ * 建议在启动参数中设置 {@code -Dsun.net.httpserver.nodelay=true}, 或通过 {@link Builder#noDelay(boolean)} 显式启用.
+ */
+public final class HttpJsonRpcServer implements Closeable {
+
+    private final static Logger logger = LoggerFactory.getLogger(HttpJsonRpcServer.class);
+
+    private final static AtomicInteger serverCounter = new AtomicInteger();
+
+    private final static String NO_DELAY_PROPERTY = "sun.net.httpserver.nodelay";
+
+    /**
+     * 该类是否已创建过 HttpServer, 创建之后再设置 {@value #NO_DELAY_PROPERTY} 不会生效.
+     */
+    private final static AtomicBoolean httpServerCreated = new AtomicBoolean(false);
+
+    private final HttpServer server;
+    private final ExecutorService ownedExecutor;
+    private final int stopDelaySeconds;
+    private final AtomicBoolean started = new AtomicBoolean(false);
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+
+    private HttpJsonRpcServer(Builder builder) throws IOException {
+        if (builder.noDelay) {
+            enableNoDelay();
+        }
+        httpServerCreated.set(true);
+        this.server = HttpServer.create(builder.bindAddress, builder.backlog);
+        this.server.createContext(builder.path, new HttpJsonRpcHandler(builder.executor, builder.batchExecutor));
+        if (builder.httpExecutor != null) {
+            this.server.setExecutor(builder.httpExecutor);
+            this.ownedExecutor = null;
+        } else {
+            this.ownedExecutor = Executors.newFixedThreadPool(builder.workerThreads,
+                    new NamedThreadFactory("jsonrpc-http-worker-" + serverCounter.incrementAndGet()));
+            this.server.setExecutor(ownedExecutor);
+        }
+        this.stopDelaySeconds = builder.stopDelaySeconds;
+    }
+
+    /**
+     * 将系统属性 {@value #NO_DELAY_PROPERTY} 设为 true.
+     * <p>
+     * 已显式设置的属性不会被覆盖; 如果属性可能已被读取, 则记录警告.
+     */
+    private static void enableNoDelay() {
+        String value = System.getProperty(NO_DELAY_PROPERTY);
+        if (value != null) {
+            if (!Boolean.parseBoolean(value)) {
+                logger.warn("The system property {} is set to '{}', TCP_NODELAY will not be enabled.",
+                        NO_DELAY_PROPERTY, value);
+            }
+            return;
+        }
+        System.setProperty(NO_DELAY_PROPERTY, "true");
+        if (httpServerCreated.get()) {
+            logger.warn("An HttpServer has already been created in this process, setting {} may not take effect. " +
+                    "Set it at startup with -D{}=true instead.", NO_DELAY_PROPERTY, NO_DELAY_PROPERTY);
+        }
+    }
+
+    /**
+     * 创建服务端构建器.
+     *
+     * @param executor 执行请求的执行器.
+     * @return 返回服务端构建器.
+     */
+    public static Builder builder(JsonRpcExecutor executor) {
+        return new Builder(executor);
+    }
+
+    /**
+     * 启动服务端.
+     *
+     * @throws IllegalStateException 当服务端已经启动过时抛出.
+     */
+    public void start() {
+        if (!started.compareAndSet(false, true)) {
+            throw new IllegalStateException("The server has already been started.");
+        }
+        server.start();
+        logger.info("JsonRpc HTTP server started on {}.", getLocalAddress());
+    }
+
+    /**
+     * 获取服务端实际绑定的地址.
+     *
+     * @return 返回绑定的地址.
+     */
+    public InetSocketAddress getLocalAddress() {
+        return server.getAddress();
+    }
+
+    /**
+     * 停止服务端.
+     * <p>
+     * 将等待正在处理的请求完成, 最长等待时间由 {@link Builder#stopDelay(int)} 指定.
+     * 如果处理请求的线程池由服务端创建, 也将一并关闭.
+     */
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        if (started.get()) {
+            server.stop(stopDelaySeconds);
+        } else {
+            server.stop(0);
+        }
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdown();
+        }
+        logger.info("JsonRpc HTTP server stopped.");
+    }
+
+    /**
+     * {@link HttpJsonRpcServer} 构建器.
+     */
+    public static final class Builder {
+
+        private final JsonRpcExecutor executor;
+        private InetSocketAddress bindAddress = new InetSocketAddress(0);
+        private String path = "/";
+        private int backlog = 0;
+        private Executor httpExecutor;
+        private int workerThreads = Runtime.getRuntime().availableProcessors();
+        private Executor batchExecutor = ForkJoinPool.commonPool();
+        private int stopDelaySeconds = 1;
+        private boolean noDelay = false;
+
+        private Builder(JsonRpcExecutor executor) {
+            this.executor = Objects.requireNonNull(executor);
+        }
+
+        /**
+         * 设置绑定地址, 默认绑定所有地址的随机端口.
+         */
+        public Builder bind(InetSocketAddress bindAddress) {
+            this.bindAddress = Objects.requireNonNull(bindAddress);
+            return this;
+        }
+
+        /**
+         * 设置 JsonRpc 端点的路径, 默认为 "/".
+         */
+        public Builder path(String path) {
+            if (!Objects.requireNonNull(path).startsWith("/")) {
+                throw new IllegalArgumentException("The path must start with '/'.");
+            }
+            this.path = path;
+            return this;
+        }
+
+        /**
+         * 设置连接等待队列长度, 0 表示使用系统默认值.
+         */
+        public Builder backlog(int backlog) {
+            this.backlog = backlog;
+            return this;
+        }
+
+        /**
+         * 设置处理 HTTP 请求的执行器.
+         * <p>
+         * 由调用方提供的执行器不会在服务端关闭时关闭. 如果没有设置, 服务端将创建一个固定大小的线程池.
+         */
+        public Builder executor(Executor httpExecutor) {
+            this.httpExecutor = Objects.requireNonNull(httpExecutor);
+            return this;
+        }
+
+        /**
+         * 设置服务端自行创建的线程池大小, 默认为处理器数量.
+         */
+        public Builder workerThreads(int workerThreads) {
+            if (workerThreads <= 0) {
+                throw new IllegalArgumentException("workerThreads must be greater than 0.");
+            }
+            this.workerThreads = workerThreads;
+            return this;
+        }
+
+        /**
+         * 设置并行执行批量请求元素的执行器, 默认为 {@link ForkJoinPool#commonPool()}.
+         *
+         * @see JsonRpcExecutor#executeBatch(com.google.gson.JsonArray, Executor)
+         */
+        public Builder batchExecutor(Executor batchExecutor) {
+            this.batchExecutor = Objects.requireNonNull(batchExecutor);
+            return this;
+        }
+
+        /**
+         * 设置关闭服务端时等待正在处理的请求的最长时间 (秒), 默认为 1 秒.
+         */
+        public Builder stopDelay(int seconds) {
+            if (seconds < 0) {
+                throw new IllegalArgumentException("seconds cannot be negative.");
+            }
+            this.stopDelaySeconds = seconds;
+            return this;
+        }
+
+        /**
+         * 设置是否在构建服务端时将系统属性 {@value HttpJsonRpcServer#NO_DELAY_PROPERTY} 设为 true, 默认不设置.
+         * <p>
+         * 该属性对同一进程中的所有 HttpServer 生效, 并且只在进程中首次创建 HttpServer 时读取,
+         * 因此只有在此之前构建的服务端才能使其生效, 否则将记录警告. 已显式设置的属性不会被覆盖.
+         */
+        public Builder noDelay(boolean noDelay) {
+            this.noDelay = noDelay;
+            return this;
+        }
+
+        /**
+         * 构建服务端并绑定地址, 构建后需要调用 {@link HttpJsonRpcServer#start()} 启动.
+         *
+         * @return 返回服务端.
+         * @throws IOException 当无法绑定地址时抛出.
+         */
+        public HttpJsonRpcServer build() throws IOException {
+            return new HttpJsonRpcServer(this);
+        }
+    }
+
+}
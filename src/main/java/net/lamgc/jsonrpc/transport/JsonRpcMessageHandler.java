@@ -0,0 +1,207 @@
+package net.lamgc.jsonrpc.transport;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonWriter;
+import net.lamgc.jsonrpc.JsonRpcErrors;
+import net.lamgc.jsonrpc.JsonRpcExecutor;
+import net.lamgc.jsonrpc.JsonRpcRequest;
+import net.lamgc.jsonrpc.JsonRpcResponse;
+import net.lamgc.jsonrpc.JsonRpcUtils;
+import net.lamgc.jsonrpc.codec.JsonCodec;
+import net.lamgc.jsonrpc.codec.JsonRpcCodec;
+import net.lamgc.jsonrpc.serializer.json.JsonRpcResponseWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PushbackReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+
+/**
+ * 处理单个 JsonRpc 报文 (单个请求或批量请求), 供各个服务端共用.
+ */
+final class JsonRpcMessageHandler {
+
+    private final static Logger logger = LoggerFactory.getLogger(JsonRpcMessageHandler.class);
+
+    private final static Gson gson = JsonRpcUtils.createGsonForJsonRpc();
+
+    private final static JsonRpcResponseWriter responseWriter = new JsonRpcResponseWriter(gson);
+
+    private final JsonRpcExecutor executor;
+    private final Executor batchExecutor;
+
+    JsonRpcMessageHandler(JsonRpcExecutor executor, Executor batchExecutor) {
+        this.executor = Objects.requireNonNull(executor);
+        this.batchExecutor = Objects.requireNonNull(batchExecutor);
+    }
+
+    /**
+     * 读取并处理一个报文, 并将响应写入字节流.
+     * <p>
+     * 对于 JSON 编码格式, 单个请求将直接从字节流中解码, 读取完报文后即可确定是否为通知,
+     * 响应将通过 {@link JsonRpcExecutor#handle(Reader, JsonWriter)} 直接写入字节流;
+     * 其他编码格式需要先将报文解码为 {@link JsonElement}.
+     * 批量请求需要先解析为数组, 再通过 {@link JsonRpcExecutor#executeBatch(JsonArray, Executor)} 并行执行.
+     * <p>
+     * 只有在需要写回响应时才会向 out 写出数据, 因此调用方可以在首次写出时再发送响应头.
+     *
+     * @param in    报文字节流, 该方法不会关闭字节流.
+     * @param codec 报文的编码格式, 响应也将使用该编码格式.
+     * @param out   写出响应的字节流, 写出后将刷新但不会关闭.
+     * @return 如果写出了响应, 则返回 true; 如果报文是通知或全部由通知组成的批量请求, 则不写出任何内容并返回 false.
+     * @throws IOException 当读取或写出失败时抛出.
+     */
+    boolean handle(InputStream in, JsonRpcCodec codec, OutputStream out) throws IOException {
+        if (codec instanceof JsonCodec) {
+            return handle(new InputStreamReader(in, StandardCharsets.UTF_8), out);
+        }
+        return write(decode(in, codec), out);
+    }
+
+    private static boolean write(Reply reply, OutputStream out) throws IOException {
+        if (reply == null) {
+            return false;
+        }
+        reply.write(out);
+        return true;
+    }
+
+    private Reply decode(InputStream in, JsonRpcCodec codec) throws IOException {
+        JsonElement message;
+        try {
+            message = codec.decode(in);
+        } catch (JsonParseException e) {
+            logger.error("Failed to decode the request with {}.", codec.getName(), e);
+            return new Reply(Collections.singletonList(failure(JsonRpcErrors.PARSE_ERROR, e)), false, codec);
+        }
+        if (message.isJsonArray()) {
+            return handleBatch(message.getAsJsonArray(), codec);
+        }
+
+        JsonRpcRequest request;
+        try {
+            request = gson.fromJson(message, JsonRpcRequest.class);
+        } catch (JsonParseException | IllegalStateException e) {
+            logger.error("Invalid request: " + message, e);
+            return new Reply(Collections.singletonList(failure(JsonRpcErrors.INVALID_REQUEST, e)), false, codec);
+        }
+        JsonRpcResponse response = executor.handle(request);
+        return response == null ? null : new Reply(Collections.singletonList(response), false, codec);
+    }
+
+    /**
+     * 读取并处理一个 JSON 报文, 返回值与 {@link #handle(InputStream, JsonRpcCodec, OutputStream)} 相同.
+     */
+    private boolean handle(Reader reader, OutputStream out) throws IOException {
+        PushbackReader pushbackReader = new PushbackReader(reader, 1);
+        int first;
+        do {
+            first = pushbackReader.read();
+        } while (first == ' ' || first == '\t' || first == '\r' || first == '\n');
+        if (first != -1) {
+            pushbackReader.unread(first);
+        }
+
+        if (first != '[') {
+            JsonWriter writer = gson.newJsonWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            if (!executor.handle(pushbackReader, writer)) {
+                return false;
+            }
+            writer.flush();
+            return true;
+        }
+
+        JsonElement batch;
+        try {
+            batch = JsonParser.parseReader(pushbackReader);
+        } catch (JsonParseException e) {
+            logger.error("Failed to parse the batch request.", e);
+            return write(new Reply(Collections.singletonList(failure(JsonRpcErrors.PARSE_ERROR, e)), false, null), out);
+        }
+        return write(handleBatch(batch.getAsJsonArray(), null), out);
+    }
+
+    private Reply handleBatch(JsonArray batch, JsonRpcCodec codec) {
+        List<JsonRpcResponse> responses = executor.executeBatch(batch, batchExecutor);
+        if (responses.isEmpty()) {
+            return null;
+        }
+        // 空的批量请求只会得到一个错误响应, 按照规范, 该响应不应包装为数组.
+        return new Reply(responses, batch.size() != 0, codec);
+    }
+
+    /**
+     * 构造一个 id 为 null 的错误响应.
+     */
+    static JsonRpcResponse failure(JsonRpcErrors error, Throwable cause) {
+        return new JsonRpcResponse(error.toRpcError(JsonRpcUtils.exceptionToJsonObject(cause, false, false)),
+                JsonNull.INSTANCE);
+    }
+
+    /**
+     * 需要写回的响应.
+     */
+    static final class Reply {
+
+        private final List<JsonRpcResponse> responses;
+        private final boolean batch;
+        private final JsonRpcCodec codec;
+
+        /**
+         * @param codec 响应的编码格式, 为 null 时使用 JSON.
+         */
+        Reply(List<JsonRpcResponse> responses, boolean batch, JsonRpcCodec codec) {
+            this.responses = responses;
+            this.batch = batch;
+            this.codec = codec instanceof JsonCodec ? null : codec;
+        }
+
+        /**
+         * 将响应编码后写入字节流.
+         *
+         * @param out 目标字节流, 写出后将刷新但不会关闭.
+         * @throws IOException 当写出失败时抛出.
+         */
+        void write(OutputStream out) throws IOException {
+            if (codec != null) {
+                JsonElement message;
+                if (batch) {
+                    JsonArray array = new JsonArray(responses.size());
+                    for (JsonRpcResponse response : responses) {
+                        array.add(gson.toJsonTree(response, JsonRpcResponse.class));
+                    }
+                    message = array;
+                } else {
+                    message = gson.toJsonTree(responses.get(0), JsonRpcResponse.class);
+                }
+                codec.encode(message, out);
+            } else if (!batch) {
+                responseWriter.write(responses.get(0), out);
+            } else {
+                JsonWriter writer = gson.newJsonWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+                writer.beginArray();
+                for (JsonRpcResponse response : responses) {
+                    responseWriter.write(response, writer);
+                }
+                writer.endArray();
+                writer.flush();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,589 @@
+package net.lamgc.jsonrpc.transport;
+
+import net.lamgc.jsonrpc.JsonRpcErrors;
+import net.lamgc.jsonrpc.JsonRpcExecutor;
+import net.lamgc.jsonrpc.codec.JsonRpcCodec;
+import net.lamgc.jsonrpc.codec.JsonRpcCodecs;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 基于 NIO 的 JsonRpc TCP 服务端.
+ * <p>
+ * 服务端使用一个 I/O 线程通过 {@link Selector} 处理全部连接的读写, 读取到的报文按 {@link FrameFormat} 拆分后,
+ * 交由工作线程池通过 {@link JsonRpcExecutor} 执行. 同一连接上的请求可以并行执行,
+ * 响应将在各自执行完成后立即写回, 因此响应的顺序可能与请求顺序不同 (客户端需要通过 id 对应响应).
+ * <p>
+ * 报文可以是单个请求对象, 也可以是批量请求数组; 通知不会产生响应.
+ * 报文默认使用 JSON 编码, 也可以通过 {@link Builder#codec(JsonRpcCodec)} 指定其他编码格式 (客户端需要使用相同的编码格式).
+ * <p>
+ * 每个连接拥有独立的写队列. 当某个连接尚未写出的响应超过写缓冲高水位,
+ * 或正在执行的请求数量达到上限时 (例如客户端停止读取响应), 服务端将暂停读取该连接,
+ * 直到待写出数据低于低水位且正在执行的请求数量回落后再恢复读取.
+ */
+public final class NioJsonRpcServer implements Closeable {
+
+    private final static Logger logger = LoggerFactory.getLogger(NioJsonRpcServer.class);
+
+    private final static AtomicInteger serverCounter = new AtomicInteger();
+
+    private final JsonRpcMessageHandler messageHandler;
+    private final SocketAddress bindAddress;
+    private final FrameFormat frameFormat;
+    private final JsonRpcCodec codec;
+    private final ExecutorService workerExecutor;
+    private final boolean ownsWorkerExecutor;
+    private final int maxFrameSize;
+    private final long writeLowWaterMark;
+    private final long writeHighWaterMark;
+    private final int maxInFlightRequests;
+    private final ByteBufferPool bufferPool;
+
+    private final Set<Connection> connections = ConcurrentHashMap.newKeySet();
+    private final Queue<Connection> pendingUpdates = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean started = new AtomicBoolean(false);
+
+    private volatile boolean running = false;
+    private Selector selector;
+    private ServerSocketChannel serverChannel;
+    private Thread ioThread;
+
+    private NioJsonRpcServer(Builder builder) {
+        this.bindAddress = builder.bindAddress;
+        this.frameFormat = builder.frameFormat;
+        this.codec = builder.codec;
+        if (builder.workerExecutor != null) {
+            this.workerExecutor = builder.workerExecutor;
+            this.ownsWorkerExecutor = false;
+        } else {
+            this.workerExecutor = Executors.newFixedThreadPool(builder.workerThreads,
+                    new NamedThreadFactory("jsonrpc-nio-worker-" + serverCounter.incrementAndGet()));
+            this.ownsWorkerExecutor = true;
+        }
+        this.messageHandler = new JsonRpcMessageHandler(builder.executor, builder.batchExecutor);
+        this.maxFrameSize = builder.maxFrameSize;
+        this.writeLowWaterMark = builder.writeLowWaterMark;
+        this.writeHighWaterMark = builder.writeHighWaterMark;
+        this.maxInFlightRequests = builder.maxInFlightRequests;
+        this.bufferPool = new ByteBufferPool(builder.readBufferSize, builder.maxPooledBuffers, true);
+    }
+
+    /**
+     * 创建服务端构建器.
+     *
+     * @param executor 执行请求的执行器.
+     * @return 返回服务端构建器.
+     */
+    public static Builder builder(JsonRpcExecutor executor) {
+        return new Builder(executor);
+    }
+
+    /**
+     * 绑定地址并启动 I/O 线程.
+     *
+     * @throws IOException           当无法绑定地址时抛出.
+     * @throws IllegalStateException 当服务端已经启动过时抛出.
+     */
+    public void start() throws IOException {
+        if (!started.compareAndSet(false, true)) {
+            throw new IllegalStateException("The server has already been started.");
+        }
+        selector = Selector.open();
+        try {
+            serverChannel = ServerSocketChannel.open();
+            serverChannel.configureBlocking(false);
+            serverChannel.bind(bindAddress);
+            serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            selector.close();
+            if (serverChannel != null) {
+                serverChannel.close();
+            }
+            throw e;
+        }
+        running = true;
+        ioThread = new Thread(this::runLoop, "jsonrpc-nio-io-" + serverCounter.incrementAndGet());
+        ioThread.start();
+        logger.info("JsonRpc NIO server started on {}.", getLocalAddress());
+    }
+
+    /**
+     * 获取服务端实际绑定的地址.
+     *
+     * @return 返回绑定的地址, 如果服务端尚未启动, 则返回 null.
+     */
+    public InetSocketAddress getLocalAddress() {
+        try {
+            return serverChannel == null ? null : (InetSocketAddress) serverChannel.getLocalAddress();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 获取当前连接数.
+     *
+     * @return 返回当前连接数.
+     */
+    public int getConnectionCount() {
+        return connections.size();
+    }
+
+    /**
+     * 停止服务端并关闭所有连接.
+     * <p>
+     * 如果工作线程池由服务端创建, 也将一并关闭; 尚未写出的响应将被丢弃.
+     */
+    @Override
+    public void close() throws IOException {
+        if (!started.get() || !running) {
+            shutdownWorkers();
+            return;
+        }
+        running = false;
+        selector.wakeup();
+        try {
+            ioThread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        shutdownWorkers();
+        logger.info("JsonRpc NIO server stopped.");
+    }
+
+    private void shutdownWorkers() {
+        if (ownsWorkerExecutor) {
+            workerExecutor.shutdown();
+        }
+    }
+
+    private void runLoop() {
+        List<byte[]> frames = new ArrayList<>();
+        try {
+            while (running) {
+                selector.select();
+                processPendingUpdates();
+                Iterator<SelectionKey> iterator = selector.selectedKeys().iterator();
+                while (iterator.hasNext()) {
+                    SelectionKey key = iterator.next();
+                    iterator.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    try {
+                        if (key.isAcceptable()) {
+                            accept();
+                            continue;
+                        }
+                        Connection connection = (Connection) key.attachment();
+                        if (key.isWritable()) {
+                            flush(connection);
+                        }
+                        if (key.isValid() && key.isReadable()) {
+                            read(connection, frames);
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        Object attachment = key.attachment();
+                        if (attachment instanceof Connection) {
+                            logger.debug("Connection error, closing: {}", attachment, e);
+                            ((Connection) attachment).close();
+                        } else {
+                            logger.error("An exception occurred while accepting a connection.", e);
+                        }
+                    }
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.error("The I/O loop of the JsonRpc NIO server terminated unexpectedly.", e);
+        } finally {
+            running = false;
+            for (Connection connection : connections) {
+                connection.close();
+            }
+            try {
+                serverChannel.close();
+                selector.close();
+            } catch (IOException e) {
+                logger.warn("Failed to close the server channel.", e);
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        Connection connection = new Connection(channel);
+        connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+        connections.add(connection);
+        logger.debug("Connection accepted: {}", connection);
+    }
+
+    private void read(Connection connection, List<byte[]> frames) throws IOException {
+        ByteBuffer buffer = bufferPool.acquire();
+        try {
+            int read = connection.channel.read(buffer);
+            if (read < 0) {
+                logger.debug("Connection closed by peer: {}", connection);
+                connection.close();
+                return;
+            }
+            buffer.flip();
+            connection.decoder.decode(buffer, frames);
+        } finally {
+            bufferPool.release(buffer);
+        }
+
+        for (byte[] frame : frames) {
+            dispatch(connection, frame);
+        }
+        frames.clear();
+        updateInterest(connection);
+    }
+
+    private void dispatch(Connection connection, byte[] frame) {
+        connection.inFlight.incrementAndGet();
+        try {
+            workerExecutor.execute(() -> {
+                try {
+                    ByteBuffer response = process(frame);
+                    if (response != null) {
+                        connection.enqueue(response);
+                    }
+                } catch (Throwable e) {
+                    logger.error("An exception occurred while processing the request.", e);
+                    // 客户端可能在同一连接上流水线发送了多个请求, 必须写回响应, 否则客户端只能等待超时.
+                    connection.enqueue(failure(e));
+                } finally {
+                    connection.inFlight.decrementAndGet();
+                    requestUpdate(connection);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            connection.inFlight.decrementAndGet();
+            logger.warn("The worker executor rejected the request from {}.", connection);
+            connection.enqueue(failure(e));
+            requestUpdate(connection);
+        }
+    }
+
+    /**
+     * 处理一个报文帧.
+     *
+     * @return 返回响应帧, 如果不需要响应 (报文是通知, 或批量请求全部为通知), 则返回 null.
+     */
+    private ByteBuffer process(byte[] frame) throws IOException {
+        FrameBuffer response = new FrameBuffer(frameFormat);
+        if (!messageHandler.handle(new ByteArrayInputStream(frame), codec, response)) {
+            return null;
+        }
+        return response.toByteBuffer();
+    }
+
+    /**
+     * 构造一个 id 为 null 的内部错误响应帧.
+     */
+    private ByteBuffer failure(Throwable cause) {
+        FrameBuffer response = new FrameBuffer(frameFormat);
+        try {
+            new JsonRpcMessageHandler.Reply(Collections.singletonList(
+                    JsonRpcMessageHandler.failure(JsonRpcErrors.INTERNAL_ERROR, cause)), false, codec).write(response);
+        } catch (IOException e) {
+            // 写入内存缓冲区不会出现 IOException.
+            throw new IllegalStateException(e);
+        }
+        return response.toByteBuffer();
+    }
+
+    /**
+     * 请求 I/O 线程更新连接状态 (写出响应, 或根据背压状态恢复读取).
+     */
+    private void requestUpdate(Connection connection) {
+        if (connection.updateScheduled.compareAndSet(false, true)) {
+            pendingUpdates.offer(connection);
+            selector.wakeup();
+        }
+    }
+
+    private void processPendingUpdates() {
+        Connection connection;
+        while ((connection = pendingUpdates.poll()) != null) {
+            connection.updateScheduled.set(false);
+            if (!connection.isOpen()) {
+                continue;
+            }
+            try {
+                flush(connection);
+            } catch (IOException e) {
+                logger.debug("Failed to write to connection, closing: {}", connection, e);
+                connection.close();
+            }
+        }
+    }
+
+    private void flush(Connection connection) throws IOException {
+        ByteBuffer buffer;
+        while ((buffer = connection.writeQueue.peek()) != null) {
+            int written = connection.channel.write(buffer);
+            connection.pendingBytes.addAndGet(-written);
+            if (buffer.hasRemaining()) {
+                break;
+            }
+            connection.writeQueue.poll();
+        }
+        updateInterest(connection);
+    }
+
+    /**
+     * 根据写队列和背压状态更新连接关注的事件, 只能在 I/O 线程中调用.
+     */
+    private void updateInterest(Connection connection) {
+        if (!connection.key.isValid()) {
+            return;
+        }
+        long pendingBytes = connection.pendingBytes.get();
+        int inFlight = connection.inFlight.get();
+        if (connection.readPaused) {
+            if (pendingBytes <= writeLowWaterMark && inFlight < maxInFlightRequests) {
+                connection.readPaused = false;
+                logger.debug("Resume reading from {}.", connection);
+            }
+        } else if (pendingBytes > writeHighWaterMark || inFlight >= maxInFlightRequests) {
+            connection.readPaused = true;
+            logger.debug("Pause reading from {} (pending bytes: {}, in-flight requests: {}).",
+                    connection, pendingBytes, inFlight);
+        }
+
+        int ops = connection.readPaused ? 0 : SelectionKey.OP_READ;
+        if (!connection.writeQueue.isEmpty()) {
+            ops |= SelectionKey.OP_WRITE;
+        }
+        if (connection.key.interestOps() != ops) {
+            connection.key.interestOps(ops);
+        }
+    }
+
+    private final class Connection {
+
+        private final SocketChannel channel;
+        private final FrameDecoder decoder = new FrameDecoder(frameFormat, maxFrameSize);
+        private final Queue<ByteBuffer> writeQueue = new ConcurrentLinkedQueue<>();
+        private final AtomicLong pendingBytes = new AtomicLong();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicBoolean updateScheduled = new AtomicBoolean(false);
+        private final String remoteAddress;
+        private SelectionKey key;
+        private boolean readPaused = false;
+
+        private Connection(SocketChannel channel) throws IOException {
+            this.channel = channel;
+            this.remoteAddress = String.valueOf(channel.getRemoteAddress());
+        }
+
+        private void enqueue(ByteBuffer buffer) {
+            if (!isOpen()) {
+                return;
+            }
+            pendingBytes.addAndGet(buffer.remaining());
+            writeQueue.offer(buffer);
+        }
+
+        private boolean isOpen() {
+            return channel.isOpen();
+        }
+
+        private void close() {
+            connections.remove(this);
+            writeQueue.clear();
+            if (key != null) {
+                key.cancel();
+            }
+            try {
+                channel.close();
+            } catch (IOException e) {
+                logger.debug("Failed to close the connection: {}", this, e);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "Connection{" + remoteAddress + '}';
+        }
+    }
+
+    /**
+     * {@link NioJsonRpcServer} 构建器.
+     */
+    public static final class Builder {
+
+        private final JsonRpcExecutor executor;
+        private SocketAddress bindAddress = new InetSocketAddress(0);
+        private FrameFormat frameFormat = FrameFormat.NEWLINE_DELIMITED;
+        private JsonRpcCodec codec = JsonRpcCodecs.JSON;
+        private ExecutorService workerExecutor;
+        private int workerThreads = Runtime.getRuntime().availableProcessors();
+        private Executor batchExecutor = ForkJoinPool.commonPool();
+        private int maxFrameSize = 16 * 1024 * 1024;
+        private int readBufferSize = 16 * 1024;
+        private int maxPooledBuffers = 64;
+        private long writeLowWaterMark = 256 * 1024;
+        private long writeHighWaterMark = 1024 * 1024;
+        private int maxInFlightRequests = 1024;
+
+        private Builder(JsonRpcExecutor executor) {
+            this.executor = Objects.requireNonNull(executor);
+        }
+
+        /**
+         * 设置绑定地址, 默认绑定所有地址的随机端口.
+         */
+        public Builder bind(SocketAddress bindAddress) {
+            this.bindAddress = Objects.requireNonNull(bindAddress);
+            return this;
+        }
+
+        /**
+         * 设置报文分帧格式, 默认为 {@link FrameFormat#NEWLINE_DELIMITED}.
+         */
+        public Builder frameFormat(FrameFormat frameFormat) {
+            this.frameFormat = Objects.requireNonNull(frameFormat);
+            return this;
+        }
+
+        /**
+         * 设置报文的编码格式, 默认为 {@link JsonRpcCodecs#JSON}.
+         * <p>
+         * 二进制编码格式只能配合 {@link FrameFormat#LENGTH_PREFIXED} 使用.
+         */
+        public Builder codec(JsonRpcCodec codec) {
+            this.codec = Objects.requireNonNull(codec);
+            return this;
+        }
+
+        /**
+         * 设置执行请求的工作线程池.
+         * <p>
+         * 由调用方提供的线程池不会在服务端关闭时关闭. 如果没有设置, 服务端将创建一个固定大小的线程池.
+         */
+        public Builder workerExecutor(ExecutorService workerExecutor) {
+            this.workerExecutor = Objects.requireNonNull(workerExecutor);
+            return this;
+        }
+
+        /**
+         * 设置服务端自行创建的工作线程池大小, 默认为处理器数量.
+         */
+        public Builder workerThreads(int workerThreads) {
+            if (workerThreads <= 0) {
+                throw new IllegalArgumentException("workerThreads must be greater than 0.");
+            }
+            this.workerThreads = workerThreads;
+            return this;
+        }
+
+        /**
+         * 设置并行执行批量请求元素的执行器, 默认为 {@link ForkJoinPool#commonPool()}.
+         *
+         * @see JsonRpcExecutor#executeBatch(com.google.gson.JsonArray, Executor)
+         */
+        public Builder batchExecutor(Executor batchExecutor) {
+            this.batchExecutor = Objects.requireNonNull(batchExecutor);
+            return this;
+        }
+
+        /**
+         * 设置单个报文的最大字节数, 默认为 16 MiB; 超出限制的连接将被关闭.
+         */
+        public Builder maxFrameSize(int maxFrameSize) {
+            if (maxFrameSize <= 0) {
+                throw new IllegalArgumentException("maxFrameSize must be greater than 0.");
+            }
+            this.maxFrameSize = maxFrameSize;
+            return this;
+        }
+
+        /**
+         * 设置读缓冲区大小和池中最多保留的缓冲区数量, 默认为 16 KiB 和 64 个.
+         */
+        public Builder readBuffer(int readBufferSize, int maxPooledBuffers) {
+            if (readBufferSize <= 0) {
+                throw new IllegalArgumentException("readBufferSize must be greater than 0.");
+            } else if (maxPooledBuffers < 0) {
+                throw new IllegalArgumentException("maxPooledBuffers cannot be negative.");
+            }
+            this.readBufferSize = readBufferSize;
+            this.maxPooledBuffers = maxPooledBuffers;
+            return this;
+        }
+
+        /**
+         * 设置每个连接的写缓冲水位, 默认为 256 KiB 和 1 MiB.
+         * <p>
+         * 当连接尚未写出的数据超过高水位时暂停读取该连接, 低于低水位后恢复读取.
+         */
+        public Builder writeBufferWaterMark(long low, long high) {
+            if (low < 0 || high < low) {
+                throw new IllegalArgumentException("Invalid water mark: low=" + low + ", high=" + high);
+            }
+            this.writeLowWaterMark = low;
+            this.writeHighWaterMark = high;
+            return this;
+        }
+
+        /**
+         * 设置每个连接同时执行的最大请求数, 默认为 1024; 达到上限后暂停读取该连接.
+         */
+        public Builder maxInFlightRequests(int maxInFlightRequests) {
+            if (maxInFlightRequests <= 0) {
+                throw new IllegalArgumentException("maxInFlightRequests must be greater than 0.");
+            }
+            this.maxInFlightRequests = maxInFlightRequests;
+            return this;
+        }
+
+        /**
+         * 构建服务端, 构建后需要调用 {@link NioJsonRpcServer#start()} 启动.
+         *
+         * @return 返回服务端.
+         * @throws IllegalStateException 当二进制编码格式与 {@link FrameFormat#NEWLINE_DELIMITED} 一同使用时抛出.
+         */
+        public NioJsonRpcServer build() {
+            frameFormat.checkCodec(codec);
+            return new NioJsonRpcServer(this);
+        }
+    }
+
+}
@@ -0,0 +1,476 @@
+package net.lamgc.jsonrpc.transport;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.stream.JsonWriter;
+import net.lamgc.jsonrpc.AsyncJsonRpcRequestTransporter;
+import net.lamgc.jsonrpc.JsonRpcBatchRequestTransporter;
+import net.lamgc.jsonrpc.JsonRpcRequest;
+import net.lamgc.jsonrpc.JsonRpcResponse;
+import net.lamgc.jsonrpc.JsonRpcUtils;
+import net.lamgc.jsonrpc.codec.JsonRpcCodec;
+import net.lamgc.jsonrpc.codec.JsonRpcCodecs;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.net.SocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 基于单个 TCP 长连接的流水线请求传输器.
+ * <p>
+ * 所有请求共用一个连接, 发出请求后无需等待响应即可发出下一个请求, 服务端可以按任意顺序返回响应
+ * (例如 {@link NioJsonRpcServer}). 传输器会将请求的 id 替换为连接内单调递增的 id,
+ * 并在收到响应后通过 id 找到对应的请求, 再以原请求的 id 构造响应; 因此调用方使用的 id 无需唯一.
+ * <p>
+ * 超过请求超时时间仍未收到响应的请求将以 {@link TimeoutException} 异常完成, 被调用方取消的请求也会被清理.
+ * 连接断开后, 所有等待中的请求将以 {@link IOException} 异常完成, 传输器不会自动重连.
+ * <p>
+ * 报文的编码格式可以通过 {@link Builder#codec(JsonRpcCodec)} 指定, 需要与服务端一致.
+ * <p>
+ * 传输器同时实现了 {@link JsonRpcBatchRequestTransporter}, 可以配合
+ * {@link net.lamgc.jsonrpc.BatchingJsonRpcRequestTransporter} 将同时发起的请求合并为批量请求.
+ */
+public final class PipelinedJsonRpcRequestTransporter
+        implements AsyncJsonRpcRequestTransporter, JsonRpcBatchRequestTransporter, Closeable {
+
+    private final static Logger logger = LoggerFactory.getLogger(PipelinedJsonRpcRequestTransporter.class);
+
+    private final static AtomicInteger transporterCounter = new AtomicInteger();
+
+    private final static ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "jsonrpc-pipelined-timeout-sweeper");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final SocketChannel channel;
+    private final FrameFormat frameFormat;
+    private final JsonRpcCodec codec;
+    private final int maxFrameSize;
+    private final long requestTimeoutNanos;
+    private final Gson gson;
+
+    private final Map<Long, PendingRequest> pendingRequests = new ConcurrentHashMap<>();
+    private final AtomicLong idGenerator = new AtomicLong();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final Thread readerThread;
+    private final ScheduledFuture<?> sweepTask;
+
+    private volatile IOException closeCause;
+
+    private PipelinedJsonRpcRequestTransporter(SocketChannel channel, Builder builder) {
+        this.channel = channel;
+        this.frameFormat = builder.frameFormat;
+        this.codec = builder.codec;
+        this.maxFrameSize = builder.maxFrameSize;
+        this.requestTimeoutNanos = builder.requestTimeoutNanos;
+        this.gson = builder.gson;
+
+        long sweepInterval = Math.max(TimeUnit.MILLISECONDS.toNanos(10),
+                Math.min(requestTimeoutNanos / 4, TimeUnit.SECONDS.toNanos(1)));
+        this.sweepTask = sweeper.scheduleWithFixedDelay(this::sweep, sweepInterval, sweepInterval, TimeUnit.NANOSECONDS);
+        this.readerThread = new Thread(this::readLoop,
+                "jsonrpc-pipelined-reader-" + transporterCounter.incrementAndGet());
+        this.readerThread.setDaemon(true);
+        this.readerThread.start();
+    }
+
+    /**
+     * 创建传输器构建器.
+     *
+     * @param address 服务端地址.
+     * @return 返回传输器构建器.
+     */
+    public static Builder builder(SocketAddress address) {
+        return new Builder(address);
+    }
+
+    @Override
+    public CompletableFuture<JsonRpcResponse> transportRequestAsync(JsonRpcRequest request) {
+        Objects.requireNonNull(request);
+        return transport(Collections.singletonList(request), false).get(0);
+    }
+
+    /**
+     * 将多个请求作为一个批量请求发出.
+     * <p>
+     * 批量请求中的每个请求与单独发出的请求一样按 id 对应响应和计算超时, 全部请求完成后返回的 CompletableFuture 才会完成;
+     * 任意一个请求失败或超时, 返回的 CompletableFuture 都将异常完成.
+     */
+    @Override
+    public CompletableFuture<List<JsonRpcResponse>> transportBatchAsync(List<JsonRpcRequest> requests) {
+        if (requests.isEmpty()) {
+            return CompletableFuture.completedFuture(Collections.emptyList());
+        }
+        List<CompletableFuture<JsonRpcResponse>> futures = transport(requests, true);
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).thenApply(ignored -> {
+            List<JsonRpcResponse> responses = new ArrayList<>(futures.size());
+            for (CompletableFuture<JsonRpcResponse> future : futures) {
+                JsonRpcResponse response = future.join();
+                if (response != null) {
+                    responses.add(response);
+                }
+            }
+            return responses;
+        });
+    }
+
+    /**
+     * 登记并发出请求.
+     *
+     * @param requests 需要发出的请求.
+     * @param batch    是否以批量请求的形式发出.
+     * @return 返回与请求一一对应的 CompletableFuture, 通知对应的 CompletableFuture 将在发出后以 null 完成.
+     */
+    private List<CompletableFuture<JsonRpcResponse>> transport(List<JsonRpcRequest> requests, boolean batch) {
+        List<CompletableFuture<JsonRpcResponse>> futures = new ArrayList<>(requests.size());
+        IOException cause = closeCause;
+        if (cause != null) {
+            for (int i = 0; i < requests.size(); i++) {
+                futures.add(CompletableFuture.failedFuture(cause));
+            }
+            return futures;
+        }
+
+        long deadline = System.nanoTime() + requestTimeoutNanos;
+        long[] ids = new long[requests.size()];
+        PendingRequest[] pendings = new PendingRequest[requests.size()];
+        List<JsonRpcRequest> outgoing = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            JsonRpcRequest request = Objects.requireNonNull(requests.get(i));
+            if (request.getId() == null) {
+                // 通知不会有响应, 写出后即完成.
+                outgoing.add(request);
+                futures.add(new CompletableFuture<>());
+                continue;
+            }
+            ids[i] = idGenerator.incrementAndGet();
+            pendings[i] = new PendingRequest(request.getId(), deadline);
+            // 必须在写出请求前登记, 否则响应可能先于登记到达.
+            pendingRequests.put(ids[i], pendings[i]);
+            outgoing.add(new JsonRpcRequest(request.getMethod(), request.getParams(), new JsonPrimitive(ids[i])));
+            futures.add(pendings[i].future);
+        }
+
+        try {
+            send(outgoing, batch);
+            // 连接在登记后关闭时, 登记的请求可能未被清理.
+            cause = closeCause;
+        } catch (IOException e) {
+            cause = e;
+        }
+        for (int i = 0; i < pendings.length; i++) {
+            if (pendings[i] == null) {
+                if (cause == null) {
+                    futures.get(i).complete(null);
+                } else {
+                    futures.get(i).completeExceptionally(cause);
+                }
+            } else if (cause != null && pendingRequests.remove(ids[i]) != null) {
+                pendings[i].future.completeExceptionally(cause);
+            }
+        }
+        return futures;
+    }
+
+    private void send(List<JsonRpcRequest> requests, boolean batch) throws IOException {
+        FrameBuffer frame = new FrameBuffer(frameFormat);
+        if (codec == JsonRpcCodecs.JSON) {
+            JsonWriter writer = gson.newJsonWriter(new OutputStreamWriter(frame, StandardCharsets.UTF_8));
+            if (batch) {
+                writer.beginArray();
+            }
+            for (JsonRpcRequest request : requests) {
+                gson.toJson(request, JsonRpcRequest.class, writer);
+            }
+            if (batch) {
+                writer.endArray();
+            }
+            writer.flush();
+        } else if (batch) {
+            JsonArray array = new JsonArray(requests.size());
+            for (JsonRpcRequest request : requests) {
+                array.add(gson.toJsonTree(request, JsonRpcRequest.class));
+            }
+            codec.encode(array, frame);
+        } else {
+            codec.encode(gson.toJsonTree(requests.get(0), JsonRpcRequest.class), frame);
+        }
+        ByteBuffer buffer = frame.toByteBuffer();
+
+        writeLock.lock();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            fail(e);
+            throw e;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void readLoop() {
+        FrameDecoder decoder = new FrameDecoder(frameFormat, maxFrameSize);
+        ByteBuffer buffer = ByteBuffer.allocate(16 * 1024);
+        List<byte[]> frames = new ArrayList<>();
+        try {
+            while (true) {
+                buffer.clear();
+                if (channel.read(buffer) < 0) {
+                    throw new IOException("Connection closed by the server.");
+                }
+                buffer.flip();
+                decoder.decode(buffer, frames);
+                for (byte[] frame : frames) {
+                    route(frame);
+                }
+                frames.clear();
+            }
+        } catch (IOException e) {
+            fail(e);
+        } catch (RuntimeException e) {
+            fail(new IOException("An exception occurred while reading responses.", e));
+        }
+    }
+
+    private void route(byte[] frame) {
+        JsonElement element;
+        try {
+            element = codec.decode(new ByteArrayInputStream(frame));
+        } catch (IOException | JsonParseException e) {
+            logger.error("Failed to parse the response frame.", e);
+            return;
+        }
+        if (element.isJsonArray()) {
+            for (JsonElement response : element.getAsJsonArray()) {
+                route(response);
+            }
+        } else {
+            route(element);
+        }
+    }
+
+    private void route(JsonElement element) {
+        JsonRpcResponse response;
+        try {
+            response = gson.fromJson(element, JsonRpcResponse.class);
+        } catch (JsonParseException e) {
+            logger.error("Invalid response: {}", element, e);
+            return;
+        }
+        JsonElement id = response.getId();
+        if (!id.isJsonPrimitive() || !id.getAsJsonPrimitive().isNumber()) {
+            // 服务端无法解析请求时, 响应不包含 id, 无法确定对应的请求.
+            logger.warn("Received a response that cannot be correlated to any request: {}", response);
+            return;
+        }
+        PendingRequest pending = pendingRequests.remove(id.getAsLong());
+        if (pending == null) {
+            logger.debug("Received a response for an expired request: {}", response);
+            return;
+        }
+        pending.future.complete(new JsonRpcResponse(response.getResult(), pending.originalId));
+    }
+
+    /**
+     * 清理超时和已被取消的请求.
+     */
+    private void sweep() {
+        long now = System.nanoTime();
+        for (Map.Entry<Long, PendingRequest> entry : pendingRequests.entrySet()) {
+            PendingRequest pending = entry.getValue();
+            if (pending.future.isDone()) {
+                pendingRequests.remove(entry.getKey(), pending);
+            } else if (now - pending.deadline >= 0 && pendingRequests.remove(entry.getKey(), pending)) {
+                pending.future.completeExceptionally(new TimeoutException("Request " + pending.originalId
+                        + " timed out after " + TimeUnit.NANOSECONDS.toMillis(requestTimeoutNanos) + " ms."));
+            }
+        }
+    }
+
+    private void fail(IOException cause) {
+        synchronized (this) {
+            if (closeCause != null) {
+                return;
+            }
+            closeCause = cause;
+        }
+        logger.debug("Pipelined transporter closed.", cause);
+        sweepTask.cancel(false);
+        try {
+            channel.close();
+        } catch (IOException e) {
+            logger.debug("Failed to close the channel.", e);
+        }
+        for (Long id : pendingRequests.keySet()) {
+            PendingRequest pending = pendingRequests.remove(id);
+            if (pending != null) {
+                pending.future.completeExceptionally(cause);
+            }
+        }
+    }
+
+    /**
+     * 获取等待响应的请求数量.
+     *
+     * @return 返回等待响应的请求数量.
+     */
+    public int getPendingRequestCount() {
+        return pendingRequests.size();
+    }
+
+    /**
+     * 连接是否可用.
+     *
+     * @return 如果连接已关闭或已断开, 返回 false.
+     */
+    public boolean isOpen() {
+        return closeCause == null;
+    }
+
+    /**
+     * 关闭连接, 所有等待中的请求将以 {@link IOException} 异常完成.
+     */
+    @Override
+    public void close() {
+        fail(new IOException("The transporter has been closed."));
+    }
+
+    private static final class PendingRequest {
+
+        private final JsonPrimitive originalId;
+        private final long deadline;
+        private final CompletableFuture<JsonRpcResponse> future = new CompletableFuture<>();
+
+        private PendingRequest(JsonPrimitive originalId, long deadline) {
+            this.originalId = originalId;
+            this.deadline = deadline;
+        }
+    }
+
+    /**
+     * {@link PipelinedJsonRpcRequestTransporter} 构建器.
+     */
+    public static final class Builder {
+
+        private final SocketAddress address;
+        private FrameFormat frameFormat = FrameFormat.NEWLINE_DELIMITED;
+        private JsonRpcCodec codec = JsonRpcCodecs.JSON;
+        private int maxFrameSize = 16 * 1024 * 1024;
+        private long requestTimeoutNanos = TimeUnit.SECONDS.toNanos(30);
+        private int connectTimeoutMillis = 10000;
+        private Gson gson = JsonRpcUtils.createGsonForJsonRpc();
+
+        private Builder(SocketAddress address) {
+            this.address = Objects.requireNonNull(address);
+        }
+
+        /**
+         * 设置报文分帧格式, 需要与服务端一致, 默认为 {@link FrameFormat#NEWLINE_DELIMITED}.
+         */
+        public Builder frameFormat(FrameFormat frameFormat) {
+            this.frameFormat = Objects.requireNonNull(frameFormat);
+            return this;
+        }
+
+        /**
+         * 设置报文的编码格式, 需要与服务端一致, 默认为 {@link JsonRpcCodecs#JSON}.
+         * <p>
+         * 二进制编码格式只能配合 {@link FrameFormat#LENGTH_PREFIXED} 使用.
+         */
+        public Builder codec(JsonRpcCodec codec) {
+            this.codec = Objects.requireNonNull(codec);
+            return this;
+        }
+
+        /**
+         * 设置单个响应报文的最大字节数, 默认为 16 MiB; 超出限制时连接将被关闭.
+         */
+        public Builder maxFrameSize(int maxFrameSize) {
+            if (maxFrameSize <= 0) {
+                throw new IllegalArgumentException("maxFrameSize must be greater than 0.");
+            }
+            this.maxFrameSize = maxFrameSize;
+            return this;
+        }
+
+        /**
+         * 设置请求超时时间, 默认为 30 秒.
+         */
+        public Builder requestTimeout(long timeout, TimeUnit unit) {
+            if (timeout <= 0) {
+                throw new IllegalArgumentException("timeout must be greater than 0.");
+            }
+            this.requestTimeoutNanos = unit.toNanos(timeout);
+            return this;
+        }
+
+        /**
+         * 设置连接超时时间, 默认为 10 秒.
+         */
+        public Builder connectTimeout(long timeout, TimeUnit unit) {
+            if (timeout <= 0) {
+                throw new IllegalArgumentException("timeout must be greater than 0.");
+            }
+            this.connectTimeoutMillis = (int) Math.min(Integer.MAX_VALUE, unit.toMillis(timeout));
+            return this;
+        }
+
+        /**
+         * 设置序列化请求和反序列化响应使用的 Gson, 默认为 {@link JsonRpcUtils#createGsonForJsonRpc()}.
+         */
+        public Builder gson(Gson gson) {
+            this.gson = Objects.requireNonNull(gson);
+            return this;
+        }
+
+        /**
+         * 连接服务端并创建传输器.
+         *
+         * @return 返回已连接的传输器.
+         * @throws IOException           当无法连接服务端时抛出.
+         * @throws IllegalStateException 当二进制编码格式与 {@link FrameFormat#NEWLINE_DELIMITED} 一同使用时抛出.
+         */
+        public PipelinedJsonRpcRequestTransporter connect() throws IOException {
+            frameFormat.checkCodec(codec);
+            SocketChannel channel = SocketChannel.open();
+            try {
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                channel.socket().connect(address, connectTimeoutMillis);
+            } catch (IOException e) {
+                channel.close();
+                throw e;
+            }
+            return new PipelinedJsonRpcRequestTransporter(channel, this);
+        }
+    }
+
+}
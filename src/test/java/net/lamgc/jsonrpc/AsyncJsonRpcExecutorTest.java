@@ -0,0 +1,101 @@
+package net.lamgc.jsonrpc;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonPrimitive;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncJsonRpcExecutorTest {
+
+    @Test
+    void executeAsyncTest() {
+        Gson gson = JsonRpcUtils.createGsonForJsonRpc();
+        AsyncHandler handler = new AsyncHandler();
+        AsyncJsonRpcExecutor executor = new AsyncJsonRpcExecutor(new SimpleJsonRpcExecutor(handler, gson));
+
+        JsonArray params = new JsonArray();
+        params.add("a");
+        params.add(3);
+        CompletableFuture<JsonRpcResponse> future =
+                executor.executeAsync(new JsonRpcRequest("repeat", params, new JsonPrimitive(1)));
+        // 方法的 CompletableFuture 完成前, 响应也不会完成.
+        assertFalse(future.isDone());
+        handler.pending.complete(null);
+        JsonRpcResponse response = future.join();
+        assertFalse(response.isError());
+        assertEquals(gson.toJsonTree(Arrays.asList("a", "a", "a")), response.getResult());
+        assertEquals(new JsonPrimitive(1), response.getId());
+
+        // 同步方法依然可以执行.
+        response = executor.executeAsync(new JsonRpcRequest("sync", null, new JsonPrimitive(2))).join();
+        assertEquals("sync", ((JsonElement) response.getResult()).getAsString());
+
+        // 异常完成的 CompletionStage 与同步方法抛出异常的处理方式相同.
+        response = executor.executeAsync(new JsonRpcRequest("failAsync", null, new JsonPrimitive(3))).join();
+        assertTrue(response.isError());
+        assertEquals(1, ((JsonRpcError) response.getResult()).getCode());
+
+        response = executor.executeAsync(new JsonRpcRequest("notFound", null, new JsonPrimitive(4))).join();
+        assertEquals(JsonRpcErrors.METHOD_NOT_FOUND.code, ((JsonRpcError) response.getResult()).getCode());
+
+        assertNull(executor.handleAsync(new JsonRpcRequest("sync", null, null)).join());
+
+        // 同步执行时需要等待异步结果, 而不是将 CompletableFuture 作为返回值序列化.
+        handler.pending = CompletableFuture.completedFuture(null);
+        response = executor.getExecutor().execute(new JsonRpcRequest("repeat", params, new JsonPrimitive(5)));
+        assertEquals(gson.toJsonTree(Arrays.asList("a", "a", "a")), response.getResult());
+        response = executor.getExecutor().execute(new JsonRpcRequest("failAsync", null, new JsonPrimitive(6)));
+        assertEquals(1, ((JsonRpcError) response.getResult()).getCode());
+    }
+
+    @Test
+    void blockingExecutorTest() {
+        Gson gson = JsonRpcUtils.createGsonForJsonRpc();
+        List<Runnable> tasks = new ArrayList<>();
+        AsyncJsonRpcExecutor executor = new AsyncJsonRpcExecutor(new SimpleJsonRpcExecutor(new AsyncHandler(), gson), tasks::add);
+
+        CompletableFuture<JsonRpcResponse> future =
+                executor.executeAsync(new JsonRpcRequest("sync", null, new JsonPrimitive(1)));
+        assertFalse(future.isDone());
+        assertEquals(1, tasks.size());
+        tasks.get(0).run();
+        assertEquals("sync", ((JsonElement) future.join().getResult()).getAsString());
+    }
+
+    @SuppressWarnings("unused")
+    public static class AsyncHandler {
+
+        private CompletableFuture<Void> pending = new CompletableFuture<>();
+
+        public CompletableFuture<List<String>> repeat(String value, int times) {
+            return pending.thenApply(ignored -> {
+                List<String> result = new ArrayList<>();
+                for (int i = 0; i < times; i++) {
+                    result.add(value);
+                }
+                return result;
+            });
+        }
+
+        public CompletionStage<String> failAsync() {
+            CompletableFuture<String> future = new CompletableFuture<>();
+            future.completeExceptionally(new JsonRpcExecuteException(new JsonRpcError(1, "Async error.", null)));
+            return future;
+        }
+
+        public String sync() {
+            return "sync";
+        }
+
+    }
+
+}
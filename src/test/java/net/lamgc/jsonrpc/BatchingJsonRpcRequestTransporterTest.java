@@ -0,0 +1,157 @@
+package net.lamgc.jsonrpc;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonPrimitive;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchingJsonRpcRequestTransporterTest {
+
+    @Test
+    void maxBatchSizeTest() throws Exception {
+        TestingBatchTransporter batchTransporter = new TestingBatchTransporter();
+        BatchingJsonRpcRequestTransporter transporter =
+                new BatchingJsonRpcRequestTransporter(batchTransporter, 4, 1, TimeUnit.HOURS);
+
+        List<CompletableFuture<JsonRpcResponse>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            // 调用方使用的 id 可以重复.
+            futures.add(transporter.transportRequestAsync(new JsonRpcRequest("plus", params(i, 1), new JsonPrimitive(0))));
+        }
+        // 达到上限后立即发出, 不需要等待时间窗口.
+        assertEquals(2, batchTransporter.batches.size());
+        assertEquals(4, batchTransporter.batches.get(0).size());
+        for (int i = 0; i < futures.size(); i++) {
+            JsonRpcResponse response = futures.get(i).get(10, TimeUnit.SECONDS);
+            assertEquals(i + 1, ((JsonElement) response.getResult()).getAsInt());
+            assertEquals(new JsonPrimitive(0), response.getId());
+        }
+    }
+
+    @Test
+    void windowTest() throws Exception {
+        TestingBatchTransporter batchTransporter = new TestingBatchTransporter();
+        BatchingJsonRpcRequestTransporter transporter =
+                new BatchingJsonRpcRequestTransporter(batchTransporter, 100, 50, TimeUnit.MILLISECONDS);
+
+        CompletableFuture<JsonRpcResponse> first =
+                transporter.transportRequestAsync(new JsonRpcRequest("plus", params(1, 2), new JsonPrimitive(1)));
+        CompletableFuture<JsonRpcResponse> notification =
+                transporter.transportRequestAsync(new JsonRpcRequest("plus", params(1, 2), null));
+        CompletableFuture<JsonRpcResponse> second =
+                transporter.transportRequestAsync(new JsonRpcRequest("plus", params(3, 4), new JsonPrimitive(2)));
+        assertFalse(first.isDone());
+
+        // 时间窗口结束后, 三个请求作为一个批量请求发出.
+        assertEquals(3, ((JsonElement) first.get(10, TimeUnit.SECONDS).getResult()).getAsInt());
+        assertEquals(7, ((JsonElement) second.get(10, TimeUnit.SECONDS).getResult()).getAsInt());
+        assertNull(notification.get(10, TimeUnit.SECONDS));
+        assertEquals(1, batchTransporter.batches.size());
+        assertEquals(3, batchTransporter.batches.get(0).size());
+
+        // 批量请求失败时, 所有请求都将异常完成.
+        batchTransporter.failure = new IOException("Test");
+        CompletableFuture<JsonRpcResponse> failed =
+                transporter.transportRequestAsync(new JsonRpcRequest("plus", params(1, 2), new JsonPrimitive(3)));
+        transporter.flush();
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> failed.get(10, TimeUnit.SECONDS));
+        assertSame(batchTransporter.failure, exception.getCause());
+
+        transporter.close();
+        assertThrows(IOException.class, () ->
+                transporter.transportRequest(new JsonRpcRequest("plus", params(1, 2), new JsonPrimitive(4))));
+    }
+
+    @Test
+    void missingResponseTest() {
+        TestingBatchTransporter batchTransporter = new TestingBatchTransporter();
+        batchTransporter.dropResponses = true;
+        BatchingJsonRpcRequestTransporter transporter =
+                new BatchingJsonRpcRequestTransporter(batchTransporter, 1, 1, TimeUnit.HOURS);
+        CompletableFuture<JsonRpcResponse> future =
+                transporter.transportRequestAsync(new JsonRpcRequest("plus", params(1, 2), new JsonPrimitive(1)));
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> future.get(10, TimeUnit.SECONDS));
+        assertTrue(exception.getCause() instanceof IOException);
+    }
+
+    @Test
+    void malformedResponseTest() {
+        List<List<JsonRpcResponse>> results = new CopyOnWriteArrayList<>();
+        results.add(Arrays.asList(null, new JsonRpcResponse(new JsonPrimitive(3), null)));
+        results.add(null);
+        BatchingJsonRpcRequestTransporter transporter = new BatchingJsonRpcRequestTransporter(
+                requests -> CompletableFuture.completedFuture(results.remove(0)), 2, 1, TimeUnit.HOURS);
+
+        // 响应为空或没有 id 时, 请求以异常完成, 而不是一直等待.
+        CompletableFuture<JsonRpcResponse> first =
+                transporter.transportRequestAsync(new JsonRpcRequest("plus", params(1, 2), new JsonPrimitive(1)));
+        CompletableFuture<JsonRpcResponse> second =
+                transporter.transportRequestAsync(new JsonRpcRequest("plus", params(1, 2), new JsonPrimitive(2)));
+        for (CompletableFuture<JsonRpcResponse> future : Arrays.asList(first, second)) {
+            ExecutionException exception = assertThrows(ExecutionException.class, () -> future.get(10, TimeUnit.SECONDS));
+            assertTrue(exception.getCause() instanceof IOException);
+        }
+
+        // 响应列表为空时同样如此.
+        CompletableFuture<JsonRpcResponse> third =
+                transporter.transportRequestAsync(new JsonRpcRequest("plus", params(1, 2), new JsonPrimitive(3)));
+        CompletableFuture<JsonRpcResponse> notification =
+                transporter.transportRequestAsync(new JsonRpcRequest("plus", params(1, 2), null));
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> third.get(10, TimeUnit.SECONDS));
+        assertTrue(exception.getCause() instanceof IOException);
+        assertDoesNotThrow(() -> assertNull(notification.get(10, TimeUnit.SECONDS)));
+    }
+
+    private static JsonArray params(int n1, int n2) {
+        JsonArray params = new JsonArray();
+        params.add(n1);
+        params.add(n2);
+        return params;
+    }
+
+    private static class TestingBatchTransporter implements JsonRpcBatchRequestTransporter {
+
+        private final JsonRpcExecutor executor =
+                new SimpleJsonRpcExecutor(new TestingHandler(), JsonRpcUtils.createGsonForJsonRpc());
+        private final Gson gson = JsonRpcUtils.createGsonForJsonRpc();
+        private final List<List<JsonRpcRequest>> batches = new CopyOnWriteArrayList<>();
+        private volatile Exception failure;
+        private volatile boolean dropResponses;
+
+        @Override
+        public CompletableFuture<List<JsonRpcResponse>> transportBatchAsync(List<JsonRpcRequest> requests) {
+            batches.add(requests);
+            if (failure != null) {
+                return CompletableFuture.failedFuture(failure);
+            } else if (dropResponses) {
+                return CompletableFuture.completedFuture(Collections.emptyList());
+            }
+            List<JsonRpcResponse> responses = executor.executeBatch(gson.toJsonTree(requests).getAsJsonArray());
+            // 响应顺序不必与请求一致.
+            Collections.reverse(responses);
+            return CompletableFuture.completedFuture(responses);
+        }
+    }
+
+    public static class TestingHandler {
+
+        public int plus(int n1, int n2) {
+            return n1 + n2;
+        }
+
+    }
+
+}
@@ -0,0 +1,46 @@
+package net.lamgc.jsonrpc;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CallKeyTest {
+
+    @Test
+    void structuralEqualsTest() {
+        // 对象成员的顺序不影响调用键, 数组的顺序则会影响.
+        CallKey a = CallKey.of("m", JsonParser.parseString("{\"b\":[1,{\"y\":2,\"x\":1}],\"a\":\"s\"}"));
+        CallKey b = CallKey.of("m", JsonParser.parseString("{\"a\":\"s\",\"b\":[1,{\"x\":1,\"y\":2}]}"));
+        assertEquals(a, b);
+        assertEquals(a.hashCode(), b.hashCode());
+
+        assertNotEquals(CallKey.of("m", JsonParser.parseString("[1,2]")), CallKey.of("m", JsonParser.parseString("[2,1]")));
+        assertNotEquals(CallKey.of("m", JsonParser.parseString("[\"1\"]")), CallKey.of("m", JsonParser.parseString("[1]")));
+        assertNotEquals(CallKey.of("m", JsonParser.parseString("[true]")), CallKey.of("m", JsonParser.parseString("[\"true\"]")));
+        assertNotEquals(CallKey.of("m", JsonParser.parseString("{\"a\":1}")),
+                CallKey.of("m", JsonParser.parseString("{\"b\":1}")));
+        assertNotEquals(CallKey.of("m", JsonParser.parseString("[[]]")), CallKey.of("m", JsonParser.parseString("[{}]")));
+        assertNotEquals(CallKey.of("m", null), CallKey.of("n", null));
+
+        // 缺少 params 与 params 为 null 等价.
+        assertEquals(CallKey.of("m", null), CallKey.of("m", JsonNull.INSTANCE));
+        assertEquals(CallKey.of("m", JsonParser.parseString("[null]")), CallKey.of("m", JsonParser.parseString("[null]")));
+    }
+
+    @Test
+    void detachTest() {
+        JsonArray params = JsonParser.parseString("[1]").getAsJsonArray();
+        CallKey key = CallKey.of("m", params);
+        CallKey detached = key.detach();
+        assertEquals(key, detached);
+        assertEquals("m", detached.getMethod());
+
+        // 副本不受原参数列表修改的影响.
+        params.add(2);
+        assertEquals(CallKey.of("m", JsonParser.parseString("[1]")), detached);
+    }
+
+}
@@ -0,0 +1,155 @@
+package net.lamgc.jsonrpc;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonRpcCallCoalescerTest {
+
+    private final Gson gson = JsonRpcUtils.createGsonForJsonRpc();
+
+    @Test
+    void coalesceTest() throws Exception {
+        SlowHandler handler = new SlowHandler();
+        SimpleJsonRpcExecutor executor = new SimpleJsonRpcExecutor(handler, gson);
+        JsonRpcCallCoalescer coalescer = JsonRpcCallCoalescer.builder().coalesce("slow").build();
+        executor.setCallCoalescer(coalescer);
+        assertSame(coalescer, executor.getCallCoalescer());
+
+        CompletableFuture<JsonRpcResponse> first = CompletableFuture.supplyAsync(() ->
+                executor.execute(new JsonRpcRequest("slow", JsonParser.parseString("[1,{\"tag\":\"a\",\"suffix\":\"b\"}]"),
+                        new JsonPrimitive(1))));
+        assertTrue(handler.entered.await(10, TimeUnit.SECONDS));
+
+        // 成员顺序不同的相同参数, 通过流式读取的请求同样会被合并.
+        CompletableFuture<JsonRpcResponse> second = CompletableFuture.supplyAsync(() -> executor.handle(new StringReader(
+                "{\"jsonrpc\":\"2.0\",\"method\":\"slow\",\"params\":[1,{\"suffix\":\"b\",\"tag\":\"a\"}],\"id\":2}")));
+        CompletableFuture<JsonRpcResponse> third = CompletableFuture.supplyAsync(() ->
+                executor.execute(new JsonRpcRequest("slow", JsonParser.parseString("[1,{\"suffix\":\"b\",\"tag\":\"a\"}]"),
+                        new JsonPrimitive(3))));
+        awaitCoalesced(coalescer, 2);
+        assertEquals(1, coalescer.getInFlightCount());
+
+        handler.release.countDown();
+        JsonRpcResponse firstResponse = first.get(10, TimeUnit.SECONDS);
+        JsonRpcResponse secondResponse = second.get(10, TimeUnit.SECONDS);
+        JsonRpcResponse thirdResponse = third.get(10, TimeUnit.SECONDS);
+        assertEquals(1, handler.count.get());
+        assertEquals(new JsonPrimitive("a-1-b"), firstResponse.getResult());
+        assertEquals(firstResponse.getResult(), secondResponse.getResult());
+        assertEquals(firstResponse.getResult(), thirdResponse.getResult());
+        // 每个请求使用自身的 id.
+        assertEquals(new JsonPrimitive(1), firstResponse.getId());
+        assertEquals(new JsonPrimitive(2), secondResponse.getId());
+        assertEquals(new JsonPrimitive(3), thirdResponse.getId());
+
+        // 调用完成后不保留结果.
+        assertEquals(0, coalescer.getInFlightCount());
+        executor.execute(new JsonRpcRequest("slow", JsonParser.parseString("[1,{\"tag\":\"a\",\"suffix\":\"b\"}]"), new JsonPrimitive(4)));
+        assertEquals(2, handler.count.get());
+
+        // 未指定的方法不会被合并.
+        assertNull(coalescer.key("other", null));
+        assertFalse(coalescer.isCoalesced("other"));
+    }
+
+    @Test
+    void coalesceErrorTest() throws Exception {
+        SlowHandler handler = new SlowHandler();
+        SimpleJsonRpcExecutor executor = new SimpleJsonRpcExecutor(handler, gson);
+        JsonRpcCallCoalescer coalescer = JsonRpcCallCoalescer.builder().coalesce("slow").build();
+        executor.setCallCoalescer(coalescer);
+
+        CompletableFuture<JsonRpcResponse> first = CompletableFuture.supplyAsync(() ->
+                executor.execute(new JsonRpcRequest("slow", JsonParser.parseString("[-1,{}]"), new JsonPrimitive(1))));
+        assertTrue(handler.entered.await(10, TimeUnit.SECONDS));
+        CompletableFuture<JsonRpcResponse> second = CompletableFuture.supplyAsync(() ->
+                executor.execute(new JsonRpcRequest("slow", JsonParser.parseString("[-1,{}]"), new JsonPrimitive(2))));
+        awaitCoalesced(coalescer, 1);
+
+        handler.release.countDown();
+        // 错误同样会被共享.
+        JsonRpcResponse secondResponse = second.get(10, TimeUnit.SECONDS);
+        assertTrue(first.get(10, TimeUnit.SECONDS).isError());
+        assertTrue(secondResponse.isError());
+        assertEquals(new JsonPrimitive(2), secondResponse.getId());
+        assertEquals(1, handler.count.get());
+    }
+
+    @Test
+    void asyncTest() {
+        SlowHandler handler = new SlowHandler();
+        SimpleJsonRpcExecutor executor = new SimpleJsonRpcExecutor(handler, gson);
+        JsonRpcCallCoalescer coalescer = JsonRpcCallCoalescer.builder().coalesce("slowAsync").build();
+        executor.setCallCoalescer(coalescer);
+        // 与结果缓存同时使用.
+        JsonRpcResultCache cache = JsonRpcResultCache.builder().cache("slowAsync", Duration.ofMinutes(1)).build();
+        executor.setResultCache(cache);
+        AsyncJsonRpcExecutor asyncExecutor = new AsyncJsonRpcExecutor(executor);
+
+        CompletableFuture<JsonRpcResponse> first = asyncExecutor.executeAsync(
+                new JsonRpcRequest("slowAsync", JsonParser.parseString("[1]"), new JsonPrimitive(1)));
+        CompletableFuture<JsonRpcResponse> second = asyncExecutor.executeAsync(
+                new JsonRpcRequest("slowAsync", JsonParser.parseString("[1]"), new JsonPrimitive(2)));
+        assertFalse(second.isDone());
+        assertEquals(1, coalescer.getCoalescedCount());
+
+        handler.pending.complete(null);
+        assertEquals(new JsonPrimitive("async-1"), first.join().getResult());
+        assertEquals(new JsonPrimitive("async-1"), second.join().getResult());
+        assertEquals(new JsonPrimitive(2), second.join().getId());
+        assertEquals(1, handler.count.get());
+        assertEquals(0, coalescer.getInFlightCount());
+
+        // 之后的请求命中结果缓存.
+        JsonRpcResponse third = asyncExecutor.executeAsync(
+                new JsonRpcRequest("slowAsync", JsonParser.parseString("[1]"), new JsonPrimitive(3))).join();
+        assertEquals(new JsonPrimitive(3), third.getId());
+        assertEquals(1, handler.count.get());
+        assertEquals(1, cache.getHitCount());
+    }
+
+    private static void awaitCoalesced(JsonRpcCallCoalescer coalescer, long count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (coalescer.getCoalescedCount() < count) {
+            assertTrue(System.nanoTime() < deadline, "Timed out waiting for coalesced requests.");
+            Thread.sleep(1);
+        }
+    }
+
+    public static class SlowHandler {
+
+        private final AtomicInteger count = new AtomicInteger();
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final CompletableFuture<Void> pending = new CompletableFuture<>();
+
+        public String slow(int id, Map<String, String> options) throws InterruptedException {
+            count.incrementAndGet();
+            entered.countDown();
+            assertTrue(release.await(10, TimeUnit.SECONDS));
+            if (id < 0) {
+                throw new IllegalArgumentException("Invalid id: " + id);
+            }
+            return options.get("tag") + "-" + id + "-" + options.get("suffix");
+        }
+
+        public CompletableFuture<String> slowAsync(int id) {
+            count.incrementAndGet();
+            return pending.thenApply(ignored -> "async-" + id);
+        }
+
+    }
+
+}
@@ -0,0 +1,227 @@
+package net.lamgc.jsonrpc;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonPrimitive;
+import net.lamgc.jsonrpc.serializer.GsonParameterSerializer;
+import net.lamgc.jsonrpc.serializer.GsonReturnValueDeserializer;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonRpcClientCacheTest {
+
+    private final Gson gson = JsonRpcUtils.createGsonForJsonRpc();
+
+    @Test
+    void cacheHitTest() {
+        AtomicInteger requestCount = new AtomicInteger();
+        JsonRpcClientCache cache = JsonRpcClientCache.builder().build();
+        CachedService service = createProxy(request -> {
+            requestCount.incrementAndGet();
+            return respond(request);
+        }, cache);
+
+        List<String> first = service.lookup(1);
+        List<String> second = service.lookup(1);
+        assertEquals(List.of("lookup", "1"), first);
+        // 命中缓存时直接返回已反序列化的结果.
+        assertSame(first, second);
+        assertEquals(1, requestCount.get());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+
+        // 参数不同, 或调用的是重载方法时, 都不会命中.
+        service.lookup(2);
+        assertEquals(List.of("lookup", "1"), service.lookup("1"));
+        assertEquals(3, requestCount.get());
+        assertEquals(3, cache.size());
+
+        // 未标记的方法不经过缓存.
+        service.uncached(1);
+        service.uncached(1);
+        assertEquals(5, requestCount.get());
+        assertEquals(1, cache.getHitCount());
+
+        cache.invalidate("lookup");
+        assertEquals(0, cache.size());
+        service.lookup(1);
+        assertEquals(6, requestCount.get());
+        cache.invalidateAll();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void stubTest() {
+        AtomicInteger requestCount = new AtomicInteger();
+        JsonRpcClientCache cache = JsonRpcClientCache.builder().build();
+        CachedService service = JsonRpcStubGenerator.createStub(CachedService.class, request -> {
+                    requestCount.incrementAndGet();
+                    return respond(request);
+                }, new GsonParameterSerializer(gson, false), new GsonReturnValueDeserializer(gson), cache);
+
+        assertSame(service.lookup(1), service.lookup(1));
+        assertEquals(1, requestCount.get());
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    void errorNotCachedTest() {
+        AtomicInteger requestCount = new AtomicInteger();
+        JsonRpcClientCache cache = JsonRpcClientCache.builder().build();
+        CachedService service = createProxy(request -> {
+            requestCount.incrementAndGet();
+            return new JsonRpcResponse(JsonRpcErrors.INTERNAL_ERROR.toRpcError(), request.getId());
+        }, cache);
+
+        assertThrows(JsonRpcRequestException.class, () -> service.lookup(1));
+        assertThrows(JsonRpcRequestException.class, () -> service.lookup(1));
+        assertEquals(2, requestCount.get());
+        assertEquals(0, cache.size());
+
+        CachedService failedService = createProxy(request -> {
+            throw new IllegalStateException("Test Exception");
+        }, cache);
+        JsonRpcRequestException exception = assertThrows(JsonRpcRequestException.class, () -> failedService.lookup(1));
+        assertTrue(exception.getCause() instanceof IllegalStateException);
+    }
+
+    @Test
+    void evictTest() {
+        AtomicInteger requestCount = new AtomicInteger();
+        JsonRpcClientCache cache = JsonRpcClientCache.builder().maximumSize(1).build();
+        CachedService service = createProxy(request -> {
+            requestCount.incrementAndGet();
+            return respond(request);
+        }, cache);
+
+        service.lookup(1);
+        service.lookup(2);
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        service.lookup(1);
+        assertEquals(3, requestCount.get());
+
+        assertThrows(IllegalArgumentException.class, () -> JsonRpcClientCache.builder().maximumSize(0));
+        assertThrows(IllegalArgumentException.class, () -> createProxy(this::respond, cache, InvalidService.class));
+    }
+
+    @Test
+    void inFlightTest() throws Exception {
+        AtomicInteger requestCount = new AtomicInteger();
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        JsonRpcClientCache cache = JsonRpcClientCache.builder().build();
+        CachedService service = createProxy(request -> {
+            requestCount.incrementAndGet();
+            entered.countDown();
+            assertTrue(release.await(10, TimeUnit.SECONDS));
+            return respond(request);
+        }, cache);
+
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> service.inFlightOnly(1));
+        assertTrue(entered.await(10, TimeUnit.SECONDS));
+        CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> service.inFlightOnly(1));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (cache.getCoalescedCount() < 1) {
+            assertTrue(System.nanoTime() < deadline, "Timed out waiting for the coalesced call.");
+            Thread.sleep(1);
+        }
+
+        release.countDown();
+        assertEquals("inFlightOnly:1", first.get(10, TimeUnit.SECONDS));
+        assertEquals("inFlightOnly:1", second.get(10, TimeUnit.SECONDS));
+        assertEquals(1, requestCount.get());
+
+        // 有效期为 0 时不缓存结果.
+        assertEquals("inFlightOnly:1", service.inFlightOnly(1));
+        assertEquals(2, requestCount.get());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void asyncTest() {
+        Map<JsonRpcRequest, CompletableFuture<JsonRpcResponse>> pending = new ConcurrentHashMap<>();
+        JsonRpcClientCache cache = JsonRpcClientCache.builder().build();
+        CachedService service = createProxy((AsyncJsonRpcRequestTransporter) request -> {
+            CompletableFuture<JsonRpcResponse> future = new CompletableFuture<>();
+            pending.put(request, future);
+            return future;
+        }, cache);
+
+        CompletableFuture<String> first = service.lookupAsync(1);
+        CompletableFuture<String> second = service.lookupAsync(1);
+        assertNotSame(first, second);
+        assertEquals(1, pending.size());
+        assertEquals(1, cache.getCoalescedCount());
+        // 取消其中一个调用不影响其他等待同一请求的调用.
+        second.cancel(false);
+
+        CompletableFuture<String> third = service.lookupAsync(1);
+        Map.Entry<JsonRpcRequest, CompletableFuture<JsonRpcResponse>> entry = pending.entrySet().iterator().next();
+        entry.getValue().complete(respond(entry.getKey()));
+        assertEquals("lookupAsync:1", first.join());
+        assertEquals("lookupAsync:1", third.join());
+
+        // 之后的调用命中缓存, 不再发送请求.
+        CompletableFuture<String> cached = service.lookupAsync(1);
+        assertTrue(cached.isDone());
+        assertEquals("lookupAsync:1", cached.join());
+        assertEquals(1, pending.size());
+        assertEquals(1, cache.getHitCount());
+    }
+
+    private CachedService createProxy(JsonRpcRequestTransporter transporter, JsonRpcClientCache cache) {
+        return createProxy(transporter, cache, CachedService.class);
+    }
+
+    private <T> T createProxy(JsonRpcRequestTransporter transporter, JsonRpcClientCache cache, Class<T> type) {
+        return JsonRpcProxyGenerator.createProxy(type, transporter,
+                new GsonParameterSerializer(gson, false), new GsonReturnValueDeserializer(gson), cache);
+    }
+
+    private JsonRpcResponse respond(JsonRpcRequest request) {
+        String param = request.getParams().getAsJsonArray().get(0).getAsString();
+        if (request.getMethod().equals("lookup")) {
+            JsonArray result = new JsonArray();
+            result.add(request.getMethod());
+            result.add(param);
+            return new JsonRpcResponse(result, request.getId());
+        }
+        return new JsonRpcResponse(new JsonPrimitive(request.getMethod() + ":" + param), request.getId());
+    }
+
+    public interface CachedService {
+
+        @JsonRpcCacheable(ttl = 1, unit = TimeUnit.MINUTES)
+        List<String> lookup(int id);
+
+        @JsonRpcCacheable(ttl = 1, unit = TimeUnit.MINUTES)
+        List<String> lookup(String id);
+
+        @JsonRpcCacheable(ttl = 0)
+        String inFlightOnly(int id);
+
+        @JsonRpcCacheable(ttl = 1, unit = TimeUnit.MINUTES)
+        CompletableFuture<String> lookupAsync(int id);
+
+        String uncached(int id);
+
+    }
+
+    public interface InvalidService {
+
+        @JsonRpcCacheable(ttl = -1)
+        String value();
+
+    }
+
+}
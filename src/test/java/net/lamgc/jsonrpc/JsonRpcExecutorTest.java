@@ -7,9 +7,16 @@ import net.lamgc.jsonrpc.serializer.ParameterDeserializer;
 import net.lamgc.jsonrpc.serializer.ReturnValueSerializer;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -162,6 +169,201 @@ class JsonRpcExecutorTest {
         assertEquals(JsonRpcErrors.CONVERT_RETURN_VALUE_FAILURE.message, ((JsonRpcError) errResp.getResult()).getMessage());
     }
 
+    @Test
+    void streamingExecuteTest() {
+        Gson gson = JsonRpcUtils.createGsonForJsonRpc();
+        TestingMapExecutor executor = new TestingMapExecutor(gson);
+
+        JsonRpcResponse response = executor.execute(new StringReader(
+                "{\"jsonrpc\": \"2.0\", \"method\": \"plus\", \"params\": [42, 23], \"id\": \"req1\"}"));
+        assertFalse(response.isError());
+        assertEquals(65, ((JsonElement) response.getResult()).getAsInt());
+        assertEquals(new JsonPrimitive("req1"), response.getId());
+
+        // 字段可以以任意顺序出现, params 在 method 之前时将被暂存.
+        response = executor.execute(new StringReader(
+                "{\"id\": 1, \"params\": [1, 2], \"method\": \"plus\", \"jsonrpc\": \"2.0\"}"));
+        assertFalse(response.isError());
+        assertEquals(3, ((JsonElement) response.getResult()).getAsInt());
+        assertEquals(1, response.getId().getAsInt());
+
+        // 参数按泛型类型读取.
+        response = executor.execute(new StringReader(
+                "{\"jsonrpc\": \"2.0\", \"method\": \"sum\", \"params\": [[1, 2, 3]], \"id\": 2}"));
+        assertFalse(response.isError());
+        assertEquals(6, ((JsonElement) response.getResult()).getAsInt());
+
+        response = executor.execute(new StringReader(
+                "{\"jsonrpc\": \"2.0\", \"method\": \"realDoNothing\", \"params\": [], \"id\": 3}"));
+        assertFalse(response.isError());
+        assertEquals(JsonNull.INSTANCE, response.getResult());
+
+        // 参数读取到一半失败后, 仍然需要读取到后面的 id.
+        response = executor.execute(new StringReader(
+                "{\"jsonrpc\": \"2.0\", \"method\": \"sum\", \"params\": [[1, 2, {\"a\": [3]}, 4]], \"id\": \"req4\"}"));
+        assertTrue(response.isError());
+        assertEquals(JsonRpcErrors.INVALID_PARAMS.code, ((JsonRpcError) response.getResult()).getCode());
+        assertEquals(new JsonPrimitive("req4"), response.getId());
+
+        response = executor.execute(new StringReader(
+                "{\"jsonrpc\": \"2.0\", \"method\": \"plus\", \"params\": [1, 2, 3], \"id\": 5}"));
+        assertTrue(response.isError());
+        assertEquals(JsonRpcErrors.INVALID_PARAMS.code, ((JsonRpcError) response.getResult()).getCode());
+
+        response = executor.execute(new StringReader(
+                "{\"jsonrpc\": \"2.0\", \"method\": \"notFound\", \"params\": [1, 2], \"id\": 6}"));
+        assertTrue(response.isError());
+        assertEquals(JsonRpcErrors.METHOD_NOT_FOUND.code, ((JsonRpcError) response.getResult()).getCode());
+        assertEquals(6, response.getId().getAsInt());
+
+        response = executor.execute(new StringReader("{\"method\": \"plus\", \"params\": [1, 2], \"id\": 7}"));
+        assertTrue(response.isError());
+        assertEquals(JsonRpcErrors.INVALID_REQUEST.code, ((JsonRpcError) response.getResult()).getCode());
+        assertEquals(7, response.getId().getAsInt());
+
+        response = executor.execute(new StringReader("{\"jsonrpc\": \"2.0\", \"method\": "));
+        assertTrue(response.isError());
+        assertEquals(JsonRpcErrors.PARSE_ERROR.code, ((JsonRpcError) response.getResult()).getCode());
+        assertEquals(JsonNull.INSTANCE, response.getId());
+    }
+
+    @Test
+    void executeToWriterTest() throws IOException {
+        Gson gson = JsonRpcUtils.createGsonForJsonRpc();
+        TestingMapExecutor executor = new TestingMapExecutor(gson);
+
+        String[] requests = new String[]{
+                "{\"jsonrpc\": \"2.0\", \"method\": \"plus\", \"params\": [42, 23], \"id\": \"req1\"}",
+                "{\"jsonrpc\": \"2.0\", \"method\": \"concat\", \"params\": [\"Test\", 123], \"id\": 1}",
+                "{\"jsonrpc\": \"2.0\", \"method\": \"realDoNothing\", \"params\": [], \"id\": 2}",
+                "{\"jsonrpc\": \"2.0\", \"method\": \"throwJsonRpcError\", \"id\": 3}",
+                "{\"jsonrpc\": \"2.0\", \"method\": \"notFound\", \"id\": 4}",
+                "{\"method\": \"plus\", \"params\": [1, 2]}",
+                "{\"jsonrpc\": \"2.0\", \"method\": "
+        };
+        // 直接写出的响应应当与序列化 JsonRpcResponse 得到的结果一致 (错误信息中的堆栈除外).
+        for (String request : requests) {
+            JsonObject expect = gson.toJsonTree(executor.execute(new StringReader(request))).getAsJsonObject();
+
+            StringWriter output = new StringWriter();
+            executor.execute(new StringReader(request), gson.newJsonWriter(output));
+            JsonObject actual = JsonParser.parseString(output.toString()).getAsJsonObject();
+            if (expect.has(JsonRpcConst.JSON_RPC_RESPONSE_ERROR_FIELD)) {
+                expect.getAsJsonObject(JsonRpcConst.JSON_RPC_RESPONSE_ERROR_FIELD).remove(JsonRpcConst.JSON_RPC_ERROR_DATA_FIELD);
+                actual.getAsJsonObject(JsonRpcConst.JSON_RPC_RESPONSE_ERROR_FIELD).remove(JsonRpcConst.JSON_RPC_ERROR_DATA_FIELD);
+            }
+            assertEquals(expect, actual, request);
+        }
+
+        JsonArray plusParams = new JsonArray();
+        plusParams.add(1);
+        plusParams.add(2);
+        StringWriter output = new StringWriter();
+        executor.execute(new JsonRpcRequest("plus", plusParams, new JsonPrimitive(5)), gson.newJsonWriter(output));
+        JsonObject response = JsonParser.parseString(output.toString()).getAsJsonObject();
+        assertEquals(3, response.get(JsonRpcConst.JSON_RPC_RESPONSE_RESULT_FIELD).getAsInt());
+        assertEquals(5, response.get(JsonRpcConst.JSON_RPC_ID_FIELD).getAsInt());
+    }
+
+    @Test
+    void executeBatchTest() {
+        Gson gson = JsonRpcUtils.createGsonForJsonRpc();
+        TestingMapExecutor executor = new TestingMapExecutor(gson);
+
+        JsonArray batch = JsonParser.parseString("[" +
+                "{\"jsonrpc\": \"2.0\", \"method\": \"plus\", \"params\": [1, 2], \"id\": \"1\"}," +
+                "{\"jsonrpc\": \"2.0\", \"method\": \"doNothing\", \"params\": [\"notify\"]}," +
+                "{\"jsonrpc\": \"2.0\", \"method\": \"concat\", \"params\": [\"a\", 1], \"id\": 2}," +
+                "{\"foo\": \"boo\"}," +
+                "1," +
+                "{\"jsonrpc\": \"2.0\", \"method\": \"notFound\", \"id\": \"5\"}," +
+                "{\"jsonrpc\": \"2.0\", \"method\": \"plus\", \"params\": [3, 4], \"id\": 6}" +
+                "]").getAsJsonArray();
+        List<JsonRpcResponse> responses = executor.executeBatch(batch);
+        // 通知不会产生响应, 其余响应的顺序与请求一致.
+        assertEquals(6, responses.size());
+        assertEquals(new JsonPrimitive("1"), responses.get(0).getId());
+        assertEquals(3, ((JsonElement) responses.get(0).getResult()).getAsInt());
+        assertEquals(new JsonPrimitive(2), responses.get(1).getId());
+        assertEquals("a1", ((JsonElement) responses.get(1).getResult()).getAsString());
+        assertEquals(JsonNull.INSTANCE, responses.get(2).getId());
+        assertEquals(JsonRpcErrors.INVALID_REQUEST.code, ((JsonRpcError) responses.get(2).getResult()).getCode());
+        assertEquals(JsonNull.INSTANCE, responses.get(3).getId());
+        assertEquals(JsonRpcErrors.INVALID_REQUEST.code, ((JsonRpcError) responses.get(3).getResult()).getCode());
+        assertEquals(new JsonPrimitive("5"), responses.get(4).getId());
+        assertEquals(JsonRpcErrors.METHOD_NOT_FOUND.code, ((JsonRpcError) responses.get(4).getResult()).getCode());
+        assertEquals(new JsonPrimitive(6), responses.get(5).getId());
+        assertEquals(7, ((JsonElement) responses.get(5).getResult()).getAsInt());
+
+        // 执行器拒绝执行时, 请求将在调用线程中执行.
+        responses = executor.executeBatch(batch, command -> {
+            throw new RejectedExecutionException();
+        });
+        assertEquals(6, responses.size());
+        assertEquals(3, ((JsonElement) responses.get(0).getResult()).getAsInt());
+
+        JsonArray notifications = JsonParser.parseString("[" +
+                "{\"jsonrpc\": \"2.0\", \"method\": \"doNothing\", \"params\": [\"1\"]}," +
+                "{\"jsonrpc\": \"2.0\", \"method\": \"realDoNothing\"}" +
+                "]").getAsJsonArray();
+        assertTrue(executor.executeBatch(notifications).isEmpty());
+
+        responses = executor.executeBatch(new JsonArray());
+        assertEquals(1, responses.size());
+        assertEquals(JsonNull.INSTANCE, responses.get(0).getId());
+        assertEquals(JsonRpcErrors.INVALID_REQUEST.code, ((JsonRpcError) responses.get(0).getResult()).getCode());
+    }
+
+    @Test
+    void notificationTest() {
+        Gson gson = JsonRpcUtils.createGsonForJsonRpc();
+        // 通知不应该序列化返回值.
+        TestingMapExecutor executor = new TestingMapExecutor(new GsonParameterDeserializer(gson), (method, returnValue) -> {
+            throw new AssertionError("The return value of a notification should not be serialized.");
+        });
+        TestingSimpleHandler handler = (TestingSimpleHandler) executor.getHandler();
+
+        assertNull(executor.handle(new JsonRpcRequest("count", new JsonArray(), null)));
+        assertEquals(1, handler.counter.get());
+        assertNull(executor.handle(new StringReader("{\"jsonrpc\": \"2.0\", \"method\": \"count\"}")));
+        assertEquals(2, handler.counter.get());
+        // 通知执行失败时也不会返回响应.
+        assertNull(executor.handle(new JsonRpcRequest("callToFail", null, null)));
+        assertNull(executor.handle(new JsonRpcRequest("notFound", null, null)));
+        assertNull(executor.handle(new StringReader("{\"jsonrpc\": \"2.0\", \"method\": \"plus\", \"params\": [1]}")));
+
+        // 不符合规范的报文依然需要返回错误响应.
+        JsonRpcResponse response = executor.handle(new StringReader("{\"method\": \"count\"}"));
+        assertNotNull(response);
+        assertEquals(JsonRpcErrors.INVALID_REQUEST.code, ((JsonRpcError) response.getResult()).getCode());
+        response = executor.handle(new StringReader("{\"jsonrpc\": "));
+        assertNotNull(response);
+        assertEquals(JsonRpcErrors.PARSE_ERROR.code, ((JsonRpcError) response.getResult()).getCode());
+
+        // 包含 id 的请求与 execute 相同.
+        response = executor.handle(new JsonRpcRequest("callToFail", null, new JsonPrimitive(1)));
+        assertNotNull(response);
+        assertEquals(JsonRpcErrors.INTERNAL_ERROR.code, ((JsonRpcError) response.getResult()).getCode());
+
+        List<Runnable> tasks = new ArrayList<>();
+        executor.setNotificationExecutor(tasks::add);
+        assertNull(executor.handle(new JsonRpcRequest("count", null, null)));
+        assertNull(executor.handle(new StringReader("{\"jsonrpc\": \"2.0\", \"method\": \"count\", \"params\": []}")));
+        assertTrue(executor.executeBatch(JsonParser.parseString(
+                "[{\"jsonrpc\": \"2.0\", \"method\": \"count\"}]").getAsJsonArray()).isEmpty());
+        assertEquals(2, handler.counter.get());
+        assertEquals(3, tasks.size());
+        tasks.forEach(Runnable::run);
+        assertEquals(5, handler.counter.get());
+
+        // 通知执行器拒绝执行时, 通知将被丢弃.
+        executor.setNotificationExecutor(command -> {
+            throw new RejectedExecutionException();
+        });
+        assertNull(executor.handle(new JsonRpcRequest("count", null, null)));
+        assertEquals(5, handler.counter.get());
+    }
+
     private static class TestingMapExecutor extends JsonRpcExecutor {
 
         private final Map<String, Method> methodMap;
@@ -191,6 +393,12 @@ class JsonRpcExecutorTest {
     @SuppressWarnings("unused")
     private static class TestingSimpleHandler {
 
+        private final AtomicInteger counter = new AtomicInteger();
+
+        public void count() {
+            counter.incrementAndGet();
+        }
+
         public int plus(int n1, int n2) {
             return n1 + n2;
         }
@@ -206,6 +414,14 @@ class JsonRpcExecutorTest {
         public void realDoNothing() {
         }
 
+        public int sum(List<Integer> numbers) {
+            int sum = 0;
+            for (Integer number : numbers) {
+                sum += number;
+            }
+            return sum;
+        }
+
         public void callToFail() {
             throw new RuntimeException();
         }
@@ -3,11 +3,20 @@ package net.lamgc.jsonrpc;
 import com.google.gson.Gson;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
 import com.google.gson.JsonPrimitive;
 import org.example.not_named_parameters.SimpleInterface;
 import org.example.testing.named_parameters.RemoteInterface;
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class JsonRpcProxyGeneratorTest {
@@ -80,6 +89,81 @@ class JsonRpcProxyGeneratorTest {
         impl.tick();
     }
 
+    // 异步传输器在响应到达前不应完成代理方法返回的 CompletableFuture.
+    @Test
+    void asyncCallTest() {
+        Gson gson = JsonRpcUtils.createGsonForJsonRpc();
+        // 按请求顺序保存尚未完成的请求.
+        Map<JsonPrimitive, CompletableFuture<JsonRpcResponse>> pending = new LinkedHashMap<>();
+        AsyncInterface impl = JsonRpcProxyGenerator.createProxy(AsyncInterface.class,
+                (AsyncJsonRpcRequestTransporter) request -> {
+                    CompletableFuture<JsonRpcResponse> future = new CompletableFuture<>();
+                    pending.put(request.getId(), future);
+                    return future;
+                }, gson);
+
+        CompletableFuture<List<Integer>> numbers = impl.numbers(3);
+        CompletionStage<String> name = impl.name();
+        assertFalse(numbers.isDone());
+        assertEquals(2, pending.size());
+
+        for (Map.Entry<JsonPrimitive, CompletableFuture<JsonRpcResponse>> entry : pending.entrySet()) {
+            entry.getValue().complete(new JsonRpcResponse(
+                    JsonParser.parseString("[1, 2, 3]"), entry.getKey()));
+            break;
+        }
+        pending.clear();
+        // 结果按类型参数 (List<Integer>) 转换.
+        assertEquals(Arrays.asList(1, 2, 3), numbers.join());
+
+        CompletableFuture<List<Integer>> failed = impl.numbers(1);
+        pending.values().iterator().next().completeExceptionally(new RuntimeException("Test Exception"));
+        CompletionException exception = assertThrows(CompletionException.class, failed::join);
+        assertTrue(exception.getCause() instanceof JsonRpcRequestException);
+        pending.clear();
+
+        CompletableFuture<List<Integer>> error = impl.numbers(1);
+        pending.forEach((id, future) -> future.complete(new JsonRpcResponse(new JsonRpcError(1, "Test Error", null), id)));
+        exception = assertThrows(CompletionException.class, error::join);
+        assertEquals(1, ((JsonRpcRequestException) exception.getCause()).getError().getCode());
+
+        // 同步传输器同样可以调用异步方法.
+        AsyncInterface syncImpl = JsonRpcProxyGenerator.createProxy(AsyncInterface.class,
+                request -> new JsonRpcResponse(new JsonPrimitive("test"), request.getId()), gson);
+        assertEquals("test", syncImpl.name().toCompletableFuture().join());
+        // 异步传输器同样可以调用同步方法.
+        SimpleInterface simpleImpl = JsonRpcProxyGenerator.createProxy(SimpleInterface.class,
+                (AsyncJsonRpcRequestTransporter) request ->
+                        CompletableFuture.completedFuture(new JsonRpcResponse(new JsonPrimitive(3), request.getId())), gson);
+        assertEquals(3, simpleImpl.getMagicNumber(1, 2));
+    }
+
+    @Test
+    void unsupportedAsyncTypeTest() {
+        Gson gson = JsonRpcUtils.createGsonForJsonRpc();
+        // 无法由调用结果构造的异步类型在创建时即被拒绝, 而不是在调用时抛出 ClassCastException.
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () ->
+                JsonRpcProxyGenerator.createProxy(UnsupportedAsyncInterface.class, request -> null, gson));
+        assertTrue(exception.getMessage().contains("futureSubclass"));
+    }
+
+    private interface AsyncInterface {
+
+        CompletableFuture<List<Integer>> numbers(int count);
+
+        CompletionStage<String> name();
+
+    }
+
+    private interface UnsupportedAsyncInterface {
+
+        CustomFuture<String> futureSubclass();
+
+    }
+
+    static class CustomFuture<T> extends CompletableFuture<T> {
+    }
+
     private interface NoParameterInterface {
 
         void tick();
@@ -0,0 +1,192 @@
+package net.lamgc.jsonrpc;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.stream.JsonWriter;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonRpcResultCacheTest {
+
+    private final Gson gson = JsonRpcUtils.createGsonForJsonRpc();
+
+    @Test
+    void cacheHitTest() throws IOException {
+        LookupHandler handler = new LookupHandler();
+        SimpleJsonRpcExecutor executor = new SimpleJsonRpcExecutor(handler, gson);
+        JsonRpcResultCache cache = JsonRpcResultCache.builder()
+                .cache("lookup", Duration.ofMinutes(1))
+                .build();
+        executor.setResultCache(cache);
+        assertSame(cache, executor.getResultCache());
+
+        JsonRpcResponse first = executor.execute(new JsonRpcRequest("lookup", JsonParser.parseString("[1]"), new JsonPrimitive(1)));
+        JsonRpcResponse second = executor.execute(new JsonRpcRequest("lookup", JsonParser.parseString("[1]"), new JsonPrimitive(2)));
+        assertEquals(1, handler.lookupCount.get());
+        assertEquals(new JsonPrimitive("value-1"), first.getResult());
+        assertEquals(first.getResult(), second.getResult());
+        // 命中缓存时依然使用请求自身的 id.
+        assertEquals(new JsonPrimitive(2), second.getId());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+
+        // 参数不同时不会命中.
+        executor.execute(new JsonRpcRequest("lookup", JsonParser.parseString("[2]"), new JsonPrimitive(3)));
+        assertEquals(2, handler.lookupCount.get());
+
+        // 流式读取请求时同样使用缓存, 并且 params 出现在 method 之后.
+        JsonRpcResponse streamed = executor.handle(new StringReader(
+                "{\"jsonrpc\":\"2.0\",\"method\":\"lookup\",\"params\":[1],\"id\":4}"));
+        assertEquals(new JsonPrimitive("value-1"), streamed.getResult());
+        assertEquals(new JsonPrimitive(4), streamed.getId());
+        assertEquals(2, handler.lookupCount.get());
+
+        StringWriter output = new StringWriter();
+        executor.execute(new StringReader("{\"jsonrpc\":\"2.0\",\"method\":\"lookup\",\"params\":[2],\"id\":5}"),
+                new JsonWriter(output));
+        assertEquals("{\"jsonrpc\":\"2.0\",\"result\":\"value-2\",\"id\":5}", output.toString());
+        assertEquals(2, handler.lookupCount.get());
+        assertEquals(3, cache.getHitCount());
+
+        // 未设置缓存的方法不会被缓存, 也不计入统计.
+        executor.execute(new JsonRpcRequest("increment", null, new JsonPrimitive(6)));
+        executor.execute(new JsonRpcRequest("increment", null, new JsonPrimitive(7)));
+        assertEquals(2, handler.incrementCount.get());
+        assertEquals(3, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+
+        // 通知不使用缓存.
+        assertNull(executor.handle(new JsonRpcRequest("lookup", JsonParser.parseString("[1]"), null)));
+        assertEquals(3, handler.lookupCount.get());
+    }
+
+    @Test
+    void errorNotCachedTest() {
+        LookupHandler handler = new LookupHandler();
+        SimpleJsonRpcExecutor executor = new SimpleJsonRpcExecutor(handler, gson);
+        executor.setResultCache(JsonRpcResultCache.builder().cache("fail", Duration.ofMinutes(1)).build());
+
+        assertTrue(executor.execute(new JsonRpcRequest("fail", null, new JsonPrimitive(1))).isError());
+        assertTrue(executor.execute(new JsonRpcRequest("fail", null, new JsonPrimitive(2))).isError());
+        assertEquals(2, handler.failCount.get());
+        assertEquals(0, executor.getResultCache().size());
+    }
+
+    @Test
+    void invalidateTest() {
+        LookupHandler handler = new LookupHandler();
+        SimpleJsonRpcExecutor executor = new SimpleJsonRpcExecutor(handler, gson);
+        JsonRpcResultCache cache = JsonRpcResultCache.builder().cache("lookup", Duration.ofMinutes(1)).build();
+        executor.setResultCache(cache);
+
+        JsonElement params = JsonParser.parseString("[1]");
+        executor.execute(new JsonRpcRequest("lookup", params, new JsonPrimitive(1)));
+        executor.execute(new JsonRpcRequest("lookup", JsonParser.parseString("[2]"), new JsonPrimitive(2)));
+        assertEquals(2, cache.size());
+
+        cache.invalidate("lookup", params);
+        assertEquals(1, cache.size());
+        executor.execute(new JsonRpcRequest("lookup", params, new JsonPrimitive(3)));
+        assertEquals(3, handler.lookupCount.get());
+
+        cache.invalidate("lookup");
+        assertEquals(0, cache.size());
+        executor.execute(new JsonRpcRequest("lookup", params, new JsonPrimitive(4)));
+        assertEquals(4, handler.lookupCount.get());
+
+        cache.invalidateAll();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void expireAndEvictTest() {
+        JsonRpcResultCache cache = JsonRpcResultCache.builder()
+                .cache("expired", Duration.ofNanos(1))
+                .cache("kept", Duration.ofMinutes(1))
+                .maximumSize(2)
+                .build();
+
+        CallKey expired = cache.key("expired", null);
+        cache.put(expired, new JsonPrimitive(1));
+        assertNull(cache.get(expired));
+
+        CallKey key1 = cache.key("kept", JsonParser.parseString("[1]"));
+        CallKey key2 = cache.key("kept", JsonParser.parseString("[2]"));
+        CallKey key3 = cache.key("kept", JsonParser.parseString("[3]"));
+        cache.put(key1, new JsonPrimitive(1));
+        cache.put(key2, new JsonPrimitive(2));
+        // 访问 key1 后, key2 成为最久未被访问的条目.
+        assertEquals(new JsonPrimitive(1), cache.get(key1));
+        cache.put(key3, new JsonPrimitive(3));
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        assertNull(cache.get(key2));
+        assertNotNull(cache.get(key1));
+        assertNotNull(cache.get(key3));
+
+        assertNull(cache.key("notCached", null));
+        assertThrows(IllegalArgumentException.class, () -> JsonRpcResultCache.builder().cache("m", Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> JsonRpcResultCache.builder().maximumSize(0));
+    }
+
+    @Test
+    void asyncTest() {
+        LookupHandler handler = new LookupHandler();
+        SimpleJsonRpcExecutor executor = new SimpleJsonRpcExecutor(handler, gson);
+        JsonRpcResultCache cache = JsonRpcResultCache.builder().cache("lookupAsync", Duration.ofMinutes(1)).build();
+        executor.setResultCache(cache);
+        AsyncJsonRpcExecutor asyncExecutor = new AsyncJsonRpcExecutor(executor);
+
+        CompletableFuture<JsonRpcResponse> first = asyncExecutor.executeAsync(
+                new JsonRpcRequest("lookupAsync", JsonParser.parseString("[1]"), new JsonPrimitive(1)));
+        // 异步方法完成后才会缓存结果.
+        assertEquals(0, cache.size());
+        handler.pending.complete(null);
+        assertEquals(new JsonPrimitive("async-1"), first.join().getResult());
+
+        JsonRpcResponse second = asyncExecutor.executeAsync(
+                new JsonRpcRequest("lookupAsync", JsonParser.parseString("[1]"), new JsonPrimitive(2))).join();
+        assertEquals(new JsonPrimitive("async-1"), second.getResult());
+        assertEquals(new JsonPrimitive(2), second.getId());
+        assertEquals(1, handler.lookupCount.get());
+    }
+
+    public static class LookupHandler {
+
+        private final AtomicInteger lookupCount = new AtomicInteger();
+        private final AtomicInteger incrementCount = new AtomicInteger();
+        private final AtomicInteger failCount = new AtomicInteger();
+        private final CompletableFuture<Void> pending = new CompletableFuture<>();
+
+        public String lookup(int id) {
+            lookupCount.incrementAndGet();
+            return "value-" + id;
+        }
+
+        public int increment() {
+            return incrementCount.incrementAndGet();
+        }
+
+        public String fail() {
+            failCount.incrementAndGet();
+            throw new IllegalStateException("Test Exception");
+        }
+
+        public CompletableFuture<String> lookupAsync(int id) {
+            lookupCount.incrementAndGet();
+            return pending.thenApply(ignored -> "async-" + id);
+        }
+
+    }
+
+}
@@ -0,0 +1,248 @@
+package net.lamgc.jsonrpc;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import net.lamgc.jsonrpc.serializer.GsonParameterSerializer;
+import net.lamgc.jsonrpc.serializer.ReturnValueDeserializer;
+import org.example.not_named_parameters.SimpleInterface;
+import org.example.testing.named_parameters.RemoteInterface;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonRpcStubGeneratorTest {
+
+    private final Gson gson = JsonRpcUtils.createGsonForJsonRpc();
+
+    @Test
+    void normalCallTest() {
+        SimpleInterface simpleImpl = JsonRpcStubGenerator.createStub(SimpleInterface.class, request -> {
+            assertEquals("getMagicNumber", request.getMethod());
+            assertTrue(request.getParams() instanceof JsonArray);
+            assertEquals(JsonParser.parseString("[12, 67]"), request.getParams());
+            assertNotNull(request.getId());
+            return new JsonRpcResponse(new JsonPrimitive(79), request.getId());
+        }, gson);
+        assertEquals(79, simpleImpl.getMagicNumber(12, 67));
+        assertFalse(Proxy.isProxyClass(simpleImpl.getClass()));
+        assertTrue(simpleImpl instanceof JsonRpcStub);
+
+        RemoteInterface remoteImpl = JsonRpcStubGenerator.createStub(RemoteInterface.class, request -> {
+            assertTrue(request.getParams() instanceof JsonObject);
+            assertEquals(new JsonPrimitive(12), ((JsonObject) request.getParams()).get("n1"));
+            assertEquals(new JsonPrimitive(67), ((JsonObject) request.getParams()).get("n2"));
+            return new JsonRpcResponse(new JsonPrimitive(79), request.getId());
+        }, gson);
+        assertEquals(79, remoteImpl.getMagicNumber(12, 67));
+
+        // 同一接口的存根类只生成一次.
+        SimpleInterface another = JsonRpcStubGenerator.createStub(SimpleInterface.class,
+                request -> new JsonRpcResponse(new JsonPrimitive(1), request.getId()), gson);
+        assertSame(simpleImpl.getClass(), another.getClass());
+        assertEquals(1, another.getMagicNumber(0, 0));
+    }
+
+    // 覆盖各种参数类型与返回类型的装箱, 拆箱和局部变量位置.
+    @Test
+    void typesTest() {
+        TypesInterface impl = JsonRpcStubGenerator.createStub(TypesInterface.class, request -> {
+            JsonElement params = request.getParams();
+            JsonElement result;
+            switch (request.getMethod()) {
+                case "primitives":
+                    assertEquals(JsonParser.parseString("[1, 2, 3.5, 4.5, true, \"c\", 5, 6, \"text\"]"), params);
+                    result = new JsonPrimitive(9007199254740993L);
+                    break;
+                case "toDouble":
+                    assertEquals(JsonParser.parseString("[1.5]"), params);
+                    result = new JsonPrimitive(2.5);
+                    break;
+                case "toFloat":
+                    assertNull(params);
+                    result = new JsonPrimitive(0.25);
+                    break;
+                case "toBoolean":
+                    result = new JsonPrimitive(true);
+                    break;
+                case "toChar":
+                    result = new JsonPrimitive("x");
+                    break;
+                case "toShort":
+                case "toByte":
+                    result = new JsonPrimitive(7);
+                    break;
+                case "toArray":
+                    assertEquals(JsonParser.parseString("[[1, 2]]"), params);
+                    result = JsonParser.parseString("[\"a\", \"b\"]");
+                    break;
+                case "toList":
+                    result = JsonParser.parseString("[1, 2]");
+                    break;
+                case "defaultMethod":
+                    result = new JsonPrimitive("remote");
+                    break;
+                default:
+                    throw new IllegalStateException(request.getMethod());
+            }
+            return new JsonRpcResponse(result, request.getId());
+        }, gson, false);
+
+        assertEquals(9007199254740993L, impl.primitives(1, 2L, 3.5, 4.5F, true, 'c', (short) 5, (byte) 6, "text"));
+        assertEquals(2.5, impl.toDouble(1.5));
+        assertEquals(0.25F, impl.toFloat());
+        assertTrue(impl.toBoolean());
+        assertEquals('x', impl.toChar());
+        assertEquals(7, impl.toShort());
+        assertEquals(7, impl.toByte());
+        assertArrayEquals(new String[]{"a", "b"}, impl.toArray(new int[]{1, 2}));
+        assertEquals(Arrays.asList(1, 2), impl.toList());
+        // 与动态代理一致, 默认方法也作为远程方法调用.
+        assertEquals("remote", impl.defaultMethod());
+    }
+
+    @Test
+    void callObjectMethod() {
+        SimpleInterface impl = JsonRpcStubGenerator.createStub(SimpleInterface.class, request -> {
+            fail("Calling object built-in methods through RPC is not allowed.");
+            return null;
+        }, gson);
+
+        assertNotNull(impl.toString());
+        assertEquals(System.identityHashCode(impl), impl.hashCode());
+        assertNotEquals(new Object(), impl);
+        assertEquals(impl, impl);
+    }
+
+    @Test
+    void errorTest() throws Exception {
+        SimpleInterface impl = JsonRpcStubGenerator.createStub(SimpleInterface.class, request ->
+                new JsonRpcResponse(new JsonRpcError(1, "Test Error", null), request.getId()), gson);
+        assertEquals(1, assertThrows(JsonRpcRequestException.class, () -> impl.getMagicNumber(12, 34)).getError().getCode());
+
+        SimpleInterface failed = JsonRpcStubGenerator.createStub(SimpleInterface.class, request -> {
+            throw new RuntimeException("Test Exception");
+        }, gson);
+        assertThrows(JsonRpcRequestException.class, () -> failed.getMagicNumber(1, 2));
+
+        // 受检异常: 方法声明了的异常直接抛出, 否则与动态代理一样包装为 UndeclaredThrowableException.
+        ReturnValueDeserializer throwing = new ReturnValueDeserializer() {
+            @Override
+            public Object deserializer(Method method, JsonRpcResponse response) throws Exception {
+                throw new IOException("Test Exception");
+            }
+        };
+        CheckedInterface checked = JsonRpcStubGenerator.createStub(CheckedInterface.class,
+                request -> new JsonRpcResponse(new JsonPrimitive(1), request.getId()),
+                new GsonParameterSerializer(gson), throwing);
+        assertThrows(IOException.class, checked::declared);
+        UndeclaredThrowableException exception = assertThrows(UndeclaredThrowableException.class, checked::undeclared);
+        assertTrue(exception.getCause() instanceof IOException);
+
+        assertThrows(IllegalArgumentException.class, () -> JsonRpcStubGenerator.createStub(Object.class,
+                request -> null, gson));
+    }
+
+    @Test
+    void callNoParameterMethodTest() {
+        NoParameterInterface impl = JsonRpcStubGenerator.createStub(NoParameterInterface.class, request -> {
+            assertNull(request.getParams());
+            return new JsonRpcResponse(null, request.getId());
+        }, gson);
+        impl.tick();
+    }
+
+    @Test
+    void asyncCallTest() {
+        CompletableFuture<JsonRpcResponse> pending = new CompletableFuture<>();
+        AsyncInterface impl = JsonRpcStubGenerator.createStub(AsyncInterface.class,
+                (AsyncJsonRpcRequestTransporter) request -> pending.thenApply(response ->
+                        new JsonRpcResponse(response.getResult(), request.getId())), gson);
+
+        CompletableFuture<List<Integer>> numbers = impl.numbers(3);
+        CompletionStage<String> name = impl.name();
+        assertFalse(numbers.isDone());
+        pending.complete(new JsonRpcResponse(JsonParser.parseString("[1, 2, 3]"), null));
+        assertEquals(Arrays.asList(1, 2, 3), numbers.join());
+        assertThrows(CompletionException.class, () -> name.toCompletableFuture().join());
+    }
+
+    public interface TypesInterface {
+
+        long primitives(int i, long l, double d, float f, boolean z, char c, short s, byte b, String text);
+
+        double toDouble(double value);
+
+        float toFloat();
+
+        boolean toBoolean();
+
+        char toChar();
+
+        short toShort();
+
+        byte toByte();
+
+        String[] toArray(int[] values);
+
+        List<Integer> toList();
+
+        default String defaultMethod() {
+            return "local";
+        }
+
+    }
+
+    private interface CheckedInterface {
+
+        int declared() throws IOException;
+
+        int undeclared();
+
+    }
+
+    @Test
+    void unsupportedAsyncTypeTest() {
+        // 无法由调用结果构造的异步类型在创建时即被拒绝, 而不是在调用时抛出 ClassCastException.
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () ->
+                JsonRpcStubGenerator.createStub(UnsupportedAsyncInterface.class, request -> null, gson));
+        assertTrue(exception.getMessage().contains("futureSubclass"));
+    }
+
+    private interface AsyncInterface {
+
+        CompletableFuture<List<Integer>> numbers(int count);
+
+        CompletionStage<String> name();
+
+    }
+
+    private interface UnsupportedAsyncInterface {
+
+        CustomFuture<String> futureSubclass();
+
+    }
+
+    static class CustomFuture<T> extends CompletableFuture<T> {
+    }
+
+    private interface NoParameterInterface {
+
+        void tick();
+
+    }
+
+}
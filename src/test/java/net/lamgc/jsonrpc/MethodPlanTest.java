@@ -0,0 +1,90 @@
+package net.lamgc.jsonrpc;
+
+import org.example.not_named_parameters.SimpleInterface;
+import org.example.testing.named_parameters.RemoteInterface;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MethodPlanTest {
+
+    @Test
+    void namedParameterTest() throws NoSuchMethodException {
+        MethodPlan plan = MethodPlan.of(RemoteInterface.class.getDeclaredMethod("getMagicNumber", int.class, int.class));
+        assertEquals("getMagicNumber", plan.getName());
+        assertEquals(RemoteInterface.class.getName() + ".getMagicNumber", plan.getQualifiedName());
+        assertTrue(plan.isNamedParameterSupported());
+        assertEquals(2, plan.getParameterCount());
+        assertEquals("n1", plan.getParameterName(0));
+        assertEquals("n2", plan.getParameterName(1));
+        assertEquals(0, plan.getParameterIndex("n1"));
+        assertEquals(1, plan.getParameterIndex("n2"));
+        assertEquals(-1, plan.getParameterIndex("n3"));
+        assertEquals(int.class, plan.getParameterClass(0));
+        assertEquals(int.class, plan.getReturnType());
+    }
+
+    @Test
+    void notNamedParameterTest() throws NoSuchMethodException {
+        MethodPlan plan = MethodPlan.of(SimpleInterface.class.getDeclaredMethod("getMagicNumber", int.class, int.class));
+        assertFalse(plan.isNamedParameterSupported());
+        assertEquals("arg0", plan.getParameterName(0));
+    }
+
+    @Test
+    void genericTypeTest() throws NoSuchMethodException {
+        Method method = GenericInterface.class.getDeclaredMethod("group", List.class);
+        MethodPlan plan = MethodPlan.of(method);
+        assertEquals(List.class, plan.getParameterClass(0));
+        assertTrue(plan.getParameterType(0) instanceof ParameterizedType);
+        assertEquals(String.class, ((ParameterizedType) plan.getParameterType(0)).getActualTypeArguments()[0]);
+        assertEquals(method.getGenericReturnType(), plan.getReturnType());
+
+        assertEquals(plan, MethodPlan.of(method));
+        assertEquals(plan.hashCode(), MethodPlan.of(method).hashCode());
+    }
+
+    @Test
+    void asyncResultTypeTest() throws NoSuchMethodException {
+        MethodPlan plan = MethodPlan.of(GenericInterface.class.getDeclaredMethod("group", List.class));
+        assertFalse(plan.isAsync());
+        assertEquals(plan.getReturnType(), plan.getResultType());
+        assertEquals(Map.class, plan.getResultClass());
+
+        plan = MethodPlan.of(GenericInterface.class.getDeclaredMethod("groupAsync", List.class));
+        assertTrue(plan.isAsync());
+        assertEquals(CompletableFuture.class, plan.getReturnClass());
+        assertEquals(Map.class, plan.getResultClass());
+        assertTrue(plan.getResultType() instanceof ParameterizedType);
+        assertEquals(Integer.class, ((ParameterizedType) plan.getResultType()).getActualTypeArguments()[1]);
+
+        plan = MethodPlan.of(GenericInterface.class.getDeclaredMethod("countAsync"));
+        assertTrue(plan.isAsync());
+        assertEquals(Number.class, plan.getResultType());
+
+        plan = MethodPlan.of(GenericInterface.class.getDeclaredMethod("rawAsync"));
+        assertTrue(plan.isAsync());
+        assertEquals(Object.class, plan.getResultType());
+    }
+
+    @SuppressWarnings({"unused", "rawtypes"})
+    private interface GenericInterface {
+
+        Map<String, Integer> group(List<String> names);
+
+        CompletableFuture<Map<String, Integer>> groupAsync(List<String> names);
+
+        CompletionStage<? extends Number> countAsync();
+
+        CompletableFuture rawAsync();
+
+    }
+
+}
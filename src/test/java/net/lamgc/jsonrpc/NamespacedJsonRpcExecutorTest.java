@@ -0,0 +1,190 @@
+package net.lamgc.jsonrpc;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NamespacedJsonRpcExecutorTest {
+
+    private final Gson gson = JsonRpcUtils.createGsonForJsonRpc();
+
+    @Test
+    void routeTest() {
+        NamespacedJsonRpcExecutor executor = new NamespacedJsonRpcExecutor(gson);
+        UserHandler users = new UserHandler("user");
+        UserHandler admins = new UserHandler("admin");
+        executor.register("user", users);
+        executor.register("admin", admins);
+        executor.register("", new RootHandler());
+
+        assertEquals(new JsonPrimitive("user-1"), executor.execute(
+                new JsonRpcRequest("user.get", JsonParser.parseString("[1]"), new JsonPrimitive(1))).getResult());
+        // 同一个类的不同实例注册在不同的命名空间下, 调用各自的 handler.
+        assertEquals(new JsonPrimitive("admin-2"), executor.execute(
+                new JsonRpcRequest("admin.get", JsonParser.parseString("[2]"), new JsonPrimitive(2))).getResult());
+        assertEquals(new JsonPrimitive("pong"), executor.execute(
+                new JsonRpcRequest("ping", null, new JsonPrimitive(3))).getResult());
+
+        // 流式读取与异步执行同样经过路由表.
+        assertEquals(new JsonPrimitive("user-3"), executor.execute(new StringReader(
+                "{\"jsonrpc\":\"2.0\",\"method\":\"user.get\",\"params\":[3],\"id\":4}")).getResult());
+        assertEquals(new JsonPrimitive("admin-async-4"), new AsyncJsonRpcExecutor(executor).executeAsync(
+                new JsonRpcRequest("admin.getAsync", JsonParser.parseString("[4]"), new JsonPrimitive(5))).join().getResult());
+
+        assertSame(users, executor.getHandler("user"));
+        assertNull(executor.getHandler("order"));
+        assertEquals(Arrays.asList("user", "admin", ""), Arrays.asList(executor.getHandlers().keySet().toArray()));
+        assertThrows(UnsupportedOperationException.class, () -> executor.getHandlers().put("order", users));
+    }
+
+    @Test
+    void methodNotFoundTest() {
+        NamespacedJsonRpcExecutor executor = new NamespacedJsonRpcExecutor(gson);
+        executor.register("user", new UserHandler("user"));
+
+        // 方法名称需要完整匹配.
+        assertThrows(NoSuchElementException.class, () ->
+                executor.findMethod(new JsonRpcRequest("get", new JsonArray(), new JsonPrimitive(1))));
+        assertThrows(NoSuchElementException.class, () ->
+                executor.findMethod(new JsonRpcRequest("user.", new JsonArray(), new JsonPrimitive(1))));
+        assertThrows(NoSuchElementException.class, () ->
+                executor.findMethod(new JsonRpcRequest("user.secret", new JsonArray(), new JsonPrimitive(1))));
+        assertThrows(NoSuchElementException.class, () ->
+                executor.findMethod(new JsonRpcRequest("user.create", new JsonArray(), new JsonPrimitive(1))));
+        assertNotNull(executor.findMethod(new JsonRpcRequest("user.get", new JsonArray(), new JsonPrimitive(1))));
+
+        JsonRpcResponse response = executor.execute(new JsonRpcRequest("order.create", null, new JsonPrimitive(2)));
+        assertTrue(response.isError());
+        assertEquals(JsonRpcErrors.METHOD_NOT_FOUND.code, ((JsonRpcError) response.getResult()).getCode());
+    }
+
+    @Test
+    void registerTest() {
+        NamespacedJsonRpcExecutor executor = new NamespacedJsonRpcExecutor(gson);
+        executor.register("user", new UserHandler("user"));
+
+        assertThrows(IllegalArgumentException.class, () -> executor.register("user", new UserHandler("other")));
+        // 无法注册时路由表不会发生变化.
+        assertThrows(IllegalArgumentException.class, () -> executor.register("overload", new OverloadHandler()));
+        assertEquals(1, executor.getHandlers().size());
+        assertThrows(NoSuchElementException.class, () ->
+                executor.findMethod(new JsonRpcRequest("overload.value", new JsonArray(), new JsonPrimitive(1))));
+
+        // 运行期间注册的 handler 对之后的请求立即生效.
+        JsonRpcRequest request = new JsonRpcRequest("order.create", JsonParser.parseString("[\"book\"]"), new JsonPrimitive(1));
+        assertTrue(executor.execute(request).isError());
+        executor.register("order", new OrderHandler());
+        assertEquals(new JsonPrimitive("order:book"), executor.execute(request).getResult());
+        assertEquals(new JsonPrimitive("user-1"), executor.execute(
+                new JsonRpcRequest("user.get", JsonParser.parseString("[1]"), new JsonPrimitive(2))).getResult());
+    }
+
+    @Test
+    void invokeFailureTest() {
+        NamespacedJsonRpcExecutor executor = new NamespacedJsonRpcExecutor(gson);
+        executor.register("order", new OrderHandler());
+
+        // 方法自身抛出的异常与反射调用时的处理方式相同.
+        JsonRpcResponse response = executor.execute(new JsonRpcRequest("order.fail", null, new JsonPrimitive(1)));
+        assertTrue(response.isError());
+        JsonRpcError error = (JsonRpcError) response.getResult();
+        assertEquals(JsonRpcErrors.INTERNAL_ERROR.code, error.getCode());
+        assertEquals(IllegalStateException.class.getName(),
+                ((JsonObject) error.getData()).get("exception").getAsString());
+    }
+
+    @Test
+    void invokeByMethodTest() throws Exception {
+        NamespacedJsonRpcExecutor executor = new NamespacedJsonRpcExecutor(gson);
+        executor.register("order", new OrderHandler());
+        executor.register("user", new UserHandler("user"));
+
+        // 只注册在一个命名空间下的方法可以直接以方法调用.
+        Method create = OrderHandler.class.getMethod("create", String.class);
+        assertEquals("order:book", executor.invokeMethod(create, new Object[]{"book"}));
+        Method get = UserHandler.class.getMethod("get", int.class);
+        assertEquals("user-1", executor.invokeMethod(get, new Object[]{1}));
+        assertThrows(NoSuchElementException.class, () ->
+                executor.invokeMethod(RootHandler.class.getMethod("ping"), new Object[0]));
+
+        // 同一个方法注册在多个命名空间下时, 无法确定 handler.
+        executor.register("admin", new UserHandler("admin"));
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () ->
+                executor.invokeMethod(get, new Object[]{1}));
+        assertTrue(exception.getMessage().contains(get.toString()));
+        assertEquals("order:book", executor.invokeMethod(create, new Object[]{"book"}));
+        // 通过调用计划调用不受影响.
+        assertEquals(new JsonPrimitive("admin-2"), executor.execute(
+                new JsonRpcRequest("admin.get", JsonParser.parseString("[2]"), new JsonPrimitive(1))).getResult());
+    }
+
+    @SuppressWarnings("unused")
+    public static class UserHandler {
+
+        private final String prefix;
+
+        public UserHandler(String prefix) {
+            this.prefix = prefix;
+        }
+
+        public String get(int id) {
+            return prefix + "-" + id;
+        }
+
+        public CompletableFuture<String> getAsync(int id) {
+            return CompletableFuture.completedFuture(prefix + "-async-" + id);
+        }
+
+        private String secret() {
+            return prefix;
+        }
+
+    }
+
+    @SuppressWarnings("unused")
+    public static class OrderHandler {
+
+        public String create(String item) {
+            return "order:" + item;
+        }
+
+        public void fail() {
+            throw new IllegalStateException("Test Exception");
+        }
+
+    }
+
+    @SuppressWarnings("unused")
+    public static class RootHandler {
+
+        public String ping() {
+            return "pong";
+        }
+
+    }
+
+    @SuppressWarnings("unused")
+    public static class OverloadHandler {
+
+        public int value(int value) {
+            return value;
+        }
+
+        public int value(String value) {
+            return value.length();
+        }
+
+    }
+
+}
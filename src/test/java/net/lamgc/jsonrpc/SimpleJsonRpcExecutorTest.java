@@ -2,14 +2,17 @@ package net.lamgc.jsonrpc;
 
 import com.google.gson.Gson;
 import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
 import com.google.gson.JsonPrimitive;
 import org.example.not_named_parameters.SimpleInterfaceImpl;
 import org.junit.jupiter.api.Test;
 
+import java.lang.reflect.Method;
 import java.util.NoSuchElementException;
 
-import static org.junit.jupiter.api.Assertions.assertNotNull;
-import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.*;
 
 class SimpleJsonRpcExecutorTest {
 
@@ -37,6 +40,60 @@ class SimpleJsonRpcExecutorTest {
         assertNotNull(executor.findMethod(new JsonRpcRequest("publicMethod", new JsonArray(), new JsonPrimitive(1))));
     }
 
+    @Test
+    void invokeMethodTest() {
+        Gson gson = JsonRpcUtils.createGsonForJsonRpc();
+        SimpleJsonRpcExecutor executor = new SimpleJsonRpcExecutor(new SimpleInterfaceImpl(), gson);
+
+        JsonArray params = new JsonArray();
+        params.add(12);
+        params.add(67);
+        JsonRpcResponse response = executor.execute(new JsonRpcRequest("getMagicNumber", params, new JsonPrimitive(1)));
+        assertFalse(response.isError());
+        assertEquals(79, ((JsonElement) response.getResult()).getAsInt());
+
+        executor = new SimpleJsonRpcExecutor(new TestHandler(), gson);
+        response = executor.execute(new JsonRpcRequest("publicMethod", new JsonArray(), new JsonPrimitive(1)));
+        assertFalse(response.isError());
+
+        // 方法自身抛出的异常需要与反射调用时一样, 以方法抛出的异常作为错误信息.
+        response = executor.execute(new JsonRpcRequest("throwMethod", new JsonArray(), new JsonPrimitive(1)));
+        assertTrue(response.isError());
+        JsonRpcError error = (JsonRpcError) response.getResult();
+        assertEquals(JsonRpcErrors.INTERNAL_ERROR.code, error.getCode());
+        assertEquals(IllegalStateException.class.getName(),
+                ((JsonObject) error.getData()).get("exception").getAsString());
+
+        response = executor.execute(new JsonRpcRequest("throwRpcError", new JsonArray(), new JsonPrimitive(1)));
+        assertTrue(response.isError());
+        assertEquals(new JsonRpcError(1, "Test error.", null), response.getResult());
+    }
+
+    // 参数不能直接传递给方法时, MethodHandle 调用与反射调用抛出相同的异常, 而不是作为方法抛出的异常.
+    @Test
+    void argumentMismatchTest() throws Exception {
+        Gson gson = JsonRpcUtils.createGsonForJsonRpc();
+        TestHandler handler = new TestHandler();
+        SimpleJsonRpcExecutor executor = new SimpleJsonRpcExecutor(handler, gson);
+        Method method = TestHandler.class.getMethod("primitiveMethod", int.class, long.class);
+
+        for (Object[] params : new Object[][]{{null, 1L}, {1L, 1L}, {1}}) {
+            Exception reflective = assertThrows(Exception.class, () -> method.invoke(handler, params));
+            Exception methodHandle = assertThrows(Exception.class, () -> executor.invokeMethod(method, params));
+            assertEquals(IllegalArgumentException.class, reflective.getClass());
+            assertEquals(reflective.getClass(), methodHandle.getClass());
+        }
+        // 拓宽转换与反射调用一致.
+        assertEquals(3L, executor.invokeMethod(method, new Object[]{1, 2}));
+
+        JsonRpcResponse response = executor.execute(new JsonRpcRequest("primitiveMethod",
+                JsonParser.parseString("[null, 1]"), new JsonPrimitive(1)));
+        assertTrue(response.isError());
+        JsonRpcError error = (JsonRpcError) response.getResult();
+        assertEquals(IllegalArgumentException.class.getName(),
+                ((JsonObject) error.getData()).get("exception").getAsString());
+    }
+
     @Test
     void overloadHandlerTest() {
         assertThrows(IllegalArgumentException.class, () -> new SimpleJsonRpcExecutor(new OverloadHandler(), new Gson()));
@@ -53,6 +110,18 @@ class SimpleJsonRpcExecutorTest {
 
         }
 
+        public long primitiveMethod(int n1, long n2) {
+            return n1 + n2;
+        }
+
+        public void throwMethod() {
+            throw new IllegalStateException("Test exception.");
+        }
+
+        public void throwRpcError() {
+            throw new JsonRpcExecuteException(new JsonRpcError(1, "Test error.", null));
+        }
+
         private void privateMethod() {
 
         }
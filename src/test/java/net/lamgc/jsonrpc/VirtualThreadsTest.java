@@ -0,0 +1,59 @@
+package net.lamgc.jsonrpc;
+
+import com.google.gson.JsonPrimitive;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VirtualThreadsTest {
+
+    @Test
+    void executorTest() throws Exception {
+        ExecutorService fallback = Executors.newSingleThreadExecutor();
+        ExecutorService executor = VirtualThreads.newVirtualThreadPerTaskExecutor(() -> fallback);
+        try {
+            if (VirtualThreads.isSupported()) {
+                assertNotSame(fallback, executor);
+                assertDoesNotThrow(() -> VirtualThreads.newVirtualThreadPerTaskExecutor().shutdown());
+            } else {
+                assertSame(fallback, executor);
+                assertThrows(UnsupportedOperationException.class, VirtualThreads::newVirtualThreadPerTaskExecutor);
+            }
+            assertEquals(1, executor.submit(() -> 1).get());
+        } finally {
+            executor.shutdown();
+            fallback.shutdown();
+        }
+    }
+
+    // 包装后的阻塞传输器需要在执行器中传输请求, 而不是在调用线程中.
+    @Test
+    void blockingTransporterTest() {
+        ExecutorService executor = VirtualThreads.newVirtualThreadPerTaskExecutor(Executors::newCachedThreadPool);
+        try {
+            Thread caller = Thread.currentThread();
+            AsyncJsonRpcRequestTransporter transporter = AsyncJsonRpcRequestTransporter.of(request -> {
+                assertNotSame(caller, Thread.currentThread());
+                return new JsonRpcResponse(new JsonPrimitive(1), request.getId());
+            }, executor);
+            CompletableFuture<JsonRpcResponse> future =
+                    transporter.transportRequestAsync(new JsonRpcRequest("test", null, new JsonPrimitive(1)));
+            assertEquals(new JsonPrimitive(1), future.join().getResult());
+
+            AsyncJsonRpcRequestTransporter failedTransporter = AsyncJsonRpcRequestTransporter.of(request -> {
+                throw new IllegalStateException();
+            }, executor);
+            assertThrows(IllegalStateException.class, () ->
+                    failedTransporter.transportRequest(new JsonRpcRequest("test", null, new JsonPrimitive(1))));
+            future = failedTransporter.transportRequestAsync(new JsonRpcRequest("test", null, new JsonPrimitive(1)));
+            assertTrue(assertThrows(Exception.class, future::join).getCause() instanceof IllegalStateException);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+}
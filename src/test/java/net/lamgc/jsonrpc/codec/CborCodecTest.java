@@ -0,0 +1,155 @@
+package net.lamgc.jsonrpc.codec;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CborCodecTest {
+
+    private final JsonRpcCodec codec = JsonRpcCodecs.CBOR;
+
+    @Test
+    void encodeTest() throws IOException {
+        // 测试向量来自 RFC 8949 附录 A.
+        assertEncoded("00", new JsonPrimitive(0));
+        assertEncoded("17", new JsonPrimitive(23));
+        assertEncoded("1818", new JsonPrimitive(24));
+        assertEncoded("1903e8", new JsonPrimitive(1000));
+        assertEncoded("1a000f4240", new JsonPrimitive(1000000));
+        assertEncoded("1b000000e8d4a51000", new JsonPrimitive(1000000000000L));
+        assertEncoded("1bffffffffffffffff", new JsonPrimitive(new BigInteger("18446744073709551615")));
+        assertEncoded("c249010000000000000000", new JsonPrimitive(new BigInteger("18446744073709551616")));
+        assertEncoded("3bffffffffffffffff", new JsonPrimitive(new BigInteger("-18446744073709551616")));
+        assertEncoded("c349010000000000000000", new JsonPrimitive(new BigInteger("-18446744073709551617")));
+        assertEncoded("20", new JsonPrimitive(-1));
+        assertEncoded("3903e7", new JsonPrimitive(-1000));
+        assertEncoded("fa47c35000", new JsonPrimitive(100000.0));
+        assertEncoded("fb3ff199999999999a", new JsonPrimitive(1.1));
+        assertEncoded("f4", new JsonPrimitive(false));
+        assertEncoded("f5", new JsonPrimitive(true));
+        assertEncoded("f6", JsonNull.INSTANCE);
+        assertEncoded("60", new JsonPrimitive(""));
+        assertEncoded("6449455446", new JsonPrimitive("IETF"));
+        assertEncoded("62c3bc", new JsonPrimitive("ü"));
+        assertEncoded("80", new JsonArray());
+        assertEncoded("8301820203820405", JsonParser.parseString("[1,[2,3],[4,5]]"));
+        assertEncoded("a26161016162820203", JsonParser.parseString("{\"a\":1,\"b\":[2,3]}"));
+
+        // Gson 解析得到的数字依然按整数编码.
+        assertEncoded("1903e8", JsonParser.parseString("1000"));
+        assertEncoded("fa3fc00000", JsonParser.parseString("1.5"));
+    }
+
+    @Test
+    void decodeTest() throws IOException {
+        assertEquals(new JsonPrimitive(1000L), decode("1903e8"));
+        assertEquals(new JsonPrimitive(new BigInteger("18446744073709551615")), decode("1bffffffffffffffff"));
+        assertEquals(new JsonPrimitive(new BigInteger("18446744073709551616")), decode("c249010000000000000000"));
+        assertEquals(new JsonPrimitive(new BigInteger("-18446744073709551617")), decode("c349010000000000000000"));
+        assertEquals(1.5, decode("f93e00").getAsDouble());
+        assertEquals(65504.0, decode("f97bff").getAsDouble());
+        assertEquals(JsonNull.INSTANCE, decode("f7"));
+        // 字节串将转换为 Base64 字符串.
+        assertEquals(new JsonPrimitive("AQIDBA=="), decode("4401020304"));
+
+        // 不定长数据项.
+        assertEquals(new JsonPrimitive("streaming"), decode("7f657374726561646d696e67ff"));
+        assertEquals(JsonParser.parseString("[1,[2,3],[4,5]]"), decode("9f018202039f0405ffff"));
+        assertEquals(JsonParser.parseString("{\"a\":1,\"b\":[2,3]}"), decode("bf61610161629f0203ffff"));
+    }
+
+    @Test
+    void roundTripTest() throws IOException {
+        JsonObject request = JsonParser.parseString("{\"jsonrpc\":\"2.0\",\"method\":\"echo\","
+                + "\"params\":[\"你好\",-42,3.14,1e300,true,null,{\"nested\":[]}],\"id\":\"abc\"}").getAsJsonObject();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        codec.encode(request, out);
+        JsonElement decoded = codec.decode(new ByteArrayInputStream(out.toByteArray()));
+
+        JsonArray params = decoded.getAsJsonObject().getAsJsonArray("params");
+        assertEquals("你好", params.get(0).getAsString());
+        assertEquals(-42, params.get(1).getAsInt());
+        assertEquals(3.14, params.get(2).getAsDouble());
+        assertEquals(1e300, params.get(3).getAsDouble());
+        assertTrue(params.get(4).getAsBoolean());
+        assertTrue(params.get(5).isJsonNull());
+        assertEquals(0, params.get(6).getAsJsonObject().getAsJsonArray("nested").size());
+        assertEquals("abc", decoded.getAsJsonObject().get("id").getAsString());
+        assertEquals("echo", decoded.getAsJsonObject().get("method").getAsString());
+    }
+
+    @Test
+    void malformedTest() {
+        // 数据不完整.
+        assertThrows(JsonParseException.class, () -> decode("1903"));
+        assertThrows(JsonParseException.class, () -> decode("8301"));
+        assertThrows(JsonParseException.class, () -> decode(""));
+        // 意外的 break.
+        assertThrows(JsonParseException.class, () -> decode("ff"));
+        // 键不是文本字符串.
+        assertThrows(JsonParseException.class, () -> decode("a10102"));
+        // 保留的附加信息.
+        assertThrows(JsonParseException.class, () -> decode("1c"));
+
+        // 嵌套过深.
+        StringBuilder deep = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            deep.append("81");
+        }
+        deep.append("00");
+        assertThrows(JsonParseException.class, () -> decode(deep.toString()));
+    }
+
+    @Test
+    void registryTest() {
+        assertSame(JsonRpcCodecs.JSON, JsonRpcCodecs.forName("JSON"));
+        assertSame(JsonRpcCodecs.CBOR, JsonRpcCodecs.forName("cbor"));
+        assertNull(JsonRpcCodecs.forName("xml"));
+        assertSame(JsonRpcCodecs.JSON, JsonRpcCodecs.forContentType("Application/JSON; charset=utf-8"));
+        assertSame(JsonRpcCodecs.CBOR, JsonRpcCodecs.forContentType("application/cbor"));
+        assertNull(JsonRpcCodecs.forContentType("text/plain"));
+        assertNull(JsonRpcCodecs.forContentType(null));
+        assertTrue(JsonRpcCodecs.getCodecs().contains(JsonRpcCodecs.CBOR));
+        assertTrue(JsonRpcCodecs.CBOR.isBinary());
+        assertFalse(JsonRpcCodecs.JSON.isBinary());
+    }
+
+    private void assertEncoded(String expectedHex, JsonElement element) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        codec.encode(element, out);
+        assertEquals(expectedHex, toHex(out.toByteArray()), element.toString());
+    }
+
+    private JsonElement decode(String hex) throws IOException {
+        return codec.decode(new ByteArrayInputStream(fromHex(hex)));
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder builder = new StringBuilder();
+        for (byte b : bytes) {
+            builder.append(String.format("%02x", b & 0xFF));
+        }
+        return builder.toString();
+    }
+
+    private static byte[] fromHex(String hex) {
+        byte[] bytes = new byte[hex.length() / 2];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) Integer.parseInt(hex.substring(i * 2, i * 2 + 2), 16);
+        }
+        return bytes;
+    }
+
+}
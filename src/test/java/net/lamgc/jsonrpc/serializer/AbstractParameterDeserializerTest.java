@@ -1,12 +1,15 @@
 package net.lamgc.jsonrpc.serializer;
 
 import com.google.gson.*;
+import com.google.gson.stream.JsonReader;
 import net.lamgc.jsonrpc.JsonRpcRequest;
 import net.lamgc.jsonrpc.JsonRpcUtils;
+import net.lamgc.jsonrpc.MethodPlan;
 import org.example.not_named_parameters.SimpleInterface;
 import org.example.testing.named_parameters.RemoteInterface;
 import org.junit.jupiter.api.Test;
 
+import java.io.StringReader;
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
 
@@ -70,6 +73,25 @@ class AbstractParameterDeserializerTest {
 
     }
 
+    @Test
+    void streamingDeserializer() throws Exception {
+        ParameterDeserializer deserializer = new SimpleParameterDeserializer();
+        Object[] expectParams = new Object[]{42, 23};
+        MethodPlan simplePlan = MethodPlan.of(SimpleInterface.class.getDeclaredMethod("getMagicNumber", int.class, int.class));
+        MethodPlan remotePlan = MethodPlan.of(RemoteInterface.class.getDeclaredMethod("getMagicNumber", int.class, int.class));
+
+        assertArrayEquals(expectParams, deserializer.deserializer(simplePlan, new JsonReader(new StringReader("[42, 23]"))));
+        // 命名参数可以以任意顺序出现.
+        assertArrayEquals(expectParams, deserializer.deserializer(remotePlan, new JsonReader(new StringReader("{\"n2\": 23, \"n1\": 42}"))));
+
+        assertThrows(IllegalArgumentException.class, () ->
+                deserializer.deserializer(simplePlan, new JsonReader(new StringReader("{\"n1\": 42, \"n2\": 23}"))));
+        assertThrows(ParameterCountMismatchException.class, () ->
+                deserializer.deserializer(simplePlan, new JsonReader(new StringReader("[42, 23, 12]"))));
+        assertThrows(ParameterCountMismatchException.class, () ->
+                deserializer.deserializer(remotePlan, new JsonReader(new StringReader("{\"n1\": 42}"))));
+    }
+
     private static class SimpleParameterDeserializer extends AbstractParameterDeserializer {
 
         private final Gson gson = JsonRpcUtils.createGsonForJsonRpc();
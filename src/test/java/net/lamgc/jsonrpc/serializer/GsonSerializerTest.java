@@ -0,0 +1,125 @@
+package net.lamgc.jsonrpc.serializer;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import net.lamgc.jsonrpc.JsonRpcRequest;
+import net.lamgc.jsonrpc.JsonRpcResponse;
+import net.lamgc.jsonrpc.JsonRpcUtils;
+import net.lamgc.jsonrpc.MethodPlan;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GsonSerializerTest {
+
+    private final Gson gson = JsonRpcUtils.createGsonForJsonRpc();
+
+    @Test
+    void genericReturnValueTest() throws Exception {
+        GsonReturnValueDeserializer deserializer = new GsonReturnValueDeserializer(gson);
+        JsonArray items = new JsonArray();
+        items.add(gson.toJsonTree(new Item(1, "a")));
+        JsonRpcResponse response = new JsonRpcResponse(items, new JsonPrimitive(1));
+
+        // 按泛型返回类型转换, 而不是转换为 LinkedTreeMap.
+        Method method = GenericService.class.getMethod("list", List.class);
+        for (Object value : Arrays.asList(
+                deserializer.deserializer(method, response),
+                deserializer.deserializer(MethodPlan.of(method), response),
+                // 再次转换时使用缓存的 TypeAdapter.
+                deserializer.deserializer(MethodPlan.of(method), response))) {
+            assertEquals(Collections.singletonList(new Item(1, "a")), value);
+        }
+
+        MethodPlan asyncPlan = MethodPlan.of(GenericService.class.getMethod("listAsync"));
+        assertEquals(Collections.singletonList(new Item(1, "a")), deserializer.deserializer(asyncPlan, response));
+
+        MethodPlan mapPlan = MethodPlan.of(GenericService.class.getMethod("map"));
+        JsonObject map = new JsonObject();
+        map.add("x", gson.toJsonTree(new Item(2, "b")));
+        Object mapValue = deserializer.deserializer(mapPlan, new JsonRpcResponse(map, new JsonPrimitive(1)));
+        assertEquals(new Item(2, "b"), ((Map<?, ?>) mapValue).get("x"));
+
+        assertNull(deserializer.deserializer(mapPlan, new JsonRpcResponse(null, new JsonPrimitive(1))));
+    }
+
+    @Test
+    void genericParameterTest() throws Exception {
+        Method method = GenericService.class.getMethod("list", List.class);
+        List<Item> items = Collections.singletonList(new Item(1, null));
+        JsonArray params = new JsonArray();
+        params.add(gson.toJsonTree(items));
+
+        // 旧的基于 Method 的转换也需要按泛型参数类型转换.
+        GsonParameterDeserializer deserializer = new GsonParameterDeserializer(gson);
+        assertEquals(items, deserializer.toParameterObject(method, method.getParameters()[0], params.get(0)));
+        assertEquals(items, deserializer.deserializer(MethodPlan.of(method),
+                new JsonRpcRequest("list", params, new JsonPrimitive(1)))[0]);
+
+        // 参数值的类型与声明类型相同时使用缓存的 TypeAdapter, 需要与 toJsonTree 的结果一致.
+        MethodPlan itemPlan = MethodPlan.of(GenericService.class.getMethod("item", Item.class));
+        GsonParameterSerializer serializer = new GsonParameterSerializer(gson);
+        JsonArray expected = new JsonArray();
+        expected.add(gson.toJsonTree(new Item(1, null)));
+        assertEquals(expected, serializer.serializer(itemPlan, new Object[]{new Item(1, null)}));
+        assertEquals(params, serializer.serializer(MethodPlan.of(method), new Object[]{items}));
+
+        // 没有启用 serializeNulls 时, 不写出值为 null 的字段.
+        Gson defaultGson = new Gson();
+        JsonElement element = new GsonParameterSerializer(defaultGson)
+                .serializer(itemPlan, new Object[]{new Item(1, null)}).getAsJsonArray().get(0);
+        assertFalse(element.getAsJsonObject().has("name"));
+
+        JsonArray nullParams = new JsonArray();
+        nullParams.add((JsonElement) null);
+        assertEquals(nullParams, serializer.serializer(itemPlan, new Object[]{null}));
+    }
+
+    public interface GenericService {
+
+        List<Item> list(List<Item> items);
+
+        CompletableFuture<List<Item>> listAsync();
+
+        Map<String, Item> map();
+
+        Item item(Item item);
+
+    }
+
+    public static class Item {
+
+        private int id;
+        private String name;
+
+        public Item(int id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Item item = (Item) o;
+            return id == item.id && Objects.equals(name, item.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(id, name);
+        }
+    }
+
+}
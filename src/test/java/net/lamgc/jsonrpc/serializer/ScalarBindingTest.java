@@ -0,0 +1,168 @@
+package net.lamgc.jsonrpc.serializer;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.LongSerializationPolicy;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import net.lamgc.jsonrpc.JsonRpcRequest;
+import net.lamgc.jsonrpc.JsonRpcUtils;
+import net.lamgc.jsonrpc.MethodPlan;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScalarBindingTest {
+
+    private final static Type[] TYPES = {
+            int.class, Integer.class, long.class, Long.class, double.class, Double.class,
+            boolean.class, Boolean.class, String.class
+    };
+
+    private final static List<String> INPUTS = Arrays.asList(
+            "42", "-7", "0", "2147483647", "2147483648", "-2147483649", "9223372036854775807", "9223372036854775808",
+            "42.0", "42.5", "1e3", "1.5e300", "1e400", "-0.0", "\"42\"", "\"42.5\"", "\"abc\"", "\"\"", "\"NaN\"",
+            "\"true\"", "\"TRUE\"", "true", "false", "null", "[1]", "{}"
+    );
+
+    private final static List<Object> VALUES = Arrays.asList(
+            0, -1, Integer.MAX_VALUE, Long.MIN_VALUE, 0.5, -0.0, 1e300, Double.NaN, Double.POSITIVE_INFINITY,
+            true, false, "", "a\"<b> "
+    );
+
+    private final Gson gson = JsonRpcUtils.createGsonForJsonRpc();
+
+    @Test
+    void readSemanticsTest() throws Exception {
+        for (Type type : TYPES) {
+            ScalarBinding binding = ScalarBinding.resolve(gson, type);
+            assertNotNull(binding, type.getTypeName());
+            TypeAdapter<?> adapter = gson.getAdapter((Class<?>) type);
+            for (String input : INPUTS) {
+                String message = type.getTypeName() + " <- " + input;
+                JsonElement element = JsonParser.parseString(input);
+                assertSameOutcome(() -> adapter.fromJsonTree(element), () -> binding.fromJsonTree(element), message);
+                assertSameOutcome(() -> adapter.read(new JsonReader(new StringReader(input))),
+                        () -> binding.read(new JsonReader(new StringReader(input))), message);
+            }
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void writeSemanticsTest() throws Exception {
+        for (Object value : VALUES) {
+            ScalarBinding binding = ScalarBinding.resolve(gson, value.getClass());
+            assertNotNull(binding, value.getClass().getName());
+            String message = String.valueOf(value);
+            assertSameOutcome(() -> gson.toJsonTree(value), () -> binding.toJsonTree(value), message);
+
+            TypeAdapter<Object> adapter = (TypeAdapter<Object>) gson.getAdapter(value.getClass());
+            assertSameOutcome(() -> {
+                StringWriter out = new StringWriter();
+                adapter.write(gson.newJsonWriter(out), value);
+                return out.toString();
+            }, () -> {
+                StringWriter out = new StringWriter();
+                binding.write(gson.newJsonWriter(out), value);
+                return out.toString();
+            }, message);
+        }
+        StringWriter out = new StringWriter();
+        ScalarBinding.STRING.write(new JsonWriter(out), null);
+        assertEquals("null", out.toString());
+    }
+
+    @Test
+    void resolveTest() {
+        assertNull(ScalarBinding.resolve(gson, Object.class));
+        assertNull(ScalarBinding.resolve(gson, short.class));
+        assertNull(ScalarBinding.resolve(gson, Number.class));
+        assertEquals(ScalarBinding.DOUBLE, ScalarBinding.resolve(new Gson(), double.class));
+
+        // Gson 使用了自定义的 TypeAdapter 或序列化选项时, 不使用快速绑定.
+        Gson customGson = new GsonBuilder()
+                .registerTypeAdapter(Integer.class, new TypeAdapter<Integer>() {
+                    @Override
+                    public void write(JsonWriter out, Integer value) {
+                        throw new UnsupportedOperationException();
+                    }
+
+                    @Override
+                    public Integer read(JsonReader in) {
+                        throw new UnsupportedOperationException();
+                    }
+                })
+                .setLongSerializationPolicy(LongSerializationPolicy.STRING)
+                .serializeSpecialFloatingPointValues()
+                .create();
+        assertNull(ScalarBinding.resolve(customGson, Integer.class));
+        assertEquals(ScalarBinding.INT, ScalarBinding.resolve(customGson, int.class));
+        assertNull(ScalarBinding.resolve(customGson, long.class));
+        assertNull(ScalarBinding.resolve(customGson, Double.class));
+        assertEquals(ScalarBinding.STRING, ScalarBinding.resolve(customGson, String.class));
+
+        GsonReturnValueSerializer serializer = new GsonReturnValueSerializer(customGson);
+        assertEquals(new JsonPrimitive("42"), serializer.serializer((Method) null, 42L));
+    }
+
+    @Test
+    void parameterTypeMismatchTest() throws Exception {
+        GsonParameterDeserializer deserializer = new GsonParameterDeserializer(gson);
+        MethodPlan plan = MethodPlan.of(ScalarService.class.getMethod("call", int.class, long.class, boolean.class, String.class));
+        JsonElement params = JsonParser.parseString("[\"42\", 9223372036854775807, \"yes\", 1.5]");
+
+        Object[] expected = {42, Long.MAX_VALUE, false, "1.5"};
+        assertArrayEquals(expected, deserializer.deserializer(plan, new JsonRpcRequest("call", params, null)));
+        assertArrayEquals(expected, deserializer.deserializer(plan, new JsonReader(new StringReader(params.toString()))));
+
+        // 溢出与类型不匹配依然抛出 ParameterTypeMismatchException.
+        for (String bad : new String[]{"[2147483648, 1, true, \"a\"]", "[1, 1.5, true, \"a\"]",
+                "[1, 1, 1, \"a\"]", "[1, 1, true, {}]"}) {
+            assertThrows(ParameterTypeMismatchException.class,
+                    () -> deserializer.deserializer(plan, new JsonReader(new StringReader(bad))), bad);
+        }
+        // 与 Gson 的 JsonTreeReader 一致, 从 JsonElement 转换时数值将被截断, 只有类型不匹配时抛出异常.
+        assertArrayEquals(new Object[]{Integer.MIN_VALUE, 1L, true, "a"}, deserializer.deserializer(plan,
+                new JsonRpcRequest("call", JsonParser.parseString("[2147483648, 1.5, true, \"a\"]"), null)));
+        for (String bad : new String[]{"[1, 1, 1, \"a\"]", "[1, 1, true, {}]"}) {
+            assertThrows(ParameterTypeMismatchException.class, () -> deserializer.deserializer(plan,
+                    new JsonRpcRequest("call", JsonParser.parseString(bad), null)), bad);
+        }
+    }
+
+    private static void assertSameOutcome(Callable<?> expected, Callable<?> actual, String message) {
+        Object expectedValue;
+        try {
+            expectedValue = expected.call();
+        } catch (Exception e) {
+            Exception thrown = assertThrows(Exception.class, actual::call, message);
+            assertEquals(e.getClass(), thrown.getClass(), message);
+            return;
+        }
+        Object actualValue = assertDoesNotThrow(actual::call, message);
+        assertEquals(expectedValue, actualValue, message);
+        if (expectedValue != null) {
+            assertEquals(expectedValue.getClass(), actualValue.getClass(), message);
+        }
+    }
+
+    public interface ScalarService {
+
+        String call(int a, long b, boolean c, String d);
+
+    }
+
+}
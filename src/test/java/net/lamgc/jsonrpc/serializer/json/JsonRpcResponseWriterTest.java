@@ -0,0 +1,65 @@
+package net.lamgc.jsonrpc.serializer.json;
+
+import com.google.gson.*;
+import com.google.gson.stream.JsonWriter;
+import net.lamgc.jsonrpc.JsonRpcError;
+import net.lamgc.jsonrpc.JsonRpcException;
+import net.lamgc.jsonrpc.JsonRpcResponse;
+import net.lamgc.jsonrpc.JsonRpcUtils;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+
+import static net.lamgc.jsonrpc.JsonRpcConst.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonRpcResponseWriterTest {
+
+    private final Gson gson = JsonRpcUtils.createGsonForJsonRpc();
+
+    @Test
+    void writeSameAsSerializer() throws IOException {
+        JsonObject data = new JsonObject();
+        data.addProperty("detail", "测试");
+        JsonRpcResponse[] responses = new JsonRpcResponse[]{
+                new JsonRpcResponse(new JsonPrimitive("Success."), new JsonPrimitive(1)),
+                new JsonRpcResponse(JsonNull.INSTANCE, new JsonPrimitive("req1")),
+                new JsonRpcResponse(new JsonRpcError(-1, "error.", null), new JsonPrimitive(2)),
+                new JsonRpcResponse(new JsonRpcError(-2, "error.", data), JsonNull.INSTANCE),
+                new JsonRpcResponse(new JsonRpcError(-3, "error.", "plain data"), null)
+        };
+
+        JsonRpcResponseWriter responseWriter = new JsonRpcResponseWriter();
+        for (JsonRpcResponse response : responses) {
+            StringBuilder builder = new StringBuilder();
+            responseWriter.write(response, builder);
+            assertEquals(gson.toJsonTree(response), JsonParser.parseString(builder.toString()));
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            responseWriter.write(response, out);
+            assertEquals(builder.toString(), out.toString(StandardCharsets.UTF_8.name()));
+        }
+    }
+
+    @Test
+    void writeResult() throws IOException {
+        JsonRpcResponseWriter responseWriter = new JsonRpcResponseWriter();
+
+        // 即使目标 JsonWriter 不序列化 null, result 字段也必须存在.
+        StringWriter output = new StringWriter();
+        responseWriter.writeResult(new JsonPrimitive(1), JsonWriter::nullValue,
+                new Gson().newJsonWriter(output));
+        JsonObject json = JsonParser.parseString(output.toString()).getAsJsonObject();
+        assertTrue(json.has(JSON_RPC_RESPONSE_RESULT_FIELD));
+        assertEquals(JsonNull.INSTANCE, json.get(JSON_RPC_RESPONSE_RESULT_FIELD));
+        assertEquals(1, json.get(JSON_RPC_ID_FIELD).getAsInt());
+
+        assertThrows(JsonRpcException.class, () -> responseWriter.writeResult(new JsonPrimitive(1), writer -> {
+            throw new Exception();
+        }, gson.newJsonWriter(new StringWriter())));
+    }
+
+}
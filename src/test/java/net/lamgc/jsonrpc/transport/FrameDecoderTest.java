@@ -0,0 +1,66 @@
+package net.lamgc.jsonrpc.transport;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FrameDecoderTest {
+
+    @Test
+    void newlineDelimitedTest() throws IOException {
+        FrameDecoder decoder = new FrameDecoder(FrameFormat.NEWLINE_DELIMITED, 1024);
+        List<byte[]> frames = new ArrayList<>();
+
+        decoder.decode(ascii("{\"a\":1}\n{\"b\""), frames);
+        assertEquals(1, frames.size());
+        assertEquals("{\"a\":1}", new String(frames.get(0), StandardCharsets.UTF_8));
+
+        // 跨缓冲区的帧, 以及 CRLF 和空行.
+        decoder.decode(ascii(":2}\r\n\n[1]\n"), frames);
+        assertEquals(3, frames.size());
+        assertEquals("{\"b\":2}", new String(frames.get(1), StandardCharsets.UTF_8));
+        assertEquals("[1]", new String(frames.get(2), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void lengthPrefixedTest() throws IOException {
+        FrameDecoder decoder = new FrameDecoder(FrameFormat.LENGTH_PREFIXED, 1024);
+        List<byte[]> frames = new ArrayList<>();
+
+        FrameBuffer first = new FrameBuffer(FrameFormat.LENGTH_PREFIXED);
+        first.write("{\"a\":1}".getBytes(StandardCharsets.UTF_8));
+        FrameBuffer second = new FrameBuffer(FrameFormat.LENGTH_PREFIXED);
+        second.write("{\"b\":\"\n\"}".getBytes(StandardCharsets.UTF_8));
+        ByteBuffer input = ByteBuffer.allocate(64);
+        input.put(first.toByteBuffer()).put(second.toByteBuffer()).flip();
+
+        // 逐字节输入, 长度字段同样可以跨缓冲区.
+        while (input.hasRemaining()) {
+            decoder.decode(ByteBuffer.wrap(new byte[]{input.get()}), frames);
+        }
+        assertEquals(2, frames.size());
+        assertEquals("{\"a\":1}", new String(frames.get(0), StandardCharsets.UTF_8));
+        assertEquals("{\"b\":\"\n\"}", new String(frames.get(1), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void frameSizeLimitTest() {
+        FrameDecoder newlineDecoder = new FrameDecoder(FrameFormat.NEWLINE_DELIMITED, 4);
+        assertThrows(IOException.class, () -> newlineDecoder.decode(ascii("12345"), new ArrayList<>()));
+
+        FrameDecoder lengthDecoder = new FrameDecoder(FrameFormat.LENGTH_PREFIXED, 4);
+        assertThrows(IOException.class, () ->
+                lengthDecoder.decode(ByteBuffer.wrap(new byte[]{0, 0, 0, 5}), new ArrayList<>()));
+    }
+
+    private static ByteBuffer ascii(String value) {
+        return ByteBuffer.wrap(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
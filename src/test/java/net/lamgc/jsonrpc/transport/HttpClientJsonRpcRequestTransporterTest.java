@@ -0,0 +1,191 @@
+package net.lamgc.jsonrpc.transport;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonPrimitive;
+import com.sun.net.httpserver.HttpServer;
+import net.lamgc.jsonrpc.BatchingJsonRpcRequestTransporter;
+import net.lamgc.jsonrpc.JsonRpcProxyGenerator;
+import net.lamgc.jsonrpc.JsonRpcRequest;
+import net.lamgc.jsonrpc.JsonRpcResponse;
+import net.lamgc.jsonrpc.JsonRpcUtils;
+import net.lamgc.jsonrpc.SimpleJsonRpcExecutor;
+import net.lamgc.jsonrpc.codec.JsonRpcCodecs;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpClientJsonRpcRequestTransporterTest {
+
+    @Test
+    void transportTest() throws Exception {
+        try (HttpJsonRpcServer server = startServer(new TestingHandler())) {
+            HttpClientJsonRpcRequestTransporter transporter =
+                    HttpClientJsonRpcRequestTransporter.builder(uriOf(server)).build();
+
+            JsonRpcResponse response = transporter.transportRequest(
+                    new JsonRpcRequest("plus", params(1, 2), new JsonPrimitive("req")));
+            assertEquals(3, ((JsonElement) response.getResult()).getAsInt());
+            assertEquals(new JsonPrimitive("req"), response.getId());
+
+            // 通知没有响应.
+            assertNull(transporter.transportRequest(new JsonRpcRequest("plus", params(1, 2), null)));
+
+            List<JsonRpcResponse> responses = transporter.transportBatchAsync(Arrays.asList(
+                    new JsonRpcRequest("plus", params(1, 1), new JsonPrimitive(1)),
+                    new JsonRpcRequest("plus", params(2, 2), null),
+                    new JsonRpcRequest("plus", params(3, 3), new JsonPrimitive(3)))).get(10, TimeUnit.SECONDS);
+            assertEquals(2, responses.size());
+            assertEquals(2, ((JsonElement) responses.get(0).getResult()).getAsInt());
+            assertEquals(6, ((JsonElement) responses.get(1).getResult()).getAsInt());
+
+            TestingService service = JsonRpcProxyGenerator.createProxy(
+                    TestingService.class, transporter, JsonRpcUtils.createGsonForJsonRpc());
+            assertEquals(7, service.plus(3, 4));
+            assertEquals(9, service.plusAsync(4, 5).get(10, TimeUnit.SECONDS));
+
+            // 与自动合并请求的传输器配合使用.
+            BatchingJsonRpcRequestTransporter batching =
+                    new BatchingJsonRpcRequestTransporter(transporter, 8, 5, TimeUnit.MILLISECONDS);
+            TestingService batchingService = JsonRpcProxyGenerator.createProxy(
+                    TestingService.class, batching, JsonRpcUtils.createGsonForJsonRpc());
+            List<CompletableFuture<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                futures.add(batchingService.plusAsync(i, i));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                assertEquals(i * 2, futures.get(i).get(10, TimeUnit.SECONDS));
+            }
+        }
+    }
+
+    @Test
+    void codecTest() throws Exception {
+        try (HttpJsonRpcServer server = startServer(new TestingHandler())) {
+            HttpClientJsonRpcRequestTransporter transporter = HttpClientJsonRpcRequestTransporter.builder(uriOf(server))
+                    .codec(JsonRpcCodecs.CBOR)
+                    .build();
+            JsonRpcResponse response = transporter.transportRequest(
+                    new JsonRpcRequest("plus", params(1, 2), new JsonPrimitive("req")));
+            assertEquals(3, ((JsonElement) response.getResult()).getAsInt());
+            assertEquals(new JsonPrimitive("req"), response.getId());
+
+            List<JsonRpcResponse> responses = transporter.transportBatchAsync(Arrays.asList(
+                    new JsonRpcRequest("plus", params(1, 1), new JsonPrimitive(1)),
+                    new JsonRpcRequest("plus", params(3, 3), new JsonPrimitive(3)))).get(10, TimeUnit.SECONDS);
+            assertEquals(2, responses.size());
+            assertEquals(6, ((JsonElement) responses.get(1).getResult()).getAsInt());
+            assertNull(transporter.transportRequest(new JsonRpcRequest("plus", params(1, 2), null)));
+        }
+    }
+
+    @Test
+    void maxConcurrentRequestsTest() throws Exception {
+        TestingHandler handler = new TestingHandler();
+        try (HttpJsonRpcServer server = startServer(handler)) {
+            HttpClientJsonRpcRequestTransporter transporter = HttpClientJsonRpcRequestTransporter.builder(uriOf(server))
+                    .maxConcurrentRequests(2)
+                    .build();
+            List<CompletableFuture<JsonRpcResponse>> futures = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                futures.add(transporter.transportRequestAsync(
+                        new JsonRpcRequest("slowPlus", params(i, 1), new JsonPrimitive(i))));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                assertEquals(i + 1, ((JsonElement) futures.get(i).get(10, TimeUnit.SECONDS).getResult()).getAsInt());
+            }
+            assertTrue(handler.maxConcurrency.get() <= 2);
+            assertEquals(0, transporter.getActiveRequestCount());
+        }
+    }
+
+    @Test
+    void httpStatusTest() throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            exchange.sendResponseHeaders(500, -1);
+            exchange.close();
+        });
+        server.start();
+        try {
+            HttpClientJsonRpcRequestTransporter transporter = HttpClientJsonRpcRequestTransporter.builder(
+                    URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/")).build();
+            ExecutionException exception = assertThrows(ExecutionException.class, () -> transporter
+                    .transportRequestAsync(new JsonRpcRequest("plus", params(1, 2), new JsonPrimitive(1)))
+                    .get(10, TimeUnit.SECONDS));
+            assertTrue(exception.getCause() instanceof HttpClientJsonRpcRequestTransporter.HttpStatusException);
+            assertEquals(500, ((HttpClientJsonRpcRequestTransporter.HttpStatusException) exception.getCause())
+                    .getStatusCode());
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    private static HttpJsonRpcServer startServer(TestingHandler handler) throws IOException {
+        HttpJsonRpcServer server = HttpJsonRpcServer.builder(
+                        new SimpleJsonRpcExecutor(handler, JsonRpcUtils.createGsonForJsonRpc()))
+                .bind(new InetSocketAddress("127.0.0.1", 0))
+                .workerThreads(8)
+                .stopDelay(0)
+                .build();
+        server.start();
+        return server;
+    }
+
+    private static URI uriOf(HttpJsonRpcServer server) {
+        return URI.create("http://127.0.0.1:" + server.getLocalAddress().getPort() + "/");
+    }
+
+    private static JsonArray params(int n1, int n2) {
+        JsonArray params = new JsonArray();
+        params.add(n1);
+        params.add(n2);
+        return params;
+    }
+
+    public interface TestingService {
+
+        int plus(int n1, int n2);
+
+        CompletableFuture<Integer> plusAsync(int n1, int n2);
+
+    }
+
+    public static class TestingHandler {
+
+        private final AtomicInteger concurrency = new AtomicInteger();
+        private final AtomicInteger maxConcurrency = new AtomicInteger();
+
+        public int plus(int n1, int n2) {
+            return n1 + n2;
+        }
+
+        public int plusAsync(int n1, int n2) {
+            return n1 + n2;
+        }
+
+        public int slowPlus(int n1, int n2) throws InterruptedException {
+            int current = concurrency.incrementAndGet();
+            maxConcurrency.accumulateAndGet(current, Math::max);
+            try {
+                Thread.sleep(10);
+                return n1 + n2;
+            } finally {
+                concurrency.decrementAndGet();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,207 @@
+package net.lamgc.jsonrpc.transport;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonSerializer;
+import net.lamgc.jsonrpc.JsonRpcErrors;
+import net.lamgc.jsonrpc.JsonRpcUtils;
+import net.lamgc.jsonrpc.SimpleJsonRpcExecutor;
+import net.lamgc.jsonrpc.VirtualThreads;
+import net.lamgc.jsonrpc.codec.JsonRpcCodecs;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpJsonRpcServerTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void requestTest() throws IOException, InterruptedException {
+        TestingHandler handler = new TestingHandler();
+        try (HttpJsonRpcServer server = HttpJsonRpcServer.builder(
+                new SimpleJsonRpcExecutor(handler, JsonRpcUtils.createGsonForJsonRpc())).path("/rpc").build()) {
+            server.start();
+            URI uri = URI.create("http://127.0.0.1:" + server.getLocalAddress().getPort() + "/rpc");
+
+            HttpResponse<String> response = post(uri, "{\"jsonrpc\":\"2.0\",\"method\":\"plus\",\"params\":[1,2],\"id\":1}");
+            assertEquals(200, response.statusCode());
+            assertTrue(response.headers().firstValue("Content-Type").orElse("").startsWith("application/json"));
+            JsonObject result = JsonParser.parseString(response.body()).getAsJsonObject();
+            assertEquals(3, result.get("result").getAsInt());
+            assertEquals(1, result.get("id").getAsInt());
+
+            // 批量请求中的通知没有响应.
+            response = post(uri, " [{\"jsonrpc\":\"2.0\",\"method\":\"plus\",\"params\":[2,3],\"id\":2},"
+                    + "{\"jsonrpc\":\"2.0\",\"method\":\"count\"},"
+                    + "{\"jsonrpc\":\"2.0\",\"method\":\"plus\",\"params\":[3,4],\"id\":3}]");
+            assertEquals(200, response.statusCode());
+            JsonArray batch = JsonParser.parseString(response.body()).getAsJsonArray();
+            assertEquals(2, batch.size());
+            assertEquals(5, batch.get(0).getAsJsonObject().get("result").getAsInt());
+            assertEquals(7, batch.get(1).getAsJsonObject().get("result").getAsInt());
+            assertEquals(1, handler.counter.get());
+
+            // 通知返回 204.
+            response = post(uri, "{\"jsonrpc\":\"2.0\",\"method\":\"count\"}");
+            assertEquals(204, response.statusCode());
+            response = post(uri, "[{\"jsonrpc\":\"2.0\",\"method\":\"count\"}]");
+            assertEquals(204, response.statusCode());
+
+            // 无法解析的报文依然会得到错误响应.
+            response = post(uri, "{");
+            assertEquals(200, response.statusCode());
+            assertEquals(JsonRpcErrors.PARSE_ERROR.code, JsonParser.parseString(response.body())
+                    .getAsJsonObject().getAsJsonObject("error").get("code").getAsInt());
+
+            response = client.send(HttpRequest.newBuilder(uri).GET().build(), HttpResponse.BodyHandlers.ofString());
+            assertEquals(405, response.statusCode());
+        }
+    }
+
+    @Test
+    void codecNegotiationTest() throws IOException, InterruptedException {
+        try (HttpJsonRpcServer server = HttpJsonRpcServer.builder(
+                new SimpleJsonRpcExecutor(new TestingHandler(), JsonRpcUtils.createGsonForJsonRpc())).build()) {
+            server.start();
+            URI uri = URI.create("http://127.0.0.1:" + server.getLocalAddress().getPort() + "/");
+
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            JsonRpcCodecs.CBOR.encode(JsonParser.parseString(
+                    "{\"jsonrpc\":\"2.0\",\"method\":\"plus\",\"params\":[1,2],\"id\":1}"), body);
+            HttpResponse<byte[]> response = client.send(HttpRequest.newBuilder(uri)
+                    .header("Content-Type", "application/cbor")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()))
+                    .build(), HttpResponse.BodyHandlers.ofByteArray());
+            assertEquals(200, response.statusCode());
+            assertEquals("application/cbor", response.headers().firstValue("Content-Type").orElse(null));
+            JsonObject result = JsonRpcCodecs.CBOR.decode(new ByteArrayInputStream(response.body())).getAsJsonObject();
+            assertEquals(3, result.get("result").getAsInt());
+            assertEquals(1, result.get("id").getAsInt());
+
+            // 无法解码的报文将以相同的编码格式返回错误响应.
+            response = client.send(HttpRequest.newBuilder(uri)
+                    .header("Content-Type", "application/cbor")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(new byte[]{(byte) 0xA1, 0x01}))
+                    .build(), HttpResponse.BodyHandlers.ofByteArray());
+            assertEquals(200, response.statusCode());
+            result = JsonRpcCodecs.CBOR.decode(new ByteArrayInputStream(response.body())).getAsJsonObject();
+            assertEquals(JsonRpcErrors.PARSE_ERROR.code, result.getAsJsonObject("error").get("code").getAsInt());
+
+            // 不支持的编码格式.
+            HttpResponse<String> unsupported = client.send(HttpRequest.newBuilder(uri)
+                    .header("Content-Type", "text/xml")
+                    .POST(HttpRequest.BodyPublishers.ofString("<call/>"))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            assertEquals(415, unsupported.statusCode());
+        }
+    }
+
+    @Test
+    void customExecutorTest() throws IOException, InterruptedException {
+        ExecutorService executorService =
+                VirtualThreads.newVirtualThreadPerTaskExecutor(Executors::newCachedThreadPool);
+        try (HttpJsonRpcServer server = HttpJsonRpcServer.builder(
+                        new SimpleJsonRpcExecutor(new TestingHandler(), JsonRpcUtils.createGsonForJsonRpc()))
+                .executor(executorService)
+                .build()) {
+            server.start();
+            URI uri = URI.create("http://127.0.0.1:" + server.getLocalAddress().getPort() + "/");
+            for (int i = 0; i < 10; i++) {
+                HttpResponse<String> response = post(uri,
+                        "{\"jsonrpc\":\"2.0\",\"method\":\"plus\",\"params\":[" + i + ",1],\"id\":" + i + "}");
+                assertEquals(i + 1, JsonParser.parseString(response.body()).getAsJsonObject().get("result").getAsInt());
+            }
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    void returnValueFailureTest() throws IOException, InterruptedException {
+        Gson gson = JsonRpcUtils.createGsonForJsonRpc().newBuilder()
+                .registerTypeAdapter(Unserializable.class, (JsonSerializer<Unserializable>) (src, type, context) -> {
+                    throw new IllegalStateException("Unserializable");
+                })
+                .create();
+        try (HttpJsonRpcServer server = HttpJsonRpcServer.builder(
+                new SimpleJsonRpcExecutor(new TestingHandler(), gson)).build()) {
+            server.start();
+            URI uri = URI.create("http://127.0.0.1:" + server.getLocalAddress().getPort() + "/");
+
+            // 返回值序列化失败时, 依然会得到带有请求 id 的完整错误响应, 而不是被截断的响应体.
+            HttpResponse<String> response = post(uri, "{\"jsonrpc\":\"2.0\",\"method\":\"broken\",\"id\":\"req1\"}");
+            assertEquals(200, response.statusCode());
+            JsonObject result = JsonParser.parseString(response.body()).getAsJsonObject();
+            assertFalse(result.has("result"));
+            assertEquals(JsonRpcErrors.CONVERT_RETURN_VALUE_FAILURE.code,
+                    result.getAsJsonObject("error").get("code").getAsInt());
+            assertEquals("req1", result.get("id").getAsString());
+
+            // 批量请求中的其他请求不受影响.
+            response = post(uri, "[{\"jsonrpc\":\"2.0\",\"method\":\"broken\",\"id\":1},"
+                    + "{\"jsonrpc\":\"2.0\",\"method\":\"plus\",\"params\":[1,2],\"id\":2}]");
+            JsonArray batch = JsonParser.parseString(response.body()).getAsJsonArray();
+            assertEquals(2, batch.size());
+            assertEquals(JsonRpcErrors.CONVERT_RETURN_VALUE_FAILURE.code,
+                    batch.get(0).getAsJsonObject().getAsJsonObject("error").get("code").getAsInt());
+            assertEquals(3, batch.get(1).getAsJsonObject().get("result").getAsInt());
+
+            // 连接可以继续用于后续请求.
+            response = post(uri, "{\"jsonrpc\":\"2.0\",\"method\":\"plus\",\"params\":[1,2],\"id\":3}");
+            assertEquals(3, JsonParser.parseString(response.body()).getAsJsonObject().get("result").getAsInt());
+        }
+    }
+
+    private HttpResponse<String> post(URI uri, String body) throws IOException, InterruptedException {
+        return client.send(HttpRequest.newBuilder(uri)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    public static class TestingHandler {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        public int plus(int n1, int n2) {
+            return n1 + n2;
+        }
+
+        public void count() {
+            counter.incrementAndGet();
+        }
+
+        public BrokenResult broken() {
+            return new BrokenResult();
+        }
+
+    }
+
+    /**
+     * 序列化到一半时才会失败的返回值, 失败前 name 字段已经写出.
+     */
+    public static class BrokenResult {
+
+        private final String name = "broken";
+        private final Unserializable value = new Unserializable();
+
+    }
+
+    public static class Unserializable {
+    }
+
+}
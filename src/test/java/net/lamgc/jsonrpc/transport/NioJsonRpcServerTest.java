@@ -0,0 +1,229 @@
+package net.lamgc.jsonrpc.transport;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonSerializer;
+import net.lamgc.jsonrpc.JsonRpcErrors;
+import net.lamgc.jsonrpc.JsonRpcUtils;
+import net.lamgc.jsonrpc.SimpleJsonRpcExecutor;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NioJsonRpcServerTest {
+
+    @Test
+    void newlineDelimitedTest() throws IOException {
+        TestingHandler handler = new TestingHandler();
+        try (NioJsonRpcServer server = NioJsonRpcServer.builder(
+                new SimpleJsonRpcExecutor(handler, JsonRpcUtils.createGsonForJsonRpc())).build()) {
+            server.start();
+            try (Socket socket = new Socket("127.0.0.1", server.getLocalAddress().getPort())) {
+                OutputStream out = socket.getOutputStream();
+                BufferedReader reader = new BufferedReader(
+                        new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+
+                out.write(("{\"jsonrpc\":\"2.0\",\"method\":\"plus\",\"params\":[1,2],\"id\":1}\n").getBytes(StandardCharsets.UTF_8));
+                out.flush();
+                JsonObject response = JsonParser.parseString(reader.readLine()).getAsJsonObject();
+                assertEquals(3, response.get("result").getAsInt());
+                assertEquals(1, response.get("id").getAsInt());
+
+                // 通知不会产生响应, 紧随其后的批量请求中的通知也不会.
+                out.write(("{\"jsonrpc\":\"2.0\",\"method\":\"count\"}\n"
+                        + "[{\"jsonrpc\":\"2.0\",\"method\":\"plus\",\"params\":[2,3],\"id\":2},"
+                        + "{\"jsonrpc\":\"2.0\",\"method\":\"count\"},"
+                        + "{\"jsonrpc\":\"2.0\",\"method\":\"plus\",\"params\":[3,4],\"id\":3}]\n")
+                        .getBytes(StandardCharsets.UTF_8));
+                out.flush();
+                JsonArray batch = JsonParser.parseString(reader.readLine()).getAsJsonArray();
+                assertEquals(2, batch.size());
+                assertEquals(5, batch.get(0).getAsJsonObject().get("result").getAsInt());
+                assertEquals(7, batch.get(1).getAsJsonObject().get("result").getAsInt());
+                assertTrue(handler.counter.get() >= 1);
+
+                // 空的批量请求和无法解析的报文.
+                out.write("[]\n[{\n".getBytes(StandardCharsets.UTF_8));
+                out.flush();
+                JsonObject emptyBatch = JsonParser.parseString(reader.readLine()).getAsJsonObject();
+                assertEquals(JsonRpcErrors.INVALID_REQUEST.code,
+                        emptyBatch.getAsJsonObject("error").get("code").getAsInt());
+                JsonObject parseError = JsonParser.parseString(reader.readLine()).getAsJsonObject();
+                assertEquals(JsonRpcErrors.PARSE_ERROR.code,
+                        parseError.getAsJsonObject("error").get("code").getAsInt());
+            }
+        }
+    }
+
+    @Test
+    void outOfOrderResponseTest() throws IOException, InterruptedException {
+        TestingHandler handler = new TestingHandler();
+        try (NioJsonRpcServer server = NioJsonRpcServer.builder(
+                        new SimpleJsonRpcExecutor(handler, JsonRpcUtils.createGsonForJsonRpc()))
+                .frameFormat(FrameFormat.LENGTH_PREFIXED)
+                .workerThreads(2)
+                .build()) {
+            server.start();
+            try (Socket socket = new Socket("127.0.0.1", server.getLocalAddress().getPort())) {
+                DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+                DataInputStream in = new DataInputStream(socket.getInputStream());
+
+                writeFrame(out, "{\"jsonrpc\":\"2.0\",\"method\":\"await\",\"id\":\"slow\"}");
+                writeFrame(out, "{\"jsonrpc\":\"2.0\",\"method\":\"plus\",\"params\":[1,1],\"id\":\"fast\"}");
+
+                // 第一个请求阻塞时, 第二个请求的响应先写回.
+                assertEquals("fast", readFrame(in).getAsJsonObject().get("id").getAsString());
+                handler.latch.countDown();
+                assertEquals("slow", readFrame(in).getAsJsonObject().get("id").getAsString());
+            }
+        }
+    }
+
+    @Test
+    void multipleConnectionsTest() throws IOException, InterruptedException {
+        TestingHandler handler = new TestingHandler();
+        try (NioJsonRpcServer server = NioJsonRpcServer.builder(
+                        new SimpleJsonRpcExecutor(handler, JsonRpcUtils.createGsonForJsonRpc()))
+                .maxInFlightRequests(1)
+                .build()) {
+            server.start();
+            Socket[] sockets = new Socket[4];
+            try {
+                for (int i = 0; i < sockets.length; i++) {
+                    sockets[i] = new Socket("127.0.0.1", server.getLocalAddress().getPort());
+                    StringBuilder builder = new StringBuilder();
+                    for (int j = 0; j < 100; j++) {
+                        builder.append("{\"jsonrpc\":\"2.0\",\"method\":\"plus\",\"params\":[")
+                                .append(i).append(',').append(j).append("],\"id\":").append(j).append("}\n");
+                    }
+                    sockets[i].getOutputStream().write(builder.toString().getBytes(StandardCharsets.UTF_8));
+                }
+                for (int i = 0; i < sockets.length; i++) {
+                    BufferedReader reader = new BufferedReader(
+                            new InputStreamReader(sockets[i].getInputStream(), StandardCharsets.UTF_8));
+                    Set<Integer> ids = new HashSet<>();
+                    for (int j = 0; j < 100; j++) {
+                        JsonObject response = JsonParser.parseString(reader.readLine()).getAsJsonObject();
+                        int id = response.get("id").getAsInt();
+                        assertEquals(i + id, response.get("result").getAsInt());
+                        ids.add(id);
+                    }
+                    assertEquals(100, ids.size());
+                }
+                assertEquals(sockets.length, server.getConnectionCount());
+            } finally {
+                for (Socket socket : sockets) {
+                    if (socket != null) {
+                        socket.close();
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void returnValueFailureTest() throws IOException {
+        Gson gson = JsonRpcUtils.createGsonForJsonRpc().newBuilder()
+                .registerTypeAdapter(Unserializable.class, (JsonSerializer<Unserializable>) (src, type, context) -> {
+                    throw new IllegalStateException("Unserializable");
+                })
+                .create();
+        try (NioJsonRpcServer server = NioJsonRpcServer.builder(
+                new SimpleJsonRpcExecutor(new TestingHandler(), gson)).build()) {
+            server.start();
+            try (Socket socket = new Socket("127.0.0.1", server.getLocalAddress().getPort())) {
+                socket.setSoTimeout(10000);
+                OutputStream out = socket.getOutputStream();
+                BufferedReader reader = new BufferedReader(
+                        new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+
+                // 流水线发送的请求中, 返回值序列化失败的请求依然会得到带有请求 id 的错误响应.
+                out.write(("{\"jsonrpc\":\"2.0\",\"method\":\"broken\",\"id\":1}\n"
+                        + "{\"jsonrpc\":\"2.0\",\"method\":\"plus\",\"params\":[1,2],\"id\":2}\n")
+                        .getBytes(StandardCharsets.UTF_8));
+                out.flush();
+                Set<Integer> ids = new HashSet<>();
+                for (int i = 0; i < 2; i++) {
+                    JsonObject response = JsonParser.parseString(reader.readLine()).getAsJsonObject();
+                    int id = response.get("id").getAsInt();
+                    ids.add(id);
+                    if (id == 1) {
+                        assertFalse(response.has("result"));
+                        assertEquals(JsonRpcErrors.CONVERT_RETURN_VALUE_FAILURE.code,
+                                response.getAsJsonObject("error").get("code").getAsInt());
+                    } else {
+                        assertEquals(3, response.get("result").getAsInt());
+                    }
+                }
+                assertEquals(Set.of(1, 2), ids);
+            }
+        }
+    }
+
+    private static void writeFrame(DataOutputStream out, String frame) throws IOException {
+        byte[] data = frame.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(data.length);
+        out.write(data);
+        out.flush();
+    }
+
+    private static JsonElement readFrame(DataInputStream in) throws IOException {
+        byte[] data = new byte[in.readInt()];
+        in.readFully(data);
+        return JsonParser.parseString(new String(data, StandardCharsets.UTF_8));
+    }
+
+    public static class TestingHandler {
+
+        private final AtomicInteger counter = new AtomicInteger();
+        private final CountDownLatch latch = new CountDownLatch(1);
+
+        public int plus(int n1, int n2) {
+            return n1 + n2;
+        }
+
+        public void count() {
+            counter.incrementAndGet();
+        }
+
+        public BrokenResult broken() {
+            return new BrokenResult();
+        }
+
+        public boolean await() throws InterruptedException {
+            return latch.await(10, TimeUnit.SECONDS);
+        }
+
+    }
+
+    /**
+     * 序列化到一半时才会失败的返回值, 失败前 name 字段已经写出.
+     */
+    public static class BrokenResult {
+
+        private final String name = "broken";
+        private final Unserializable value = new Unserializable();
+
+    }
+
+    public static class Unserializable {
+    }
+
+}
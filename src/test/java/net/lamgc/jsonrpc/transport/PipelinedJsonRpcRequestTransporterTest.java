@@ -0,0 +1,215 @@
+package net.lamgc.jsonrpc.transport;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonPrimitive;
+import net.lamgc.jsonrpc.BatchingJsonRpcRequestTransporter;
+import net.lamgc.jsonrpc.JsonRpcProxyGenerator;
+import net.lamgc.jsonrpc.JsonRpcRequest;
+import net.lamgc.jsonrpc.JsonRpcResponse;
+import net.lamgc.jsonrpc.JsonRpcUtils;
+import net.lamgc.jsonrpc.SimpleJsonRpcExecutor;
+import net.lamgc.jsonrpc.codec.JsonRpcCodecs;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PipelinedJsonRpcRequestTransporterTest {
+
+    @Test
+    void pipelineTest() throws Exception {
+        TestingHandler handler = new TestingHandler();
+        try (NioJsonRpcServer server = startServer(handler, FrameFormat.NEWLINE_DELIMITED);
+             PipelinedJsonRpcRequestTransporter transporter =
+                     PipelinedJsonRpcRequestTransporter.builder(server.getLocalAddress()).connect()) {
+            // 阻塞的请求不会影响之后的请求.
+            CompletableFuture<JsonRpcResponse> slow =
+                    transporter.transportRequestAsync(new JsonRpcRequest("await", null, new JsonPrimitive("slow")));
+
+            // 调用方使用的 id 可以重复, 响应依然以原请求的 id 返回.
+            List<CompletableFuture<JsonRpcResponse>> futures = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                futures.add(transporter.transportRequestAsync(
+                        new JsonRpcRequest("plus", params(i, i), new JsonPrimitive(i % 2))));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                JsonRpcResponse response = futures.get(i).get(10, TimeUnit.SECONDS);
+                assertEquals(i * 2, ((JsonElement) response.getResult()).getAsInt());
+                assertEquals(new JsonPrimitive(i % 2), response.getId());
+            }
+            assertFalse(slow.isDone());
+
+            handler.latch.countDown();
+            JsonRpcResponse response = slow.get(10, TimeUnit.SECONDS);
+            assertTrue(((JsonElement) response.getResult()).getAsBoolean());
+            assertEquals(new JsonPrimitive("slow"), response.getId());
+            assertEquals(0, transporter.getPendingRequestCount());
+
+            // 通知不会有响应.
+            assertNull(transporter.transportRequestAsync(new JsonRpcRequest("plus", params(1, 1), null)).join());
+        }
+    }
+
+    @Test
+    void proxyTest() throws Exception {
+        try (NioJsonRpcServer server = startServer(new TestingHandler(), FrameFormat.LENGTH_PREFIXED);
+             PipelinedJsonRpcRequestTransporter transporter =
+                     PipelinedJsonRpcRequestTransporter.builder(server.getLocalAddress())
+                             .frameFormat(FrameFormat.LENGTH_PREFIXED)
+                             .connect()) {
+            TestingService service = JsonRpcProxyGenerator.createProxy(
+                    TestingService.class, transporter, JsonRpcUtils.createGsonForJsonRpc());
+            assertEquals(3, service.plus(1, 2));
+            assertEquals(7, service.plusAsync(3, 4).get(10, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void codecTest() throws Exception {
+        TestingHandler handler = new TestingHandler();
+        try (NioJsonRpcServer server = NioJsonRpcServer.builder(
+                        new SimpleJsonRpcExecutor(handler, JsonRpcUtils.createGsonForJsonRpc()))
+                .frameFormat(FrameFormat.LENGTH_PREFIXED)
+                .codec(JsonRpcCodecs.CBOR)
+                .build()) {
+            server.start();
+            try (PipelinedJsonRpcRequestTransporter transporter =
+                         PipelinedJsonRpcRequestTransporter.builder(server.getLocalAddress())
+                                 .frameFormat(FrameFormat.LENGTH_PREFIXED)
+                                 .codec(JsonRpcCodecs.CBOR)
+                                 .connect()) {
+                TestingService service = JsonRpcProxyGenerator.createProxy(
+                        TestingService.class, transporter, JsonRpcUtils.createGsonForJsonRpc());
+                assertEquals(3, service.plus(1, 2));
+
+                List<JsonRpcResponse> responses = transporter.transportBatchAsync(List.of(
+                        new JsonRpcRequest("plus", params(1, 1), new JsonPrimitive("a")),
+                        new JsonRpcRequest("plus", params(2, 2), new JsonPrimitive("b")))).get(10, TimeUnit.SECONDS);
+                assertEquals(2, ((JsonElement) responses.get(0).getResult()).getAsInt());
+                assertEquals(new JsonPrimitive("a"), responses.get(0).getId());
+                assertEquals(4, ((JsonElement) responses.get(1).getResult()).getAsInt());
+            }
+        }
+
+        // 二进制编码格式不能按换行符分帧.
+        assertThrows(IllegalStateException.class, () -> NioJsonRpcServer.builder(
+                new SimpleJsonRpcExecutor(handler, JsonRpcUtils.createGsonForJsonRpc())).codec(JsonRpcCodecs.CBOR).build());
+        assertThrows(IllegalStateException.class, () -> PipelinedJsonRpcRequestTransporter.builder(
+                new InetSocketAddress("127.0.0.1", 1)).codec(JsonRpcCodecs.CBOR).connect());
+    }
+
+    @Test
+    void batchingTest() throws Exception {
+        try (NioJsonRpcServer server = startServer(new TestingHandler(), FrameFormat.NEWLINE_DELIMITED);
+             PipelinedJsonRpcRequestTransporter transporter =
+                     PipelinedJsonRpcRequestTransporter.builder(server.getLocalAddress()).connect();
+             BatchingJsonRpcRequestTransporter batching =
+                     new BatchingJsonRpcRequestTransporter(transporter, 16, 5, TimeUnit.MILLISECONDS)) {
+            TestingService service = JsonRpcProxyGenerator.createProxy(
+                    TestingService.class, batching, JsonRpcUtils.createGsonForJsonRpc());
+            List<CompletableFuture<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                futures.add(service.plusAsync(i, 1));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                assertEquals(i + 1, futures.get(i).get(10, TimeUnit.SECONDS));
+            }
+            assertEquals(0, transporter.getPendingRequestCount());
+        }
+    }
+
+    @Test
+    void timeoutTest() throws Exception {
+        TestingHandler handler = new TestingHandler();
+        try (NioJsonRpcServer server = startServer(handler, FrameFormat.NEWLINE_DELIMITED);
+             PipelinedJsonRpcRequestTransporter transporter =
+                     PipelinedJsonRpcRequestTransporter.builder(server.getLocalAddress())
+                             .requestTimeout(100, TimeUnit.MILLISECONDS)
+                             .connect()) {
+            CompletableFuture<JsonRpcResponse> future =
+                    transporter.transportRequestAsync(new JsonRpcRequest("await", null, new JsonPrimitive(1)));
+            ExecutionException exception = assertThrows(ExecutionException.class, () -> future.get(10, TimeUnit.SECONDS));
+            assertTrue(exception.getCause() instanceof TimeoutException);
+            assertEquals(0, transporter.getPendingRequestCount());
+
+            // 超时后迟到的响应将被丢弃, 连接依然可用.
+            handler.latch.countDown();
+            JsonRpcResponse response = transporter.transportRequestAsync(
+                    new JsonRpcRequest("plus", params(1, 2), new JsonPrimitive(2))).get(10, TimeUnit.SECONDS);
+            assertEquals(3, ((JsonElement) response.getResult()).getAsInt());
+        }
+    }
+
+    @Test
+    void closeTest() throws Exception {
+        TestingHandler handler = new TestingHandler();
+        try (NioJsonRpcServer server = startServer(handler, FrameFormat.NEWLINE_DELIMITED)) {
+            PipelinedJsonRpcRequestTransporter transporter =
+                    PipelinedJsonRpcRequestTransporter.builder(server.getLocalAddress()).connect();
+            CompletableFuture<JsonRpcResponse> future =
+                    transporter.transportRequestAsync(new JsonRpcRequest("await", null, new JsonPrimitive(1)));
+            transporter.close();
+            assertFalse(transporter.isOpen());
+
+            ExecutionException exception = assertThrows(ExecutionException.class, () -> future.get(10, TimeUnit.SECONDS));
+            assertTrue(exception.getCause() instanceof IOException);
+            assertThrows(IOException.class, () ->
+                    transporter.transportRequest(new JsonRpcRequest("plus", params(1, 2), new JsonPrimitive(2))));
+            handler.latch.countDown();
+        }
+    }
+
+    private static NioJsonRpcServer startServer(TestingHandler handler, FrameFormat format) throws IOException {
+        NioJsonRpcServer server = NioJsonRpcServer.builder(
+                        new SimpleJsonRpcExecutor(handler, JsonRpcUtils.createGsonForJsonRpc()))
+                .frameFormat(format)
+                .workerThreads(4)
+                .build();
+        server.start();
+        return server;
+    }
+
+    private static JsonArray params(int n1, int n2) {
+        JsonArray params = new JsonArray();
+        params.add(n1);
+        params.add(n2);
+        return params;
+    }
+
+    public interface TestingService {
+
+        int plus(int n1, int n2);
+
+        CompletableFuture<Integer> plusAsync(int n1, int n2);
+
+    }
+
+    public static class TestingHandler {
+
+        private final CountDownLatch latch = new CountDownLatch(1);
+
+        public int plus(int n1, int n2) {
+            return n1 + n2;
+        }
+
+        public int plusAsync(int n1, int n2) {
+            return n1 + n2;
+        }
+
+        public boolean await() throws InterruptedException {
+            return latch.await(10, TimeUnit.SECONDS);
+        }
+
+    }
+
+}